@@ -0,0 +1,303 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.DefaultRetryCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
+import com.microsoft.azure.storage.blob.BlockSearchMode;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+/**
+ * Upload block blob with concurrent Put Block requests committed with Put Block List. Blocks are named by their index
+ * and uncommitted blocks of a previous attempt with matching size are skipped when resuming.
+ */
+public class AzureLargeUploadService implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(AzureLargeUploadService.class);
+
+    /**
+     * The maximum number of blocks in a block blob
+     */
+    public static final int MAXIMUM_UPLOAD_PARTS = 50000;
+
+    private final Preferences preferences = PreferencesFactory.get();
+
+    private final PathContainerService containerService
+        = new AzurePathContainerService();
+
+    private final AzureSession session;
+    private final OperationContext context;
+
+    private final Long partSize;
+    private final Integer concurrency;
+
+    private Write<Void> writer;
+
+    public AzureLargeUploadService(final AzureSession session, final OperationContext context, final Write<Void> writer) {
+        this(session, context, writer, PreferencesFactory.get().getLong("azure.upload.largeobject.size"),
+            PreferencesFactory.get().getInteger("azure.upload.largeobject.concurrency"));
+    }
+
+    public AzureLargeUploadService(final AzureSession session, final OperationContext context, final Write<Void> writer,
+                                   final Long partSize, final Integer concurrency) {
+        this.session = session;
+        this.context = context;
+        this.writer = writer;
+        this.partSize = partSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return Size of uncommitted blocks from previous upload attempt in sequence from the beginning of the file
+     */
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        final Map<String, Long> uncommitted = this.uncommitted(file);
+        if(uncommitted.isEmpty()) {
+            return writer.append(file, length, cache);
+        }
+        final long size = this.getPartSize(length);
+        long offset = 0L;
+        for(int partNumber = 1; offset < length; partNumber++) {
+            final long expected = Math.min(size, length - offset);
+            if(!Long.valueOf(expected).equals(uncommitted.get(toBlockId(partNumber)))) {
+                break;
+            }
+            offset += expected;
+        }
+        if(0L == offset) {
+            return writer.append(file, length, cache);
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Resume upload of %s from uncommitted blocks with size %d", file, offset));
+        }
+        return new Write.Append(offset);
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final ThreadPool pool = ThreadPoolFactory.get("largeupload", concurrency);
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            final Map<String, Long> uncommitted = status.isAppend() ? this.uncommitted(file) : new HashMap<>();
+            // Full size of file
+            final long size = status.getLength() + status.getOffset();
+            final long length = this.getPartSize(size);
+            final List<BlockEntry> blocks = new ArrayList<>();
+            final List<Future<Void>> parts = new ArrayList<>();
+            long offset = 0L;
+            for(int partNumber = 1; offset < size; partNumber++) {
+                final long remaining = Math.min(length, size - offset);
+                final String id = toBlockId(partNumber);
+                blocks.add(new BlockEntry(id, BlockSearchMode.UNCOMMITTED));
+                if(Long.valueOf(remaining).equals(uncommitted.get(id))) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Skip uncommitted block %d of %s", partNumber, file));
+                    }
+                    if(offset >= status.getOffset()) {
+                        // Not included in offset of resumed transfer
+                        status.progress(remaining);
+                    }
+                }
+                else {
+                    parts.add(this.submit(pool, blob, file, local, throttle, listener, status, partNumber, offset, remaining));
+                }
+                offset += remaining;
+            }
+            try {
+                for(Future<Void> f : parts) {
+                    f.get();
+                }
+            }
+            catch(InterruptedException e) {
+                log.error("Part upload failed with interrupt failure");
+                status.setCanceled();
+                throw new ConnectionCanceledException(e);
+            }
+            catch(ExecutionException e) {
+                log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+                if(e.getCause() instanceof BackgroundException) {
+                    throw (BackgroundException) e.getCause();
+                }
+                throw new DefaultExceptionMappingService().map(e.getCause());
+            }
+            if(status.isExists()) {
+                if(preferences.getBoolean("azure.upload.snapshot")) {
+                    session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                        .getBlobReferenceFromServer(containerService.getKey(file)).createSnapshot();
+                }
+            }
+            final HashMap<String, String> headers = new HashMap<>(status.getMetadata());
+            if(headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+                blob.getProperties().setCacheControl(headers.remove(HttpHeaders.CACHE_CONTROL));
+            }
+            if(headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+                blob.getProperties().setContentType(headers.remove(HttpHeaders.CONTENT_TYPE));
+            }
+            if(StringUtils.isNotBlank(status.getMime())) {
+                blob.getProperties().setContentType(status.getMime());
+            }
+            blob.setMetadata(headers);
+            blob.commitBlockList(blocks, AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Committed block list for %s with %d blocks", file, blocks.size()));
+            }
+            // Mark parent status as complete
+            status.setComplete();
+            return null;
+        }
+        catch(StorageException e) {
+            throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    private Future<Void> submit(final ThreadPool pool, final CloudBlockBlob blob, final Path file, final Local local,
+                                final BandwidthThrottle throttle, final StreamListener listener,
+                                final TransferStatus overall, final int partNumber, final long offset, final long length) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit block %d of %s to queue with offset %d and length %d", partNumber, file, offset, length));
+        }
+        return pool.execute(new DefaultRetryCallable<Void>(session.getHost(), new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                overall.validate();
+                final byte[] buffer = new byte[(int) length];
+                final InputStream in = new ThrottledInputStream(StreamCopier.skip(local.getInputStream(), offset), throttle);
+                try {
+                    IOUtils.readFully(in, buffer);
+                    overall.validate();
+                    // Markable stream allows retry by client without buffering
+                    blob.uploadBlock(toBlockId(partNumber), new ByteArrayInputStream(buffer), length,
+                        AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+                    listener.recv(length);
+                    listener.sent(length);
+                    overall.progress(length);
+                    return null;
+                }
+                catch(StorageException e) {
+                    throw new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
+                }
+                finally {
+                    IOUtils.closeQuietly(in);
+                }
+            }
+        }, overall));
+    }
+
+    /**
+     * @param size Size of file
+     * @return Block size to stay within maximum number of blocks
+     */
+    protected long getPartSize(final long size) {
+        return Math.max(partSize, (size + MAXIMUM_UPLOAD_PARTS - 1) / MAXIMUM_UPLOAD_PARTS);
+    }
+
+    /**
+     * @return Size of uncommitted blocks by identifier
+     */
+    protected Map<String, Long> uncommitted(final Path file) throws BackgroundException {
+        final Map<String, Long> blocks = new HashMap<>();
+        try {
+            final CloudBlockBlob blob = session.getClient().getContainerReference(containerService.getContainer(file).getName())
+                .getBlockBlobReference(containerService.getKey(file));
+            for(BlockEntry entry : blob.downloadBlockList(BlockListingFilter.UNCOMMITTED,
+                AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context)) {
+                blocks.put(entry.getId(), entry.getSize());
+            }
+            return blocks;
+        }
+        catch(StorageException e) {
+            final BackgroundException failure = new AzureExceptionMappingService().map("Upload {0} failed", e, file);
+            if(failure instanceof NotfoundException) {
+                return blocks;
+            }
+            throw failure;
+        }
+        catch(URISyntaxException e) {
+            throw new NotfoundException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param partNumber Index of block starting with 1
+     * @return Block identifier of same length for all blocks
+     */
+    protected static String toBlockId(final int partNumber) {
+        return Base64.getEncoder().encodeToString(String.format("%06d", partNumber).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        this.writer = writer;
+        return this;
+    }
+}
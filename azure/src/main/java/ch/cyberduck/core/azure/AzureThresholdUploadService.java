@@ -0,0 +1,101 @@
+package ch.cyberduck.core.azure;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.blob.BlobType;
+
+public class AzureThresholdUploadService implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(AzureThresholdUploadService.class);
+
+    private final Preferences preferences = PreferencesFactory.get();
+
+    private final AzureSession session;
+    private final OperationContext context;
+    private final Long threshold;
+
+    private Write<Void> writer;
+
+    public AzureThresholdUploadService(final AzureSession session, final OperationContext context) {
+        this(session, context, PreferencesFactory.get().getLong("azure.upload.largeobject.threshold"));
+    }
+
+    public AzureThresholdUploadService(final AzureSession session, final OperationContext context, final Long threshold) {
+        this.session = session;
+        this.context = context;
+        this.threshold = threshold;
+        this.writer = new AzureWriteFeature(session, context);
+    }
+
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        if(this.threshold(length)) {
+            return new AzureLargeUploadService(session, context, writer).append(file, length, cache);
+        }
+        return writer.append(file, length, cache);
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(this.threshold(status.getOffset() + status.getLength())) {
+            if(status.isExists()) {
+                final String type = new AzureAttributesFinderFeature(session, context).find(file).getCustom().get(AzureAttributesFinderFeature.KEY_BLOB_TYPE);
+                if(BlobType.APPEND_BLOB == BlobType.valueOf(type)) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Use single upload for existing append blob %s", file));
+                    }
+                    return new DefaultUploadFeature<>(writer).upload(file, local, throttle, listener, status, callback);
+                }
+            }
+            return new AzureLargeUploadService(session, context, writer).upload(file, local, throttle, listener, status, callback);
+        }
+        return new DefaultUploadFeature<>(writer).upload(file, local, throttle, listener, status, callback);
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        this.writer = writer;
+        return this;
+    }
+
+    protected boolean threshold(final Long length) {
+        if(length >= threshold) {
+            if(!preferences.getBoolean("azure.upload.largeobject")) {
+                log.warn("Parallel block upload is disabled with property azure.upload.largeobject");
+                return false;
+            }
+            return true;
+        }
+        return false;
+    }
+}
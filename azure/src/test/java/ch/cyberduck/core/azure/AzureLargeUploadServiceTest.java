@@ -0,0 +1,118 @@
+package ch.cyberduck.core.azure;
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.DisabledProgressListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LoginConnectionService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import com.microsoft.azure.storage.AccessCondition;
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.blob.BlobRequestOptions;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class AzureLargeUploadServiceTest {
+
+    @Test
+    public void testUpload() throws Exception {
+        final OperationContext context = new OperationContext();
+        final AzureSession session = this.connect();
+        final Path container = new Path("cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path test = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final byte[] content = RandomUtils.nextBytes(5 * 1024 * 1024 * 2 + 1);
+        final Local local = this.write(content);
+        final TransferStatus status = new TransferStatus().length(content.length);
+        status.setMime("text/plain");
+        new AzureLargeUploadService(session, context, new AzureWriteFeature(session, context), 5 * 1024L * 1024L, 2).upload(
+            test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(), status, new DisabledConnectionCallback());
+        assertTrue(status.isComplete());
+        assertEquals(content.length, status.getOffset());
+        assertEquals(content.length, new AzureAttributesFinderFeature(session, context).find(test).getSize());
+        assertEquals("text/plain", new AzureMetadataFeature(session, context).getMetadata(test).get("Content-Type"));
+        this.verify(session, context, test, content);
+        new AzureDeleteFeature(session, context).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+        session.close();
+    }
+
+    @Test
+    public void testResumeFromUncommittedBlocks() throws Exception {
+        final OperationContext context = new OperationContext();
+        final AzureSession session = this.connect();
+        final Path container = new Path("cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path test = new Path(container, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final int partSize = 5 * 1024 * 1024;
+        final byte[] content = RandomUtils.nextBytes(partSize * 2 + 1);
+        final Local local = this.write(content);
+        // Previous attempt with first block uploaded
+        final CloudBlockBlob blob = session.getClient().getContainerReference(container.getName()).getBlockBlobReference(test.getName());
+        blob.uploadBlock(AzureLargeUploadService.toBlockId(1), new ByteArrayInputStream(content, 0, partSize), partSize,
+            AccessCondition.generateEmptyCondition(), new BlobRequestOptions(), context);
+        final AzureLargeUploadService service = new AzureLargeUploadService(session, context, new AzureWriteFeature(session, context), (long) partSize, 2);
+        final Write.Append append = service.append(test, (long) content.length, PathCache.empty());
+        assertTrue(append.append);
+        assertEquals(partSize, append.size, 0L);
+        final TransferStatus status = new TransferStatus().length(content.length - partSize).append(true);
+        status.setOffset(partSize);
+        service.upload(test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(), status, new DisabledConnectionCallback());
+        assertEquals(content.length, status.getOffset());
+        this.verify(session, context, test, content);
+        new AzureDeleteFeature(session, context).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+        session.close();
+    }
+
+    private AzureSession connect() throws Exception {
+        final Host host = new Host(new AzureProtocol(), "kahy9boj3eib.blob.core.windows.net", new Credentials(
+            System.getProperties().getProperty("azure.account"), System.getProperties().getProperty("azure.key")
+        ));
+        final AzureSession session = new AzureSession(host);
+        new LoginConnectionService(new DisabledLoginCallback(), new DisabledHostKeyCallback(),
+            new DisabledPasswordStore(), new DisabledProgressListener()).connect(session, new DisabledCancelCallback());
+        return session;
+    }
+
+    private Local write(final byte[] content) throws Exception {
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final OutputStream out = local.getOutputStream(false);
+        IOUtils.write(content, out);
+        out.close();
+        return local;
+    }
+
+    private void verify(final AzureSession session, final OperationContext context, final Path test, final byte[] content) throws Exception {
+        final byte[] buffer = new byte[content.length];
+        final InputStream in = new AzureReadFeature(session, context).read(test, new TransferStatus(), new DisabledConnectionCallback());
+        IOUtils.readFully(in, buffer);
+        in.close();
+        assertArrayEquals(content, buffer);
+    }
+}
@@ -43,6 +43,11 @@ public class Console {
     private static final Semaphore lock
             = new Semaphore(1);
 
+    /**
+     * Output stream of client connected to daemon. No input is available while set.
+     */
+    private static volatile PrintStream redirect;
+
     public Console() {
         switch(Factory.Platform.getDefault()) {
             case windows:
@@ -54,7 +59,19 @@ public class Console {
         }
     }
 
+    /**
+     * @param stream Print all output to stream or null to reset
+     */
+    public static void redirect(final PrintStream stream) {
+        redirect = stream;
+    }
+
     public String readLine(String format, Object... args) throws ConnectionCanceledException {
+        if(redirect != null) {
+            this.printf(format, args);
+            // Not interactive
+            throw new ConnectionCanceledException();
+        }
         if(console != null) {
             return this.wrap(console.readLine(format, args));
         }
@@ -69,6 +86,9 @@ public class Console {
     }
 
     public char[] readPassword(String format, Object... args) throws ConnectionCanceledException {
+        if(redirect != null) {
+            return this.readLine(format, args).toCharArray();
+        }
         if(console != null) {
             return this.wrap(console.readPassword(format, args));
         }
@@ -85,7 +105,17 @@ public class Console {
         }
         try {
             lock.acquire();
-            if(console != null) {
+            final PrintStream stream = redirect;
+            if(stream != null) {
+                if(Arrays.asList(args).isEmpty()) {
+                    stream.print(format);
+                }
+                else {
+                    stream.printf(format, args);
+                }
+                stream.flush();
+            }
+            else if(console != null) {
                 final PrintWriter writer = console.writer();
                 if(Arrays.asList(args).isEmpty()) {
                     writer.print(format);
@@ -89,14 +89,21 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.log4j.Logger;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.gson.GsonBuilder;
 
 public class Terminal {
     private static final Logger log = Logger.getLogger(Terminal.class);
@@ -106,6 +113,7 @@ public class Terminal {
         System.setErr(new LoggerPrintStream());
     }
 
+    private final TerminalPreferences defaults;
     private final Preferences preferences;
     private final TerminalController controller;
     private final TerminalPromptReader reader;
@@ -116,9 +124,19 @@ public class Terminal {
     private final ProtocolFactory protocols = ProtocolFactory.get();
     private final CommandLine input;
     private final Options options;
+    /**
+     * Connection pools kept open by daemon or null
+     */
+    private final TerminalSessionPools pools;
 
     public Terminal(final TerminalPreferences defaults, final Options options, final CommandLine input) {
+        this(defaults, options, input, null);
+    }
+
+    public Terminal(final TerminalPreferences defaults, final Options options, final CommandLine input, final TerminalSessionPools pools) {
+        this.defaults = defaults;
         this.preferences = defaults.withDefaults(input);
+        this.pools = pools;
         this.protocols.register(
             new FTPProtocol(),
             new FTPTLSProtocol(),
@@ -177,6 +195,13 @@ public class Terminal {
         try {
             final CommandLineParser parser = new DefaultParser();
             final CommandLine input = parser.parse(options, args);
+            final TerminalDaemonClient client = new TerminalDaemonClient();
+            if(client.isSupported(input)) {
+                final Integer exit = client.forward(args, input);
+                if(exit != null) {
+                    System.exit(exit);
+                }
+            }
             final Terminal terminal = new Terminal(defaults, options, input);
             switch(terminal.execute()) {
                 case success:
@@ -235,7 +260,8 @@ public class Terminal {
                 protocols.loadDefaultProfiles();
             }
         }
-        else {
+        else if(null == pools) {
+            // Already loaded when running in daemon
             protocols.loadDefaultProfiles();
         }
         if(input.hasOption(TerminalAction.help.name())) {
@@ -250,7 +276,20 @@ public class Terminal {
             console.printf("Try '%s' for more options.%n", "duck --help");
             return Exit.failure;
         }
+        if(input.hasOption(TerminalAction.daemon.name())) {
+            try {
+                new TerminalDaemon(defaults, options).run();
+                return Exit.success;
+            }
+            catch(IOException e) {
+                console.printf("%s%n", e.getMessage());
+                return Exit.failure;
+            }
+        }
         this.configure(input);
+        if(input.hasOption(TerminalAction.batch.name())) {
+            return this.batch(input.getOptionValue(TerminalAction.batch.name()));
+        }
         SessionPool source = SessionPool.DISCONNECTED;
         SessionPool destination = SessionPool.DISCONNECTED;
         try {
@@ -262,10 +301,7 @@ public class Terminal {
             final Host host = new CommandLineUriParser(input, protocols).parse(uri);
             final LoginConnectionService connect = new LoginConnectionService(new TerminalLoginService(input
             ), new TerminalLoginCallback(reader), new TerminalHostKeyVerifier(reader), progress);
-            source = SessionPoolFactory.create(connect, transcript, host,
-                new CertificateStoreX509TrustManager(new DisabledCertificateTrustCallback(), new DefaultTrustManagerHostnameCallback(host), new TerminalCertificateStore(reader)),
-                new PreferencesX509KeyManager(host, new TerminalCertificateStore(reader)),
-                VaultRegistryFactory.create(new TerminalPasswordCallback()));
+            source = this.connect(connect, host);
             final Path remote;
             if(StringUtils.startsWith(new CommandLinePathParser(input).parse(uri).getAbsolute(), TildePathExpander.PREFIX)) {
                 final Path home = this.execute(new TerminalBackgroundAction<Path>(controller, source, new HomeFinderWorker()));
@@ -315,6 +351,8 @@ public class Terminal {
                     return this.delete(source, remote);
                 case mkdir:
                     return this.mkdir(source, remote, input.getOptionValue(TerminalOptionsBuilder.Params.region.name()));
+                case benchmark:
+                    return this.benchmark(source, remote);
             }
             switch(action) {
                 case download:
@@ -325,10 +363,7 @@ public class Terminal {
                         source, SessionPool.DISCONNECTED);
                 case copy:
                     final Host target = new CommandLineUriParser(input).parse(input.getOptionValues(action.name())[1]);
-                    destination = SessionPoolFactory.create(connect, transcript, target,
-                        new CertificateStoreX509TrustManager(new DisabledCertificateTrustCallback(), new DefaultTrustManagerHostnameCallback(target), new TerminalCertificateStore(reader)),
-                        new PreferencesX509KeyManager(target, new TerminalCertificateStore(reader)),
-                        VaultRegistryFactory.create(new TerminalPasswordCallback()));
+                    destination = this.connect(connect, target);
                     return this.transfer(new CopyTransfer(
                             host, target, Collections.singletonMap(remote, new CommandLinePathParser(input).parse(input.getOptionValues(action.name())[1]))),
                         source, destination);
@@ -350,11 +385,66 @@ public class Terminal {
         finally {
             this.disconnect(source);
             this.disconnect(destination);
+            if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+                console.printf("%n%s", new GsonBuilder().setPrettyPrinting().create().toJson(MetricsFactory.get().snapshot()));
+            }
         }
         return Exit.failure;
     }
 
+    /**
+     * @return New connection pool or pool kept open by daemon for bookmark
+     */
+    protected SessionPool connect(final LoginConnectionService connect, final Host host) {
+        final Supplier<SessionPool> create = this.create(connect, host);
+        if(null == pools) {
+            return create.get();
+        }
+        return pools.get(host, create);
+    }
+
+    private Supplier<SessionPool> create(final LoginConnectionService connect, final Host host) {
+        return () -> SessionPoolFactory.create(connect, transcript, host,
+            new CertificateStoreX509TrustManager(new DisabledCertificateTrustCallback(), new DefaultTrustManagerHostnameCallback(host), new TerminalCertificateStore(reader)),
+            new PreferencesX509KeyManager(host, new TerminalCertificateStore(reader)),
+            VaultRegistryFactory.create(new TerminalPasswordCallback()));
+    }
+
+    /**
+     * Not forwarded to daemon as local paths in manifest are relative to the working directory
+     *
+     * @param manifest File with actions or - to read from standard input
+     */
+    protected Exit batch(final String manifest) {
+        final Console console = new Console();
+        // Keep pools open for all actions in manifest
+        final TerminalSessionPools shared = new TerminalSessionPools(Long.MAX_VALUE);
+        // No status output interleaved with results printed as JSON lines
+        final ProgressListener status = new DisabledListProgressListener();
+        final LoginConnectionService connect = new LoginConnectionService(new TerminalLoginService(input
+        ), new TerminalLoginCallback(reader), new TerminalHostKeyVerifier(reader), status);
+        final TerminalBatch batch = new TerminalBatch(options, input, protocols, new TerminalController(status, transcript), shared,
+            host -> this.create(connect, host), cache,
+            input.hasOption(TerminalOptionsBuilder.Params.parallel.name()) ?
+                NumberUtils.toInt(input.getOptionValue(TerminalOptionsBuilder.Params.parallel.name()), 2) : 1);
+        try (Reader in = StringUtils.equals("-", manifest) ?
+            new InputStreamReader(System.in, StandardCharsets.UTF_8) :
+            new InputStreamReader(new FileInputStream(manifest), StandardCharsets.UTF_8)) {
+            return batch.run(in) ? Exit.success : Exit.failure;
+        }
+        catch(IOException e) {
+            console.printf("%s%n", e.getMessage());
+            return Exit.failure;
+        }
+        finally {
+            shared.shutdown();
+        }
+    }
+
     protected void configure(final CommandLine input) {
+        if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+            MetricsFactory.set(new CountingMetrics());
+        }
         final boolean preserve = input.hasOption(TerminalOptionsBuilder.Params.preserve.name());
         preferences.setDefault("queue.upload.permissions.change", String.valueOf(preserve));
         preferences.setDefault("queue.upload.timestamp.change", String.valueOf(preserve));
@@ -479,6 +569,21 @@ public class Terminal {
         return Exit.success;
     }
 
+    protected Exit benchmark(final SessionPool session, final Path folder) throws BackgroundException {
+        final List<Long> sizes = new ArrayList<>();
+        for(String size : StringUtils.split(input.getOptionValue(TerminalOptionsBuilder.Params.size.name(),
+            preferences.getProperty("cli.benchmark.size")), ',')) {
+            // Validated to be positive
+            sizes.add(Long.parseLong(size.trim()));
+        }
+        final TerminalBenchmark benchmark = new TerminalBenchmark(session,
+            input.hasOption(TerminalOptionsBuilder.Params.parallel.name()) ?
+                NumberUtils.toInt(input.getOptionValue(TerminalOptionsBuilder.Params.parallel.name()), 2) : 1);
+        return benchmark.run(new Path(folder.getAbsolute(), EnumSet.of(Path.Type.directory)), sizes,
+            NumberUtils.toInt(input.getOptionValue(TerminalOptionsBuilder.Params.count.name()),
+                preferences.getInteger("cli.benchmark.count"))) ? Exit.success : Exit.failure;
+    }
+
     protected Exit edit(final SessionPool session, final Path remote) throws BackgroundException {
         final EditorFactory factory = EditorFactory.instance();
         final Application application;
@@ -525,6 +630,10 @@ public class Terminal {
         if(session == SessionPool.DISCONNECTED) {
             return;
         }
+        if(pools != null && pools.release(session)) {
+            // Keep open for next invocation
+            return;
+        }
         try {
             this.execute(new DisconnectBackgroundAction(controller, session) {
                 @Override
@@ -560,7 +669,7 @@ public class Terminal {
         }
     }
 
-    private enum Exit {
+    enum Exit {
         success,
         failure
     }
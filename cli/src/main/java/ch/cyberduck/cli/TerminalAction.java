@@ -30,5 +30,8 @@ public enum TerminalAction {
     copy,
     synchronize,
     delete,
-    mkdir
+    mkdir,
+    batch,
+    benchmark,
+    daemon
 }
@@ -0,0 +1,343 @@
+package ch.cyberduck.cli;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ProtocolFactory;
+import ch.cyberduck.core.StringAppender;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.SessionBackgroundAction;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.threading.TransferBackgroundAction;
+import ch.cyberduck.core.transfer.CopyTransfer;
+import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
+import ch.cyberduck.core.transfer.DisabledTransferPrompt;
+import ch.cyberduck.core.transfer.Transfer;
+import ch.cyberduck.core.transfer.TransferAction;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferOptions;
+import ch.cyberduck.core.transfer.TransferPrompt;
+import ch.cyberduck.core.transfer.TransferSpeedometer;
+import ch.cyberduck.core.worker.AttributesWorker;
+import ch.cyberduck.core.worker.CreateDirectoryWorker;
+import ch.cyberduck.core.worker.DeleteWorker;
+import ch.cyberduck.core.worker.Worker;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.text.StringTokenizer;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Run actions read from a manifest with one action per line in the form {@code <action> <url> [<file or url>]}.
+ * Arguments containing whitespace are enclosed in double quotes. Empty lines and lines starting with {@code #} are
+ * skipped. Actions run concurrently sharing a connection pool per host and the result of each action is printed as a
+ * JSON object on a single line.
+ */
+public class TerminalBatch {
+    private static final Logger log = Logger.getLogger(TerminalBatch.class);
+
+    private static final EnumSet<TerminalAction> SUPPORTED = EnumSet.of(
+        TerminalAction.upload, TerminalAction.download, TerminalAction.delete, TerminalAction.copy, TerminalAction.mkdir);
+
+    private final Console console = new Console();
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    private final Options options;
+    /**
+     * Global options applied to all actions
+     */
+    private final CommandLine input;
+    private final ProtocolFactory protocols;
+    private final TerminalController controller;
+    private final TerminalSessionPools pools;
+    private final Function<Host, Supplier<SessionPool>> factory;
+    private final Cache<Path> cache;
+    private final int concurrency;
+
+    public TerminalBatch(final Options options, final CommandLine input, final ProtocolFactory protocols,
+                         final TerminalController controller, final TerminalSessionPools pools,
+                         final Function<Host, Supplier<SessionPool>> factory, final Cache<Path> cache, final int concurrency) {
+        this.options = options;
+        this.input = input;
+        this.protocols = protocols;
+        this.controller = controller;
+        this.pools = pools;
+        this.factory = factory;
+        this.cache = cache;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param manifest Newline delimited actions
+     * @return False if any action failed
+     */
+    public boolean run(final Reader manifest) throws IOException {
+        final List<Item> items = this.parse(manifest);
+        final ThreadPool pool = ThreadPoolFactory.get("batch", concurrency);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for(Item item : items) {
+                results.add(pool.execute(new BackgroundExceptionCallable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return TerminalBatch.this.execute(item);
+                    }
+                }));
+            }
+            boolean success = true;
+            for(Future<Boolean> result : results) {
+                try {
+                    success &= result.get();
+                }
+                catch(InterruptedException | ExecutionException e) {
+                    log.error(String.format("Failure waiting for result. %s", e.getMessage()));
+                    success = false;
+                }
+            }
+            return success;
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    protected List<Item> parse(final Reader manifest) throws IOException {
+        final List<Item> items = new ArrayList<>();
+        final BufferedReader reader = new BufferedReader(manifest);
+        String line;
+        int number = 0;
+        while((line = reader.readLine()) != null) {
+            number++;
+            if(StringUtils.isBlank(line) || StringUtils.startsWith(line.trim(), "#")) {
+                continue;
+            }
+            final StringTokenizer tokenizer = new StringTokenizer(line).setQuoteChar('"');
+            items.add(new Item(number, tokenizer.getTokenArray()));
+        }
+        return items;
+    }
+
+    private boolean execute(final Item item) {
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("line", item.number);
+        result.put("action", item.args.length > 0 ? item.args[0] : null);
+        result.put("source", item.args.length > 1 ? item.args[1] : null);
+        result.put("target", item.args.length > 2 ? item.args[2] : null);
+        final long start = System.currentTimeMillis();
+        final List<SessionPool> borrowed = new ArrayList<>();
+        try {
+            final Long bytes = this.execute(item, borrowed);
+            result.put("status", "success");
+            result.put("bytes", bytes);
+            return true;
+        }
+        catch(BackgroundException e) {
+            final StringAppender b = new StringAppender();
+            b.append(e.getMessage());
+            b.append(e.getDetail());
+            result.put("status", "failure");
+            result.put("error", b.toString());
+            return false;
+        }
+        finally {
+            for(SessionPool pool : borrowed) {
+                pools.release(pool);
+            }
+            result.put("duration", System.currentTimeMillis() - start);
+            console.printf("%s%n", gson.toJson(result));
+        }
+    }
+
+    private Long execute(final Item item, final List<SessionPool> borrowed) throws BackgroundException {
+        final CommandLine line = this.toCommandLine(item);
+        final TerminalAction action = TerminalActionFinder.get(line);
+        final String uri = line.getOptionValue(action.name());
+        final Host host = new CommandLineUriParser(line, protocols).parse(uri);
+        final Path remote = new CommandLinePathParser(line).parse(uri);
+        final SessionPool source = pools.get(host, factory.apply(host));
+        borrowed.add(source);
+        switch(action) {
+            case download:
+            case copy:
+            case delete:
+                // Set remote file attributes
+                remote.withAttributes(this.run(source, new AttributesWorker(remote)));
+                break;
+        }
+        switch(action) {
+            case delete:
+                final List<Path> files = new ArrayList<>();
+                for(TransferItem i : new DeletePathFinder().find(line, TerminalAction.delete, remote)) {
+                    files.add(i.remote);
+                }
+                this.run(source, StringUtils.containsAny(remote.getName(), '*') ?
+                    new DeleteWorker(new DisabledLoginCallback(), files, cache, new DownloadGlobFilter(remote.getName()), new DisabledListProgressListener()) :
+                    new DeleteWorker(new DisabledLoginCallback(), files, cache, new DisabledListProgressListener()));
+                return null;
+            case mkdir:
+                this.run(source, new CreateDirectoryWorker(remote, line.getOptionValue(TerminalOptionsBuilder.Params.region.name())));
+                return null;
+            case upload:
+            case download:
+                return this.transfer(new TerminalTransferFactory().create(line, host, remote,
+                    new ArrayList<>(new SingleTransferItemFinder().find(line, action, remote))), source, SessionPool.DISCONNECTED);
+            default:
+                final Host target = new CommandLineUriParser(line, protocols).parse(line.getOptionValues(action.name())[1]);
+                final SessionPool destination = pools.get(target, factory.apply(target));
+                borrowed.add(destination);
+                return this.transfer(new CopyTransfer(host, target,
+                    Collections.singletonMap(remote, new CommandLinePathParser(line).parse(line.getOptionValues(action.name())[1]))), source, destination);
+        }
+    }
+
+    /**
+     * @return Options for action combined with global options
+     */
+    private CommandLine toCommandLine(final Item item) throws BackgroundException {
+        if(item.args.length < 2) {
+            throw new BackgroundException("Missing argument", String.format("Invalid line %d", item.number));
+        }
+        final TerminalAction action;
+        try {
+            action = TerminalAction.valueOf(item.args[0]);
+        }
+        catch(IllegalArgumentException e) {
+            throw new BackgroundException("Unknown action", item.args[0]);
+        }
+        if(!SUPPORTED.contains(action)) {
+            throw new BackgroundException("Unsupported action", item.args[0]);
+        }
+        final List<String> args = new ArrayList<>();
+        args.add(String.format("--%s", action.name()));
+        for(int i = 1; i < item.args.length; i++) {
+            args.add(item.args[i]);
+        }
+        for(Option option : input.getOptions()) {
+            if(TerminalActionFinder.get(input).name().equals(option.getLongOpt())) {
+                continue;
+            }
+            args.add(String.format("--%s", option.getLongOpt()));
+            args.addAll(option.getValuesList());
+        }
+        try {
+            final CommandLine line = new DefaultParser().parse(options, args.toArray(new String[0]));
+            final String[] values = line.getOptionValues(action.name());
+            if(values.length != options.getOption(action.name()).getArgs()) {
+                throw new BackgroundException("Missing argument", String.format("Invalid line %d", item.number));
+            }
+            return line;
+        }
+        catch(ParseException e) {
+            throw new BackgroundException(e.getMessage(), String.format("Invalid line %d", item.number));
+        }
+    }
+
+    private Long transfer(final Transfer transfer, final SessionPool source, final SessionPool destination) throws BackgroundException {
+        final TransferPrompt prompt = new DisabledTransferPrompt() {
+            @Override
+            public TransferAction prompt(final TransferItem file) {
+                if(input.hasOption(TerminalOptionsBuilder.Params.existing.name())) {
+                    return TransferAction.forName(input.getOptionValue(TerminalOptionsBuilder.Params.existing.name()));
+                }
+                return TransferAction.comparison;
+            }
+        };
+        this.run(new TransferBackgroundAction(new DisabledLoginCallback(), controller, source, destination,
+            new TerminalTransferListener(), new DisabledListProgressListener(), transfer.withCache(cache),
+            new TransferOptions().reload(true), prompt, new DisabledTransferErrorCallback(),
+            new TransferSpeedometer(transfer), new DisabledStreamListener()) {
+            @Override
+            public boolean alert(final BackgroundException e) {
+                // Reported in result
+                return false;
+            }
+        });
+        return transfer.getTransferred();
+    }
+
+    private <T> T run(final SessionPool pool, final Worker<T> worker) throws BackgroundException {
+        return this.run(new TerminalBackgroundAction<T>(controller, pool, worker) {
+            @Override
+            public boolean alert(final BackgroundException e) {
+                // Reported in result
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Run action in calling thread
+     */
+    private <T> T run(final SessionBackgroundAction<T> action) throws BackgroundException {
+        action.init();
+        action.prepare();
+        try {
+            return action.call();
+        }
+        finally {
+            action.finish();
+            action.cleanup();
+        }
+    }
+
+    protected static final class Item {
+        private final int number;
+        private final String[] args;
+
+        public Item(final int number, final String[] args) {
+            this.number = number;
+            this.args = args;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public String[] getArgs() {
+            return args;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package ch.cyberduck.cli;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Histogram;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.AttributesFinder;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.MultipartWrite;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.log4j.Logger;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+
+/**
+ * Measure throughput uploading, downloading and deleting files with synthetic content in a remote folder. Prints
+ * latency percentiles, operations and bytes per second for each phase and file size as a JSON object on a single line.
+ */
+public class TerminalBenchmark {
+    private static final Logger log = Logger.getLogger(TerminalBenchmark.class);
+
+    public enum Phase {
+        upload,
+        download,
+        delete
+    }
+
+    private final Console console = new Console();
+    private final Gson gson = new Gson();
+
+    private final SessionPool pool;
+    private final int concurrency;
+
+    public TerminalBenchmark(final SessionPool pool, final int concurrency) {
+        this.pool = pool;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param folder Existing folder to create files in
+     * @param sizes  File sizes in bytes
+     * @param count  Number of files for each size
+     * @return False if any operation failed
+     */
+    public boolean run(final Path folder, final List<Long> sizes, final int count) throws BackgroundException {
+        boolean success = true;
+        for(Long size : sizes) {
+            final List<Path> files = new ArrayList<>();
+            final String prefix = String.format("duck-benchmark-%s", UUID.randomUUID());
+            for(int i = 0; i < count; i++) {
+                files.add(new Path(folder, String.format("%s-%d", prefix, i), EnumSet.of(Path.Type.file)));
+            }
+            for(Phase phase : Phase.values()) {
+                final Result result = this.run(phase, files, size);
+                console.printf("%s%n", gson.toJson(result.toMap(phase, size)));
+                success &= result.failures.get() == 0;
+            }
+        }
+        return success;
+    }
+
+    protected Result run(final Phase phase, final List<Path> files, final long size) throws BackgroundException {
+        final Result result = new Result();
+        final ThreadPool executor = ThreadPoolFactory.get("benchmark", concurrency);
+        final long start = System.nanoTime();
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for(Path file : files) {
+                futures.add(executor.execute(new BackgroundExceptionCallable<Void>() {
+                    @Override
+                    public Void call() throws BackgroundException {
+                        Session<?> session = null;
+                        BackgroundException failure = null;
+                        try {
+                            session = pool.borrow(BackgroundActionState.running);
+                            final long begin = System.nanoTime();
+                            TerminalBenchmark.this.run(session, phase, file, size);
+                            result.latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin));
+                        }
+                        catch(BackgroundException e) {
+                            log.warn(String.format("Failure %s for %s. %s", phase, file, e.getMessage()));
+                            result.failures.incrementAndGet();
+                            failure = e;
+                        }
+                        finally {
+                            if(session != null) {
+                                pool.release(session, failure);
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for(Future<Void> future : futures) {
+                try {
+                    future.get();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+            }
+        }
+        finally {
+            executor.shutdown(false);
+        }
+        result.duration = System.nanoTime() - start;
+        return result;
+    }
+
+    private void run(final Session<?> session, final Phase phase, final Path file, final long size) throws BackgroundException {
+        switch(phase) {
+            case upload:
+                Write<?> write = session.getFeature(MultipartWrite.class);
+                if(null == write) {
+                    // Fallback if multipart write is not available
+                    write = session.getFeature(Write.class);
+                }
+                final TransferStatus status = new TransferStatus().length(size);
+                final StatusOutputStream<?> out = write.write(file, status, new DisabledConnectionCallback());
+                new StreamCopier(status, status).transfer(new SyntheticInputStream(size), out);
+                // Determine attributes such as file or version identifier required to read file
+                file.withAttributes(session.getFeature(AttributesFinder.class).find(file));
+                break;
+            case download:
+                final TransferStatus read = new TransferStatus().length(size);
+                new StreamCopier(read, read).transfer(session.getFeature(Read.class).read(file, read, new DisabledConnectionCallback()),
+                    new NullOutputStream());
+                break;
+            case delete:
+                session.getFeature(Delete.class).delete(Collections.singletonList(file), new DisabledPasswordCallback(), new Delete.DisabledCallback());
+                break;
+        }
+    }
+
+    protected static final class Result {
+        private final Histogram latency = new Histogram();
+        private final AtomicInteger failures = new AtomicInteger();
+        /**
+         * Duration of phase in nanoseconds
+         */
+        private long duration;
+
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public int getFailures() {
+            return failures.get();
+        }
+
+        protected Map<String, Object> toMap(final Phase phase, final long size) {
+            final Map<String, Object> map = new LinkedHashMap<>();
+            map.put("phase", phase.name());
+            map.put("size", size);
+            map.put("count", latency.getCount());
+            map.put("failures", failures.get());
+            final double seconds = duration / 1e9d;
+            map.put("ops/s", seconds > 0 ? latency.getCount() / seconds : 0d);
+            map.put("MB/s", seconds > 0 && phase != Phase.delete ? latency.getCount() * size / 1e6d / seconds : 0d);
+            // Milliseconds
+            map.put("p50", latency.getValueAtPercentile(50) / 1000d);
+            map.put("p95", latency.getValueAtPercentile(95) / 1000d);
+            map.put("p99", latency.getValueAtPercentile(99) / 1000d);
+            map.put("max", latency.getMax() / 1000d);
+            return map;
+        }
+    }
+
+    /**
+     * Stream of given length repeating random bytes not to benefit from compression
+     */
+    protected static final class SyntheticInputStream extends InputStream {
+        private static final byte[] data = new byte[64 * 1024];
+
+        static {
+            new Random().nextBytes(data);
+        }
+
+        private long remaining;
+
+        public SyntheticInputStream(final long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() {
+            if(remaining <= 0) {
+                return -1;
+            }
+            return data[(int) (remaining-- % data.length)] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if(remaining <= 0) {
+                return -1;
+            }
+            final int offset = (int) (remaining % data.length);
+            final int n = (int) Math.min(Math.min(len, remaining), data.length - offset);
+            System.arraycopy(data, offset, b, off, n);
+            remaining -= n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package ch.cyberduck.cli;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.MetricsFactory;
+import ch.cyberduck.core.ProtocolFactory;
+import ch.cyberduck.core.local.TemporaryFileServiceFactory;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serve invocations forwarded by {@link TerminalDaemonClient} keeping connection pools open between invocations.
+ * Listens on the loopback interface with the port and a secret token written to a file readable by the owner only.
+ * Invocations are run one after another as options are applied to shared preferences.
+ */
+public class TerminalDaemon {
+    private static final Logger log = Logger.getLogger(TerminalDaemon.class);
+
+    protected static final int FRAME_OUTPUT = 1;
+    protected static final int FRAME_EXIT = 0;
+    /**
+     * Reply to valid token to let client tell a running daemon from a stale file
+     */
+    protected static final int FRAME_ACCEPT = 2;
+
+    /**
+     * Maximum number of arguments accepted from client
+     */
+    protected static final int MAXIMUM_ARGUMENTS = 1024;
+
+    private final TerminalPreferences defaults;
+    private final Options options;
+    private final TerminalSessionPools pools;
+    private final File file;
+
+    public TerminalDaemon(final TerminalPreferences defaults, final Options options) {
+        this(defaults, options, new TerminalSessionPools(), getFile());
+    }
+
+    public TerminalDaemon(final TerminalPreferences defaults, final Options options, final TerminalSessionPools pools, final File file) {
+        this.defaults = defaults;
+        this.options = options;
+        this.pools = pools;
+        this.file = file;
+    }
+
+    /**
+     * @return File with port and token of running daemon
+     */
+    public static File getFile() {
+        return new File(SupportDirectoryFinderFactory.get().find().getAbsolute(), "duck.daemon");
+    }
+
+    /**
+     * Accept connections until the process is terminated
+     */
+    public void run() throws IOException {
+        // Limit connections per host for all invocations
+        defaults.setDefault("connection.pool.maxtotal", PreferencesFactory.get().getProperty("cli.daemon.connections.limit"));
+        ProtocolFactory.get().loadDefaultProfiles();
+        final byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        final String token = Hex.encodeHexString(secret);
+        final ScheduledThreadPool timer = new ScheduledThreadPool();
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            this.write(server.getLocalPort(), token);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if(!file.delete()) {
+                    log.warn(String.format("Failure deleting %s", file));
+                }
+                pools.shutdown();
+                TemporaryFileServiceFactory.get().shutdown();
+            }));
+            timer.repeat(pools::evict, PreferencesFactory.get().getLong("cli.daemon.idle.timeout"), TimeUnit.SECONDS);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Listening on port %d", server.getLocalPort()));
+            }
+            while(!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    this.handle(socket, token);
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure serving client. %s", e.getMessage()));
+                }
+            }
+        }
+        finally {
+            timer.shutdown();
+        }
+    }
+
+    private void write(final int port, final String token) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty("port", String.valueOf(port));
+        properties.setProperty("token", token);
+        file.getParentFile().mkdirs();
+        Files.deleteIfExists(file.toPath());
+        Files.createFile(file.toPath());
+        try {
+            Files.setPosixFilePermissions(file.toPath(), PosixFilePermissions.fromString("rw-------"));
+        }
+        catch(UnsupportedOperationException e) {
+            log.warn(String.format("Unable to restrict permissions for %s", file));
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        }
+    }
+
+    protected void handle(final Socket socket, final String token) throws IOException {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        if(!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), in.readUTF().getBytes(StandardCharsets.UTF_8))) {
+            log.warn(String.format("Reject client %s with invalid token", socket.getRemoteSocketAddress()));
+            return;
+        }
+        out.writeByte(FRAME_ACCEPT);
+        out.flush();
+        final int count = in.readInt();
+        if(count < 0 || count > MAXIMUM_ARGUMENTS) {
+            log.warn(String.format("Reject client with %d arguments", count));
+            return;
+        }
+        final String[] args = new String[count];
+        for(int i = 0; i < count; i++) {
+            args[i] = in.readUTF();
+        }
+        final PrintStream stream = new PrintStream(new FrameOutputStream(out), true, StandardCharsets.UTF_8.name());
+        Terminal.Exit exit = Terminal.Exit.failure;
+        // Options of this invocation must not apply to later invocations
+        final Metrics metrics = MetricsFactory.get();
+        defaults.snapshot();
+        Console.redirect(stream);
+        try {
+            final CommandLine input = new DefaultParser().parse(options, args);
+            exit = new Terminal(defaults, options, input, pools).execute();
+        }
+        catch(ParseException e) {
+            stream.printf("%s%n", e.getMessage());
+        }
+        finally {
+            Console.redirect(null);
+            defaults.restore();
+            MetricsFactory.set(metrics);
+        }
+        stream.flush();
+        out.writeByte(FRAME_EXIT);
+        out.writeInt(exit == Terminal.Exit.success ? 0 : 1);
+        out.flush();
+    }
+
+    /**
+     * Prefix output with frame type and length
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+
+        public FrameOutputStream(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.writeByte(FRAME_OUTPUT);
+            out.writeInt(len);
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
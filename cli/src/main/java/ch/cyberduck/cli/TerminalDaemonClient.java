@@ -0,0 +1,207 @@
+package ch.cyberduck.cli;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Forward invocation to running {@link TerminalDaemon}
+ */
+public class TerminalDaemonClient {
+    private static final Logger log = Logger.getLogger(TerminalDaemonClient.class);
+
+    private final File file;
+    private final PrintStream stdout;
+
+    public TerminalDaemonClient() {
+        this(TerminalDaemon.getFile(), System.out);
+    }
+
+    public TerminalDaemonClient(final File file, final PrintStream stdout) {
+        this.file = file;
+        this.stdout = stdout;
+    }
+
+    /**
+     * @return True if action can be run by daemon without interaction
+     */
+    public boolean isSupported(final CommandLine input) {
+        if(!PreferencesFactory.get().getBoolean("cli.daemon.enable")) {
+            return false;
+        }
+        if(!file.exists()) {
+            return false;
+        }
+        final TerminalAction action = TerminalActionFinder.get(input);
+        if(null == action) {
+            return false;
+        }
+        switch(action) {
+            case list:
+            case longlist:
+            case download:
+            case upload:
+            case copy:
+            case synchronize:
+            case delete:
+            case mkdir:
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param args  Command line arguments
+     * @param input Parsed arguments
+     * @return Exit code or null if daemon is not reachable
+     */
+    public Integer forward(final String[] args, final CommandLine input) {
+        final Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure reading %s. %s", file, e.getMessage()));
+            return null;
+        }
+        final Socket socket = new Socket();
+        final DataOutputStream out;
+        final DataInputStream in;
+        try {
+            final int timeout = PreferencesFactory.get().getInteger("cli.daemon.connect.timeout");
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                Integer.parseInt(properties.getProperty("port"))), timeout);
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            // Handshake to detect file left by daemon no longer running or port reused by other process
+            socket.setSoTimeout(timeout);
+            out.writeUTF(properties.getProperty("token", StringUtils.EMPTY));
+            out.flush();
+            if(in.readByte() != TerminalDaemon.FRAME_ACCEPT) {
+                throw new IOException("Invalid handshake");
+            }
+            socket.setSoTimeout(0);
+        }
+        catch(SocketTimeoutException e) {
+            log.warn(String.format("Daemon busy. %s", e.getMessage()));
+            this.close(socket);
+            return null;
+        }
+        catch(IOException | NumberFormatException e) {
+            log.warn(String.format("Daemon not reachable. Delete stale file %s. %s", file, e.getMessage()));
+            this.close(socket);
+            if(!file.delete()) {
+                log.warn(String.format("Failure deleting %s", file));
+            }
+            return null;
+        }
+        try {
+            final List<String> resolved = this.resolve(args, input);
+            out.writeInt(resolved.size());
+            for(String arg : resolved) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+            while(true) {
+                switch(in.readByte()) {
+                    case TerminalDaemon.FRAME_OUTPUT:
+                        final byte[] chunk = new byte[in.readInt()];
+                        in.readFully(chunk);
+                        stdout.write(chunk);
+                        stdout.flush();
+                        break;
+                    case TerminalDaemon.FRAME_EXIT:
+                        return in.readInt();
+                    default:
+                        throw new IOException("Unknown frame");
+                }
+            }
+        }
+        catch(IOException e) {
+            // Connection closed by daemon
+            log.warn(String.format("Failure reading response from daemon. %s", e.getMessage()));
+            return 1;
+        }
+        finally {
+            this.close(socket);
+        }
+    }
+
+    private void close(final Socket socket) {
+        try {
+            socket.close();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure closing socket. %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Make local file arguments absolute as daemon runs in a different working directory
+     */
+    protected List<String> resolve(final String[] args, final CommandLine input) {
+        final List<String> local = new ArrayList<>();
+        final TerminalAction action = TerminalActionFinder.get(input);
+        if(null != action) {
+            switch(action) {
+                case download:
+                case upload:
+                case synchronize:
+                    final String[] values = input.getOptionValues(action.name());
+                    if(values.length > 1) {
+                        local.add(values[1]);
+                    }
+            }
+        }
+        for(TerminalOptionsBuilder.Params param : Arrays.asList(TerminalOptionsBuilder.Params.identity, TerminalOptionsBuilder.Params.profile)) {
+            if(input.hasOption(param.name())) {
+                local.add(input.getOptionValue(param.name()));
+            }
+        }
+        final List<String> resolved = new ArrayList<>();
+        for(String arg : args) {
+            if(local.contains(arg) && !StringUtils.startsWith(arg, "~") && !new File(arg).isAbsolute()) {
+                resolved.add(new File(arg).getAbsolutePath());
+            }
+            else {
+                resolved.add(arg);
+            }
+        }
+        return resolved;
+    }
+}
@@ -74,6 +74,17 @@ public final class TerminalOptionsBuilder {
             .longOpt(TerminalAction.edit.name())
             .desc("Edit file in external editor")
             .hasArg().argName("url").build());
+        actionGroup.addOption(Option.builder()
+            .longOpt(TerminalAction.batch.name())
+            .desc("Run actions read line by line from manifest file or standard input with '-'")
+            .hasArg().argName("file").build());
+        actionGroup.addOption(Option.builder()
+            .longOpt(TerminalAction.benchmark.name())
+            .desc("Measure throughput uploading, downloading and deleting files with synthetic content in folder")
+            .hasArg().argName("url").build());
+        actionGroup.addOption(Option.builder()
+            .longOpt(TerminalAction.daemon.name())
+            .desc("Serve subsequent invocations keeping connections open").build());
         actionGroup.addOption(Option.builder("V")
             .longOpt(TerminalAction.version.name())
             .desc("Show version number and quit.").build());
@@ -130,6 +141,14 @@ public final class TerminalOptionsBuilder {
             .longOpt(Params.parallel.name())
             .desc("Number of concurrent connections to use for transfers")
             .hasArg().optionalArg(true).argName("connections").build());
+        options.addOption(Option.builder()
+            .longOpt(Params.size.name())
+            .desc("Comma separated file sizes for benchmark")
+            .hasArg().argName("bytes").build());
+        options.addOption(Option.builder()
+            .longOpt(Params.count.name())
+            .desc("Number of files for each size in benchmark")
+            .hasArg().argName("count").build());
         options.addOption(Option.builder()
             .longOpt(Params.throttle.name())
             .desc("Throttle bandwidth")
@@ -177,6 +196,9 @@ public final class TerminalOptionsBuilder {
         options.addOption(Option.builder("y")
             .longOpt(Params.assumeyes.name())
             .desc("Assume yes for all prompts").build());
+        options.addOption(Option.builder()
+            .longOpt(Params.metrics.name())
+            .desc("Print request latency, connection pool and transfer metrics as JSON").build());
 
         return options;
     }
@@ -193,6 +215,8 @@ public final class TerminalOptionsBuilder {
         retry,
         udt,
         parallel,
+        size,
+        count,
         throttle,
         nochecksum,
         nokeychain,
@@ -207,6 +231,7 @@ public final class TerminalOptionsBuilder {
         application,
         chmod,
         profile,
-        debug
+        debug,
+        metrics
     }
 }
@@ -29,6 +29,7 @@ import ch.cyberduck.core.transfer.TransferAction;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Option;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -114,6 +115,31 @@ public class TerminalOptionsInputValidator {
                     return false;
                 }
                 break;
+            case benchmark:
+                if(input.hasOption(TerminalOptionsBuilder.Params.size.name())) {
+                    for(String size : StringUtils.split(input.getOptionValue(TerminalOptionsBuilder.Params.size.name()), ',')) {
+                        if(!validate(size.trim(), TerminalOptionsBuilder.Params.size)) {
+                            return false;
+                        }
+                    }
+                }
+                if(input.hasOption(TerminalOptionsBuilder.Params.count.name())) {
+                    if(!validate(input.getOptionValue(TerminalOptionsBuilder.Params.count.name()), TerminalOptionsBuilder.Params.count)) {
+                        return false;
+                    }
+                }
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Validate positive number
+     */
+    private boolean validate(final String arg, final TerminalOptionsBuilder.Params param) {
+        if(!NumberUtils.isDigits(arg) || NumberUtils.toLong(arg) <= 0L) {
+            console.printf("Invalid argument '%s' for option %s. Must be a positive number%n", arg, param.name());
+            return false;
         }
         return true;
     }
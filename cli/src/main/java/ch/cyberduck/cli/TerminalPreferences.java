@@ -22,21 +22,54 @@ import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferAction;
 
 import org.apache.commons.cli.CommandLine;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Appender;
 import org.apache.log4j.Logger;
 import org.apache.log4j.PatternLayout;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class TerminalPreferences extends Preferences {
     private static final Logger log = Logger.getLogger(TerminalPreferences.class);
 
     private final Preferences proxy;
 
+    /**
+     * Previous values of defaults changed since snapshot was taken
+     */
+    private Map<String, String> snapshot;
+    private String logging;
+
     public TerminalPreferences(final Preferences persistence) {
         this.proxy = persistence;
     }
 
+    /**
+     * Record defaults changed from now on by options of a single invocation
+     */
+    public synchronized void snapshot() {
+        snapshot = new HashMap<>();
+        logging = this.getProperty("logging");
+    }
+
+    /**
+     * Revert defaults changed since snapshot was taken
+     */
+    public synchronized void restore() {
+        if(null == snapshot) {
+            return;
+        }
+        for(Map.Entry<String, String> entry : snapshot.entrySet()) {
+            proxy.setDefault(entry.getKey(), entry.getValue());
+        }
+        snapshot = null;
+        if(!StringUtils.equals(logging, this.getProperty("logging"))) {
+            this.setLogging(logging);
+        }
+    }
+
     @Override
     protected void setFactories() {
         super.setFactories();
@@ -90,6 +123,18 @@ public class TerminalPreferences extends Preferences {
         this.setDefault("queue.copy.reload.action", TransferAction.comparison.name());
 
         this.setDefault("keychain.secure", String.valueOf(false));
+
+        // Forward invocations to running daemon
+        this.setDefault("cli.daemon.enable", String.valueOf(true));
+        this.setDefault("cli.daemon.connect.timeout", String.valueOf(1000));
+        // Shutdown connections unused for 5 minutes
+        this.setDefault("cli.daemon.idle.timeout", String.valueOf(300));
+        // Maximum number of connections per host
+        this.setDefault("cli.daemon.connections.limit", String.valueOf(5));
+
+        // File sizes and number of files for each size in benchmark
+        this.setDefault("cli.benchmark.size", String.valueOf(1024L * 1024L));
+        this.setDefault("cli.benchmark.count", String.valueOf(10));
     }
 
     public TerminalPreferences withDefaults(final CommandLine input) {
@@ -107,7 +152,10 @@ public class TerminalPreferences extends Preferences {
     }
 
     @Override
-    public void setDefault(final String property, final String value) {
+    public synchronized void setDefault(final String property, final String value) {
+        if(null != snapshot && !snapshot.containsKey(property)) {
+            snapshot.put(property, proxy.getDefault(property));
+        }
         proxy.setDefault(property, value);
     }
 
@@ -0,0 +1,162 @@
+package ch.cyberduck.cli;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.OAuthTokens;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keep connection pools per bookmark open between invocations served by the daemon. Pools not used for longer than
+ * the idle timeout are shut down.
+ */
+public class TerminalSessionPools {
+    private static final Logger log = Logger.getLogger(TerminalSessionPools.class);
+
+    private final Map<String, Entry> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Idle timeout in milliseconds
+     */
+    private final long timeout;
+
+    public TerminalSessionPools() {
+        this(PreferencesFactory.get().getLong("cli.daemon.idle.timeout") * 1000L);
+    }
+
+    public TerminalSessionPools(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param host   Bookmark
+     * @param create Create new pool if none is open for bookmark
+     * @return Open pool for bookmark or new pool
+     */
+    public SessionPool get(final Host host, final Supplier<SessionPool> create) {
+        return pools.compute(this.toKey(host), (key, existing) -> {
+            final Entry entry;
+            if(null == existing) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Create new connection pool for %s", key));
+                }
+                entry = new Entry(create.get());
+            }
+            else {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Reuse connection pool %s for %s", existing.pool, key));
+                }
+                entry = existing;
+            }
+            entry.active.incrementAndGet();
+            return entry;
+        }).pool;
+    }
+
+    /**
+     * @param pool Pool no longer used by invocation
+     * @return False if pool is not managed and must be shut down by caller
+     */
+    public boolean release(final SessionPool pool) {
+        for(Entry entry : pools.values()) {
+            if(entry.pool == pool) {
+                entry.timestamp = System.currentTimeMillis();
+                entry.active.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shut down pools idle longer than timeout
+     */
+    public void evict() {
+        final long now = System.currentTimeMillis();
+        final List<SessionPool> idle = new ArrayList<>();
+        for(String key : pools.keySet()) {
+            // Atomic with lookup for same bookmark
+            pools.computeIfPresent(key, (k, entry) -> {
+                if(entry.active.get() > 0 || now - entry.timestamp < timeout) {
+                    return entry;
+                }
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Shutdown idle connection pool for %s", k));
+                }
+                idle.add(entry.pool);
+                return null;
+            });
+        }
+        for(SessionPool pool : idle) {
+            pool.shutdown();
+        }
+    }
+
+    public void shutdown() {
+        for(Entry entry : pools.values()) {
+            entry.pool.shutdown();
+        }
+        pools.clear();
+    }
+
+    public int size() {
+        return pools.size();
+    }
+
+    /**
+     * @return Key with protocol, URL, options and digest of credentials as invocations may authenticate differently
+     * for the same user
+     */
+    private String toKey(final Host host) {
+        final Credentials credentials = host.getCredentials();
+        final OAuthTokens tokens = credentials.getOauth();
+        final String secret = StringUtils.join(Arrays.asList(
+            credentials.getPassword(),
+            credentials.getToken(),
+            null == tokens ? null : tokens.getAccessToken(),
+            null == credentials.getIdentity() ? null : credentials.getIdentity().getAbsolute(),
+            credentials.getIdentityPassphrase(),
+            credentials.getCertificate()), '\u0000');
+        return String.format("%s %s region=%s encoding=%s %s", host.getProtocol().getIdentifier(),
+            new HostUrlProvider().withUsername(true).withPath(false).get(host),
+            host.getRegion(), host.getEncoding(), DigestUtils.sha256Hex(secret));
+    }
+
+    private static final class Entry {
+        private final SessionPool pool;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile long timestamp = System.currentTimeMillis();
+
+        private Entry(final SessionPool pool) {
+            this.pool = pool;
+        }
+    }
+}
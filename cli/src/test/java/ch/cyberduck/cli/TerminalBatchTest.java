@@ -0,0 +1,45 @@
+package ch.cyberduck.cli;
+
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.ProtocolFactory;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TerminalBatchTest {
+
+    @Test
+    public void testParse() throws Exception {
+        final Options options = TerminalOptionsBuilder.options();
+        final CommandLine input = new DefaultParser().parse(options, new String[]{"--batch", "-"});
+        final TerminalBatch batch = new TerminalBatch(options, input, new ProtocolFactory(Collections.emptySet()), null,
+            new TerminalSessionPools(0L), host -> null, PathCache.empty(), 1);
+        final List<TerminalBatch.Item> items = batch.parse(new StringReader(
+            "# comment\n\nupload sftp://h/d/ \"/tmp/f 1\"\n  mkdir sftp://h/d/n\n"));
+        assertEquals(2, items.size());
+        assertEquals(3, items.get(0).getNumber());
+        assertArrayEquals(new String[]{"upload", "sftp://h/d/", "/tmp/f 1"}, items.get(0).getArgs());
+        assertEquals(4, items.get(1).getNumber());
+        assertArrayEquals(new String[]{"mkdir", "sftp://h/d/n"}, items.get(1).getArgs());
+    }
+
+    @Test
+    public void testRunInvalid() throws Exception {
+        final Options options = TerminalOptionsBuilder.options();
+        final CommandLine input = new DefaultParser().parse(options, new String[]{"--batch", "-", "--parallel", "2"});
+        final TerminalSessionPools pools = new TerminalSessionPools(0L);
+        final TerminalBatch batch = new TerminalBatch(options, input, new ProtocolFactory(Collections.emptySet()), null,
+            pools, host -> null, PathCache.empty(), 2);
+        assertTrue(batch.run(new StringReader("")));
+        assertFalse(batch.run(new StringReader("list sftp://h/\nunknown sftp://h/\nupload sftp://h/\n")));
+        assertEquals(0, pools.size());
+    }
+}
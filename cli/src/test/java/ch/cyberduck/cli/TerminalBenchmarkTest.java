@@ -0,0 +1,93 @@
+package ch.cyberduck.cli;
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.vault.VaultRegistry;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TerminalBenchmarkTest {
+
+    @Test
+    public void testSyntheticInputStream() throws Exception {
+        assertEquals(0L, IOUtils.copyLarge(new TerminalBenchmark.SyntheticInputStream(0L), new NullOutputStream()));
+        assertEquals(1L, IOUtils.copyLarge(new TerminalBenchmark.SyntheticInputStream(1L), new NullOutputStream()));
+        assertEquals(200000L, IOUtils.copyLarge(new TerminalBenchmark.SyntheticInputStream(200000L), new NullOutputStream()));
+    }
+
+    @Test
+    public void testResult() {
+        final TerminalBenchmark.Result result = new TerminalBenchmark.Result();
+        result.getLatency().record(1000L);
+        result.getLatency().record(3000L);
+        final Map<String, Object> map = result.toMap(TerminalBenchmark.Phase.upload, 1024L);
+        assertEquals("upload", map.get("phase"));
+        assertEquals(2L, map.get("count"));
+        assertEquals(0, map.get("failures"));
+        assertEquals(1d, (Double) map.get("p50"), 0.2d);
+        assertTrue((Double) map.get("p99") >= 3d);
+    }
+
+    @Test
+    public void testFailureBorrow() throws Exception {
+        final TerminalBenchmark benchmark = new TerminalBenchmark(new SessionPool() {
+            private final Host host = new Host(new TestProtocol());
+
+            @Override
+            public <C> Session<C> borrow(final BackgroundActionState callback) throws BackgroundException {
+                throw new ConnectionRefusedException("Connection refused", null);
+            }
+
+            @Override
+            public void release(final Session<?> session, final BackgroundException failure) {
+                fail();
+            }
+
+            @Override
+            public void evict() {
+            }
+
+            @Override
+            public Host getHost() {
+                return host;
+            }
+
+            @Override
+            public VaultRegistry getVault() {
+                return VaultRegistry.DISABLED;
+            }
+
+            @Override
+            public Session.State getState() {
+                return Session.State.closed;
+            }
+
+            @Override
+            public <T> T getFeature(final Class<T> type) {
+                return null;
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        }, 2);
+        final TerminalBenchmark.Result result = benchmark.run(TerminalBenchmark.Phase.upload, Arrays.asList(
+            new Path("/a", EnumSet.of(Path.Type.file)), new Path("/b", EnumSet.of(Path.Type.file)), new Path("/c", EnumSet.of(Path.Type.file))), 1024L);
+        assertEquals(3, result.getFailures());
+        assertEquals(0L, result.getLatency().getCount());
+    }
+}
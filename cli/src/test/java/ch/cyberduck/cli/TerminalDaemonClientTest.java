@@ -0,0 +1,49 @@
+package ch.cyberduck.cli;
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TerminalDaemonClientTest {
+
+    @Test
+    public void testResolve() throws Exception {
+        final String[] args = {"--upload", "s3://b/", "f", "-i", "/k", "-q"};
+        final CommandLine input = new DefaultParser().parse(TerminalOptionsBuilder.options(), args);
+        assertEquals(Arrays.asList("--upload", "s3://b/", new File("f").getAbsolutePath(), "-i", "/k", "-q"),
+            new TerminalDaemonClient(new File("daemon"), System.out).resolve(args, input));
+    }
+
+    @Test
+    public void testForwardStale() throws Exception {
+        PreferencesFactory.get().setDefault("cli.daemon.connect.timeout", String.valueOf(1000));
+        final int port;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = server.getLocalPort();
+        }
+        final File file = File.createTempFile(UUID.randomUUID().toString(), ".daemon");
+        final Properties properties = new Properties();
+        properties.setProperty("port", String.valueOf(port));
+        properties.setProperty("token", "t");
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, null);
+        }
+        final String[] args = {"--list", "s3://b/"};
+        final CommandLine input = new DefaultParser().parse(TerminalOptionsBuilder.options(), args);
+        assertNull(new TerminalDaemonClient(file, System.out).forward(args, input));
+        assertFalse(file.exists());
+    }
+}
@@ -24,6 +24,8 @@ import ch.cyberduck.core.ftp.FTPProtocol;
 import ch.cyberduck.core.openstack.SwiftProtocol;
 import ch.cyberduck.core.serializer.impl.dd.ProfilePlistReader;
 
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -87,4 +89,17 @@ public class TerminalOptionsInputValidatorTest {
         assertFalse(new TerminalOptionsInputValidator(new ProtocolFactory(list)).validate("rackspace://"));
         assertTrue(new TerminalOptionsInputValidator(new ProtocolFactory(list)).validate("rackspace:///"));
     }
+
+    @Test
+    public void testValidateBenchmarkSize() throws Exception {
+        final Options options = TerminalOptionsBuilder.options();
+        assertTrue(new TerminalOptionsInputValidator().validate(new DefaultParser().parse(options,
+            new String[]{"--benchmark", "ftp://cdn.duck.sh/", "--size", "1024, 1048576", "--count", "2"})));
+        assertFalse(new TerminalOptionsInputValidator().validate(new DefaultParser().parse(options,
+            new String[]{"--benchmark", "ftp://cdn.duck.sh/", "--size", "1k"})));
+        assertFalse(new TerminalOptionsInputValidator().validate(new DefaultParser().parse(options,
+            new String[]{"--benchmark", "ftp://cdn.duck.sh/", "--size", "0"})));
+        assertFalse(new TerminalOptionsInputValidator().validate(new DefaultParser().parse(options,
+            new String[]{"--benchmark", "ftp://cdn.duck.sh/", "--count", "n"})));
+    }
 }
@@ -0,0 +1,55 @@
+package ch.cyberduck.cli;
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledTranscriptListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.TestLoginConnectionService;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.pool.StatelessSessionPool;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class TerminalSessionPoolsTest {
+
+    @Test
+    public void testReuse() {
+        final TerminalSessionPools pools = new TerminalSessionPools(0L);
+        final AtomicInteger count = new AtomicInteger();
+        final Host host = new Host(new TestProtocol(), "h", new Credentials("u"));
+        final Supplier<SessionPool> create = () -> {
+            count.incrementAndGet();
+            return new StatelessSessionPool(new TestLoginConnectionService(), new NullSession(host),
+                new DisabledTranscriptListener(), new DefaultVaultRegistry(new DisabledPasswordCallback()));
+        };
+        final SessionPool pool = pools.get(host, create);
+        // In use
+        pools.evict();
+        assertEquals(1, pools.size());
+        assertTrue(pools.release(pool));
+        assertSame(pool, pools.get(new Host(new TestProtocol(), "h", new Credentials("u")), create));
+        assertEquals(1, count.get());
+        assertTrue(pools.release(pool));
+        // Different user
+        final SessionPool other = pools.get(new Host(new TestProtocol(), "h", new Credentials("a")), create);
+        assertNotSame(pool, other);
+        assertEquals(2, count.get());
+        assertTrue(pools.release(other));
+        // Different password
+        final SessionPool password = pools.get(new Host(new TestProtocol(), "h", new Credentials("u", "p")), create);
+        assertNotSame(pool, password);
+        assertEquals(3, count.get());
+        assertTrue(pools.release(password));
+        assertFalse(pools.release(SessionPool.DISCONNECTED));
+        pools.evict();
+        assertEquals(0, pools.size());
+    }
+}
@@ -91,6 +91,8 @@ public class BookmarkCollection extends MonitorFolderHostCollection {
             }
             else {
                 preferences.deleteProperty(toProperty(bookmark, prefix));
+                ListingIndexFactory.remove(bookmark);
+                new ChangesCursorStore(preferences).remove(bookmark);
             }
         }
         finally {
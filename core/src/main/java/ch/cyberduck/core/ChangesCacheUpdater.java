@@ -0,0 +1,87 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.features.Changes;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Patch cached directory listings with changes from a change feed instead of listing directories again
+ */
+public class ChangesCacheUpdater {
+    private static final Logger log = Logger.getLogger(ChangesCacheUpdater.class);
+
+    private final Cache<Path> cache;
+
+    public ChangesCacheUpdater(final Cache<Path> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @param changes Changes from feed
+     * @return Directories with changed contents
+     */
+    public Set<Path> update(final Changes.ChangeSet changes) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Update cache %s with %s", cache, changes));
+        }
+        final Set<Path> changed = new HashSet<>();
+        for(Path file : changes.getDeleted()) {
+            final Path parent = file.getParent();
+            if(cache.isCached(parent)) {
+                cache.put(parent, this.remove(cache.get(parent), file));
+            }
+            // Discard listings of deleted folder and its descendants
+            for(Path directory : new ArrayList<>(cache.asMap().keySet())) {
+                if(StringUtils.equals(directory.getAbsolute(), file.getAbsolute())
+                    || StringUtils.startsWith(directory.getAbsolute(), file.getAbsolute() + Path.DELIMITER)) {
+                    cache.remove(directory);
+                }
+            }
+            changed.add(parent);
+        }
+        for(Path file : changes.getModified()) {
+            final Path parent = file.getParent();
+            if(cache.isCached(parent)) {
+                final AttributedList<Path> list = this.remove(cache.get(parent), file);
+                list.add(file);
+                cache.put(parent, list);
+            }
+            changed.add(parent);
+        }
+        return changed;
+    }
+
+    /**
+     * @return Copy of listing without file regardless of its type
+     */
+    private AttributedList<Path> remove(final AttributedList<Path> list, final Path file) {
+        final AttributedList<Path> copy = new AttributedList<>();
+        for(Path f : list) {
+            if(StringUtils.equals(f.getAbsolute(), file.getAbsolute())) {
+                continue;
+            }
+            copy.add(f);
+        }
+        return copy;
+    }
+}
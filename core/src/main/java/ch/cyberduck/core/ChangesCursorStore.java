@@ -0,0 +1,143 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persist change feed cursors per bookmark in a single property limited to the most recently synchronized directories
+ */
+public class ChangesCursorStore {
+    private static final Logger log = Logger.getLogger(ChangesCursorStore.class);
+
+    /**
+     * Shared by all instances updating the property of the same bookmark
+     */
+    private static final Object lock = new Object();
+
+    private final Preferences preferences;
+    /**
+     * Maximum number of directories with cursor per bookmark
+     */
+    private final int limit;
+
+    public ChangesCursorStore() {
+        this(PreferencesFactory.get());
+    }
+
+    public ChangesCursorStore(final Preferences preferences) {
+        this.preferences = preferences;
+        this.limit = preferences.getInteger("queue.sync.changes.cursors.limit");
+    }
+
+    /**
+     * @param bookmark  Bookmark
+     * @param directory Directory
+     * @return Null if no cursor is saved
+     */
+    public String get(final Host bookmark, final Path directory) {
+        synchronized(lock) {
+            return this.load(bookmark).get(directory.getAbsolute());
+        }
+    }
+
+    public void put(final Host bookmark, final Path directory, final String cursor) {
+        synchronized(lock) {
+            final Map<String, String> cursors = this.load(bookmark);
+            // Most recently used last
+            cursors.remove(directory.getAbsolute());
+            cursors.put(directory.getAbsolute(), cursor);
+            for(Iterator<String> iter = cursors.keySet().iterator(); cursors.size() > limit; ) {
+                iter.next();
+                iter.remove();
+            }
+            this.save(bookmark, cursors);
+        }
+    }
+
+    public void remove(final Host bookmark, final Path directory) {
+        synchronized(lock) {
+            final Map<String, String> cursors = this.load(bookmark);
+            if(null != cursors.remove(directory.getAbsolute())) {
+                this.save(bookmark, cursors);
+            }
+        }
+    }
+
+    /**
+     * Remove all cursors of deleted bookmark
+     */
+    public void remove(final Host bookmark) {
+        synchronized(lock) {
+            preferences.deleteProperty(this.toKey(bookmark));
+        }
+    }
+
+    private Map<String, String> load(final Host bookmark) {
+        final Map<String, String> cursors = new LinkedHashMap<>();
+        for(String entry : preferences.getList(this.toKey(bookmark))) {
+            final String[] pair = StringUtils.split(entry, '=');
+            if(pair.length != 2) {
+                log.warn(String.format("Invalid cursor entry %s", entry));
+                continue;
+            }
+            try {
+                cursors.put(URLDecoder.decode(pair[0], StandardCharsets.UTF_8.name()), URLDecoder.decode(pair[1], StandardCharsets.UTF_8.name()));
+            }
+            catch(UnsupportedEncodingException | IllegalArgumentException e) {
+                log.warn(String.format("Invalid cursor entry %s", entry));
+            }
+        }
+        return cursors;
+    }
+
+    private void save(final Host bookmark, final Map<String, String> cursors) {
+        if(cursors.isEmpty()) {
+            preferences.deleteProperty(this.toKey(bookmark));
+            return;
+        }
+        final List<String> entries = new ArrayList<>();
+        try {
+            for(Map.Entry<String, String> entry : cursors.entrySet()) {
+                entries.add(String.format("%s=%s", URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8.name()),
+                    URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8.name())));
+            }
+        }
+        catch(UnsupportedEncodingException e) {
+            log.warn(String.format("Failure encoding cursors for %s. %s", bookmark, e.getMessage()));
+            return;
+        }
+        preferences.setProperty(this.toKey(bookmark), entries);
+    }
+
+    private String toKey(final Host bookmark) {
+        return String.format("changes.cursor.%s", bookmark.getUuid());
+    }
+}
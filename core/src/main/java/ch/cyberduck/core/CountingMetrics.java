@@ -16,23 +16,97 @@ package ch.cyberduck.core;
  */
 
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
+/**
+ * Lock-free counters, gauges and histograms
+ */
 public class CountingMetrics implements Metrics {
 
-    private final Map<Object, AtomicLong> metrics = new ConcurrentHashMap<>();
+    private final Map<Object, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<Object, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<Object, LongSupplier> gauges = new ConcurrentHashMap<>();
 
     @Override
     public <T> void increment(final T key) {
-        if(!metrics.containsKey(key)) {
-            metrics.put(key, new AtomicLong());
+        this.add(key, 1L);
+    }
+
+    @Override
+    public <T> void add(final T key, final long delta) {
+        LongAdder counter = counters.get(key);
+        if(null == counter) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.add(delta);
+    }
+
+    @Override
+    public <T> void record(final T key, final long value) {
+        Histogram histogram = histograms.get(key);
+        if(null == histogram) {
+            histogram = histograms.computeIfAbsent(key, k -> new Histogram());
+        }
+        histogram.record(value);
+    }
+
+    @Override
+    public <T> void gauge(final T key, final LongSupplier supplier) {
+        if(null == supplier) {
+            gauges.remove(key);
+        }
+        else {
+            gauges.put(key, supplier);
         }
-        metrics.get(key).getAndIncrement();
     }
 
     @Override
     public <T> long get(final T key) {
-        return metrics.containsKey(key) ? metrics.get(key).longValue() : 0;
+        final LongAdder counter = counters.get(key);
+        if(counter != null) {
+            return counter.sum();
+        }
+        final LongSupplier gauge = gauges.get(key);
+        if(gauge != null) {
+            return gauge.getAsLong();
+        }
+        final Histogram histogram = histograms.get(key);
+        if(histogram != null) {
+            return histogram.getCount();
+        }
+        return 0L;
+    }
+
+    public Histogram getHistogram(final Object key) {
+        return histograms.get(key);
+    }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        final Map<String, Object> snapshot = new TreeMap<>();
+        counters.forEach((key, counter) -> snapshot.put(toName(key), counter.sum()));
+        gauges.forEach((key, gauge) -> snapshot.put(toName(key), gauge.getAsLong()));
+        histograms.forEach((key, histogram) -> snapshot.put(toName(key), histogram.toMap()));
+        return snapshot;
+    }
+
+    private static String toName(final Object key) {
+        if(key instanceof Class) {
+            return ((Class<?>) key).getName();
+        }
+        return String.valueOf(key);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CountingMetrics{");
+        sb.append("counters=").append(counters.size());
+        sb.append(", gauges=").append(gauges.size());
+        sb.append(", histograms=").append(histograms.size());
+        sb.append('}');
+        return sb.toString();
     }
 }
@@ -15,12 +15,33 @@ package ch.cyberduck.core;
  * GNU General Public License for more details.
  */
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
 public class DisabledMetrics implements Metrics {
 
     public <T> void increment(final T key) {
     }
 
+    @Override
+    public <T> void add(final T key, final long delta) {
+    }
+
+    @Override
+    public <T> void record(final T key, final long value) {
+    }
+
+    @Override
+    public <T> void gauge(final T key, final LongSupplier supplier) {
+    }
+
     public <T> long get(final T key) {
         return 0;
     }
+
+    @Override
+    public Map<String, Object> snapshot() {
+        return Collections.emptyMap();
+    }
 }
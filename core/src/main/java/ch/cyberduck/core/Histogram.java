@@ -0,0 +1,127 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram with logarithmic buckets subdivided linearly into 8 sub-buckets. Values below 16 are recorded
+ * exactly, larger values with a relative error of at most 12.5%.
+ */
+public final class Histogram {
+
+    private static final int EXACT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(index(Long.MAX_VALUE) + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param value Sample. Negative values are recorded as 0.
+     */
+    public void record(final long value) {
+        final long v = Math.max(0L, value);
+        buckets.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+        if(v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        final long n = count.sum();
+        return n == 0 ? 0d : (double) sum.sum() / n;
+    }
+
+    /**
+     * @param percentile Percentile between 0 and 100
+     * @return Upper bound of the bucket containing the percentile
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long n = count.sum();
+        if(n == 0) {
+            return 0L;
+        }
+        final long target = Math.max(1L, (long) Math.ceil(Math.min(100d, percentile) / 100d * n));
+        long total = 0;
+        for(int i = 0; i < buckets.length(); i++) {
+            total += buckets.get(i);
+            if(total >= target) {
+                return Math.min(upper(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @return Count, mean, maximum and percentiles
+     */
+    public Map<String, Number> toMap() {
+        final Map<String, Number> map = new LinkedHashMap<>();
+        map.put("count", this.getCount());
+        map.put("mean", this.getMean());
+        map.put("p50", this.getValueAtPercentile(50));
+        map.put("p90", this.getValueAtPercentile(90));
+        map.put("p99", this.getValueAtPercentile(99));
+        map.put("max", this.getMax());
+        return map;
+    }
+
+    private static int index(final long value) {
+        if(value < EXACT) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    private static long upper(final int index) {
+        if(index < EXACT) {
+            return index;
+        }
+        final int exponent = (index - EXACT) / SUB_BUCKETS + 4;
+        final int sub = (index - EXACT) % SUB_BUCKETS;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Histogram{");
+        sb.append("count=").append(this.getCount());
+        sb.append(", mean=").append(this.getMean());
+        sb.append(", max=").append(this.getMax());
+        sb.append('}');
+        return sb.toString();
+    }
+}
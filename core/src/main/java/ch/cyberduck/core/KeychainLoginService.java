@@ -172,6 +172,8 @@ public class KeychainLoginService implements LoginService {
                 log.debug(String.format("Attempt authentication for %s", bookmark));
             }
             session.login(proxy, prompt, cancel);
+            // Discard features looked up before capabilities of server were determined in login
+            session.invalidateFeatures();
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Login successful for session %s", session));
             }
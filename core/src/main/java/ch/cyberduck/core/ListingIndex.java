@@ -0,0 +1,273 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Local metadata index of directory listings for a single bookmark. Keeps name, size, modification date and checksum
+ * of every file seen in a complete directory listing and answers search queries without a remote roundtrip.
+ */
+public class ListingIndex {
+    private static final Logger log = Logger.getLogger(ListingIndex.class);
+
+    private final Map<SimplePathPredicate, Entry> directories = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum age in milliseconds of an indexed directory listing before it is considered stale
+     */
+    private final long ttl;
+
+    public ListingIndex(final long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Replace indexed contents of directory with complete listing
+     *
+     * @param directory Directory
+     * @param children  Complete directory listing
+     */
+    public void put(final Path directory, final AttributedList<Path> children) {
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Index %d files in %s", children.size(), directory));
+        }
+        final Set<SimplePathPredicate> removed = new HashSet<>();
+        final Entry previous = directories.get(new SimplePathPredicate(directory));
+        if(previous != null) {
+            for(Path file : previous.children) {
+                if(file.isDirectory()) {
+                    removed.add(new SimplePathPredicate(file));
+                }
+            }
+        }
+        final List<Path> list = new ArrayList<>(children.size());
+        for(Path file : children) {
+            if(file.attributes().isDuplicate()) {
+                continue;
+            }
+            list.add(file);
+            if(file.isDirectory()) {
+                removed.remove(new SimplePathPredicate(file));
+            }
+        }
+        directories.put(new SimplePathPredicate(directory), new Entry(list, System.currentTimeMillis()));
+        for(SimplePathPredicate r : removed) {
+            // Folders no longer found in parent
+            directories.remove(r);
+        }
+    }
+
+    /**
+     * Mark indexed directory listing as out of date. Contents are still returned in search results until refreshed.
+     *
+     * @param directory Directory
+     */
+    public void invalidate(final Path directory) {
+        final Entry entry = directories.get(new SimplePathPredicate(directory));
+        if(entry != null) {
+            entry.invalid = true;
+        }
+    }
+
+    /**
+     * Remove directory and its indexed subdirectories from index
+     *
+     * @param directory Directory
+     */
+    public void remove(final Path directory) {
+        final Entry entry = directories.remove(new SimplePathPredicate(directory));
+        if(entry != null) {
+            for(Path file : entry.children) {
+                if(file.isDirectory()) {
+                    this.remove(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark listings of parent directories as out of date and drop indexed contents of changed directories
+     *
+     * @param files Files added, modified or deleted
+     */
+    public void invalidate(final Collection<Path> files) {
+        for(Path file : files) {
+            if(file.isDirectory()) {
+                this.remove(file);
+            }
+            if(!file.isRoot()) {
+                this.invalidate(file.getParent());
+            }
+        }
+    }
+
+    public void clear() {
+        directories.clear();
+    }
+
+    /**
+     * @param directory Directory
+     * @return True if a listing for the directory is indexed regardless of its age
+     */
+    public boolean isIndexed(final Path directory) {
+        return directories.containsKey(new SimplePathPredicate(directory));
+    }
+
+    /**
+     * @param directory Directory
+     * @return True if an indexed listing for the directory exists and is not outdated
+     */
+    public boolean isValid(final Path directory) {
+        final Entry entry = directories.get(new SimplePathPredicate(directory));
+        if(null == entry) {
+            return false;
+        }
+        return this.isValid(entry);
+    }
+
+    private boolean isValid(final Entry entry) {
+        return !entry.invalid && entry.timestamp + ttl > System.currentTimeMillis();
+    }
+
+    /**
+     * @param workdir Directory to search in
+     * @return Directories in the subtree missing in index or outdated
+     */
+    public Set<Path> stale(final Path workdir) {
+        final Set<Path> stale = new HashSet<>();
+        this.stale(workdir, stale);
+        return stale;
+    }
+
+    private void stale(final Path directory, final Set<Path> stale) {
+        final Entry entry = directories.get(new SimplePathPredicate(directory));
+        if(null == entry || !this.isValid(entry)) {
+            stale.add(directory);
+            return;
+        }
+        for(Path file : entry.children) {
+            if(file.isDirectory()) {
+                this.stale(file, stale);
+            }
+        }
+    }
+
+    /**
+     * @param workdir   Directory to search in
+     * @param filter    Search filter. If the pattern contains wildcards <code>*</code> or <code>?</code> it is
+     *                  interpreted as a glob
+     * @param recursive Include contents of indexed subdirectories
+     * @return Matching files ranked by exact match, prefix match and then path depth
+     */
+    public AttributedList<Path> search(final Path workdir, final Filter<Path> filter, final boolean recursive) {
+        final String query = filter.toPattern().pattern();
+        final Pattern glob = isGlob(query) ? toGlob(query) : null;
+        final List<Path> results = new ArrayList<>();
+        this.search(workdir, filter, glob, recursive, results);
+        final String term = StringUtils.lowerCase(query, Locale.ROOT);
+        results.sort(Comparator.<Path>comparingInt(file -> rank(file, term))
+            .thenComparingInt(file -> StringUtils.countMatches(file.getAbsolute(), file.getDelimiter()))
+            .thenComparing(Path::getAbsolute));
+        return new AttributedList<>(results);
+    }
+
+    private void search(final Path directory, final Filter<Path> filter, final Pattern glob, final boolean recursive,
+                        final Collection<Path> results) {
+        final Entry entry = directories.get(new SimplePathPredicate(directory));
+        if(null == entry) {
+            return;
+        }
+        for(Path file : entry.children) {
+            if(filter.accept(file) || null != glob && glob.matcher(file.getName()).matches()) {
+                results.add(file);
+            }
+            if(recursive && file.isDirectory()) {
+                this.search(file, filter, glob, true, results);
+            }
+        }
+    }
+
+    private static int rank(final Path file, final String term) {
+        final String name = StringUtils.lowerCase(file.getName(), Locale.ROOT);
+        if(name.equals(term)) {
+            return 0;
+        }
+        if(name.startsWith(term)) {
+            return 1;
+        }
+        if(name.contains(term)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static boolean isGlob(final String query) {
+        return StringUtils.containsAny(query, '*', '?');
+    }
+
+    private static Pattern toGlob(final String query) {
+        final StringBuilder pattern = new StringBuilder();
+        final StringBuilder literal = new StringBuilder();
+        for(char c : query.toCharArray()) {
+            if(c == '*' || c == '?') {
+                if(literal.length() > 0) {
+                    pattern.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                pattern.append(c == '*' ? ".*" : ".");
+            }
+            else {
+                literal.append(c);
+            }
+        }
+        if(literal.length() > 0) {
+            pattern.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(pattern.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ListingIndex{");
+        sb.append("directories=").append(directories.size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static final class Entry {
+        private final List<Path> children;
+        private final long timestamp;
+        private volatile boolean invalid;
+
+        public Entry(final List<Path> children, final long timestamp) {
+            this.children = children;
+            this.timestamp = timestamp;
+        }
+    }
+}
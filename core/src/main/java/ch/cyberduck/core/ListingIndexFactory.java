@@ -0,0 +1,72 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class ListingIndexFactory {
+
+    /**
+     * Index by bookmark identifier
+     */
+    private static final Map<String, ListingIndex> indexes = new ConcurrentHashMap<>();
+
+    private ListingIndexFactory() {
+        //
+    }
+
+    /**
+     * @return True if the listing index is enabled in preferences
+     */
+    public static boolean isEnabled() {
+        return PreferencesFactory.get().getBoolean("browser.search.index.enable");
+    }
+
+    /**
+     * @param bookmark Bookmark
+     * @return Shared index for all sessions of bookmark
+     */
+    public static ListingIndex get(final Host bookmark) {
+        return indexes.computeIfAbsent(bookmark.getUuid(),
+            uuid -> new ListingIndex(PreferencesFactory.get().getLong("browser.search.index.ttl")));
+    }
+
+    /**
+     * Mark indexed listings affected by changes as out of date
+     *
+     * @param bookmark Bookmark
+     * @param files    Files added, modified or deleted
+     */
+    public static void invalidate(final Host bookmark, final Collection<Path> files) {
+        final ListingIndex index = indexes.get(bookmark.getUuid());
+        if(index != null) {
+            index.invalidate(files);
+        }
+    }
+
+    /**
+     * Discard index for bookmark
+     *
+     * @param bookmark Bookmark
+     */
+    public static void remove(final Host bookmark) {
+        indexes.remove(bookmark.getUuid());
+    }
+}
@@ -15,9 +15,35 @@ package ch.cyberduck.core;
  * GNU General Public License for more details.
  */
 
+import java.util.Map;
+import java.util.function.LongSupplier;
+
 public interface Metrics {
 
     <T> void increment(T key);
 
+    /**
+     * @param key   Counter
+     * @param delta Value to add to counter. Can be negative.
+     */
+    <T> void add(T key, long delta);
+
+    /**
+     * @param key   Histogram
+     * @param value Sample such as latency in microseconds
+     */
+    <T> void record(T key, long value);
+
+    /**
+     * @param key      Gauge
+     * @param supplier Current value read when taking a snapshot or null to remove
+     */
+    <T> void gauge(T key, LongSupplier supplier);
+
     <T> long get(T key);
+
+    /**
+     * @return Current value of all counters, gauges and histograms by name
+     */
+    Map<String, Object> snapshot();
 }
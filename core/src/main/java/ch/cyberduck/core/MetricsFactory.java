@@ -0,0 +1,48 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+public final class MetricsFactory {
+
+    private static volatile Metrics metrics;
+
+    private MetricsFactory() {
+        //
+    }
+
+    /**
+     * @return Process wide metrics for connections, pools and transfers. Disabled unless set in preferences.
+     */
+    public static Metrics get() {
+        if(null == metrics) {
+            synchronized(MetricsFactory.class) {
+                if(null == metrics) {
+                    metrics = PreferencesFactory.get().getBoolean("metrics.enable") ? new CountingMetrics() : new DisabledMetrics();
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * @param instance Replace process wide metrics
+     */
+    public static void set(final Metrics instance) {
+        metrics = instance;
+    }
+}
@@ -21,26 +21,54 @@ package ch.cyberduck.core;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ResolveCanceledException;
 import ch.cyberduck.core.exception.ResolveFailedException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.CancelCallback;
-import ch.cyberduck.core.threading.NamedThreadFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.log4j.Logger;
 
 import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.text.MessageFormat;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ThreadFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
-
-import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.concurrent.TimeoutException;
 
 public final class Resolver {
     private static final Logger log = Logger.getLogger(Resolver.class);
 
-    private final ThreadFactory threadFactory
-        = new NamedThreadFactory("resolver");
+    /**
+     * Shared for all lookups
+     */
+    private static final ThreadPool pool = ThreadPoolFactory.get("resolver",
+        PreferencesFactory.get().getInteger("connection.dns.pool.size"));
+
+    /**
+     * Successful lookups by hostname shared for all connections
+     */
+    private static final Map<String, Lookup> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Lookups in progress by hostname
+     */
+    private static final Map<String, Future<InetAddress[]>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Time in milliseconds to keep successful lookups
+     */
+    private final long ttl;
+
+    public Resolver() {
+        this(TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("connection.dns.cache.ttl")));
+    }
+
+    public Resolver(final long ttl) {
+        this.ttl = ttl;
+    }
 
     /**
      * This method is blocking until the hostname has been resolved or the lookup
@@ -51,59 +79,97 @@ public final class Resolver {
      * @throws ResolveCanceledException If the lookup has been interrupted
      */
     public InetAddress resolve(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
-        final CountDownLatch signal = new CountDownLatch(1);
-        final AtomicReference<InetAddress> resolved = new AtomicReference<>();
-        final AtomicReference<UnknownHostException> failure = new AtomicReference<>();
-        final Thread resolver = threadFactory.newThread(new Runnable() {
-            @Override
-            public void run() {
+        return this.resolveAll(hostname, callback)[0];
+    }
+
+    /**
+     * Lookup all addresses of hostname. Concurrent lookups for the same hostname share a single query.
+     *
+     * @return The resolved IP addresses for this hostname
+     * @throws ResolveFailedException   If the hostname cannot be resolved
+     * @throws ResolveCanceledException If the lookup has been interrupted
+     */
+    public InetAddress[] resolveAll(final String hostname, final CancelCallback callback) throws ResolveFailedException, ResolveCanceledException {
+        final Lookup cached = cache.get(hostname);
+        if(null != cached && cached.expiry > System.currentTimeMillis()) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Return cached addresses %s for %s", Arrays.toString(cached.addresses), hostname));
+            }
+            this.verify(hostname, callback);
+            return cached.addresses;
+        }
+        final Future<InetAddress[]> future = pending.compute(hostname, (h, f) -> null == f || f.isDone() ? pool.execute(() -> {
+            final InetAddress[] addresses = InetAddress.getAllByName(h);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Resolved %s to %s", h, Arrays.toString(addresses)));
+            }
+            if(ttl > 0) {
+                cache.put(h, new Lookup(addresses, System.currentTimeMillis() + ttl));
+            }
+            return addresses;
+        }) : f);
+        log.debug(String.format("Waiting for resolving of %s", hostname));
+        try {
+            while(true) {
                 try {
-                    final InetAddress address = InetAddress.getByName(hostname);
-                    resolved.set(address);
-                    if(log.isInfoEnabled()) {
-                        log.info(String.format("Resolved %s to %s", hostname, address.getHostAddress()));
-                    }
+                    final InetAddress[] addresses = future.get(500L, TimeUnit.MILLISECONDS);
+                    this.verify(hostname, callback);
+                    return addresses;
                 }
-                catch(UnknownHostException e) {
-                    log.warn(String.format("Failed resolving %s", hostname));
-                    failure.set(e);
+                catch(TimeoutException e) {
+                    this.verify(hostname, callback);
                 }
-                finally {
-                    signal.countDown();
+                catch(InterruptedException e) {
+                    log.warn(String.format("Canceled resolving %s", hostname));
+                    throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Failed resolving %s. %s", hostname, e.getCause()));
+                    throw new ResolveFailedException(
+                        MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), e.getCause());
                 }
             }
-        });
-        resolver.start();
-        log.debug(String.format("Waiting for resolving of %s", hostname));
-        // Wait for #run to finish
-        while(!Uninterruptibles.awaitUninterruptibly(signal, 500, TimeUnit.MILLISECONDS)) {
-            try {
-                callback.verify();
-            }
-            catch(ConnectionCanceledException c) {
-                throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), c);
+        }
+        finally {
+            if(future.isDone()) {
+                pending.remove(hostname, future);
             }
         }
+    }
+
+    private void verify(final String hostname, final CancelCallback callback) throws ResolveCanceledException {
         try {
             callback.verify();
         }
         catch(ConnectionCanceledException c) {
             throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), c);
         }
-        if(null == resolved.get()) {
-            if(null == failure.get()) {
-                log.warn(String.format("Canceled resolving %s", hostname));
-                throw new ResolveCanceledException(MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname));
-            }
-            throw new ResolveFailedException(
-                MessageFormat.format(LocaleFactory.localizedString("DNS lookup for {0} failed", "Error"), hostname), failure.get());
+    }
+
+    /**
+     * Remove cached lookups
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    private static final class Lookup {
+        private final InetAddress[] addresses;
+        /**
+         * Timestamp in milliseconds
+         */
+        private final long expiry;
+
+        public Lookup(final InetAddress[] addresses, final long expiry) {
+            this.addresses = addresses;
+            this.expiry = expiry;
         }
-        return resolved.get();
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Resolver{");
+        sb.append("ttl=").append(ttl);
         sb.append('}');
         return sb.toString();
     }
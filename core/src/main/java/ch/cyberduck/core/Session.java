@@ -51,9 +51,12 @@ import ch.cyberduck.core.shared.NullFileidProvider;
 import ch.cyberduck.core.threading.CancelCallback;
 import ch.cyberduck.core.vault.VaultRegistry;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -80,6 +83,16 @@ public abstract class Session<C> implements TranscriptListener {
 
     private Set<TranscriptListener> listeners = Collections.newSetFromMap(new ConcurrentHashMap<TranscriptListener, Boolean>());
 
+    /**
+     * Feature implementations wrapped by vault registry for open connection
+     */
+    private final Map<Class<?>, Object> features = new ConcurrentHashMap<>();
+
+    /**
+     * Feature types by whether implementations can be shared between callers
+     */
+    private static final Map<Class<?>, Boolean> SHAREABLE_FEATURES = new ConcurrentHashMap<>();
+
     /**
      * Connection attempt being made.
      */
@@ -115,6 +128,7 @@ public abstract class Session<C> implements TranscriptListener {
 
     public Session<?> withRegistry(final VaultRegistry registry) {
         this.registry = registry;
+        features.clear();
         return this;
     }
 
@@ -152,12 +166,25 @@ public abstract class Session<C> implements TranscriptListener {
      * @return Client
      */
     public C open(final Proxy proxy, final HostKeyCallback key, final LoginCallback login) throws BackgroundException {
+        return this.open(proxy, key, login, new DisabledCancelCallback());
+    }
+
+    /**
+     * Connect to host
+     *
+     * @param key    Host identity verification callback
+     * @param login  Prompt for proxy credentials
+     * @param cancel Cancel callback
+     * @return Client
+     */
+    public C open(final Proxy proxy, final HostKeyCallback key, final LoginCallback login, final CancelCallback cancel) throws BackgroundException {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Connection will open to %s", host));
         }
         // Update status flag
         state = State.opening;
-        client = this.connect(proxy, key, login);
+        features.clear();
+        client = this.connect(proxy, key, login, cancel);
         if(log.isDebugEnabled()) {
             log.debug(String.format("Connection did open to %s", host));
         }
@@ -168,6 +195,13 @@ public abstract class Session<C> implements TranscriptListener {
 
     protected abstract C connect(Proxy proxy, HostKeyCallback key, LoginCallback prompt) throws BackgroundException;
 
+    /**
+     * @param cancel Cancel callback for implementations waiting while connecting
+     */
+    protected C connect(final Proxy proxy, final HostKeyCallback key, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
+        return this.connect(proxy, key, prompt);
+    }
+
     /**
      * Send the authentication credentials to the server. The connection must be opened first.
      *
@@ -223,6 +257,7 @@ public abstract class Session<C> implements TranscriptListener {
     protected void disconnect() {
         state = State.closed;
         listeners.clear();
+        features.clear();
         client = null;
     }
 
@@ -279,7 +314,46 @@ public abstract class Session<C> implements TranscriptListener {
     @SuppressWarnings("unchecked")
     public <T> T getFeature(final Class<T> type) {
         metrics.increment(type);
-        return this.getFeature(type, this._getFeature(type));
+        if(state != State.open || !isShareable(type)
+            || !PreferencesFactory.get().getBoolean("session.features.cache.enable")) {
+            return this.getFeature(type, this._getFeature(type));
+        }
+        final Object cached = features.get(type);
+        if(cached != null) {
+            return (T) cached;
+        }
+        // Lookup outside of map update as feature implementations may request other features
+        final T feature = this.getFeature(type, this._getFeature(type));
+        if(null == feature) {
+            return null;
+        }
+        final Object previous = features.putIfAbsent(type, feature);
+        return null == previous ? feature : (T) previous;
+    }
+
+    /**
+     * Features declaring methods such as {@code withCache} or {@code withTarget} returning the feature are configured by
+     * the caller after lookup and not shared
+     *
+     * @param type Feature type
+     * @return False if feature can be configured after lookup
+     */
+    private static boolean isShareable(final Class<?> type) {
+        return SHAREABLE_FEATURES.computeIfAbsent(type, t -> {
+            for(Method method : t.getMethods()) {
+                if(StringUtils.startsWith(method.getName(), "with") && t.isAssignableFrom(method.getReturnType())) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Discard shared feature implementations of this connection
+     */
+    public void invalidateFeatures() {
+        features.clear();
     }
 
     /**
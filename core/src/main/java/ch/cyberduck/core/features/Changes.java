@@ -0,0 +1,105 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental change feed for a directory and its descendants using a server side cursor
+ */
+public interface Changes {
+
+    /**
+     * @param directory Directory
+     * @return Cursor for the current state of the directory and its descendants
+     */
+    String cursor(Path directory) throws BackgroundException;
+
+    /**
+     * @param directory Directory
+     * @param cursor    Cursor previously obtained for directory
+     * @return Files added, modified or deleted since cursor was obtained
+     */
+    ChangeSet changes(Path directory, String cursor) throws BackgroundException;
+
+    /**
+     * Decorate with cache used to resolve paths of changed files
+     *
+     * @param cache Path cache
+     */
+    default Changes withCache(Cache<Path> cache) {
+        return this;
+    }
+
+    final class ChangeSet {
+        private final String cursor;
+        private final List<Path> modified = new ArrayList<>();
+        private final List<Path> deleted = new ArrayList<>();
+        /**
+         * Cursor is no longer valid and a full listing is required
+         */
+        private final boolean reset;
+
+        public ChangeSet(final String cursor) {
+            this(cursor, false);
+        }
+
+        public ChangeSet(final String cursor, final boolean reset) {
+            this.cursor = cursor;
+            this.reset = reset;
+        }
+
+        /**
+         * @return Cursor to obtain subsequent changes
+         */
+        public String getCursor() {
+            return cursor;
+        }
+
+        /**
+         * @return Files added or modified with attributes
+         */
+        public List<Path> getModified() {
+            return modified;
+        }
+
+        /**
+         * @return Files deleted. Type of deleted files may be unknown
+         */
+        public List<Path> getDeleted() {
+            return deleted;
+        }
+
+        public boolean isReset() {
+            return reset;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("ChangeSet{");
+            sb.append("modified=").append(modified.size());
+            sb.append(", deleted=").append(deleted.size());
+            sb.append(", reset=").append(reset);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
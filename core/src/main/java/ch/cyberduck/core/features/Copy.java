@@ -43,12 +43,20 @@ public interface Copy {
     /**
      * @param source Source file or folder
      * @param target Target file or folder
-     * @return False if not supported for given files
+     * @return False if not supported for given files or with target connection
      */
     default boolean isSupported(Path source, Path target) {
         return true;
     }
 
+    /**
+     * @return True if copy request is issued with target connection which may be a connection to a different
+     * bookmark. Use {@link #isSupported(Path, Path)} to determine if the endpoint of the target connection is supported.
+     */
+    default boolean isRemote() {
+        return false;
+    }
+
     /**
      * @param session Target session for stateful protocols
      * @return This
@@ -0,0 +1,33 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import java.util.List;
+
+/**
+ * Large object stored as a manifest referencing separately stored segments
+ */
+public interface Segments {
+
+    /**
+     * @param file Large object manifest
+     * @return Ordered list of segments with size and checksum. Empty if file is not a large object
+     */
+    List<Path> list(Path file) throws BackgroundException;
+}
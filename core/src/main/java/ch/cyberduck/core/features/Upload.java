@@ -32,4 +32,11 @@ public interface Upload<Reply> {
     Write.Append append(Path file, Long length, Cache<Path> cache) throws BackgroundException;
 
     Upload<Reply> withWriter(Write<Reply> writer);
+
+    /**
+     * @return False if the local file is accessed by its path instead of reading from input streams
+     */
+    default boolean isStreaming() {
+        return true;
+    }
 }
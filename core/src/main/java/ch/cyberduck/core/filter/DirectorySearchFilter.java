@@ -0,0 +1,65 @@
+package ch.cyberduck.core.filter;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.Path;
+
+import java.util.regex.Pattern;
+
+/**
+ * Accept all directories to search in and files matching search filter
+ */
+public final class DirectorySearchFilter implements Filter<Path> {
+    private final Filter<Path> filter;
+
+    public DirectorySearchFilter(final Filter<Path> filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * @return Search filter matching files and directories
+     */
+    public Filter<Path> getFilter() {
+        return filter;
+    }
+
+    @Override
+    public boolean accept(final Path file) {
+        if(file.isDirectory()) {
+            return true;
+        }
+        return filter.accept(file);
+    }
+
+    @Override
+    public Pattern toPattern() {
+        return filter.toPattern();
+    }
+
+    @Override
+    public int hashCode() {
+        return filter.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if(obj instanceof Filter) {
+            return filter.equals(obj);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,60 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.Resolver;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.apache.http.conn.DnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Lookup addresses with lookups cached for all connections
+ */
+public class CachingDnsResolver implements DnsResolver {
+
+    private final Resolver resolver;
+    /**
+     * Only return first address when socket factory races connection attempts to all addresses
+     */
+    private final boolean first;
+
+    public CachingDnsResolver(final boolean first) {
+        this(new Resolver(), first);
+    }
+
+    public CachingDnsResolver(final Resolver resolver, final boolean first) {
+        this.resolver = resolver;
+        this.first = first;
+    }
+
+    @Override
+    public InetAddress[] resolve(final String host) throws UnknownHostException {
+        try {
+            final InetAddress[] addresses = resolver.resolveAll(host, new DisabledCancelCallback());
+            if(first) {
+                return new InetAddress[]{addresses[0]};
+            }
+            return addresses;
+        }
+        catch(BackgroundException e) {
+            throw new UnknownHostException(e.getDetail());
+        }
+    }
+}
@@ -34,4 +34,9 @@ public class DefaultHttpRateLimiter implements HttpRateLimiter {
     public double acquire() {
         return proxy.acquire();
     }
+
+    @Override
+    public double acquire(final int permits) {
+        return proxy.acquire(permits);
+    }
 }
@@ -0,0 +1,438 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.MetricsFactory;
+import ch.cyberduck.core.TranscriptListener;
+
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+import org.apache.hc.core5.http.nio.support.BasicRequestProducer;
+import org.apache.hc.core5.http.nio.support.classic.ContentInputStream;
+import org.apache.hc.core5.http.nio.support.classic.ContentOutputStream;
+import org.apache.hc.core5.http.nio.support.classic.SharedInputBuffer;
+import org.apache.hc.core5.http.nio.support.classic.SharedOutputBuffer;
+import org.apache.hc.core5.http.protocol.HttpCoreContext;
+import org.apache.hc.core5.http2.H2Error;
+import org.apache.hc.core5.http2.H2StreamResetException;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2MultiplexingRequester;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpExecutionAware;
+import org.apache.http.client.methods.HttpRequestWrapper;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.impl.execchain.ClientExecChain;
+import org.apache.http.impl.execchain.RequestAbortedException;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Send requests to targets supporting HTTP/2 as streams multiplexed on a single connection. Interceptors, retry and
+ * redirect handling of the client are applied before as with HTTP/1.1. Requests are passed to the HTTP/1.1 execution
+ * chain for plain HTTP, if the server does not negotiate HTTP/2 or requires challenge based authentication.
+ */
+public class Http2ClientExec implements ClientExecChain {
+    private static final Logger log = Logger.getLogger(Http2ClientExec.class);
+
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+
+    /**
+     * Connection specific headers not allowed in HTTP/2 or set from entity
+     */
+    private static final Set<String> EXCLUDED = new HashSet<>(Arrays.asList(
+        HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+        "keep-alive",
+        "proxy-connection",
+        HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+        HttpHeaders.UPGRADE.toLowerCase(Locale.ROOT),
+        HttpHeaders.HOST.toLowerCase(Locale.ROOT),
+        HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+        HttpHeaders.EXPECT.toLowerCase(Locale.ROOT),
+        HttpHeaders.TE.toLowerCase(Locale.ROOT)
+    ));
+
+    private final H2MultiplexingRequester requester;
+    private final ClientExecChain fallback;
+    private final TranscriptListener listener;
+    private final int buffer;
+    private final Timeout timeout;
+
+    private final Metrics metrics = MetricsFactory.get();
+
+    /**
+     * Support for HTTP/2 by target. True if confirmed by previous response
+     */
+    private final Map<HttpHost, Boolean> support = new ConcurrentHashMap<>();
+
+    /**
+     * @param requester Connections to targets with streams multiplexed
+     * @param fallback  HTTP/1.1 execution chain
+     * @param listener  Log listener
+     * @param buffer    Buffer size for request and response content
+     * @param timeout   Connect timeout in milliseconds
+     */
+    public Http2ClientExec(final H2MultiplexingRequester requester, final ClientExecChain fallback,
+                           final TranscriptListener listener, final int buffer, final int timeout) {
+        this.requester = requester;
+        this.fallback = fallback;
+        this.listener = listener;
+        this.buffer = buffer;
+        this.timeout = Timeout.ofMilliseconds(timeout);
+    }
+
+    @Override
+    public CloseableHttpResponse execute(final HttpRoute route, final HttpRequestWrapper request,
+                                         final HttpClientContext context, final HttpExecutionAware execAware) throws IOException, HttpException {
+        final HttpHost target = route.getTargetHost();
+        final HttpEntity entity = request instanceof HttpEntityEnclosingRequest ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+        final boolean repeatable = null == entity || entity.isRepeatable();
+        if(null != route.getProxyHost() || !"https".equalsIgnoreCase(target.getSchemeName())) {
+            return fallback.execute(route, request, context, execAware);
+        }
+        final Boolean supported = support.get(target);
+        if(Boolean.FALSE.equals(supported)) {
+            return fallback.execute(route, request, context, execAware);
+        }
+        if(null == supported && !repeatable) {
+            // Probe with requests that can be repeated only
+            return fallback.execute(route, request, context, execAware);
+        }
+        final CloseableHttpResponse response;
+        try {
+            response = this.send(target, request, entity, execAware);
+        }
+        catch(RequestAbortedException e) {
+            throw e;
+        }
+        catch(IOException e) {
+            final boolean required = e instanceof H2StreamResetException
+                && ((H2StreamResetException) e).getCode() == H2Error.HTTP_1_1_REQUIRED.getCode();
+            if((null == supported || required) && repeatable) {
+                log.warn(String.format("Fallback to HTTP/1.1 for %s after failure %s", target, e.getMessage()));
+                support.put(target, false);
+                metrics.increment("http2.fallback");
+                return fallback.execute(route, request, context, execAware);
+            }
+            throw e;
+        }
+        if(HttpStatus.SC_UNAUTHORIZED == response.getStatusLine().getStatusCode() && repeatable) {
+            final CredentialsProvider credentials = context.getCredentialsProvider();
+            if(null != credentials && null != credentials.getCredentials(new AuthScope(target))) {
+                // Authentication scheme with challenge handled by HTTP/1.1 execution chain
+                log.warn(String.format("Fallback to HTTP/1.1 for %s requiring authentication", target));
+                response.close();
+                support.put(target, false);
+                metrics.increment("http2.fallback");
+                return fallback.execute(route, request, context, execAware);
+            }
+        }
+        support.put(target, true);
+        return response;
+    }
+
+    private CloseableHttpResponse send(final HttpHost target, final HttpRequestWrapper request, final HttpEntity entity,
+                                       final HttpExecutionAware execAware) throws IOException, HttpException {
+        final org.apache.hc.core5.http.message.BasicHttpRequest message = new org.apache.hc.core5.http.message.BasicHttpRequest(
+            request.getRequestLine().getMethod(),
+            new org.apache.hc.core5.http.HttpHost(target.getSchemeName(), target.getHostName(), target.getPort()),
+            request.getRequestLine().getUri());
+        for(Header header : request.getAllHeaders()) {
+            if(EXCLUDED.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            message.addHeader(header.getName(), header.getValue());
+        }
+        listener.log(TranscriptListener.Type.request, String.format("%s %s HTTP/2", message.getMethod(), message.getPath()));
+        final EntityProducer producer = null == entity ? null : new EntityProducer(entity, buffer);
+        final Exchange exchange = new Exchange(buffer);
+        final Future<Void> future = requester.execute(new BasicRequestProducer(message, producer), exchange, null,
+            timeout, HttpCoreContext.create(), null);
+        if(null != execAware) {
+            execAware.setCancellable(() -> {
+                exchange.cancel();
+                return future.cancel(true);
+            });
+        }
+        metrics.increment("http2.request");
+        if(null != producer) {
+            try (OutputStream out = new ContentOutputStream(producer.buffer)) {
+                entity.writeTo(out);
+            }
+            catch(IOException e) {
+                if(!exchange.head.isDone()) {
+                    future.cancel(true);
+                    throw e;
+                }
+                // Response received before request content was sent
+                log.warn(String.format("Failure %s sending content", e.getMessage()));
+            }
+        }
+        final org.apache.hc.core5.http.HttpResponse head;
+        try {
+            head = exchange.head.get();
+        }
+        catch(InterruptedException e) {
+            exchange.cancel();
+            future.cancel(true);
+            throw new RequestAbortedException(e.getMessage(), e);
+        }
+        catch(CancellationException e) {
+            throw new RequestAbortedException("Request aborted", e);
+        }
+        catch(ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if(cause instanceof org.apache.hc.core5.http.HttpException) {
+                throw new ClientProtocolException(cause.getMessage(), cause);
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+        final Response response = new Response(new BasicStatusLine(HTTP_2, head.getCode(),
+            EnglishReasonPhraseCatalog.INSTANCE.getReason(head.getCode(), null)), exchange, future);
+        listener.log(TranscriptListener.Type.response, response.getStatusLine().toString());
+        for(org.apache.hc.core5.http.Header header : head.getHeaders()) {
+            response.addHeader(header.getName(), header.getValue());
+        }
+        if(null != exchange.details) {
+            final BasicHttpEntity content = new BasicHttpEntity();
+            content.setContent(new ContentInputStream(exchange.buffer) {
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    return exchange.verify(super.read(b, off, len));
+                }
+
+                @Override
+                public int read() throws IOException {
+                    return exchange.verify(super.read());
+                }
+            });
+            content.setContentLength(exchange.details.getContentLength());
+            content.setContentType(exchange.details.getContentType());
+            content.setContentEncoding(exchange.details.getContentEncoding());
+            response.setEntity(content);
+        }
+        return response;
+    }
+
+    /**
+     * Request content written by caller
+     */
+    private static final class EntityProducer implements AsyncEntityProducer {
+        private final HttpEntity entity;
+        private final SharedOutputBuffer buffer;
+
+        public EntityProducer(final HttpEntity entity, final int size) {
+            this.entity = entity;
+            this.buffer = new SharedOutputBuffer(size);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return entity.getContentLength();
+        }
+
+        @Override
+        public String getContentType() {
+            return null == entity.getContentType() ? null : entity.getContentType().getValue();
+        }
+
+        @Override
+        public String getContentEncoding() {
+            return null == entity.getContentEncoding() ? null : entity.getContentEncoding().getValue();
+        }
+
+        @Override
+        public boolean isChunked() {
+            return false;
+        }
+
+        @Override
+        public Set<String> getTrailerNames() {
+            return null;
+        }
+
+        @Override
+        public int available() {
+            return buffer.length();
+        }
+
+        @Override
+        public void produce(final DataStreamChannel channel) throws IOException {
+            buffer.flush(channel);
+        }
+
+        @Override
+        public void failed(final Exception cause) {
+            buffer.abort();
+        }
+
+        @Override
+        public void releaseResources() {
+            if(!buffer.isEndStream()) {
+                // Unblock caller writing content
+                buffer.abort();
+            }
+        }
+    }
+
+    /**
+     * Response content read by caller
+     */
+    private static final class Exchange implements AsyncResponseConsumer<Void> {
+        private final CompletableFuture<org.apache.hc.core5.http.HttpResponse> head = new CompletableFuture<>();
+        private final SharedInputBuffer buffer;
+        private volatile EntityDetails details;
+        private volatile FutureCallback<Void> callback;
+        /**
+         * All content received
+         */
+        private volatile boolean complete;
+
+        public Exchange(final int size) {
+            this.buffer = new SharedInputBuffer(size);
+        }
+
+        @Override
+        public void consumeResponse(final org.apache.hc.core5.http.HttpResponse response, final EntityDetails details,
+                                    final org.apache.hc.core5.http.protocol.HttpContext context, final FutureCallback<Void> callback) {
+            this.details = details;
+            this.callback = callback;
+            if(null == details) {
+                complete = true;
+                buffer.markEndStream();
+                callback.completed(null);
+            }
+            head.complete(response);
+        }
+
+        @Override
+        public void informationResponse(final org.apache.hc.core5.http.HttpResponse response,
+                                        final org.apache.hc.core5.http.protocol.HttpContext context) {
+            //
+        }
+
+        @Override
+        public void updateCapacity(final CapacityChannel channel) throws IOException {
+            buffer.updateCapacity(channel);
+        }
+
+        @Override
+        public void consume(final ByteBuffer src) {
+            buffer.fill(src);
+        }
+
+        @Override
+        public void streamEnd(final List<? extends org.apache.hc.core5.http.Header> trailers) {
+            complete = true;
+            buffer.markEndStream();
+            if(null != callback) {
+                callback.completed(null);
+            }
+        }
+
+        @Override
+        public void failed(final Exception cause) {
+            buffer.abort();
+            head.completeExceptionally(cause);
+        }
+
+        @Override
+        public void releaseResources() {
+            //
+        }
+
+        private void cancel() {
+            buffer.abort();
+            head.cancel(false);
+        }
+
+        /**
+         * @param read Number of bytes read from buffer
+         * @return Number of bytes read
+         * @throws ConnectionClosedException End of stream read from aborted buffer
+         */
+        private int verify(final int read) throws ConnectionClosedException {
+            if(-1 == read && !complete) {
+                throw new ConnectionClosedException("Premature end of content");
+            }
+            return read;
+        }
+    }
+
+    private static final class Response extends BasicHttpResponse implements CloseableHttpResponse {
+        private final Exchange exchange;
+        private final Future<Void> future;
+
+        public Response(final BasicStatusLine status, final Exchange exchange, final Future<Void> future) {
+            super(status);
+            this.exchange = exchange;
+            this.future = future;
+        }
+
+        @Override
+        public void close() {
+            if(!exchange.complete) {
+                // Reset stream with content not consumed
+                exchange.cancel();
+                future.cancel(true);
+            }
+        }
+    }
+}
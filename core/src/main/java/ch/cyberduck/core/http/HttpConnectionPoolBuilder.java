@@ -28,10 +28,20 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.proxy.ProxyFinder;
 import ch.cyberduck.core.proxy.ProxySocketFactory;
+import ch.cyberduck.core.socket.HappyEyeballsConnector;
+import ch.cyberduck.core.random.SecureRandomProviderFactory;
 import ch.cyberduck.core.ssl.CustomTrustSSLProtocolSocketFactory;
+import ch.cyberduck.core.ssl.EngineHostnameTrustManager;
+import ch.cyberduck.core.ssl.SharedSSLContext;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
+import ch.cyberduck.core.ssl.X509TrustManager;
 
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2MultiplexingRequester;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2MultiplexingRequesterBootstrap;
+import org.apache.hc.core5.http2.ssl.H2ClientTlsStrategy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthSchemeProvider;
 import org.apache.http.client.config.AuthSchemes;
@@ -54,13 +64,23 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.client.WinHttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.execchain.ClientExecChain;
 import org.apache.http.protocol.HttpContext;
 import org.apache.log4j.Logger;
 
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.charset.Charset;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class HttpConnectionPoolBuilder {
     private static final Logger log = Logger.getLogger(HttpConnectionPoolBuilder.class);
@@ -69,6 +89,11 @@ public class HttpConnectionPoolBuilder {
     private final ConnectionSocketFactory socketFactory;
     private final ConnectionSocketFactory sslSocketFactory;
     private final Host host;
+    /**
+     * Trust and key manager for HTTP/2 connections or null if not supported
+     */
+    private X509TrustManager trust;
+    private X509KeyManager key;
 
     public HttpConnectionPoolBuilder(final Host host,
                                      final ThreadLocalHostnameDelegatingTrustManager trust,
@@ -86,6 +111,13 @@ public class HttpConnectionPoolBuilder {
                                         final InetSocketAddress remoteAddress, final InetSocketAddress localAddress,
                                         final HttpContext context) throws IOException {
                 trust.setTarget(host.getHostName());
+                if(null == localAddress && PreferencesFactory.get().getBoolean("connection.happyeyeballs.enable")) {
+                    // Keep options from socket configuration for sockets of connection attempts
+                    final SocketOptions options = new SocketOptions(socket);
+                    socket.close();
+                    return new HappyEyeballsConnector().connect(() -> options.apply(this.createSocket(context)),
+                        host.getHostName(), remoteAddress.getPort(), connectTimeout);
+                }
                 return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
             }
         }, new SSLConnectionSocketFactory(
@@ -108,9 +140,21 @@ public class HttpConnectionPoolBuilder {
                                         final InetSocketAddress remoteAddress, final InetSocketAddress localAddress,
                                         final HttpContext context) throws IOException {
                 trust.setTarget(host.getHostName());
+                if(null == localAddress && PreferencesFactory.get().getBoolean("connection.happyeyeballs.enable")) {
+                    final SocketOptions options = new SocketOptions(socket);
+                    socket.close();
+                    final Socket connected = new HappyEyeballsConnector().connect(() -> options.apply(this.createSocket(context)),
+                        host.getHostName(), remoteAddress.getPort(), connectTimeout);
+                    if(connectTimeout > 0 && connected.getSoTimeout() == 0) {
+                        connected.setSoTimeout(connectTimeout);
+                    }
+                    return this.createLayeredSocket(connected, host.getHostName(), remoteAddress.getPort(), context);
+                }
                 return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
             }
         });
+        this.trust = trust;
+        this.key = key;
     }
 
     public HttpConnectionPoolBuilder(final Host host,
@@ -128,7 +172,28 @@ public class HttpConnectionPoolBuilder {
      * @return Builder for HTTP client
      */
     public HttpClientBuilder build(final Proxy proxy, final TranscriptListener listener, final LoginCallback prompt) {
-        final HttpClientBuilder configuration = HttpClients.custom();
+        final HttpClientBuilder configuration;
+        if(preferences.getBoolean("http.http2.enable") && null != trust && Proxy.Type.DIRECT == proxy.getType()) {
+            configuration = new HttpClientBuilder() {
+                @Override
+                protected ClientExecChain decorateMainExec(final ClientExecChain mainExec) {
+                    final H2MultiplexingRequester requester;
+                    try {
+                        requester = createHttp2Requester();
+                    }
+                    catch(IOException e) {
+                        log.warn(String.format("Failure %s creating HTTP/2 requester", e.getMessage()));
+                        return mainExec;
+                    }
+                    this.addCloseable(requester);
+                    return new Http2ClientExec(requester, mainExec, listener, preferences.getInteger("http.socket.buffer"),
+                        preferences.getInteger("connection.timeout.seconds") * 1000);
+                }
+            };
+        }
+        else {
+            configuration = HttpClients.custom();
+        }
         // Use HTTP Connect proxy implementation provided here instead of
         // relying on internal proxy support in socket factory
         switch(proxy.getType()) {
@@ -183,6 +248,59 @@ public class HttpConnectionPoolBuilder {
         return configuration;
     }
 
+    /**
+     * @return Started requester with connections to targets negotiating HTTP/2 with ALPN
+     */
+    public H2MultiplexingRequester createHttp2Requester() throws IOException {
+        // Load trust and key store before handshake
+        trust.init();
+        key.init();
+        final SSLContext context;
+        try {
+            if(preferences.getBoolean("connection.ssl.session.shared")) {
+                // Resume sessions of other connections with the same trust and key manager
+                context = SharedSSLContext.get(trust, key, SecureRandomProviderFactory.get().provide()).getContext();
+            }
+            else {
+                context = SSLContext.getInstance("TLS");
+                context.init(new KeyManager[]{key}, new TrustManager[]{new EngineHostnameTrustManager(trust)},
+                    SecureRandomProviderFactory.get().provide());
+            }
+        }
+        catch(NoSuchAlgorithmException | KeyManagementException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        final String[] protocols = preferences.getProperty("connection.ssl.protocols").split(",");
+        final List<String> blacklist = preferences.getList("connection.ssl.cipher.blacklist");
+        final H2MultiplexingRequester requester = H2MultiplexingRequesterBootstrap.bootstrap()
+            .setTlsStrategy(new H2ClientTlsStrategy(context, (endpoint, engine) -> {
+                // Same protocols and cipher suites as for sockets of HTTP/1.1 connections
+                try {
+                    engine.setEnabledProtocols(protocols);
+                }
+                catch(IllegalArgumentException e) {
+                    log.warn(String.format("Failed to configure SSL parameters %s", e.getMessage()));
+                }
+                if(!blacklist.isEmpty()) {
+                    final List<String> ciphers = new ArrayList<>(Arrays.asList(engine.getEnabledCipherSuites()));
+                    ciphers.removeIf(blacklist::contains);
+                    engine.setEnabledCipherSuites(ciphers.toArray(new String[ciphers.size()]));
+                }
+            }, null))
+            // Fail connection if server does not select HTTP/2 with ALPN
+            .setStrictALPNHandshake(true)
+            .setH2Config(H2Config.custom()
+                .setPushEnabled(false)
+                .build())
+            .setIOReactorConfig(IOReactorConfig.custom()
+                .setSoTimeout(preferences.getInteger("connection.timeout.seconds"), TimeUnit.SECONDS)
+                .setTcpNoDelay(true)
+                .build())
+            .create();
+        requester.start();
+        return requester;
+    }
+
     public RequestConfig createRequestConfig(final int timeout) {
         return RequestConfig.custom()
             .setRedirectsEnabled(true)
@@ -207,11 +325,49 @@ public class HttpConnectionPoolBuilder {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Setup connection pool with registry %s", registry));
         }
-        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry);
+        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry,
+            new CachingDnsResolver(preferences.getBoolean("connection.happyeyeballs.enable")));
         manager.setMaxTotal(preferences.getInteger("http.connections.total"));
         manager.setDefaultMaxPerRoute(preferences.getInteger("http.connections.route"));
         // Detect connections that have become stale (half-closed) while kept inactive in the pool
         manager.setValidateAfterInactivity(preferences.getInteger("http.connections.stale.check.ms"));
         return manager;
     }
+
+    /**
+     * Options set on socket by connection operator from socket configuration before connecting
+     */
+    private static final class SocketOptions {
+        private final int timeout;
+        private final boolean nodelay;
+        private final boolean keepalive;
+        private final boolean reuse;
+        private final int linger;
+        private final int receive;
+        private final int send;
+
+        public SocketOptions(final Socket socket) throws IOException {
+            this.timeout = socket.getSoTimeout();
+            this.nodelay = socket.getTcpNoDelay();
+            this.keepalive = socket.getKeepAlive();
+            this.reuse = socket.getReuseAddress();
+            this.linger = socket.getSoLinger();
+            this.receive = socket.getReceiveBufferSize();
+            this.send = socket.getSendBufferSize();
+        }
+
+        public Socket apply(final Socket socket) throws IOException {
+            socket.setSoTimeout(timeout);
+            socket.setTcpNoDelay(nodelay);
+            socket.setKeepAlive(keepalive);
+            socket.setReuseAddress(reuse);
+            if(linger >= 0) {
+                socket.setSoLinger(true, linger);
+            }
+            // Set before connecting to allow window scaling
+            socket.setReceiveBufferSize(receive);
+            socket.setSendBufferSize(send);
+            return socket;
+        }
+    }
 }
@@ -25,6 +25,13 @@ public interface HttpRateLimiter {
 
     double acquire();
 
+    /**
+     * Acquires the given number of permits blocking until the request can be granted
+     *
+     * @param permits Number of requests sent with a single HTTP request
+     */
+    double acquire(int permits);
+
     HttpRateLimiter DISABLED = new HttpRateLimiter() {
         @Override
         public boolean tryAcquire() {
@@ -35,5 +42,10 @@ public interface HttpRateLimiter {
         public double acquire() {
             return 0;
         }
+
+        @Override
+        public double acquire(final int permits) {
+            return 0;
+        }
     };
 }
@@ -18,6 +18,8 @@ package ch.cyberduck.core.http;
  * feedback@cyberduck.io
  */
 
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.MetricsFactory;
 import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.UseragentProvider;
@@ -25,6 +27,7 @@ import ch.cyberduck.core.UseragentProvider;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpConnectionMetrics;
 import org.apache.http.HttpException;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpRequest;
@@ -34,14 +37,25 @@ import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpRequestExecutor;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
 
+    /**
+     * Metric names by status class
+     */
+    private static final String[] RESPONSE_METRICS = {
+            "http.response.0xx", "http.response.1xx", "http.response.2xx", "http.response.3xx",
+            "http.response.4xx", "http.response.5xx"
+    };
+
     private final UseragentProvider useragentProvider
             = new PreferencesUseragentProvider();
 
     private final TranscriptListener listener;
 
+    private final Metrics metrics = MetricsFactory.get();
+
     public LoggingHttpRequestExecutor(final TranscriptListener listener) {
         this.listener = listener;
     }
@@ -52,7 +66,29 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
         if(!request.containsHeader(HttpHeaders.USER_AGENT)) {
             request.addHeader(new BasicHeader(HttpHeaders.USER_AGENT, useragentProvider.get()));
         }
-        return super.execute(request, conn, context);
+        final HttpConnectionMetrics connection = conn.getMetrics();
+        final long sent = null == connection ? 0L : connection.getSentBytesCount();
+        final long received = null == connection ? 0L : connection.getReceivedBytesCount();
+        final long start = System.nanoTime();
+        try {
+            final HttpResponse response = super.execute(request, conn, context);
+            metrics.record("http.request.latency", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            final int status = response.getStatusLine().getStatusCode() / 100;
+            metrics.increment(status >= 0 && status < RESPONSE_METRICS.length
+                    ? RESPONSE_METRICS[status] : String.format("http.response.%dxx", status));
+            return response;
+        }
+        catch(IOException | HttpException | RuntimeException e) {
+            metrics.increment("http.request.failure");
+            throw e;
+        }
+        finally {
+            if(null != connection) {
+                // Excludes response entity not yet consumed
+                metrics.add("http.bytes.sent", Math.max(0L, connection.getSentBytesCount() - sent));
+                metrics.add("http.bytes.received", Math.max(0L, connection.getReceivedBytesCount() - received));
+            }
+        }
     }
 
     @Override
@@ -19,6 +19,8 @@ package ch.cyberduck.core.io;
 
 import ch.cyberduck.core.BytecountStreamListener;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.MetricsFactory;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -28,6 +30,7 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -36,6 +39,8 @@ public final class StreamCopier {
 
     private final StreamProgress progress;
 
+    private final Metrics metrics = MetricsFactory.get();
+
     private BytecountStreamListener listener
             = new BytecountStreamListener(new DisabledStreamListener());
 
@@ -85,6 +90,7 @@ public final class StreamCopier {
      * @param out The stream to write to
      */
     public void transfer(final InputStream in, final OutputStream out) throws BackgroundException {
+        final long start = System.nanoTime();
         try {
             try {
                 if(offset > 0) {
@@ -127,6 +133,8 @@ public final class StreamCopier {
                 }
                 final StreamCloser c = new DefaultStreamCloser();
                 c.close(out);
+                metrics.add("stream.bytes", total);
+                metrics.record("stream.transfer.duration", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
             }
             catch(IOException e) {
                 throw new DefaultIOExceptionMappingService().map(e);
@@ -140,6 +148,7 @@ public final class StreamCopier {
             throw e;
         }
         catch(Exception e) {
+            metrics.increment("stream.failure");
             // Discard sent bytes if there is an error reply.
             final long sent = listener.getSent();
             progress.progress(-sent);
@@ -17,6 +17,8 @@ package ch.cyberduck.core.pool;
 
 import ch.cyberduck.core.ConnectionService;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.MetricsFactory;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
@@ -27,8 +29,11 @@ import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
 import ch.cyberduck.core.threading.FailureDiagnostics;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.vault.VaultRegistry;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
@@ -40,7 +45,12 @@ import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class DefaultSessionPool implements SessionPool {
     private static final Logger log = Logger.getLogger(DefaultSessionPool.class);
@@ -51,6 +61,8 @@ public class DefaultSessionPool implements SessionPool {
     private final FailureDiagnostics<BackgroundException> diagnostics
         = new DefaultFailureDiagnostics();
 
+    private final Metrics metrics = MetricsFactory.get();
+
     private final ConnectionService connect;
     private final TranscriptListener transcript;
     private final Host bookmark;
@@ -61,6 +73,11 @@ public class DefaultSessionPool implements SessionPool {
 
     private SessionPool features = SessionPool.DISCONNECTED;
 
+    /**
+     * Maximum idle pool size lowered after network failure opening connection
+     */
+    private volatile boolean limited;
+
     public DefaultSessionPool(final ConnectionService connect, final X509TrustManager trust, final X509KeyManager key,
                               final VaultRegistry registry, final TranscriptListener transcript,
                               final Host bookmark) {
@@ -130,6 +147,7 @@ public class DefaultSessionPool implements SessionPool {
         if(numActive > POOL_WARNING_THRESHOLD) {
             log.warn(String.format("Possibly large number of open connections (%d) in pool %s", numActive, this));
         }
+        final long start = System.nanoTime();
         try {
             while(!callback.isCanceled()) {
                 try {
@@ -140,6 +158,8 @@ public class DefaultSessionPool implements SessionPool {
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Borrowed session %s from pool %s", session, this));
                     }
+                    metrics.record("pool.borrow.wait", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    metrics.increment("pool.sessions.active");
                     if(DISCONNECTED == features) {
                         features = new StatelessSessionPool(connect, session, transcript, registry);
                     }
@@ -155,16 +175,22 @@ public class DefaultSessionPool implements SessionPool {
                     final Throwable cause = e.getCause();
                     if(null == cause) {
                         log.warn(String.format("Timeout borrowing session from pool %s. Wait for another %dms", this, BORROW_MAX_WAIT_INTERVAL));
+                        metrics.increment("pool.borrow.timeout");
                         // Timeout
                         continue;
                     }
                     if(cause instanceof BackgroundException) {
                         final BackgroundException failure = (BackgroundException) cause;
                         log.warn(String.format("Failure %s obtaining connection for %s", failure, this));
+                        metrics.increment("pool.borrow.failure");
                         if(diagnostics.determine(failure) == FailureDiagnostics.Type.network) {
-                            final int max = Math.max(1, pool.getMaxIdle() - 1);
-                            log.warn(String.format("Lower maximum idle pool size to %d connections.", max));
-                            pool.setMaxIdle(max);
+                            // Lower once for every failure when connections fail concurrently
+                            synchronized(pool) {
+                                final int max = Math.max(1, pool.getMaxIdle() - 1);
+                                log.warn(String.format("Lower maximum idle pool size to %d connections.", max));
+                                pool.setMaxIdle(max);
+                                limited = true;
+                            }
                             // Clear pool from idle connections
                             pool.clear();
                         }
@@ -192,6 +218,7 @@ public class DefaultSessionPool implements SessionPool {
         if(log.isInfoEnabled()) {
             log.info(String.format("Release session %s to pool", session));
         }
+        metrics.add("pool.sessions.active", -1L);
         try {
             if(failure != null && diagnostics.determine(failure) == FailureDiagnostics.Type.network) {
                 try {
@@ -219,6 +246,72 @@ public class DefaultSessionPool implements SessionPool {
         }
     }
 
+    /**
+     * Open connections concurrently up to the maximum idle pool size once lowered after failures
+     */
+    @Override
+    public void warmup(final int count, final BackgroundActionState callback) {
+        int target = Math.min(count, pool.getMaxTotal() < 0 ? count : pool.getMaxTotal());
+        synchronized(pool) {
+            if(limited) {
+                target = Math.min(target, pool.getMaxIdle());
+            }
+            else if(pool.getMaxIdle() < target) {
+                // Keep connections opened in advance in pool when released
+                pool.setMaxIdle(target);
+            }
+        }
+        final int missing = target - pool.getNumIdle() - pool.getNumActive();
+        if(missing <= 0) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Open %d connections in advance for pool %s", missing, this));
+        }
+        final long start = System.nanoTime();
+        final List<Session<?>> sessions = new ArrayList<>();
+        // Idle connections are borrowed first and must be held as well for new connections to be opened
+        final int borrow = missing + pool.getNumIdle();
+        final ThreadPool executor = ThreadPoolFactory.get("warmup", borrow);
+        try {
+            final List<Future<Session<?>>> futures = new ArrayList<>();
+            for(int i = 0; i < borrow; i++) {
+                futures.add(executor.execute(new BackgroundExceptionCallable<Session<?>>() {
+                    @Override
+                    public Session<?> call() throws BackgroundException {
+                        // Hold borrowed connection until all are opened to not reuse idle connection
+                        return DefaultSessionPool.this.borrow(callback);
+                    }
+                }));
+            }
+            for(Future<Session<?>> future : futures) {
+                try {
+                    sessions.add(future.get());
+                }
+                catch(InterruptedException e) {
+                    log.warn(String.format("Interrupted opening connection for pool %s", this));
+                }
+                catch(ExecutionException e) {
+                    // Maximum idle pool size lowered on network failure
+                    log.warn(String.format("Failure %s opening connection for pool %s", e.getCause(), this));
+                    metrics.increment("pool.warmup.failure");
+                }
+            }
+        }
+        finally {
+            executor.shutdown(false);
+            for(Session<?> session : sessions) {
+                this.release(session, null);
+            }
+        }
+        final long duration = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        metrics.record("pool.warmup", duration);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Borrowed %d of %d connections in %dms for pool %s", sessions.size(), borrow,
+                TimeUnit.MICROSECONDS.toMillis(duration), this));
+        }
+    }
+
     @Override
     public void evict() {
         if(log.isInfoEnabled()) {
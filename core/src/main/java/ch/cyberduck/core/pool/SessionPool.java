@@ -77,6 +77,16 @@ public interface SessionPool {
      */
     void shutdown();
 
+    /**
+     * Open connections concurrently in advance and keep them idle in pool
+     *
+     * @param count    Number of connections to open
+     * @param callback Cancel callback
+     */
+    default void warmup(int count, BackgroundActionState callback) {
+        //
+    }
+
     interface Callback {
         boolean isCanceled();
     }
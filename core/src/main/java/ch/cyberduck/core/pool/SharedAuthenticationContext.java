@@ -0,0 +1,151 @@
+package ch.cyberduck.core.pool;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.MetricsFactory;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.CancelCallback;
+
+import org.apache.log4j.Logger;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authentication state such as access tokens shared by all connections to the same bookmark. Refreshing an expired
+ * context is done once by the first caller while other connections wait and reuse the result.
+ *
+ * @param <T> Authentication tokens
+ */
+public final class SharedAuthenticationContext<T> {
+    private static final Logger log = Logger.getLogger(SharedAuthenticationContext.class);
+
+    /**
+     * Shared for all connections to the same bookmark
+     */
+    private static final Map<Host, Map<String, SharedAuthenticationContext<?>>> instances
+        = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param host  Bookmark
+     * @param scope Identifier for type of authentication
+     * @return Shared context or new context for every call if disabled
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SharedAuthenticationContext<T> get(final Host host, final String scope) {
+        if(!PreferencesFactory.get().getBoolean("connection.pool.authentication.shared")) {
+            return new SharedAuthenticationContext<>();
+        }
+        return (SharedAuthenticationContext<T>) instances.computeIfAbsent(host, h -> new ConcurrentHashMap<>())
+            .computeIfAbsent(scope, s -> new SharedAuthenticationContext<>());
+    }
+
+    /**
+     * Guarded by this
+     */
+    private T context;
+    /**
+     * Authentication in progress by other connection
+     */
+    private boolean pending;
+
+    public synchronized T get() {
+        return context;
+    }
+
+    public synchronized void reset() {
+        context = null;
+    }
+
+    /**
+     * Discard shared tokens if not already replaced by other connection
+     *
+     * @param stale Tokens rejected by server or no longer matching bookmark
+     */
+    public synchronized void reset(final T stale) {
+        if(context == stale) {
+            context = null;
+        }
+    }
+
+    public T refresh(final T stale, final Authenticator<T> authenticator) throws BackgroundException {
+        return this.refresh(stale, authenticator, new DisabledCancelCallback());
+    }
+
+    /**
+     * Authenticate unless another connection has already obtained valid tokens replacing the stale tokens. The lock
+     * is not held while authenticating as this may require interactive login. Other callers wait until canceled.
+     *
+     * @param stale         Tokens currently used by caller
+     * @param authenticator Obtain new tokens
+     * @param cancel        Cancel callback while waiting for other connection
+     * @return Shared tokens
+     */
+    public T refresh(final T stale, final Authenticator<T> authenticator, final CancelCallback cancel) throws BackgroundException {
+        final T previous;
+        synchronized(this) {
+            while(pending) {
+                cancel.verify();
+                try {
+                    this.wait(500L);
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+            }
+            if(context != null && context != stale && authenticator.isValid(context)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Reuse shared authentication %s", context));
+                }
+                MetricsFactory.get().increment("authentication.shared.hit");
+                return context;
+            }
+            MetricsFactory.get().increment("authentication.shared.miss");
+            previous = null == context ? stale : context;
+            pending = true;
+        }
+        T result = null;
+        try {
+            result = authenticator.authenticate(previous);
+            return result;
+        }
+        finally {
+            synchronized(this) {
+                if(result != null) {
+                    context = result;
+                }
+                pending = false;
+                this.notifyAll();
+            }
+        }
+    }
+
+    public interface Authenticator<T> {
+        /**
+         * @param stale Expired or invalid tokens
+         * @return New tokens
+         */
+        T authenticate(T stale) throws BackgroundException;
+
+        boolean isValid(T context);
+    }
+}
@@ -325,6 +325,15 @@ public abstract class Preferences implements Locales {
         this.setDefault("browser.list.limit.directory", String.valueOf(5000));
         this.setDefault("browser.list.limit.container", String.valueOf(100));
 
+        /*
+          Index directory listings per bookmark to answer search queries locally
+         */
+        this.setDefault("browser.search.index.enable", String.valueOf(false));
+        /*
+          Maximum age in milliseconds of indexed directory listings before searching remotely
+         */
+        this.setDefault("browser.search.index.ttl", String.valueOf(600000)); // 10 minutes
+
         this.setDefault("info.toolbar.selected", String.valueOf(0));
         this.setDefault("preferences.toolbar.selected", String.valueOf(0));
 
@@ -454,6 +463,13 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.download.reload.action", TransferAction.callback.name());
         this.setDefault("queue.upload.reload.action", TransferAction.callback.name());
         this.setDefault("queue.copy.reload.action", TransferAction.callback.name());
+        /*
+          Copy large files between servers with ranged reads passed to the upload of the target
+         */
+        this.setDefault("queue.copy.relay.enable", String.valueOf(true));
+        this.setDefault("queue.copy.relay.threshold", String.valueOf(100L * 1024L * 1024L)); // 100MB
+        // Segments read kept in memory when read again by upload implementation
+        this.setDefault("queue.copy.relay.buffer", String.valueOf(64L * 1024L * 1024L)); // 64MB
 
         this.setDefault("queue.upload.permissions.change", String.valueOf(false));
         this.setDefault("queue.upload.permissions.default", String.valueOf(false));
@@ -590,11 +606,21 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.prompt.upload.action.default", TransferAction.overwrite.name());
         this.setDefault("queue.prompt.copy.action.default", TransferAction.overwrite.name());
         this.setDefault("queue.prompt.move.action.default", TransferAction.overwrite.name());
+        /*
+          Only list remote folders with changes since the last synchronization if supported by the protocol
+         */
+        this.setDefault("queue.sync.changes.enable", String.valueOf(true));
+        // Number of synchronized folders per bookmark to keep cursor for
+        this.setDefault("queue.sync.changes.cursors.limit", String.valueOf(10));
 
         this.setDefault("queue.transcript.open", String.valueOf(false));
         this.setDefault("queue.transcript.size.height", String.valueOf(200));
 
         this.setDefault("http.compression.enable", String.valueOf(true));
+        /*
+          Multiplex requests as streams on a single connection for servers negotiating HTTP/2
+         */
+        this.setDefault("http.http2.enable", String.valueOf(false));
 
         /*
           HTTP routes to maximum number of connections allowed for those routes
@@ -745,6 +771,18 @@ public abstract class Preferences implements Locales {
          * The recommended fragment size is between 5-10 MiB.
          */
         this.setDefault("onedrive.upload.multipart.partsize.factor", String.valueOf(20)); // ~6,25 MB
+        /*
+         * Fragment size is adjusted to complete the upload of a fragment in the given number of seconds. The maximum
+         * number of bytes in a single request must be less than 60 MiB.
+         */
+        this.setDefault("onedrive.upload.multipart.partsize.duration", String.valueOf(5));
+        this.setDefault("onedrive.upload.multipart.partsize.maximum", String.valueOf(180 * 320 * 1024)); // ~56 MiB
+        // Maximum heap used for buffering fragments of a single upload. Limits the fragment size to half of it
+        this.setDefault("onedrive.upload.multipart.buffer.maximum", String.valueOf(100 * 320 * 1024)); // ~31 MiB
+        // Maximum number of requests in JSON batch, time in milliseconds to wait for more requests and number of retries for throttled requests
+        this.setDefault("onedrive.batch.size", String.valueOf(20));
+        this.setDefault("onedrive.batch.linger", String.valueOf(10));
+        this.setDefault("onedrive.batch.retry", String.valueOf(3));
 
         final int month = 60 * 60 * 24 * 30; //30 days in seconds
         this.setDefault("s3.cache.seconds", String.valueOf(month));
@@ -764,6 +802,11 @@ public abstract class Preferences implements Locales {
         this.setDefault("azure.upload.md5", String.valueOf(false));
         this.setDefault("azure.upload.snapshot", String.valueOf(false));
         this.setDefault("azure.upload.blobtype", "APPEND_BLOB");
+        // Upload block blob with concurrent Put Block requests for files larger than 100MB
+        this.setDefault("azure.upload.largeobject", String.valueOf(true));
+        this.setDefault("azure.upload.largeobject.threshold", String.valueOf(100 * 1024L * 1024L)); // 100MB
+        this.setDefault("azure.upload.largeobject.size", String.valueOf(8 * 1024L * 1024L)); // 8MB
+        this.setDefault("azure.upload.largeobject.concurrency", String.valueOf(5));
 
         // Legacy authentication
 //        this.setDefault("openstack.authentication.context", "/v1.0");
@@ -790,10 +833,15 @@ public abstract class Preferences implements Locales {
         this.setDefault("openstack.delete.multiple.partition", String.valueOf(10000));
 
         this.setDefault("googledrive.list.limit", String.valueOf(1000));
+        // Maximum number of folders listed with a single query
+        this.setDefault("googledrive.list.parents.limit", String.valueOf(50));
         this.setDefault("googledrive.teamdrive.enable", String.valueOf(true));
         this.setDefault("googledrive.delete.trash", String.valueOf(true));
         // Limit the number of requests to 10 per second which is equal the user quota
         this.setDefault("googledrive.limit.requests.second", String.valueOf(100));
+        // Maximum number of requests coalesced into a batch and time in milliseconds to wait for more requests
+        this.setDefault("googledrive.batch.size", String.valueOf(100));
+        this.setDefault("googledrive.batch.linger", String.valueOf(10));
 
         this.setDefault("b2.bucket.acl.default", "allPrivate");
         this.setDefault("b2.listing.chunksize", String.valueOf(1000));
@@ -818,6 +866,8 @@ public abstract class Preferences implements Locales {
         // Run missing file keys in bulk feature after upload
         this.setDefault("sds.encryption.missingkeys.upload", String.valueOf(true));
         this.setDefault("sds.encryption.missingkeys.scheduler.period", String.valueOf(120000)); // 2 minutes
+        // Number of file keys to set in single request
+        this.setDefault("sds.encryption.missingkeys.batch.size", String.valueOf(100));
         this.setDefault("sds.encryption.keys.ttl", String.valueOf(600000)); // 10 minutes
         this.setDefault("sds.useracount.ttl", String.valueOf(3600000)); // 1 hour
         this.setDefault("sds.delete.dataroom.enable", String.valueOf(true));
@@ -828,6 +878,8 @@ public abstract class Preferences implements Locales {
         this.setDefault("sds.oauth.migrate.enable", String.valueOf(true));
 
         this.setDefault("spectra.retry.delay", String.valueOf(60)); // 1 minute
+        this.setDefault("spectra.retry.delay.minimum", String.valueOf(1)); // 1 second
+        this.setDefault("spectra.retry.timeout", String.valueOf(3600)); // 1 hour
 
         this.setDefault("storegate.listing.chunksize", String.valueOf(500));
         this.setDefault("storegate.upload.multipart.chunksize", String.valueOf(0.5 * 1024L * 1024L));
@@ -841,6 +893,13 @@ public abstract class Preferences implements Locales {
         this.setDefault("brick.pairing.interrupt.ms", String.valueOf(10 * 60 * 1000L)); // 10min
 
         this.setDefault("dropbox.upload.chunksize", String.valueOf(150 * 1024L * 1024L));
+        // Commit uploads of multiple files with a single request
+        this.setDefault("dropbox.upload.batch.enable", String.valueOf(true));
+        // Maximum number of files committed in a batch and time in milliseconds to wait for more files
+        this.setDefault("dropbox.upload.batch.size", String.valueOf(1000));
+        this.setDefault("dropbox.upload.batch.linger", String.valueOf(50));
+        // Interval in milliseconds to check for completion of batch
+        this.setDefault("dropbox.upload.batch.poll", String.valueOf(500));
         this.setDefault("dropbox.business.enable", String.valueOf(true));
 
         /*
@@ -880,6 +939,14 @@ public abstract class Preferences implements Locales {
         this.setDefault("connection.pool.minidle", String.valueOf(1));
         this.setDefault("connection.pool.maxidle", String.valueOf(5));
         this.setDefault("connection.pool.maxtotal", String.valueOf(Integer.MAX_VALUE));
+        /*
+          Open connections for transfer concurrently when transfer starts
+         */
+        this.setDefault("connection.pool.warmup.enable", String.valueOf(false));
+        /*
+          Share authentication tokens between connections to the same bookmark
+         */
+        this.setDefault("connection.pool.authentication.shared", String.valueOf(true));
 
         /*
           Default login name
@@ -931,6 +998,16 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("connection.retry.login.enable", String.valueOf(true));
 
+        /*
+          Reuse feature implementations for the lifetime of an open connection
+         */
+        this.setDefault("session.features.cache.enable", String.valueOf(true));
+
+        /*
+          Collect request latency, pool wait time, retries and bytes transferred
+         */
+        this.setDefault("metrics.enable", String.valueOf(false));
+
         this.setDefault("connection.hostname.default", StringUtils.EMPTY);
         /*
           Convert hostname to Punycode
@@ -945,6 +1022,22 @@ public abstract class Preferences implements Locales {
         if(this.getBoolean("connection.dns.ipv6")) {
             System.setProperty("java.net.preferIPv6Addresses", String.valueOf(true));
         }
+        /*
+          Time in seconds to cache successful DNS lookups shared by all connections
+         */
+        this.setDefault("connection.dns.cache.ttl", String.valueOf(30));
+        /*
+          Maximum number of concurrent DNS lookups
+         */
+        this.setDefault("connection.dns.pool.size", String.valueOf(5));
+        /*
+          Race connection attempts to IPv6 and IPv4 addresses of a hostname (RFC 8305)
+         */
+        this.setDefault("connection.happyeyeballs.enable", String.valueOf(true));
+        /*
+          Delay in milliseconds before starting connection attempt to next address
+         */
+        this.setDefault("connection.happyeyeballs.delay", String.valueOf(250));
 
         /*
           Read proxy settings from system preferences
@@ -981,6 +1074,15 @@ public abstract class Preferences implements Locales {
         this.setDefault("connection.ssl.protocols", "TLSv1.3,TLSv1.2,TLSv1.1,TLSv1");
         this.setDefault("connection.ssl.protocols.ftp", "TLSv1.2,TLSv1.1,TLSv1");
         this.setDefault("connection.ssl.cipher.blacklist", StringUtils.EMPTY);
+        /*
+          Share SSL context between connections with the same trust and key manager to resume TLS sessions
+         */
+        this.setDefault("connection.ssl.session.shared", String.valueOf(true));
+        /*
+          Maximum number of cached TLS sessions and lifetime in seconds
+         */
+        this.setDefault("connection.ssl.session.cache.size", String.valueOf(100));
+        this.setDefault("connection.ssl.session.cache.timeout", String.valueOf(3600));
 
         this.setDefault("connection.ssl.x509.revocation.online", String.valueOf(false));
 
@@ -1041,6 +1143,19 @@ public abstract class Preferences implements Locales {
           Enable ZLIB compression
          */
         this.setDefault("ssh.compression", "zlib");
+        /*
+          Open multiple SFTP channels over a shared authenticated SSH connection for connections to the same bookmark
+         */
+        this.setDefault("ssh.multiplex.enable", String.valueOf(false));
+        /*
+          Maximum number of channels on a shared connection. Defaults to MaxSessions of OpenSSH
+         */
+        this.setDefault("ssh.multiplex.channels", String.valueOf(10));
+        /*
+          Channel flow control window size and maximum packet size in bytes
+         */
+        this.setDefault("ssh.channel.window.size", String.valueOf(2097152));
+        this.setDefault("ssh.channel.packet.size", String.valueOf(32768));
 
         this.setDefault("ssh.algorithm.cipher.blacklist", StringUtils.EMPTY);
         this.setDefault("ssh.algorithm.mac.blacklist", StringUtils.EMPTY);
@@ -20,6 +20,7 @@ package ch.cyberduck.core.proxy;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.socket.DefaultSocketConfigurator;
+import ch.cyberduck.core.socket.HappyEyeballsConnector;
 import ch.cyberduck.core.socket.HttpProxySocketFactory;
 import ch.cyberduck.core.socket.SocketConfigurator;
 
@@ -128,6 +129,12 @@ public class ProxySocketFactory extends SocketFactory {
 
     @Override
     public Socket createSocket(final String hostname, final int port) throws IOException {
+        if(PreferencesFactory.get().getBoolean("connection.happyeyeballs.enable")) {
+            if(proxyFinder.find(host).getType() == Proxy.Type.DIRECT) {
+                // Race connection attempts to all resolved addresses
+                return new HappyEyeballsConnector().connect(this::createSocket, hostname, port, 0);
+            }
+        }
         try {
             final Socket socket = this.factory(hostname).createSocket(hostname, port);
             configurator.configure(socket);
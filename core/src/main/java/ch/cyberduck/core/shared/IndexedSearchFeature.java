@@ -0,0 +1,110 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListingIndex;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.filter.DirectorySearchFilter;
+
+import org.apache.log4j.Logger;
+
+import java.util.Set;
+
+/**
+ * Answer search queries from the local listing index first and only search remotely in subtrees that are missing in
+ * the index or outdated.
+ */
+public class IndexedSearchFeature implements Search {
+    private static final Logger log = Logger.getLogger(IndexedSearchFeature.class);
+
+    private final Search delegate;
+    private final ListingIndex index;
+
+    public IndexedSearchFeature(final Search delegate, final ListingIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public AttributedList<Path> search(final Path workdir, final Filter<Path> filter, final ListProgressListener listener) throws BackgroundException {
+        if(!delegate.isRecursive()) {
+            if(index.isValid(workdir)) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Search %s in index", workdir));
+                }
+                final AttributedList<Path> list = index.search(workdir, filter, false);
+                listener.chunk(workdir, list);
+                return list;
+            }
+            return delegate.search(workdir, filter, listener);
+        }
+        if(!index.isIndexed(workdir)) {
+            return delegate.search(workdir, filter, listener);
+        }
+        final Set<Path> stale = index.stale(workdir);
+        final AttributedList<Path> list = new AttributedList<>();
+        // Only return indexed directories matching search
+        for(Path file : index.search(workdir, filter instanceof DirectorySearchFilter ? ((DirectorySearchFilter) filter).getFilter() : filter, true)) {
+            if(stale.stream().anyMatch(file::isChild)) {
+                // Replaced with remote search results
+                continue;
+            }
+            list.add(file);
+        }
+        // Return indexed results before searching remotely
+        listener.chunk(workdir, list);
+        for(Path directory : stale) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Refresh stale directory %s in index", directory));
+            }
+            try {
+                list.addAll(delegate.search(directory, filter, listener));
+            }
+            catch(NotfoundException e) {
+                log.warn(String.format("Remove missing directory %s from index", directory));
+                index.remove(directory);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public boolean isRecursive() {
+        return delegate.isRecursive();
+    }
+
+    @Override
+    public Search withCache(final Cache<Path> cache) {
+        delegate.withCache(cache);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("IndexedSearchFeature{");
+        sb.append("delegate=").append(delegate);
+        sb.append(", index=").append(index);
+        sb.append('}');
+        return sb.toString();
+    }
+}
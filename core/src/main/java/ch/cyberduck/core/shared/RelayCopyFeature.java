@@ -0,0 +1,98 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Protocol;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Copy;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Copy between servers by passing ranged reads from the source to the upload feature of the target. Segments are
+ * transferred concurrently when the target uploads large files in parallel parts.
+ */
+public class RelayCopyFeature implements Copy {
+    private static final Logger log = Logger.getLogger(RelayCopyFeature.class);
+
+    private final Preferences preferences = PreferencesFactory.get();
+
+    private final Session<?> from;
+    private Session<?> to;
+
+    private final BandwidthThrottle throttle;
+    private final StreamListener listener;
+
+    public RelayCopyFeature(final Session<?> from, final BandwidthThrottle throttle, final StreamListener listener) {
+        this.from = from;
+        this.to = from;
+        this.throttle = throttle;
+        this.listener = listener;
+    }
+
+    @Override
+    public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Relay %s to %s with ranged reads", source, target));
+        }
+        final Upload<?> upload = to.getFeature(Upload.class);
+        upload.upload(target, new RelayLocal(from.getFeature(Read.class), source, callback,
+            preferences.getLong("queue.copy.relay.buffer")), throttle, listener, status, callback);
+        return target;
+    }
+
+    @Override
+    public boolean isSupported(final Path source, final Path target) {
+        if(!preferences.getBoolean("queue.copy.relay.enable")) {
+            return false;
+        }
+        if(source.attributes().getSize() < preferences.getLong("queue.copy.relay.threshold")) {
+            return false;
+        }
+        if(from.getHost().getProtocol().getStatefulness() != Protocol.Statefulness.stateless) {
+            // Concurrent reads on single connection
+            return false;
+        }
+        final Upload<?> upload = to.getFeature(Upload.class);
+        if(null == upload || !upload.isStreaming()) {
+            // Target requires file in local file system
+            return false;
+        }
+        try {
+            return from.getFeature(Read.class).offset(source);
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure determining read with offset for %s. %s", source, e));
+            return false;
+        }
+    }
+
+    @Override
+    public RelayCopyFeature withTarget(final Session<?> session) {
+        to = session;
+        return this;
+    }
+}
@@ -0,0 +1,263 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalAttributes;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.LinkOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Local file backed by ranged reads of a remote file. Every input stream opened starts reading from the remote at the
+ * offset skipped to. Segments read are kept in a bounded buffer for upload implementations reading the same segment
+ * twice to compute a checksum prior uploading. Segments captured by concurrent streams count towards the same capacity
+ * and are read again from the remote when the capacity is exhausted.
+ */
+final class RelayLocal extends Local {
+    private static final Logger log = Logger.getLogger(RelayLocal.class);
+
+    private final Read read;
+    private final Path file;
+    private final ConnectionCallback callback;
+    private final SegmentBuffer buffer;
+
+    /**
+     * @param read     Read feature of source connection supporting read with offset
+     * @param file     Remote file
+     * @param callback Prompt
+     * @param capacity Maximum number of bytes to buffer
+     */
+    public RelayLocal(final Read read, final Path file, final ConnectionCallback callback, final long capacity) {
+        super(PreferencesFactory.get().getProperty("tmp.dir"), file.getName());
+        this.read = read;
+        this.file = file;
+        this.callback = callback;
+        this.buffer = new SegmentBuffer(capacity);
+    }
+
+    @Override
+    public LocalAttributes attributes() {
+        return new LocalAttributes(this.getAbsolute()) {
+            @Override
+            public long getSize() {
+                return file.attributes().getSize();
+            }
+
+            @Override
+            public long getModificationDate() {
+                return file.attributes().getModificationDate();
+            }
+        };
+    }
+
+    @Override
+    public boolean exists(final LinkOption... options) {
+        return true;
+    }
+
+    @Override
+    public boolean isFile() {
+        return true;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return false;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new RelayInputStream();
+    }
+
+    /**
+     * Opens the remote stream lazily on first read to allow skipping to the segment offset without transferring data
+     */
+    private final class RelayInputStream extends InputStream {
+        private final long size = file.attributes().getSize();
+
+        private long position = 0L;
+        /**
+         * Offset of first byte read
+         */
+        private long start = -1L;
+        private byte[] cached;
+        private int index;
+        private InputStream remote;
+        private ByteArrayOutputStream capture;
+
+        @Override
+        public long skip(final long n) throws IOException {
+            if(start == -1L) {
+                final long skipped = Math.max(0L, Math.min(n, size - position));
+                position += skipped;
+                return skipped;
+            }
+            return super.skip(n);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            final int len = this.read(b, 0, 1);
+            return len == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if(len == 0) {
+                return 0;
+            }
+            if(start == -1L) {
+                start = position;
+                cached = buffer.get(start);
+            }
+            if(cached != null && index < cached.length) {
+                final int n = Math.min(len, cached.length - index);
+                System.arraycopy(cached, index, b, off, n);
+                index += n;
+                position += n;
+                return n;
+            }
+            if(position >= size) {
+                return -1;
+            }
+            if(null == remote) {
+                remote = this.open(position);
+                if(null == cached) {
+                    capture = new ByteArrayOutputStream();
+                }
+            }
+            final int n = remote.read(b, off, len);
+            if(n > 0) {
+                position += n;
+                if(capture != null) {
+                    if(buffer.reserve(n)) {
+                        capture.write(b, off, n);
+                    }
+                    else {
+                        // Exceeding capacity shared with other streams
+                        buffer.release(capture.size());
+                        capture = null;
+                    }
+                }
+            }
+            return n;
+        }
+
+        private InputStream open(final long offset) throws IOException {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Read %s from offset %d", file, offset));
+            }
+            final TransferStatus status = new TransferStatus()
+                .append(offset > 0) // Read with offset
+                .skip(offset)
+                .length(size - offset);
+            try {
+                return read.read(file, status, callback);
+            }
+            catch(BackgroundException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if(remote != null) {
+                try {
+                    remote.close();
+                }
+                finally {
+                    remote = null;
+                }
+            }
+            if(capture != null && capture.size() > 0) {
+                buffer.put(start, capture.toByteArray());
+            }
+            capture = null;
+        }
+    }
+
+    /**
+     * Segments by offset with least recently used evicted when exceeding capacity
+     */
+    private static final class SegmentBuffer {
+        private final long capacity;
+        private final Map<Long, byte[]> segments = new LinkedHashMap<>(16, 0.75f, true);
+        /**
+         * Bytes of buffered segments and segments reserved while being captured
+         */
+        private long size = 0L;
+
+        SegmentBuffer(final long capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized byte[] get(final long offset) {
+            return segments.get(offset);
+        }
+
+        /**
+         * Reserve capacity for captured bytes evicting least recently used segments if required
+         *
+         * @return False if capacity is exhausted by segments being captured
+         */
+        synchronized boolean reserve(final long n) {
+            for(Iterator<byte[]> iter = segments.values().iterator(); size + n > capacity && iter.hasNext(); ) {
+                size -= iter.next().length;
+                iter.remove();
+            }
+            if(size + n > capacity) {
+                return false;
+            }
+            size += n;
+            return true;
+        }
+
+        synchronized void release(final long n) {
+            size -= n;
+        }
+
+        /**
+         * @param segment Captured segment with capacity reserved
+         */
+        synchronized void put(final long offset, final byte[] segment) {
+            final byte[] previous = segments.get(offset);
+            if(previous != null && previous.length >= segment.length) {
+                size -= segment.length;
+                return;
+            }
+            if(previous != null) {
+                size -= previous.length;
+            }
+            segments.put(offset, segment);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package ch.cyberduck.core.socket;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.Resolver;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connect to the first reachable address of a hostname. Connection attempts to resolved addresses alternating between
+ * IPv6 and IPv4 are started with a short delay without waiting for previous attempts to fail (RFC 8305). Remaining
+ * attempts are closed when the first connection is established.
+ */
+public class HappyEyeballsConnector {
+    private static final Logger log = Logger.getLogger(HappyEyeballsConnector.class);
+
+    private final Resolver resolver;
+    /**
+     * Delay in milliseconds before starting connection attempt to next address
+     */
+    private final long delay;
+
+    public HappyEyeballsConnector() {
+        this(new Resolver(), PreferencesFactory.get().getLong("connection.happyeyeballs.delay"));
+    }
+
+    public HappyEyeballsConnector(final Resolver resolver, final long delay) {
+        this.resolver = resolver;
+        this.delay = delay;
+    }
+
+    /**
+     * @param factory  Create unconnected sockets
+     * @param hostname Target hostname
+     * @param port     Target port
+     * @param timeout  Connect timeout in milliseconds for each attempt
+     * @return Connected socket
+     */
+    public Socket connect(final SocketSupplier factory, final String hostname, final int port, final int timeout) throws IOException {
+        final InetAddress[] addresses;
+        try {
+            addresses = resolver.resolveAll(hostname, new DisabledCancelCallback());
+        }
+        catch(BackgroundException e) {
+            throw new UnknownHostException(e.getDetail());
+        }
+        return this.connect(factory, sort(addresses), port, timeout);
+    }
+
+    protected Socket connect(final SocketSupplier factory, final List<InetAddress> candidates, final int port, final int timeout) throws IOException {
+        if(candidates.size() == 1) {
+            return this.connect(factory, candidates.get(0), port, timeout);
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Race connection attempts to %s", candidates));
+        }
+        final List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+        final AtomicBoolean connected = new AtomicBoolean();
+        final ThreadPool pool = ThreadPoolFactory.get("connect", candidates.size());
+        try {
+            final CompletionService<Socket> completion = new ExecutorCompletionService<>(pool.executor());
+            int started = 0;
+            int failed = 0;
+            IOException failure = null;
+            while(true) {
+                if(started == failed && started < candidates.size()) {
+                    // Start next attempt immediately when all previous attempts failed
+                    this.submit(completion, factory, candidates.get(started++), port, timeout, sockets, connected);
+                }
+                final Future<Socket> attempt = started < candidates.size() ?
+                    completion.poll(delay, TimeUnit.MILLISECONDS) : completion.take();
+                if(null == attempt) {
+                    this.submit(completion, factory, candidates.get(started++), port, timeout, sockets, connected);
+                    continue;
+                }
+                try {
+                    final Socket socket = attempt.get();
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Connected to %s", socket.getInetAddress()));
+                    }
+                    connected.set(true);
+                    this.close(sockets, socket);
+                    return socket;
+                }
+                catch(ExecutionException e) {
+                    failure = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                    if(++failed == candidates.size()) {
+                        throw failure;
+                    }
+                }
+            }
+        }
+        catch(InterruptedException e) {
+            connected.set(true);
+            this.close(sockets, null);
+            throw new InterruptedIOException(e.getMessage());
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    private void submit(final CompletionService<Socket> completion, final SocketSupplier factory, final InetAddress address,
+                        final int port, final int timeout, final List<Socket> sockets, final AtomicBoolean connected) {
+        completion.submit(() -> {
+            final Socket socket = factory.create();
+            sockets.add(socket);
+            try {
+                socket.connect(new InetSocketAddress(address, port), timeout);
+                if(connected.get()) {
+                    // Lost race to other attempt
+                    throw new ConnectException(String.format("Abort connection to %s", address));
+                }
+            }
+            catch(IOException e) {
+                log.warn(String.format("Failure %s connecting to %s", e.getMessage(), address));
+                socket.close();
+                throw e;
+            }
+            return socket;
+        });
+    }
+
+    private Socket connect(final SocketSupplier factory, final InetAddress address, final int port, final int timeout) throws IOException {
+        final Socket socket = factory.create();
+        socket.connect(new InetSocketAddress(address, port), timeout);
+        return socket;
+    }
+
+    /**
+     * Close pending connection attempts
+     *
+     * @param winner Connected socket to keep open
+     */
+    private void close(final List<Socket> sockets, final Socket winner) {
+        synchronized(sockets) {
+            for(Socket socket : sockets) {
+                if(socket != winner) {
+                    try {
+                        socket.close();
+                    }
+                    catch(IOException e) {
+                        log.warn(String.format("Failure closing socket %s", socket));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param addresses Resolved addresses in order returned by resolver
+     * @return Addresses alternating between address families starting with family of first address
+     */
+    protected static List<InetAddress> sort(final InetAddress[] addresses) {
+        final List<InetAddress> first = new ArrayList<>();
+        final List<InetAddress> second = new ArrayList<>();
+        for(InetAddress address : addresses) {
+            if(address instanceof Inet6Address == addresses[0] instanceof Inet6Address) {
+                first.add(address);
+            }
+            else {
+                second.add(address);
+            }
+        }
+        final List<InetAddress> sorted = new ArrayList<>();
+        for(int i = 0; i < Math.max(first.size(), second.size()); i++) {
+            if(i < first.size()) {
+                sorted.add(first.get(i));
+            }
+            if(i < second.size()) {
+                sorted.add(second.get(i));
+            }
+        }
+        return sorted;
+    }
+
+    public interface SocketSupplier {
+        /**
+         * @return Unconnected socket
+         */
+        Socket create() throws IOException;
+    }
+}
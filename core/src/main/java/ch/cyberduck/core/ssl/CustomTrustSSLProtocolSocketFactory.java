@@ -48,6 +48,10 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
      * Shared context
      */
     private final SSLContext context;
+    /**
+     * Context shared with other connections or null if disabled
+     */
+    private final SharedSSLContext shared;
     private final String[] protocols;
 
     private final AtomicBoolean initializer
@@ -76,9 +80,17 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
         this.trust = trust;
         this.key = key;
         try {
-            // Default provider
-            context = SSLContext.getInstance("TLS");
-            context.init(new KeyManager[]{key}, new TrustManager[]{trust}, seeder);
+            if(preferences.getBoolean("connection.ssl.session.shared")) {
+                // Resume sessions of other connections
+                shared = SharedSSLContext.get(trust, key, seeder);
+                context = shared.getContext();
+            }
+            else {
+                shared = null;
+                // Default provider
+                context = SSLContext.getInstance("TLS");
+                context.init(new KeyManager[]{key}, new TrustManager[]{trust}, seeder);
+            }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Using SSL context with protocol %s", context.getProtocol()));
             }
@@ -131,9 +143,16 @@ public class CustomTrustSSLProtocolSocketFactory extends SSLSocketFactory {
             key.init();
             initializer.set(true);
         }
+        if(null != shared && trust instanceof TrustManagerHostnameCallback) {
+            // Target hostname for verification with shared trust manager
+            shared.setTarget(((TrustManagerHostnameCallback) trust).getTarget());
+        }
         // Configure socket
         final Socket socket = f.create();
         this.configure(socket, protocols);
+        if(null != shared) {
+            shared.track(socket);
+        }
         if(log.isDebugEnabled()) {
             log.debug(String.format("Handshake for socket %s", socket));
         }
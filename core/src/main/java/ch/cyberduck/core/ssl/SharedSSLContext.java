@@ -0,0 +1,157 @@
+package ch.cyberduck.core.ssl;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.MetricsFactory;
+import ch.cyberduck.core.cache.LRUCache;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import java.net.Socket;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSL context shared by all connections with the same trust and key manager. New connections to a host can resume a
+ * TLS session from the bounded session cache of the context instead of doing a full handshake. Used for both sockets
+ * and engines of HTTP/2 connections.
+ */
+public final class SharedSSLContext {
+    private static final Logger log = Logger.getLogger(SharedSSLContext.class);
+
+    /**
+     * Contexts by trust and key manager. Evicted when unused for an hour.
+     */
+    private static final LRUCache<Key, SharedSSLContext> instances
+        = LRUCache.build(null, 20L, TimeUnit.HOURS.toMillis(1L));
+
+    /**
+     * @param trust  Trust manager of connection. Unwrapped if delegating with thread local target hostname.
+     * @param key    Key manager of connection
+     * @param seeder Random used when creating new context
+     */
+    public static SharedSSLContext get(final X509TrustManager trust, final X509KeyManager key, final SecureRandom seeder)
+        throws NoSuchAlgorithmException, KeyManagementException {
+        final X509TrustManager delegate = trust instanceof ThreadLocalHostnameDelegatingTrustManager ?
+            ((ThreadLocalHostnameDelegatingTrustManager) trust).getDelegate() : trust;
+        final Key k = new Key(delegate, key);
+        synchronized(instances) {
+            SharedSSLContext shared = instances.get(k);
+            if(null == shared) {
+                shared = new SharedSSLContext(trust instanceof ThreadLocalHostnameDelegatingTrustManager ?
+                    new ThreadLocalHostnameDelegatingTrustManager(delegate, ((ThreadLocalHostnameDelegatingTrustManager) trust).getTarget()) : trust,
+                    key, seeder);
+                instances.put(k, shared);
+            }
+            return shared;
+        }
+    }
+
+    private final SSLContext context;
+    /**
+     * Trust manager used for all connections
+     */
+    private final X509TrustManager trust;
+
+    private SharedSSLContext(final X509TrustManager trust, final X509KeyManager key, final SecureRandom seeder)
+        throws NoSuchAlgorithmException, KeyManagementException {
+        this.trust = trust;
+        this.context = SSLContext.getInstance("TLS");
+        // Verify with peer hostname of engine for connections with handshake not run on thread of caller
+        context.init(new KeyManager[]{key}, new TrustManager[]{new EngineHostnameTrustManager(trust)}, seeder);
+        final SSLSessionContext sessions = context.getClientSessionContext();
+        sessions.setSessionCacheSize(PreferencesFactory.get().getInteger("connection.ssl.session.cache.size"));
+        sessions.setSessionTimeout(PreferencesFactory.get().getInteger("connection.ssl.session.cache.timeout"));
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Created shared SSL context with trust manager %s", trust));
+        }
+    }
+
+    public SSLContext getContext() {
+        return context;
+    }
+
+    /**
+     * Set hostname to verify server certificate for in handshake of current thread
+     */
+    public void setTarget(final String hostname) {
+        if(trust instanceof ThreadLocalHostnameDelegatingTrustManager) {
+            ((ThreadLocalHostnameDelegatingTrustManager) trust).setTarget(hostname);
+        }
+    }
+
+    /**
+     * Record whether handshake of socket resumed a cached session. A resumed session was created before the socket.
+     */
+    public void track(final Socket socket) {
+        if(socket instanceof SSLSocket) {
+            final long start = System.currentTimeMillis();
+            ((SSLSocket) socket).addHandshakeCompletedListener(event -> {
+                final Metrics metrics = MetricsFactory.get();
+                if(event.getSession().getCreationTime() < start) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Resumed session %s", event.getSession()));
+                    }
+                    metrics.increment("ssl.session.resumed");
+                }
+                else {
+                    metrics.increment("ssl.session.full");
+                }
+                // Percentage of handshakes resuming session
+                metrics.gauge("ssl.session.resumption", () -> {
+                    final long total = metrics.get("ssl.session.resumed") + metrics.get("ssl.session.full");
+                    return total == 0 ? 0 : metrics.get("ssl.session.resumed") * 100 / total;
+                });
+            });
+        }
+    }
+
+    private static final class Key {
+        private final X509TrustManager trust;
+        private final X509KeyManager key;
+
+        public Key(final X509TrustManager trust, final X509KeyManager key) {
+            this.trust = trust;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return trust == other.trust && key == other.key;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(trust) + System.identityHashCode(key);
+        }
+    }
+}
@@ -17,6 +17,8 @@ package ch.cyberduck.core.threading;
 
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.LocaleFactory;
+import ch.cyberduck.core.Metrics;
+import ch.cyberduck.core.MetricsFactory;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.date.RemainingPeriodFormatter;
 import ch.cyberduck.core.diagnostics.ReachabilityFactory;
@@ -36,6 +38,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
     private static final Logger log = Logger.getLogger(AbstractRetryCallable.class);
 
     private final Preferences preferences = PreferencesFactory.get();
+    private final Metrics metrics = MetricsFactory.get();
 
     private final Host host;
     /**
@@ -80,6 +83,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
                 }
                 if(++count > retry) {
                     log.warn(String.format("Cancel retry for failure %s after %d counts", failure, retry));
+                    metrics.increment("retry.exhausted");
                     return false;
                 }
                 delay = backoff;
@@ -94,6 +98,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
                     else {
                         if(++count > retry) {
                             log.warn(String.format("Cancel retry for failure %s after %d counts", failure, retry));
+                            metrics.increment("retry.exhausted");
                             return false;
                         }
                         delay = PreferencesFactory.get().getInteger("connection.retry.delay");
@@ -109,6 +114,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
                 return false;
         }
         log.warn(String.format("Retry for failure %s with delay of %ds", failure, delay));
+        metrics.increment("retry.attempt");
         if(delay > 0) {
             final BackgroundActionPauser pause = new BackgroundActionPauser(new BackgroundActionPauser.Callback() {
                 @Override
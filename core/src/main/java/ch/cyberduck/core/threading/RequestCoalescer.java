@@ -0,0 +1,162 @@
+package ch.cyberduck.core.threading;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Coalesce requests issued concurrently by connections to the same bookmark into batches. A request is sent right away
+ * when no other request is in progress. Otherwise callers wait for more requests to be queued until the linger time
+ * of the first queued request has passed and the batch is then sent by any of the waiting callers with its own
+ * connection. The batch is sent early when the maximum number of requests is queued.
+ *
+ * @param <E> Request
+ */
+public final class RequestCoalescer<E> {
+    private static final Logger log = Logger.getLogger(RequestCoalescer.class);
+
+    /**
+     * Shared for all connections to the same bookmark
+     */
+    private static final Map<Host, Map<Object, RequestCoalescer<?>>> instances
+        = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param host   Bookmark
+     * @param key    Kind of requests coalesced
+     * @param size   Maximum number of requests in a single batch
+     * @param linger Time in milliseconds to wait for more requests
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> RequestCoalescer<E> get(final Host host, final Object key, final int size, final long linger) {
+        return (RequestCoalescer<E>) instances.computeIfAbsent(host, h -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key, k -> new RequestCoalescer<E>(size, linger));
+    }
+
+    /**
+     * Maximum number of requests in a single batch
+     */
+    private final int size;
+    /**
+     * Time in milliseconds to wait for more requests
+     */
+    private final long linger;
+
+    private List<E> queue = new ArrayList<>();
+    /**
+     * Time until callers wait for more requests
+     */
+    private long deadline;
+    /**
+     * Number of batches taken from queue
+     */
+    private long generation;
+    /**
+     * Number of callers with request queued or batch in progress
+     */
+    private int active;
+
+    public RequestCoalescer(final int size, final long linger) {
+        this.size = size;
+        this.linger = linger;
+    }
+
+    /**
+     * Queue request and send batch containing it unless sent by another caller
+     *
+     * @param request Request to queue
+     * @param sender  Send batch with connection of caller. Must complete all requests in batch.
+     * @throws InterruptedException Interrupted before request was sent. Requests queued by other callers are still
+     *                              sent with the connection of the caller.
+     */
+    public void submit(final E request, final Consumer<List<E>> sender) throws InterruptedException {
+        List<E> batch = null;
+        InterruptedException interrupted = null;
+        synchronized(this) {
+            active++;
+            if(queue.isEmpty()) {
+                deadline = System.currentTimeMillis() + linger;
+            }
+            queue.add(request);
+            final long queued = generation;
+            if(queue.size() >= size || active == 1) {
+                // Batch is full or no other request in progress to wait for
+                batch = this.drain();
+            }
+            else {
+                long remaining = deadline - System.currentTimeMillis();
+                while(generation == queued && remaining > 0) {
+                    try {
+                        this.wait(remaining);
+                    }
+                    catch(InterruptedException e) {
+                        interrupted = e;
+                        break;
+                    }
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                if(generation == queued) {
+                    if(interrupted != null) {
+                        queue.remove(request);
+                    }
+                    if(!queue.isEmpty()) {
+                        batch = this.drain();
+                    }
+                }
+                else if(interrupted != null) {
+                    // Already sent by other caller
+                    Thread.currentThread().interrupt();
+                    interrupted = null;
+                }
+            }
+        }
+        try {
+            if(batch != null) {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Send batch with %d requests", batch.size()));
+                }
+                sender.accept(batch);
+            }
+        }
+        finally {
+            synchronized(this) {
+                active--;
+            }
+        }
+        if(interrupted != null) {
+            throw interrupted;
+        }
+    }
+
+    private List<E> drain() {
+        final List<E> batch = queue;
+        queue = new ArrayList<>();
+        generation++;
+        // Wake up callers waiting for more requests
+        this.notifyAll();
+        return batch;
+    }
+}
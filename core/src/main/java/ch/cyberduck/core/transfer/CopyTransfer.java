@@ -18,7 +18,10 @@ package ch.cyberduck.core.transfer;
  */
 
 import ch.cyberduck.core.*;
+import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Directory;
@@ -29,6 +32,7 @@ import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.serializer.Serializer;
 import ch.cyberduck.core.shared.DefaultCopyFeature;
+import ch.cyberduck.core.shared.RelayCopyFeature;
 import ch.cyberduck.core.transfer.copy.ChecksumFilter;
 import ch.cyberduck.core.transfer.copy.OverwriteFilter;
 
@@ -249,12 +253,54 @@ public class CopyTransfer extends Transfer {
         }
         else {
             // Transfer
-            final Copy feature = new DefaultCopyFeature(session).withTarget(destination);
+            final Copy server = this.getServerFeature(session, destination, source, mapping.get(source));
+            if(server != null) {
+                try {
+                    server.copy(source, mapping.get(source), status, connectionCallback);
+                    this.addTransferred(status.getLength());
+                    return;
+                }
+                catch(AccessDeniedException | NotfoundException | InteroperabilityException e) {
+                    // Destination connection cannot read source
+                    log.warn(String.format("Server side copy of %s with connection %s failed. %s", source, destination, e));
+                }
+            }
+            final Copy feature = this.getFeature(session, destination, source, mapping.get(source), streamListener);
             feature.copy(source, mapping.get(source), status, connectionCallback);
             this.addTransferred(status.getLength());
         }
     }
 
+    /**
+     * @return Server side copy issued with destination connection on the same endpoint or null
+     */
+    protected Copy getServerFeature(final Session<?> session, final Session<?> destination, final Path source, final Path target) {
+        if(null == source.attributes().getVault() && null == target.attributes().getVault()) {
+            final Copy server = session.getFeature(Copy.class);
+            if(server.isRemote()) {
+                if(server.withTarget(destination).isSupported(source, target)) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Use server side copy for %s with connection %s", source, destination));
+                    }
+                    return server;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Relay with ranged reads or streaming copy
+     */
+    protected Copy getFeature(final Session<?> session, final Session<?> destination, final Path source, final Path target,
+                              final StreamListener streamListener) {
+        final Copy relay = new RelayCopyFeature(session, bandwidth, streamListener).withTarget(destination);
+        if(relay.isSupported(source, target)) {
+            return relay;
+        }
+        return new DefaultCopyFeature(session).withTarget(destination);
+    }
+
     @Override
     public void normalize() {
         //
@@ -20,6 +20,8 @@ package ch.cyberduck.core.transfer;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ChangesCacheUpdater;
+import ch.cyberduck.core.ChangesCursorStore;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
@@ -29,6 +31,7 @@ import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Changes;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
@@ -76,6 +79,13 @@ public class SyncTransfer extends Transfer {
     private final Map<TransferItem, Comparison> comparisons = Collections.synchronizedMap(new LRUMap<TransferItem, Comparison>(
         PreferencesFactory.get().getInteger("transfer.cache.size")));
 
+    private final ChangesCursorStore cursors = new ChangesCursorStore();
+
+    /**
+     * Remote listings are kept in cache between runs and patched with changes from feed
+     */
+    private boolean incremental;
+
     public SyncTransfer(final Host host, final TransferItem item) {
         this(host, item, TransferAction.callback);
     }
@@ -190,6 +200,9 @@ public class SyncTransfer extends Transfer {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Children for %s", directory));
         }
+        if(directory.equals(item.remote)) {
+            this.changes(session, directory);
+        }
         final Set<TransferItem> children = new HashSet<TransferItem>();
         final Find finder = session.getFeature(Find.class, new DefaultFindFeature(session)).withCache(cache);
         if(finder.find(directory)) {
@@ -201,6 +214,52 @@ public class SyncTransfer extends Transfer {
         return new ArrayList<TransferItem>(children);
     }
 
+    /**
+     * Update cached remote listings from previous run with changes since then to only list new folders
+     *
+     * @param directory Root of synchronization
+     */
+    private void changes(final Session<?> session, final Path directory) {
+        final Changes feature = PreferencesFactory.get().getBoolean("queue.sync.changes.enable") ?
+            session.getFeature(Changes.class) : null;
+        if(null == feature) {
+            incremental = false;
+        }
+        else {
+            try {
+                final Changes changes = feature.withCache(cache);
+                final String cursor = cursors.get(host, directory);
+                if(cursor != null && cache.isCached(directory)) {
+                    final Changes.ChangeSet set = changes.changes(directory, cursor);
+                    if(!set.isReset()) {
+                        final Set<Path> changed = new ChangesCacheUpdater(cache).update(set);
+                        if(log.isInfoEnabled()) {
+                            log.info(String.format("Found changes in %d folders since last synchronization of %s", changed.size(), directory));
+                        }
+                        cursors.put(host, directory, set.getCursor());
+                        incremental = true;
+                        return;
+                    }
+                    log.warn(String.format("Cursor for %s expired", directory));
+                }
+                // Obtain cursor before listing to include changes made while listing
+                cursors.put(host, directory, changes.cursor(directory));
+                incremental = true;
+            }
+            catch(BackgroundException e) {
+                log.warn(String.format("Failure reading changes for %s. %s", directory, e.getMessage()));
+                cursors.remove(host, directory);
+                incremental = false;
+            }
+        }
+        // Discard outdated listings from previous run
+        for(Path cached : new ArrayList<>(cache.asMap().keySet())) {
+            if(cached.equals(directory) || cached.isChild(directory)) {
+                cache.remove(cached);
+            }
+        }
+    }
+
     @Override
     public TransferAction action(final Session<?> source, final Session<?> destination, final boolean resumeRequested, final boolean reloadRequested,
                                  final TransferPrompt prompt, final ListProgressListener listener) {
@@ -256,7 +315,17 @@ public class SyncTransfer extends Transfer {
     public void stop() {
         download.stop();
         upload.stop();
-        cache.clear();
+        if(incremental) {
+            // Only keep listings patched with changes in next run
+            for(Path cached : new ArrayList<>(cache.asMap().keySet())) {
+                if(!cached.equals(item.remote) && !cached.isChild(item.remote)) {
+                    cache.remove(cached);
+                }
+            }
+        }
+        else {
+            cache.clear();
+        }
         comparisons.clear();
         super.stop();
     }
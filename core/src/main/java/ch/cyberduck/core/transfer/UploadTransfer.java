@@ -22,6 +22,7 @@ import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListingIndexFactory;
 import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.NullFilter;
@@ -260,7 +261,12 @@ public class UploadTransfer extends Transfer {
                     super.sent(bytes);
                 }
             };
-            final Object reply = upload.upload(file, local, bandwidth, sentListener, status, connectionCallback);
+            try {
+                upload.upload(file, local, bandwidth, sentListener, status, connectionCallback);
+            }
+            finally {
+                ListingIndexFactory.invalidate(source.getHost(), Collections.singleton(file));
+            }
         }
         else if(file.isDirectory()) {
             if(!status.isExists()) {
@@ -268,6 +274,7 @@ public class UploadTransfer extends Transfer {
                         file.getName()));
                 final Directory feature = source.getFeature(Directory.class);
                 feature.mkdir(file, null, status);
+                ListingIndexFactory.invalidate(source.getHost(), Collections.singleton(file));
                 status.setComplete();
             }
         }
@@ -37,6 +37,7 @@ import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Segments;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.io.ChecksumComputeFactory;
@@ -64,6 +65,7 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -216,6 +218,9 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                             long partsize = Math.max(
                                 preferences.getLong("queue.download.segments.size"),
                                 status.getLength() / preferences.getInteger("queue.connections.limit"));
+                            // Align with segments of large object to verify checksum of each part
+                            final List<Path> objects = this.segments(file, status);
+                            int index = 0;
                             // Sorted list
                             final List<TransferStatus> segments = new ArrayList<TransferStatus>();
                             final Local segmentsFolder = LocalFactory.get(local.getParent(), String.format("%s.cyberducksegment", local.getName()));
@@ -234,14 +239,31 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                                     segments.clear();
                                     break;
                                 }
-                                // Last part can be less than 5 MB. Adjust part size.
-                                long length = Math.min(partsize, remaining);
+                                long length;
+                                Checksum checksum = Checksum.NONE;
+                                if(objects.isEmpty()) {
+                                    // Last part can be less than 5 MB. Adjust part size.
+                                    length = Math.min(partsize, remaining);
+                                }
+                                else {
+                                    final PathAttributes object = objects.get(index++).attributes();
+                                    length = object.getSize();
+                                    checksum = object.getChecksum();
+                                    // Combine consecutive small segments up to part size
+                                    while(index < objects.size() && length + objects.get(index).attributes().getSize() <= partsize) {
+                                        length += objects.get(index++).attributes().getSize();
+                                        checksum = Checksum.NONE;
+                                    }
+                                }
                                 final TransferStatus segmentStatus = new TransferStatus()
                                     .segment(true) // Skip completion filter for single segment
                                     .append(true) // Read with offset
                                     .skip(offset)
                                     .length(length)
                                     .rename(segmentFile);
+                                if(options.checksum) {
+                                    segmentStatus.setChecksum(checksum);
+                                }
                                 if(log.isDebugEnabled()) {
                                     log.debug(String.format("Adding status %s for segment %s", segmentStatus, segmentFile));
                                 }
@@ -261,6 +283,65 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         return status;
     }
 
+    /**
+     * Compare checksum of downloaded data with checksum returned by the server
+     *
+     * @param local    Downloaded file or segment
+     * @param checksum Expected checksum
+     */
+    private void verify(final Path file, final Local local, final Checksum checksum, final ProgressListener listener) throws BackgroundException {
+        if(this.options.checksum) {
+            if(file.getType().contains(Path.Type.decrypted)) {
+                log.warn(String.format("Skip checksum verification for %s with client side encryption enabled", file));
+            }
+            else {
+                if(Checksum.NONE != checksum) {
+                    final ChecksumCompute compute = ChecksumComputeFactory.get(checksum.algorithm);
+                    listener.message(MessageFormat.format(LocaleFactory.localizedString("Calculate checksum for {0}", "Status"),
+                        file.getName()));
+                    final Checksum download = compute.compute(local.getInputStream(), new TransferStatus());
+                    if(!checksum.equals(download)) {
+                        throw new ChecksumException(
+                            MessageFormat.format(LocaleFactory.localizedString("Download {0} failed", "Error"), file.getName()),
+                            MessageFormat.format(LocaleFactory.localizedString("Mismatch between {0} hash {1} of downloaded data and checksum {2} returned by the server", "Error"),
+                                download.algorithm.toString(), download.hash, checksum.hash));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Ordered segments of large object with checksum or empty list if not available
+     */
+    private List<Path> segments(final Path file, final TransferStatus status) {
+        final Segments feature = session.getFeature(Segments.class);
+        if(null == feature) {
+            return Collections.emptyList();
+        }
+        try {
+            final List<Path> segments = new ArrayList<Path>();
+            long total = 0L;
+            for(Path segment : feature.list(file)) {
+                if(segment.attributes().getSize() > 0L) {
+                    segments.add(segment);
+                    total += segment.attributes().getSize();
+                }
+            }
+            if(total != status.getLength()) {
+                if(!segments.isEmpty()) {
+                    log.warn(String.format("Size %d of segments does not match length of %s", total, file));
+                }
+                return Collections.emptyList();
+            }
+            return segments;
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure %s listing segments of %s", e, file));
+            return Collections.emptyList();
+        }
+    }
+
     @Override
     public void apply(final Path file, final Local local, final TransferStatus status,
                       final ProgressListener listener) throws BackgroundException {
@@ -278,6 +359,9 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
             log.debug(String.format("Complete %s with status %s", file.getAbsolute(), status));
         }
         if(status.isSegment()) {
+            if(status.isComplete()) {
+                this.verify(file, local, status.getChecksum(), listener);
+            }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Skip completion for single segment %s", status));
             }
@@ -376,26 +460,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                 }
             }
             if(file.isFile()) {
-                if(this.options.checksum) {
-                    if(file.getType().contains(Path.Type.decrypted)) {
-                        log.warn(String.format("Skip checksum verification for %s with client side encryption enabled", file));
-                    }
-                    else {
-                        final Checksum checksum = status.getChecksum();
-                        if(Checksum.NONE != checksum) {
-                            final ChecksumCompute compute = ChecksumComputeFactory.get(checksum.algorithm);
-                            listener.message(MessageFormat.format(LocaleFactory.localizedString("Calculate checksum for {0}", "Status"),
-                                file.getName()));
-                            final Checksum download = compute.compute(local.getInputStream(), new TransferStatus());
-                            if(!checksum.equals(download)) {
-                                throw new ChecksumException(
-                                    MessageFormat.format(LocaleFactory.localizedString("Download {0} failed", "Error"), file.getName()),
-                                    MessageFormat.format(LocaleFactory.localizedString("Mismatch between {0} hash {1} of downloaded data and checksum {2} returned by the server", "Error"),
-                                        download.algorithm.toString(), download.hash, checksum.hash));
-                            }
-                        }
-                    }
-                }
+                this.verify(file, local, status.getChecksum(), listener);
             }
             if(file.isFile()) {
                 if(status.getDisplayname().local != null) {
@@ -98,6 +98,8 @@ public class ResumeFilter extends AbstractDownloadFilter {
                         segmentStatus.setAppend(true);
                         segmentStatus.setLength(segmentStatus.getLength() - segmentFile.attributes().getSize());
                         segmentStatus.setOffset(segmentStatus.getOffset() + segmentFile.attributes().getSize());
+                        // Checksum of segment only applies to complete download
+                        segmentStatus.setChecksum(Checksum.NONE);
                         if(segmentStatus.getLength() == 0L) {
                             segmentStatus.setComplete();
                         }
@@ -31,7 +31,9 @@ import ch.cyberduck.core.vault.registry.*;
 import org.apache.log4j.Logger;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Predicate;
 
 public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements VaultRegistry {
     private static final Logger log = Logger.getLogger(DefaultVaultRegistry.class);
@@ -46,6 +48,11 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
     private final PasswordStore keychain;
     private final PasswordCallback prompt;
 
+    /**
+     * Registered vaults by home directory
+     */
+    private final VaultPathIndex index = new VaultPathIndex();
+
     public DefaultVaultRegistry(final PasswordCallback prompt) {
         this(PasswordStoreFactory.get(), prompt);
     }
@@ -59,11 +66,55 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         super(Arrays.asList(vaults));
         this.keychain = keychain;
         this.prompt = prompt;
+        this.forEach(index::add);
     }
 
     @Override
     public boolean add(final Vault vault) {
-        return super.add(vault);
+        if(super.add(vault)) {
+            index.add(vault);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if(super.remove(o)) {
+            index.remove((Vault) o);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Vault> vaults) {
+        boolean modified = false;
+        for(Vault vault : vaults) {
+            modified |= this.add(vault);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> vaults) {
+        return this.removeIf(vaults::contains);
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> vaults) {
+        return this.removeIf(vault -> !vaults.contains(vault));
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<? super Vault> filter) {
+        return super.removeIf(vault -> {
+            if(filter.test(vault)) {
+                index.remove(vault);
+                return true;
+            }
+            return false;
+        });
     }
 
     @Override
@@ -80,7 +131,7 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
 
     @Override
     public boolean contains(final Path directory) {
-        for(Vault vault : this) {
+        for(Vault vault : index.find(directory)) {
             if(directory.equals(vault.getHome())) {
                 return true;
             }
@@ -98,6 +149,7 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         }
         this.forEach(Vault::close);
         super.clear();
+        index.clear();
     }
 
     @Override
@@ -112,7 +164,7 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
      * @return Open or disabled vault
      */
     public Vault find(final Session session, final Path file, final boolean lookup) throws VaultUnlockCancelException {
-        for(Vault vault : this) {
+        for(Vault vault : index.find(file)) {
             if(vault.contains(file)) {
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Found vault %s for file %s", vault, file));
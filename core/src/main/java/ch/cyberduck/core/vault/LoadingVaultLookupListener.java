@@ -49,6 +49,7 @@ public class LoadingVaultLookupListener implements VaultLookupListener {
             }
             try {
                 registry.add(vault.load(session, prompt, keychain));
+                session.invalidateFeatures();
             }
             catch(BackgroundException e) {
                 log.warn(String.format("Failure loading vault %s. %s", vault, e));
@@ -0,0 +1,119 @@
+package ch.cyberduck.core.vault;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Vault;
+import ch.cyberduck.core.unicode.NFCNormalizer;
+import ch.cyberduck.core.unicode.UnicodeNormalizer;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Prefix tree of path segments to vaults registered with their home directory. Lookup of vaults in the hierarchy of a
+ * file costs the depth of the path instead of the number of registered vaults.
+ */
+final class VaultPathIndex {
+
+    private static final UnicodeNormalizer normalizer = new NFCNormalizer();
+
+    private final Node root = new Node();
+
+    /**
+     * @param vault Vault indexed by its home directory
+     */
+    public synchronized void add(final Vault vault) {
+        Node node = root;
+        for(String segment : segments(vault.getHome())) {
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        if(!node.vaults.contains(vault)) {
+            node.vaults.add(vault);
+        }
+    }
+
+    public synchronized void remove(final Vault vault) {
+        final List<Node> trail = new ArrayList<>();
+        Node node = root;
+        for(String segment : segments(vault.getHome())) {
+            trail.add(node);
+            node = node.children.get(segment);
+            if(null == node) {
+                return;
+            }
+        }
+        node.vaults.remove(vault);
+        // Prune empty branches
+        final String[] segments = segments(vault.getHome());
+        for(int i = trail.size() - 1; i >= 0 && node.isEmpty(); i--) {
+            trail.get(i).children.remove(segments[i]);
+            node = trail.get(i);
+        }
+    }
+
+    public synchronized void clear() {
+        root.children.clear();
+        root.vaults.clear();
+    }
+
+    /**
+     * @param file File or directory
+     * @return Vaults with home directory equal to or a parent of the file ordered from root to deepest
+     */
+    public List<Vault> find(final Path file) {
+        List<Vault> found = null;
+        Node node = root;
+        for(String segment : segments(file)) {
+            if(!node.vaults.isEmpty()) {
+                if(null == found) {
+                    found = new ArrayList<>();
+                }
+                found.addAll(node.vaults);
+            }
+            node = node.children.get(segment);
+            if(null == node) {
+                break;
+            }
+        }
+        if(node != null && !node.vaults.isEmpty()) {
+            if(null == found) {
+                found = new ArrayList<>();
+            }
+            found.addAll(node.vaults);
+        }
+        return null == found ? Collections.emptyList() : found;
+    }
+
+    private static String[] segments(final Path file) {
+        return StringUtils.split(normalizer.normalize(file.getAbsolute()).toString(), Path.DELIMITER);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private final List<Vault> vaults = new CopyOnWriteArrayList<>();
+
+        private boolean isEmpty() {
+            return children.isEmpty() && vaults.isEmpty();
+        }
+    }
+}
@@ -86,9 +86,20 @@ public class VaultRegistryCopyFeature implements Copy {
         }
     }
 
+    @Override
+    public boolean isRemote() {
+        return proxy.isRemote();
+    }
+
     @Override
     public Copy withTarget(final Session<?> session) {
-        this.destination = session.withRegistry(registry);
+        if(session.getHost().equals(this.session.getHost())) {
+            this.destination = session.withRegistry(registry);
+        }
+        else {
+            // Keep vaults registered for connection to different bookmark
+            this.destination = session;
+        }
         return this;
     }
 
@@ -57,6 +57,11 @@ public class VaultRegistryUploadFeature<Output> implements Upload<Output> {
         return this;
     }
 
+    @Override
+    public boolean isStreaming() {
+        return proxy.isStreaming();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("VaultRegistryUploadFeature{");
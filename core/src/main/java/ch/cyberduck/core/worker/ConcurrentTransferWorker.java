@@ -30,6 +30,7 @@ import ch.cyberduck.core.notification.NotificationService;
 import ch.cyberduck.core.pool.SessionPool;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundActionState;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
 import ch.cyberduck.core.threading.ThreadPool;
 import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.Transfer;
@@ -41,6 +42,8 @@ import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
@@ -57,6 +60,15 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     // Keep number of submitted tasks
     private final AtomicInteger size = new AtomicInteger();
     private final ThreadPool pool;
+    /**
+     * Open connections in advance without occupying threads of transfer pool
+     */
+    private final ThreadPool warmup;
+    /**
+     * Connections opened in advance to await before transfer tasks borrow from pool
+     */
+    private final List<Future<Void>> warming = new ArrayList<>();
+    private final int connections;
 
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
@@ -88,9 +100,62 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         super(transfer, options, prompt, meter, error, progressListener, streamListener, connect, notification);
         this.source = source;
         this.destination = destination;
+        this.connections = transfer.getTransferType() == Host.TransferType.newconnection ? 1 : PreferencesFactory.get().getInteger("queue.connections.limit");
         this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
-            transfer.getTransferType() == Host.TransferType.newconnection ? 1 : PreferencesFactory.get().getInteger("queue.connections.limit"), priority);
+            connections, priority);
         this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
+        this.warmup = ThreadPoolFactory.get(String.format("%s-warmup", new AlphanumericRandomStringService().random()),
+            2, priority);
+    }
+
+    @Override
+    public Boolean run(final Session<?> session) throws BackgroundException {
+        if(connections > 1 && PreferencesFactory.get().getBoolean("connection.pool.warmup.enable")) {
+            for(SessionPool p : new SessionPool[]{source, destination}) {
+                // Open connections while preparing transfer
+                warming.add(warmup.execute(new BackgroundExceptionCallable<Void>() {
+                    @Override
+                    public Void call() {
+                        p.warmup(connections, new BackgroundActionState() {
+                            @Override
+                            public boolean isCanceled() {
+                                return ConcurrentTransferWorker.this.isCanceled();
+                            }
+
+                            @Override
+                            public boolean isRunning() {
+                                return true;
+                            }
+                        });
+                        return null;
+                    }
+                }));
+            }
+        }
+        return super.run(session);
+    }
+
+    /**
+     * Wait for connections opened in advance to be released to the pool. Transfer tasks submitted before would
+     * open additional connections exceeding the limit.
+     */
+    private void awaitWarmup() {
+        synchronized(warming) {
+            for(Future<Void> future : warming) {
+                try {
+                    future.get();
+                }
+                catch(InterruptedException e) {
+                    log.warn(String.format("Interrupted awaiting connections opened in advance for %s", this));
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Failure %s opening connections in advance for %s", e.getCause(), this));
+                }
+            }
+            warming.clear();
+        }
     }
 
     @Override
@@ -138,6 +203,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
     @Override
     public Future<TransferStatus> submit(final TransferCallable callable) {
+        this.awaitWarmup();
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit %s to pool", callable));
         }
@@ -179,6 +245,7 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
     @Override
     public void cleanup(final Boolean result) {
+        warmup.shutdown(false);
         pool.shutdown(result);
     }
 
@@ -19,6 +19,7 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.ListingIndexFactory;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.MappingMimeTypeService;
 import ch.cyberduck.core.Path;
@@ -98,6 +99,7 @@ public class CopyWorker extends Worker<Map<Path, Path>> {
             return result;
         }
         finally {
+            ListingIndexFactory.invalidate(destination.getHost(), files.values());
             target.release(destination, null);
         }
     }
@@ -23,6 +23,7 @@ import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.ListingIndexFactory;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.NullFilter;
@@ -81,13 +82,18 @@ public class DeleteWorker extends Worker<List<Path>> {
             }
             recursive.putAll(this.compile(session.getHost(), delete, list, new WorkerListProgressListener(this, listener), file));
         }
-        delete.delete(recursive, prompt, new Delete.Callback() {
-            @Override
-            public void delete(final Path file) {
-                listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
-                    file.getName()));
-            }
-        });
+        try {
+            delete.delete(recursive, prompt, new Delete.Callback() {
+                @Override
+                public void delete(final Path file) {
+                    listener.message(MessageFormat.format(LocaleFactory.localizedString("Deleting {0}", "Status"),
+                        file.getName()));
+                }
+            });
+        }
+        finally {
+            ListingIndexFactory.invalidate(session.getHost(), recursive.keySet());
+        }
         return new ArrayList<>(recursive.keySet());
     }
 
@@ -37,6 +37,7 @@ public class LockVaultWorker extends Worker<Path> {
     @Override
     public Path run(final Session<?> session) throws BackgroundException {
         registry.close(vault);
+        session.invalidateFeatures();
         return vault;
     }
 
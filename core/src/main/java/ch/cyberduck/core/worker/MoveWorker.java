@@ -21,6 +21,7 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.ListingIndexFactory;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.MappingMimeTypeService;
 import ch.cyberduck.core.Path;
@@ -142,6 +143,8 @@ public class MoveWorker extends Worker<Map<Path, Path>> {
             return result;
         }
         finally {
+            ListingIndexFactory.invalidate(session.getHost(), files.keySet());
+            ListingIndexFactory.invalidate(destination.getHost(), files.values());
             target.release(destination, null);
         }
     }
@@ -19,12 +19,15 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListingIndexFactory;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.filter.DirectorySearchFilter;
+import ch.cyberduck.core.shared.IndexedSearchFeature;
 
 import org.apache.log4j.Logger;
 
@@ -32,7 +35,6 @@ import java.text.MessageFormat;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 public class SearchWorker extends Worker<AttributedList<Path>> {
     private static final Logger log = Logger.getLogger(SearchWorker.class);
@@ -52,7 +54,9 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
     @Override
     public AttributedList<Path> run(final Session<?> session) throws BackgroundException {
         // Run recursively
-        final Search feature = session.getFeature(Search.class).withCache(cache);
+        final Search feature = ListingIndexFactory.isEnabled() ?
+            new IndexedSearchFeature(session.getFeature(Search.class), ListingIndexFactory.get(session.getHost())).withCache(cache) :
+            session.getFeature(Search.class).withCache(cache);
         if(log.isDebugEnabled()) {
             log.debug(String.format("Run with feature %s", feature));
         }
@@ -64,7 +68,7 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
             throw new ConnectionCanceledException();
         }
         // Get filtered list from search
-        final AttributedList<Path> list = search.search(workdir, new RecursiveSearchFilter(filter), new WorkerListProgressListener(this, listener));
+        final AttributedList<Path> list = search.search(workdir, new DirectorySearchFilter(filter), new WorkerListProgressListener(this, listener));
         if(!search.isRecursive()) {
             final Set<Path> removal = new HashSet<>();
             for(final Path file : list) {
@@ -118,38 +122,4 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
         sb.append('}');
         return sb.toString();
     }
-
-    private static final class RecursiveSearchFilter implements Filter<Path> {
-        private final Filter<Path> filter;
-
-        public RecursiveSearchFilter(final Filter<Path> filter) {
-            this.filter = filter;
-        }
-
-        @Override
-        public boolean accept(final Path file) {
-            if(file.isDirectory()) {
-                return true;
-            }
-            return filter.accept(file);
-        }
-
-        @Override
-        public Pattern toPattern() {
-            return filter.toPattern();
-        }
-
-        @Override
-        public int hashCode() {
-            return filter.hashCode();
-        }
-
-        @Override
-        public boolean equals(final Object obj) {
-            if(obj instanceof Filter) {
-                return filter.equals(obj);
-            }
-            return false;
-        }
-    }
 }
@@ -21,6 +21,7 @@ import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.ListingIndexFactory;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
@@ -58,7 +59,11 @@ public class SessionListWorker extends Worker<AttributedList<Path>> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Run with feature %s", service));
             }
-            return service.list(directory, listener);
+            final AttributedList<Path> list = service.list(directory, listener);
+            if(ListingIndexFactory.isEnabled()) {
+                ListingIndexFactory.get(session.getHost()).put(directory, list);
+            }
+            return list;
         }
         catch(ListCanceledException e) {
             return e.getChunk();
@@ -52,7 +52,7 @@ public class SearchFilter implements Filter<Path> {
 
     @Override
     public Pattern toPattern() {
-        return Pattern.compile(input);
+        return Pattern.compile(input, Pattern.LITERAL);
     }
 
     @Override
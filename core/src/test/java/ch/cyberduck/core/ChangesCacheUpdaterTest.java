@@ -0,0 +1,43 @@
+package ch.cyberduck.core;
+
+import ch.cyberduck.core.features.Changes;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ChangesCacheUpdaterTest {
+
+    @Test
+    public void testUpdate() {
+        final PathCache cache = new PathCache(10);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path folder = new Path(home, "d", EnumSet.of(Path.Type.directory));
+        final Path subfolder = new Path(folder, "s", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(home, "f", EnumSet.of(Path.Type.file));
+        cache.put(home, new AttributedList<>(Arrays.asList(folder, file)));
+        cache.put(folder, new AttributedList<>(Collections.singletonList(subfolder)));
+        cache.put(subfolder, new AttributedList<>());
+        final Changes.ChangeSet changes = new Changes.ChangeSet("c");
+        // Type of deleted file unknown
+        changes.getDeleted().add(new Path(home, "d", EnumSet.of(Path.Type.file)));
+        final Path modified = new Path(home, "f", EnumSet.of(Path.Type.file), new PathAttributes().withVersionId("2"));
+        changes.getModified().add(modified);
+        final Path added = new Path(new Path("/n", EnumSet.of(Path.Type.directory)), "a", EnumSet.of(Path.Type.file));
+        changes.getModified().add(added);
+        final Set<Path> changed = new ChangesCacheUpdater(cache).update(changes);
+        assertEquals(2, changed.size());
+        assertTrue(changed.contains(home));
+        assertTrue(changed.contains(added.getParent()));
+        assertEquals(1, cache.get(home).size());
+        assertEquals("2", cache.get(home).get(0).attributes().getVersionId());
+        assertFalse(cache.isCached(folder));
+        assertFalse(cache.isCached(subfolder));
+        assertFalse(cache.isCached(added.getParent()));
+    }
+}
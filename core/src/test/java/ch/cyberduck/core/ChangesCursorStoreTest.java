@@ -0,0 +1,38 @@
+package ch.cyberduck.core;
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class ChangesCursorStoreTest {
+
+    @Test
+    public void testPutLimit() {
+        PreferencesFactory.get().setDefault("queue.sync.changes.cursors.limit", String.valueOf(2));
+        final ChangesCursorStore store = new ChangesCursorStore();
+        final Host bookmark = new Host(new TestProtocol());
+        final Path a = new Path("/a b=c", EnumSet.of(Path.Type.directory));
+        final Path b = new Path("/b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path("/c", EnumSet.of(Path.Type.directory));
+        assertNull(store.get(bookmark, a));
+        store.put(bookmark, a, "https://h/delta?token=1 2");
+        assertEquals("https://h/delta?token=1 2", store.get(bookmark, a));
+        store.put(bookmark, b, "2");
+        // Most recently used
+        store.put(bookmark, a, "3");
+        store.put(bookmark, c, "4");
+        assertEquals("3", store.get(bookmark, a));
+        assertNull(store.get(bookmark, b));
+        assertEquals("4", store.get(bookmark, c));
+        assertNull(store.get(new Host(new TestProtocol()), a));
+        store.remove(bookmark, a);
+        assertNull(store.get(bookmark, a));
+        assertEquals("4", store.get(bookmark, c));
+        store.remove(bookmark);
+        assertNull(store.get(bookmark, c));
+    }
+}
@@ -0,0 +1,67 @@
+package ch.cyberduck.core;
+
+import ch.cyberduck.core.features.Read;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class CountingMetricsTest {
+
+    @Test
+    public void testIncrementConcurrent() throws Exception {
+        final CountingMetrics metrics = new CountingMetrics();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for(int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for(int j = 0; j < 10000; j++) {
+                    metrics.increment(Read.class);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(80000L, metrics.get(Read.class));
+        assertEquals(0L, metrics.get("unknown"));
+    }
+
+    @Test
+    public void testSnapshot() {
+        final CountingMetrics metrics = new CountingMetrics();
+        metrics.add("bytes", 10L);
+        metrics.add("bytes", -3L);
+        metrics.gauge("idle", () -> 4L);
+        for(int i = 1; i <= 100; i++) {
+            metrics.record("latency", i);
+        }
+        final Map<String, Object> snapshot = metrics.snapshot();
+        assertEquals(7L, snapshot.get("bytes"));
+        assertEquals(4L, snapshot.get("idle"));
+        assertEquals(100L, ((Map<?, ?>) snapshot.get("latency")).get("count"));
+        metrics.gauge("idle", null);
+        assertFalse(metrics.snapshot().containsKey("idle"));
+    }
+
+    @Test
+    public void testHistogramPercentile() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0L, histogram.getValueAtPercentile(50));
+        for(int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(500.5d, histogram.getMean(), 0.01d);
+        // Relative error below 12.5%
+        assertEquals(500d, histogram.getValueAtPercentile(50), 500d * 0.125);
+        assertEquals(990d, histogram.getValueAtPercentile(99), 990d * 0.125);
+        assertEquals(1000L, histogram.getValueAtPercentile(100));
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+}
@@ -0,0 +1,81 @@
+package ch.cyberduck.core;
+
+import ch.cyberduck.ui.browser.SearchFilter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class ListingIndexTest {
+
+    @Test
+    public void testSearchRanking() {
+        final ListingIndex index = new ListingIndex(Long.MAX_VALUE / 2);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path folder = new Path(home, "d", EnumSet.of(Path.Type.directory));
+        index.put(home, new AttributedList<>(Arrays.asList(
+            new Path(home, "my-report.txt", EnumSet.of(Path.Type.file)),
+            folder,
+            new Path(home, "report", EnumSet.of(Path.Type.file)))));
+        index.put(folder, new AttributedList<>(Collections.singletonList(
+            new Path(folder, "report.pdf", EnumSet.of(Path.Type.file)))));
+        final AttributedList<Path> result = index.search(home, new SearchFilter("report"), true);
+        assertEquals(3, result.size());
+        assertEquals("/report", result.get(0).getAbsolute());
+        assertEquals("/d/report.pdf", result.get(1).getAbsolute());
+        assertEquals("/my-report.txt", result.get(2).getAbsolute());
+        assertEquals(2, index.search(home, new SearchFilter("report"), false).size());
+    }
+
+    @Test
+    public void testSearchGlob() {
+        final ListingIndex index = new ListingIndex(Long.MAX_VALUE / 2);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        index.put(home, new AttributedList<>(Arrays.asList(
+            new Path(home, "a.txt", EnumSet.of(Path.Type.file)),
+            new Path(home, "a.pdf", EnumSet.of(Path.Type.file)))));
+        final AttributedList<Path> result = index.search(home, new SearchFilter("*.TXT"), true);
+        assertEquals(1, result.size());
+        assertEquals("a.txt", result.get(0).getName());
+    }
+
+    @Test
+    public void testStale() {
+        final ListingIndex index = new ListingIndex(Long.MAX_VALUE / 2);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path folder = new Path(home, "d", EnumSet.of(Path.Type.directory));
+        assertFalse(index.isIndexed(home));
+        assertEquals(Collections.singleton(home), index.stale(home));
+        index.put(home, new AttributedList<>(Collections.singletonList(folder)));
+        assertTrue(index.isValid(home));
+        assertEquals(Collections.singleton(folder), index.stale(home));
+        index.put(folder, new AttributedList<>());
+        assertTrue(index.stale(home).isEmpty());
+        index.invalidate(folder);
+        assertTrue(index.isIndexed(folder));
+        assertFalse(index.isValid(folder));
+        assertEquals(Collections.singleton(folder), index.stale(home));
+        // Folder removed from parent listing
+        index.put(home, new AttributedList<>());
+        assertFalse(index.isIndexed(folder));
+    }
+
+    @Test
+    public void testInvalidateChanges() {
+        final ListingIndex index = new ListingIndex(Long.MAX_VALUE / 2);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path folder = new Path(home, "d", EnumSet.of(Path.Type.directory));
+        final Path subfolder = new Path(folder, "s", EnumSet.of(Path.Type.directory));
+        index.put(home, new AttributedList<>(Collections.singletonList(folder)));
+        index.put(folder, new AttributedList<>(Collections.singletonList(subfolder)));
+        index.put(subfolder, new AttributedList<>());
+        index.invalidate(Collections.singletonList(folder));
+        assertFalse(index.isValid(home));
+        assertFalse(index.isIndexed(folder));
+        assertFalse(index.isIndexed(subfolder));
+    }
+}
@@ -0,0 +1,34 @@
+package ch.cyberduck.core;
+
+import ch.cyberduck.core.exception.ResolveFailedException;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+
+import static org.junit.Assert.*;
+
+public class ResolverCacheTest {
+
+    @Test
+    public void testResolveAll() throws Exception {
+        final InetAddress[] addresses = new Resolver(60000L).resolveAll("127.0.0.1", new DisabledCancelCallback());
+        assertEquals(1, addresses.length);
+        assertEquals("127.0.0.1", addresses[0].getHostAddress());
+        // Cached
+        assertSame(addresses, new Resolver(60000L).resolveAll("127.0.0.1", new DisabledCancelCallback()));
+        Resolver.clear();
+        assertNotSame(addresses, new Resolver(60000L).resolveAll("127.0.0.1", new DisabledCancelCallback()));
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        final InetAddress[] addresses = new Resolver(0L).resolveAll("127.0.0.2", new DisabledCancelCallback());
+        assertNotSame(addresses, new Resolver(0L).resolveAll("127.0.0.2", new DisabledCancelCallback()));
+    }
+
+    @Test(expected = ResolveFailedException.class)
+    public void testFailure() throws Exception {
+        new Resolver().resolveAll("non.invalid", new DisabledCancelCallback());
+    }
+}
@@ -0,0 +1,76 @@
+package ch.cyberduck.core;
+
+import ch.cyberduck.core.features.Changes;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.features.Find;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.vault.DefaultVaultRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SessionTest {
+
+    @Test
+    public void testGetFeatureCached() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public <T> T _getFeature(final Class<T> type) {
+                count.incrementAndGet();
+                return super._getFeature(type);
+            }
+        };
+        // Not cached while not connected
+        assertNotSame(session.getFeature(Read.class), session.getFeature(Read.class));
+        session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        count.set(0);
+        final Read feature = session.getFeature(Read.class);
+        for(int i = 0; i < 100000; i++) {
+            assertSame(feature, session.getFeature(Read.class));
+        }
+        assertEquals(1, count.get());
+        // Not supported
+        assertNull(session.getFeature(Delete.class));
+        assertNull(session.getFeature(Delete.class));
+        // Configured with cache by caller
+        assertNotSame(session.getFeature(Find.class), session.getFeature(Find.class));
+        session.withRegistry(new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback()));
+        assertNotSame(feature, session.getFeature(Read.class));
+        session.close();
+        assertNotSame(session.getFeature(Read.class), session.getFeature(Read.class));
+    }
+
+    @Test
+    public void testGetFeatureConfigurableNotCached() throws Exception {
+        final NullSession session = new NullSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Changes.class) {
+                    return (T) new Changes() {
+                        @Override
+                        public String cursor(final Path directory) {
+                            return null;
+                        }
+
+                        @Override
+                        public ChangeSet changes(final Path directory, final String cursor) {
+                            return new ChangeSet(cursor);
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+        session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        // Configured with cache by caller
+        assertNotSame(session.getFeature(Changes.class), session.getFeature(Changes.class));
+        assertSame(session.getFeature(Read.class), session.getFeature(Read.class));
+        session.close();
+    }
+}
@@ -0,0 +1,230 @@
+package ch.cyberduck.core.http;
+
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledTranscriptListener;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.proxy.DisabledProxyFinder;
+import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DisabledX509TrustManager;
+import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.Message;
+import org.apache.hc.core5.http.URIScheme;
+import org.apache.hc.core5.http.impl.bootstrap.HttpAsyncServer;
+import org.apache.hc.core5.http.nio.AsyncRequestConsumer;
+import org.apache.hc.core5.http.nio.AsyncServerRequestHandler;
+import org.apache.hc.core5.http.nio.entity.StringAsyncEntityConsumer;
+import org.apache.hc.core5.http.nio.support.BasicRequestConsumer;
+import org.apache.hc.core5.http.nio.support.BasicResponseProducer;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.impl.nio.bootstrap.H2ServerBootstrap;
+import org.apache.hc.core5.http2.ssl.H2ServerTlsStrategy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.log4j.Logger;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.Security;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class Http2ClientExecTest {
+    private static final Logger log = Logger.getLogger(Http2ClientExecTest.class);
+
+    private HttpAsyncServer server;
+    private int port;
+
+    @BeforeClass
+    public static void provider() {
+        PreferencesFactory.get();
+        // Workaround for https://github.com/bcgit/bc-java/issues/589 failing handshakes with X25519
+        Security.removeProvider(BouncyCastleProvider.PROVIDER_NAME);
+    }
+
+    @AfterClass
+    public static void restore() {
+        Security.insertProviderAt(new BouncyCastleProvider(),
+            PreferencesFactory.get().getInteger("connection.ssl.provider.bouncycastle.position"));
+    }
+
+    @Before
+    public void enable() {
+        PreferencesFactory.get().setProperty("http.http2.enable", true);
+    }
+
+    @After
+    public void shutdown() {
+        PreferencesFactory.get().deleteProperty("http.http2.enable");
+        if(server != null) {
+            server.close(CloseMode.IMMEDIATE);
+        }
+    }
+
+    @Test
+    public void testHttp2() throws Exception {
+        this.start(HttpVersionPolicy.NEGOTIATE);
+        try (CloseableHttpClient client = this.client()) {
+            try (CloseableHttpResponse response = client.execute(new HttpGet(String.format("https://localhost:%d/f", port)))) {
+                assertEquals(200, response.getStatusLine().getStatusCode());
+                assertEquals(2, response.getProtocolVersion().getMajor());
+                assertEquals("GET /f", IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8));
+            }
+            // Content not repeatable after HTTP/2 support is confirmed
+            final HttpPut put = new HttpPut(String.format("https://localhost:%d/f", port));
+            put.setEntity(new InputStreamEntity(new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)), 7L));
+            try (CloseableHttpResponse response = client.execute(put)) {
+                assertEquals(2, response.getProtocolVersion().getMajor());
+                assertEquals("PUT /f content", IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        this.start(HttpVersionPolicy.NEGOTIATE);
+        try (CloseableHttpClient client = this.client()) {
+            for(int i = 0; i < 3; i++) {
+                try (CloseableHttpResponse response = client.execute(new HttpGet(String.format("https://localhost:%d/large", port)))) {
+                    assertEquals(2, response.getProtocolVersion().getMajor());
+                    // Close with content not consumed
+                    assertEquals('G', response.getEntity().getContent().read());
+                }
+            }
+            try (CloseableHttpResponse response = client.execute(new HttpGet(String.format("https://localhost:%d/f", port)))) {
+                assertEquals(2, response.getProtocolVersion().getMajor());
+                assertEquals("GET /f", IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        this.start(HttpVersionPolicy.FORCE_HTTP_1);
+        try (CloseableHttpClient client = this.client()) {
+            for(int i = 0; i < 2; i++) {
+                try (CloseableHttpResponse response = client.execute(new HttpGet(String.format("https://localhost:%d/f", port)))) {
+                    assertEquals(200, response.getStatusLine().getStatusCode());
+                    assertEquals(1, response.getProtocolVersion().getMajor());
+                    assertEquals("GET /f", IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        this.start(HttpVersionPolicy.NEGOTIATE);
+        for(boolean enabled : new boolean[]{false, true}) {
+            PreferencesFactory.get().setProperty("http.http2.enable", enabled);
+            try (CloseableHttpClient client = this.client()) {
+                final ExecutorService executor = Executors.newFixedThreadPool(20);
+                final long start = System.nanoTime();
+                final List<Future<Integer>> futures = new ArrayList<>();
+                for(int i = 0; i < 500; i++) {
+                    final String path = String.format("/f-%d", i);
+                    futures.add(executor.submit(() -> {
+                        try (CloseableHttpResponse response = client.execute(new HttpGet(String.format("https://localhost:%d%s", port, path)))) {
+                            assertEquals("GET " + path, IOUtils.toString(response.getEntity().getContent(), StandardCharsets.UTF_8));
+                            return response.getProtocolVersion().getMajor();
+                        }
+                    }));
+                }
+                for(Future<Integer> future : futures) {
+                    assertEquals(enabled ? 2 : 1, future.get().intValue());
+                }
+                log.info(String.format("%d requests with HTTP/%d in %dms", futures.size(), enabled ? 2 : 1,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+                executor.shutdown();
+            }
+        }
+    }
+
+    private CloseableHttpClient client() {
+        return new HttpConnectionPoolBuilder(new Host(new TestProtocol(), "localhost"),
+            new ThreadLocalHostnameDelegatingTrustManager(new DisabledX509TrustManager(), "localhost"),
+            new DefaultX509KeyManager(), new DisabledProxyFinder())
+            .build(Proxy.DIRECT, new DisabledTranscriptListener(), new DisabledLoginCallback()).build();
+    }
+
+    /**
+     * Echo method, path and request content. Large content for path /large
+     */
+    private void start(final HttpVersionPolicy policy) throws Exception {
+        server = H2ServerBootstrap.bootstrap()
+            .setVersionPolicy(policy)
+            .setTlsStrategy(new H2ServerTlsStrategy(this.context()))
+            .register("*", new AsyncServerRequestHandler<Message<HttpRequest, String>>() {
+                @Override
+                public AsyncRequestConsumer<Message<HttpRequest, String>> prepare(final HttpRequest request, final EntityDetails details, final HttpContext context) {
+                    return new BasicRequestConsumer<>(null == details ? null : new StringAsyncEntityConsumer());
+                }
+
+                @Override
+                public void handle(final Message<HttpRequest, String> message, final ResponseTrigger trigger, final HttpContext context) throws org.apache.hc.core5.http.HttpException, java.io.IOException {
+                    final String body = "/large".equals(message.getHead().getPath()) ?
+                        String.format("%s %s", message.getHead().getMethod(), StringUtils.repeat('*', 1024 * 1024 - 4)) :
+                        String.format("%s %s", message.getHead().getMethod(), message.getHead().getPath());
+                    trigger.submitResponse(new BasicResponseProducer(200, null == message.getBody() ? body : String.format("%s %s", body, message.getBody())), context);
+                }
+            })
+            .create();
+        server.start();
+        port = ((InetSocketAddress) server.listen(new InetSocketAddress("localhost", 0), URIScheme.HTTPS).get().getAddress()).getPort();
+    }
+
+    private SSLContext context() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final KeyPair pair = generator.generateKeyPair();
+        final X500Name name = new X500Name("CN=localhost");
+        final Certificate certificate = new JcaX509CertificateConverter().getCertificate(new JcaX509v3CertificateBuilder(
+            name, BigInteger.ONE, new Date(System.currentTimeMillis() - 60000L), new Date(System.currentTimeMillis() + 3600000L),
+            name, pair.getPublic()).build(new JcaContentSignerBuilder("SHA256withRSA").build(pair.getPrivate())));
+        final KeyStore store = KeyStore.getInstance(KeyStore.getDefaultType());
+        store.load(null, null);
+        store.setKeyEntry("localhost", pair.getPrivate(), new char[0], new Certificate[]{certificate});
+        final KeyManagerFactory factory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        factory.init(store, new char[0]);
+        final SSLContext context = SSLContext.getInstance("TLS");
+        context.init(factory.getKeyManagers(), null, null);
+        return context;
+    }
+}
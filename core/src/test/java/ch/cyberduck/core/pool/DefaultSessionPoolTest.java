@@ -35,8 +35,12 @@ import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.junit.Test;
 
 import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -121,4 +125,60 @@ public class DefaultSessionPoolTest {
         pool.release(session, new BackgroundException("m", "d"));
         assertFalse(interrupt.get());
     }
+
+    @Test
+    public void testWarmup() throws Exception {
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        final DefaultSessionPool pool = new DefaultSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final CancelCallback callback) {
+                max.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(500L);
+                }
+                catch(InterruptedException e) {
+                    //
+                }
+                concurrent.decrementAndGet();
+                return true;
+            }
+        }, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+            new DefaultVaultRegistry(new DisabledPasswordCallback()), new DisabledTranscriptListener(), new Host(new TestProtocol())).withMaxIdle(2);
+        pool.warmup(4, BackgroundActionState.running);
+        assertEquals(4, pool.getNumIdle());
+        assertEquals(0, pool.getNumActive());
+        assertTrue(max.get() > 1);
+        // Pool already full
+        pool.warmup(4, BackgroundActionState.running);
+        assertEquals(4, pool.getNumIdle());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testWarmupFailure() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Set<Session<?>> opened = ConcurrentHashMap.newKeySet();
+        final DefaultSessionPool pool = new DefaultSessionPool(new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final CancelCallback callback) throws BackgroundException {
+                // Count new connections only as idle connections are checked again when borrowed
+                if(opened.add(session) && count.incrementAndGet() > 2) {
+                    throw new ConnectionRefusedException("t", new RuntimeException());
+                }
+                return true;
+            }
+        }, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+            new DefaultVaultRegistry(new DisabledPasswordCallback()), new DisabledTranscriptListener(), new Host(new TestProtocol())).withMaxIdle(5);
+        pool.warmup(4, BackgroundActionState.running);
+        assertEquals(2, pool.getNumIdle());
+        count.set(0);
+        // Maximum idle pool size lowered after failures
+        pool.warmup(4, BackgroundActionState.running);
+        // Lowered to 3 after two failures
+        assertEquals(1, count.get());
+        assertEquals(3, pool.getNumIdle());
+        assertEquals(0, pool.getNumActive());
+        pool.shutdown();
+    }
 }
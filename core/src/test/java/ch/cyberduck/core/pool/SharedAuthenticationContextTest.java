@@ -0,0 +1,192 @@
+package ch.cyberduck.core.pool;
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.LoginFailureException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SharedAuthenticationContextTest {
+
+    @Test
+    public void testGet() {
+        final Host host = new Host(new TestProtocol());
+        assertSame(SharedAuthenticationContext.get(host, "a"), SharedAuthenticationContext.get(host, "a"));
+        assertNotSame(SharedAuthenticationContext.get(host, "a"), SharedAuthenticationContext.get(host, "b"));
+        assertNotSame(SharedAuthenticationContext.get(host, "a"), SharedAuthenticationContext.get(new Host(new TestProtocol()), "a"));
+    }
+
+    @Test
+    public void testRefreshSingleFlight() throws Exception {
+        final SharedAuthenticationContext<String> context = new SharedAuthenticationContext<>();
+        final AtomicInteger count = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(5);
+        final List<Future<String>> futures = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return context.refresh(null, new SharedAuthenticationContext.Authenticator<String>() {
+                    @Override
+                    public String authenticate(final String stale) {
+                        return String.format("t%d", count.incrementAndGet());
+                    }
+
+                    @Override
+                    public boolean isValid(final String context) {
+                        return true;
+                    }
+                });
+            }));
+        }
+        start.countDown();
+        for(Future<String> future : futures) {
+            assertEquals("t1", future.get());
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(1, count.get());
+        assertEquals("t1", context.get());
+    }
+
+    @Test
+    public void testRefreshStale() throws Exception {
+        final SharedAuthenticationContext<String> context = new SharedAuthenticationContext<>();
+        final SharedAuthenticationContext.Authenticator<String> authenticator = new SharedAuthenticationContext.Authenticator<String>() {
+            @Override
+            public String authenticate(final String stale) {
+                return null == stale ? "t" : stale + "t";
+            }
+
+            @Override
+            public boolean isValid(final String context) {
+                return context.length() < 3;
+            }
+        };
+        final String t1 = context.refresh(null, authenticator);
+        assertEquals("t", t1);
+        // Reuse tokens of other connection
+        assertSame(t1, context.refresh("other", authenticator));
+        final String t2 = context.refresh(t1, authenticator);
+        assertEquals("tt", t2);
+        final String t3 = context.refresh("other", authenticator);
+        assertSame(t2, t3);
+        // Invalid
+        assertEquals("ttt", context.refresh("other", new SharedAuthenticationContext.Authenticator<String>() {
+            @Override
+            public String authenticate(final String stale) {
+                return stale + "t";
+            }
+
+            @Override
+            public boolean isValid(final String context) {
+                return false;
+            }
+        }));
+    }
+
+    @Test
+    public void testResetStale() throws Exception {
+        final SharedAuthenticationContext<String> context = new SharedAuthenticationContext<>();
+        final SharedAuthenticationContext.Authenticator<String> authenticator = new SharedAuthenticationContext.Authenticator<String>() {
+            @Override
+            public String authenticate(final String stale) {
+                return null == stale ? "t" : stale + "t";
+            }
+
+            @Override
+            public boolean isValid(final String context) {
+                return true;
+            }
+        };
+        final String t1 = context.refresh(null, authenticator);
+        // Already replaced
+        context.reset("other");
+        assertSame(t1, context.get());
+        context.reset(t1);
+        assertNull(context.get());
+        assertEquals("tt", context.refresh(t1, authenticator));
+    }
+
+    @Test(expected = ConnectionCanceledException.class)
+    public void testRefreshCancelWhilePending() throws Exception {
+        final SharedAuthenticationContext<String> context = new SharedAuthenticationContext<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> context.refresh(null, new SharedAuthenticationContext.Authenticator<String>() {
+            @Override
+            public String authenticate(final String stale) {
+                entered.countDown();
+                // Interactive login in progress
+                try {
+                    release.await();
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                return "t";
+            }
+
+            @Override
+            public boolean isValid(final String context) {
+                return true;
+            }
+        }));
+        entered.await();
+        try {
+            context.refresh(null, new SharedAuthenticationContext.Authenticator<String>() {
+                @Override
+                public String authenticate(final String stale) {
+                    fail();
+                    return null;
+                }
+
+                @Override
+                public boolean isValid(final String context) {
+                    return true;
+                }
+            }, () -> {
+                throw new ConnectionCanceledException();
+            });
+        }
+        finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = LoginFailureException.class)
+    public void testRefreshFailure() throws Exception {
+        final SharedAuthenticationContext<String> context = new SharedAuthenticationContext<>();
+        try {
+            context.refresh(null, new SharedAuthenticationContext.Authenticator<String>() {
+                @Override
+                public String authenticate(final String stale) throws BackgroundException {
+                    throw new LoginFailureException("f");
+                }
+
+                @Override
+                public boolean isValid(final String context) {
+                    return true;
+                }
+            });
+        }
+        finally {
+            assertNull(context.get());
+        }
+    }
+}
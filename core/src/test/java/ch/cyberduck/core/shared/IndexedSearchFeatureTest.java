@@ -0,0 +1,53 @@
+package ch.cyberduck.core.shared;
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Filter;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListingIndex;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.filter.DirectorySearchFilter;
+import ch.cyberduck.ui.browser.SearchFilter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class IndexedSearchFeatureTest {
+
+    @Test
+    public void testSearchRecursiveSkipsNonMatchingDirectories() throws Exception {
+        final ListingIndex index = new ListingIndex(Long.MAX_VALUE / 2);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path folder = new Path(home, "d", EnumSet.of(Path.Type.directory));
+        index.put(home, new AttributedList<>(Arrays.asList(
+            new Path(home, "report.txt", EnumSet.of(Path.Type.file)), folder)));
+        index.put(folder, new AttributedList<>(Collections.singletonList(
+            new Path(folder, "report.pdf", EnumSet.of(Path.Type.file)))));
+        final AttributedList<Path> result = new IndexedSearchFeature(new Search() {
+            @Override
+            public AttributedList<Path> search(final Path workdir, final Filter<Path> regex, final ListProgressListener listener) {
+                fail();
+                return null;
+            }
+
+            @Override
+            public boolean isRecursive() {
+                return true;
+            }
+
+            @Override
+            public Search withCache(final Cache<Path> cache) {
+                return this;
+            }
+        }, index).search(home, new DirectorySearchFilter(new SearchFilter("report")), new DisabledListProgressListener());
+        assertEquals(2, result.size());
+        assertFalse(result.contains(folder));
+    }
+}
@@ -0,0 +1,102 @@
+package ch.cyberduck.core.shared;
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RelayLocalTest {
+
+    @Test
+    public void testReadSegments() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(content.length);
+        final AtomicInteger count = new AtomicInteger();
+        final Read read = new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                count.incrementAndGet();
+                return new ByteArrayInputStream(content, (int) status.getOffset(), (int) status.getLength());
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        };
+        final RelayLocal local = new RelayLocal(read, file, new DisabledConnectionCallback(), 600L);
+        assertEquals(content.length, local.attributes().getSize());
+        // Read segment twice
+        for(int i = 0; i < 2; i++) {
+            final InputStream in = StreamCopier.skip(local.getInputStream(), 500L);
+            final byte[] segment = new byte[300];
+            IOUtils.readFully(in, segment);
+            in.close();
+            assertArrayEquals(Arrays.copyOfRange(content, 500, 800), segment);
+        }
+        assertEquals(1, count.get());
+        // Continue remote read after buffered segment
+        final InputStream in = StreamCopier.skip(local.getInputStream(), 500L);
+        assertArrayEquals(Arrays.copyOfRange(content, 500, 1000), IOUtils.toByteArray(in));
+        in.close();
+        assertEquals(2, count.get());
+        // Segment larger than buffer capacity
+        final InputStream full = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(full));
+        full.close();
+        final InputStream again = local.getInputStream();
+        assertArrayEquals(content, IOUtils.toByteArray(again));
+        again.close();
+        assertEquals(4, count.get());
+    }
+
+    @Test
+    public void testConcurrentSegmentsShareCapacity() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(1000);
+        final Path file = new Path("/f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(content.length);
+        final AtomicInteger count = new AtomicInteger();
+        final Read read = new Read() {
+            @Override
+            public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                count.incrementAndGet();
+                return new ByteArrayInputStream(content, (int) status.getOffset(), (int) status.getLength());
+            }
+
+            @Override
+            public boolean offset(final Path file) {
+                return true;
+            }
+        };
+        final RelayLocal local = new RelayLocal(read, file, new DisabledConnectionCallback(), 600L);
+        final InputStream first = local.getInputStream();
+        final InputStream second = StreamCopier.skip(local.getInputStream(), 500L);
+        final byte[] segment = new byte[400];
+        IOUtils.readFully(first, segment);
+        IOUtils.readFully(second, segment);
+        first.close();
+        second.close();
+        assertEquals(2, count.get());
+        // First segment buffered
+        IOUtils.readFully(local.getInputStream(), segment);
+        assertEquals(2, count.get());
+        // Second segment exceeded capacity while first was captured
+        IOUtils.readFully(StreamCopier.skip(local.getInputStream(), 500L), segment);
+        assertEquals(3, count.get());
+    }
+}
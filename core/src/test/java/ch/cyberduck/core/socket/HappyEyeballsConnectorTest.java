@@ -0,0 +1,62 @@
+package ch.cyberduck.core.socket;
+
+import ch.cyberduck.core.Resolver;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HappyEyeballsConnectorTest {
+
+    @Test
+    public void testSort() throws Exception {
+        final InetAddress v6a = InetAddress.getByName("2001:db8::1");
+        final InetAddress v6b = InetAddress.getByName("2001:db8::2");
+        final InetAddress v4a = InetAddress.getByName("192.0.2.1");
+        final InetAddress v4b = InetAddress.getByName("192.0.2.2");
+        final InetAddress v4c = InetAddress.getByName("192.0.2.3");
+        assertEquals(Arrays.asList(v6a, v4a, v6b, v4b, v4c), HappyEyeballsConnector.sort(new InetAddress[]{v6a, v6b, v4a, v4b, v4c}));
+        assertEquals(Arrays.asList(v4a, v6a, v4b, v6b, v4c), HappyEyeballsConnector.sort(new InetAddress[]{v4a, v4b, v4c, v6a, v6b}));
+        assertEquals(Arrays.asList(v4a, v4b), HappyEyeballsConnector.sort(new InetAddress[]{v4a, v4b}));
+    }
+
+    @Test
+    public void testConnectFallback() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            final HappyEyeballsConnector connector = new HappyEyeballsConnector(new Resolver(0L), 50L);
+            // Nothing listening on first address
+            final List<InetAddress> candidates = Arrays.asList(InetAddress.getByName("127.0.0.2"), InetAddress.getByName("127.0.0.1"));
+            try (Socket socket = connector.connect(Socket::new, candidates, server.getLocalPort(), 5000)) {
+                assertTrue(socket.isConnected());
+                assertEquals(InetAddress.getByName("127.0.0.1"), socket.getInetAddress());
+            }
+        }
+    }
+
+    @Test(expected = ConnectException.class)
+    public void testConnectFailure() throws Exception {
+        final int port;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            port = server.getLocalPort();
+        }
+        final HappyEyeballsConnector connector = new HappyEyeballsConnector(new Resolver(0L), 50L);
+        connector.connect(Socket::new, Arrays.asList(InetAddress.getByName("127.0.0.1"), InetAddress.getByName("127.0.0.1")), port, 5000);
+    }
+
+    @Test
+    public void testConnectHostname() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"))) {
+            try (Socket socket = new HappyEyeballsConnector(new Resolver(0L), 50L).connect(Socket::new, "127.0.0.1", server.getLocalPort(), 5000)) {
+                assertTrue(socket.isConnected());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ch.cyberduck.core.ssl;
+
+import org.junit.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.Assert.*;
+
+public class SharedSSLContextTest {
+
+    @Test
+    public void testGet() throws Exception {
+        final DefaultX509TrustManager trust = new DefaultX509TrustManager();
+        final DefaultX509KeyManager key = new DefaultX509KeyManager();
+        final SharedSSLContext context = SharedSSLContext.get(trust, key, new SecureRandom());
+        assertSame(context, SharedSSLContext.get(trust, key, new SecureRandom()));
+        // Unwrap trust manager of session
+        assertSame(context, SharedSSLContext.get(new ThreadLocalHostnameDelegatingTrustManager(trust, "h"), key, new SecureRandom()));
+        assertNotSame(context, SharedSSLContext.get(trust, new DefaultX509KeyManager(), new SecureRandom()));
+        assertNotSame(context, SharedSSLContext.get(new DefaultX509TrustManager(), key, new SecureRandom()));
+    }
+
+    @Test
+    public void testFactory() {
+        final DefaultX509TrustManager trust = new DefaultX509TrustManager();
+        final DefaultX509KeyManager key = new DefaultX509KeyManager();
+        assertSame(new CustomTrustSSLProtocolSocketFactory(new ThreadLocalHostnameDelegatingTrustManager(trust, "a"), key).getSSLContext(),
+            new CustomTrustSSLProtocolSocketFactory(new ThreadLocalHostnameDelegatingTrustManager(trust, "b"), key).getSSLContext());
+    }
+}
@@ -0,0 +1,153 @@
+package ch.cyberduck.core.threading;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RequestCoalescerTest {
+
+    @Test
+    public void testSendSingleRequest() throws Exception {
+        final RequestCoalescer<String> coalescer = new RequestCoalescer<>(10, TimeUnit.MINUTES.toMillis(1L));
+        final List<List<String>> batches = new ArrayList<>();
+        // No other request in progress to wait for
+        coalescer.submit("a", batches::add);
+        assertEquals(Collections.singletonList(Collections.singletonList("a")), batches);
+    }
+
+    @Test
+    public void testCoalesceWhileInProgress() throws Exception {
+        final RequestCoalescer<String> coalescer = new RequestCoalescer<>(10, 200L);
+        final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final Future<?> first = executor.submit(() -> {
+            coalescer.submit("a", batch -> {
+                sending.countDown();
+                try {
+                    release.await();
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                batches.add(batch);
+            });
+            return null;
+        });
+        sending.await();
+        final List<Future<?>> futures = new ArrayList<>();
+        for(String request : Arrays.asList("b", "c", "d")) {
+            futures.add(executor.submit(() -> {
+                coalescer.submit(request, batches::add);
+                return null;
+            }));
+        }
+        for(Future<?> future : futures) {
+            future.get();
+        }
+        release.countDown();
+        first.get();
+        executor.shutdown();
+        assertEquals(2, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertTrue(batches.get(0).containsAll(Arrays.asList("b", "c", "d")));
+        assertEquals(Collections.singletonList("a"), batches.get(1));
+    }
+
+    @Test
+    public void testSendFullBatch() throws Exception {
+        final RequestCoalescer<String> coalescer = new RequestCoalescer<>(2, TimeUnit.MINUTES.toMillis(1L));
+        final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final Future<?> first = executor.submit(() -> {
+            coalescer.submit("a", batch -> {
+                sending.countDown();
+                try {
+                    release.await();
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+            });
+            return null;
+        });
+        sending.await();
+        final Future<?> second = executor.submit(() -> {
+            coalescer.submit("b", batches::add);
+            return null;
+        });
+        // Sent without waiting for linger time when maximum number of requests is queued
+        coalescer.submit("c", batches::add);
+        second.get(10L, TimeUnit.SECONDS);
+        release.countDown();
+        first.get();
+        executor.shutdown();
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertTrue(batches.get(0).containsAll(Arrays.asList("b", "c")));
+    }
+
+    @Test
+    public void testInterrupt() throws Exception {
+        final RequestCoalescer<String> coalescer = new RequestCoalescer<>(10, TimeUnit.MINUTES.toMillis(1L));
+        final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final Future<?> first = executor.submit(() -> {
+            coalescer.submit("a", batch -> {
+                sending.countDown();
+                try {
+                    release.await();
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+            });
+            return null;
+        });
+        sending.await();
+        final CountDownLatch queued = new CountDownLatch(1);
+        final Future<?> second = executor.submit(() -> {
+            coalescer.submit("b", batches::add);
+            return null;
+        });
+        final Thread[] thread = new Thread[1];
+        final Future<?> third = executor.submit(() -> {
+            thread[0] = Thread.currentThread();
+            queued.countDown();
+            try {
+                coalescer.submit("c", batches::add);
+                fail();
+            }
+            catch(InterruptedException e) {
+                // Expected
+            }
+            return null;
+        });
+        queued.await();
+        // Wait for both requests to be queued
+        Thread.sleep(500L);
+        thread[0].interrupt();
+        third.get(10L, TimeUnit.SECONDS);
+        // Request queued by other caller sent by interrupted caller
+        second.get(10L, TimeUnit.SECONDS);
+        release.countDown();
+        first.get();
+        executor.shutdown();
+        assertEquals(Collections.singletonList(Collections.singletonList("b")), batches);
+    }
+}
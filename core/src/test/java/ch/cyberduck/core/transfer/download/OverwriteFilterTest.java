@@ -1,22 +1,33 @@
 package ch.cyberduck.core.transfer.download;
 
+import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.DisabledProgressListener;
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
 import ch.cyberduck.core.LocalAttributes;
 import ch.cyberduck.core.NullLocal;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.NullTransferSession;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Permission;
+import ch.cyberduck.core.Session;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.features.Segments;
+import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.local.DefaultLocalTouchFeature;
+import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 
 import org.junit.Test;
 
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -98,4 +109,122 @@ public class OverwriteFilterTest {
         new DefaultLocalTouchFeature().touch(l);
         f.prepare(new Path("a", EnumSet.of(Path.Type.directory)), l, new TransferStatus().exists(true), new DisabledProgressListener());
     }
+
+    @Test
+    public void testPrepareSegmentsLargeObject() throws Exception {
+        final DownloadFilterOptions options = new DownloadFilterOptions();
+        options.segments = true;
+        options.checksum = true;
+        final OverwriteFilter f = new OverwriteFilter(new DisabledDownloadSymlinkResolver(), this.segments(
+            this.segment(12L * 1024L * 1024L, "e2fc714c4727ee9395f324cd2e7f331f"),
+            this.segment(12L * 1024L * 1024L, "ab56b4d92b40713acc5af89985d4b786"),
+            this.segment(6L * 1024L * 1024L, "e80b5017098950fc58aad83c8c14978e")), options);
+        final Path p = new Path("a", EnumSet.of(Path.Type.file));
+        p.attributes().setSize(30L * 1024L * 1024L);
+        final TransferStatus status = f.prepare(p, new NullLocal(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()),
+            new TransferStatus(), new DisabledProgressListener());
+        assertTrue(status.isSegmented());
+        final List<TransferStatus> segments = status.getSegments();
+        assertEquals(3, segments.size());
+        assertEquals(0L, segments.get(0).getOffset());
+        assertEquals(12L * 1024L * 1024L, segments.get(0).getLength());
+        assertEquals(Checksum.parse("e2fc714c4727ee9395f324cd2e7f331f"), segments.get(0).getChecksum());
+        assertEquals(12L * 1024L * 1024L, segments.get(1).getOffset());
+        assertEquals(Checksum.parse("ab56b4d92b40713acc5af89985d4b786"), segments.get(1).getChecksum());
+        assertEquals(24L * 1024L * 1024L, segments.get(2).getOffset());
+        assertEquals(6L * 1024L * 1024L, segments.get(2).getLength());
+        assertEquals(Checksum.parse("e80b5017098950fc58aad83c8c14978e"), segments.get(2).getChecksum());
+    }
+
+    @Test
+    public void testPrepareSegmentsLargeObjectCombine() throws Exception {
+        final DownloadFilterOptions options = new DownloadFilterOptions();
+        options.segments = true;
+        options.checksum = true;
+        final Path[] objects = new Path[30];
+        for(int i = 0; i < objects.length; i++) {
+            objects[i] = this.segment(1024L * 1024L, "e2fc714c4727ee9395f324cd2e7f331f");
+        }
+        final OverwriteFilter f = new OverwriteFilter(new DisabledDownloadSymlinkResolver(), this.segments(objects), options);
+        final Path p = new Path("a", EnumSet.of(Path.Type.file));
+        p.attributes().setSize(30L * 1024L * 1024L);
+        final TransferStatus status = f.prepare(p, new NullLocal(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()),
+            new TransferStatus(), new DisabledProgressListener());
+        final List<TransferStatus> segments = status.getSegments();
+        long offset = 0L;
+        for(TransferStatus segment : segments) {
+            assertEquals(offset, segment.getOffset());
+            assertEquals(0L, segment.getLength() % (1024L * 1024L));
+            assertEquals(Checksum.NONE, segment.getChecksum());
+            offset += segment.getLength();
+        }
+        assertEquals(30L * 1024L * 1024L, offset);
+    }
+
+    @Test
+    public void testPrepareSegmentsLargeObjectSizeMismatch() throws Exception {
+        final DownloadFilterOptions options = new DownloadFilterOptions();
+        options.segments = true;
+        options.checksum = true;
+        final OverwriteFilter f = new OverwriteFilter(new DisabledDownloadSymlinkResolver(), this.segments(
+            this.segment(12L * 1024L * 1024L, "e2fc714c4727ee9395f324cd2e7f331f")), options);
+        final Path p = new Path("a", EnumSet.of(Path.Type.file));
+        p.attributes().setSize(30L * 1024L * 1024L);
+        final TransferStatus status = f.prepare(p, new NullLocal(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString()),
+            new TransferStatus(), new DisabledProgressListener());
+        assertTrue(status.isSegmented());
+        for(TransferStatus segment : status.getSegments()) {
+            assertEquals(Checksum.NONE, segment.getChecksum());
+        }
+    }
+
+    @Test(expected = ChecksumException.class)
+    public void testCompleteSegmentChecksumMismatch() throws Exception {
+        final DownloadFilterOptions options = new DownloadFilterOptions();
+        options.checksum = true;
+        final OverwriteFilter f = new OverwriteFilter(new DisabledDownloadSymlinkResolver(), new NullTransferSession(new Host(new TestProtocol())), options);
+        final Local segment = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new DefaultLocalTouchFeature().touch(segment);
+        try {
+            f.complete(new Path("a", EnumSet.of(Path.Type.file)), segment, new TransferOptions(),
+                new TransferStatus().segment(true).withChecksum(Checksum.parse("e2fc714c4727ee9395f324cd2e7f331f")).complete(),
+                new DisabledProgressListener());
+        }
+        finally {
+            segment.delete();
+        }
+    }
+
+    private Path segment(final long size, final String md5) {
+        final Path segment = new Path(String.format("/c/.file-segments/a/%s", UUID.randomUUID().toString()), EnumSet.of(Path.Type.file));
+        segment.attributes().setSize(size);
+        segment.attributes().setChecksum(Checksum.parse(md5));
+        return segment;
+    }
+
+    private Session<?> segments(final Path... objects) {
+        return new NullTransferSession(new Host(new TestProtocol())) {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T _getFeature(final Class<T> type) {
+                if(type == Segments.class) {
+                    return (T) (Segments) file -> Arrays.asList(objects);
+                }
+                if(type == Read.class) {
+                    return (T) new Read() {
+                        @Override
+                        public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) {
+                            throw new UnsupportedOperationException();
+                        }
+
+                        @Override
+                        public boolean offset(final Path file) {
+                            return true;
+                        }
+                    };
+                }
+                return super._getFeature(type);
+            }
+        };
+    }
 }
@@ -0,0 +1,153 @@
+package ch.cyberduck.core.vault;
+
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.DisabledPasswordStore;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.PasswordStore;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.features.Vault;
+
+import org.apache.log4j.Logger;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+public class DefaultVaultRegistryTest {
+    private static final Logger log = Logger.getLogger(DefaultVaultRegistryTest.class);
+
+    private static final class UnlockedVault implements Vault {
+        private final Path home;
+
+        private UnlockedVault(final Path home) {
+            this.home = home;
+        }
+
+        @Override
+        public Path create(final Session<?> session, final String region, final VaultCredentials credentials, final PasswordStore keychain) {
+            return home;
+        }
+
+        @Override
+        public Vault load(final Session<?> session, final PasswordCallback prompt, final PasswordStore keychain) {
+            return this;
+        }
+
+        @Override
+        public void close() {
+            //
+        }
+
+        @Override
+        public Path encrypt(final Session<?> session, final Path file) {
+            return file;
+        }
+
+        @Override
+        public Path encrypt(final Session<?> session, final Path file, final boolean metadata) {
+            return file;
+        }
+
+        @Override
+        public Path decrypt(final Session<?> session, final Path file) {
+            return file;
+        }
+
+        @Override
+        public long toCiphertextSize(final long cleartextFileSize) {
+            return cleartextFileSize;
+        }
+
+        @Override
+        public long toCleartextSize(final long ciphertextFileSize) {
+            return ciphertextFileSize;
+        }
+
+        @Override
+        public <T> T getFeature(final Session<?> session, final Class<T> type, final T delegate) {
+            return delegate;
+        }
+
+        @Override
+        public State getState() {
+            return State.open;
+        }
+
+        @Override
+        public boolean contains(final Path file) {
+            return file.equals(home) || file.isChild(home);
+        }
+
+        @Override
+        public Path getHome() {
+            return home;
+        }
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        final Path home = new Path("/a/vault", EnumSet.of(Path.Type.directory));
+        final Path nested = new Path("/a/vault/b/vault", EnumSet.of(Path.Type.directory));
+        final Vault vault = new UnlockedVault(home);
+        final Vault other = new UnlockedVault(nested);
+        final DefaultVaultRegistry registry = new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback(), vault);
+        registry.add(other);
+        assertSame(vault, registry.find(null, home, false));
+        assertSame(vault, registry.find(null, new Path(home, "f", EnumSet.of(Path.Type.file)), false));
+        assertSame(vault, registry.find(null, new Path(nested, "f", EnumSet.of(Path.Type.file)), false));
+        assertSame(Vault.DISABLED, registry.find(null, new Path("/a/vaultf", EnumSet.of(Path.Type.file)), false));
+        assertSame(Vault.DISABLED, registry.find(null, new Path("/a", EnumSet.of(Path.Type.directory)), false));
+        assertTrue(registry.contains(new Path(nested, "f", EnumSet.of(Path.Type.file))));
+        assertFalse(registry.contains(new Path("/b", EnumSet.of(Path.Type.directory))));
+        assertTrue(registry.close(home));
+        assertSame(other, registry.find(null, new Path(nested, "f", EnumSet.of(Path.Type.file)), false));
+        assertSame(Vault.DISABLED, registry.find(null, new Path(home, "f", EnumSet.of(Path.Type.file)), false));
+        registry.clear();
+        assertFalse(registry.contains(nested));
+    }
+
+    @Test
+    public void testBulkOperations() throws Exception {
+        final Path home = new Path("/a/vault", EnumSet.of(Path.Type.directory));
+        final Path nested = new Path("/a/vault/b/vault", EnumSet.of(Path.Type.directory));
+        final Path sibling = new Path("/b/vault", EnumSet.of(Path.Type.directory));
+        final Vault vault = new UnlockedVault(home);
+        final Vault other = new UnlockedVault(nested);
+        final Vault third = new UnlockedVault(sibling);
+        final DefaultVaultRegistry registry = new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback());
+        assertTrue(registry.addAll(Arrays.asList(vault, other, third)));
+        assertSame(vault, registry.find(null, new Path(nested, "f", EnumSet.of(Path.Type.file)), false));
+        assertSame(third, registry.find(null, new Path(sibling, "f", EnumSet.of(Path.Type.file)), false));
+        assertTrue(registry.removeAll(Collections.singletonList(vault)));
+        assertSame(Vault.DISABLED, registry.find(null, new Path(home, "f", EnumSet.of(Path.Type.file)), false));
+        assertSame(other, registry.find(null, new Path(nested, "f", EnumSet.of(Path.Type.file)), false));
+        assertTrue(registry.retainAll(Collections.singletonList(third)));
+        assertSame(Vault.DISABLED, registry.find(null, new Path(nested, "f", EnumSet.of(Path.Type.file)), false));
+        assertTrue(registry.contains(new Path(sibling, "f", EnumSet.of(Path.Type.file))));
+        assertTrue(registry.removeIf(v -> v.getHome().equals(sibling)));
+        assertFalse(registry.contains(new Path(sibling, "f", EnumSet.of(Path.Type.file))));
+        assertTrue(registry.isEmpty());
+    }
+
+    @Test
+    public void testFindManyVaults() throws Exception {
+        for(int count : new int[]{1, 10, 100}) {
+            final DefaultVaultRegistry registry = new DefaultVaultRegistry(new DisabledPasswordStore(), new DisabledPasswordCallback());
+            for(int i = 0; i < count; i++) {
+                registry.add(new UnlockedVault(new Path(String.format("/container/vault-%d", i), EnumSet.of(Path.Type.directory))));
+            }
+            final Path file = new Path(String.format("/container/vault-%d/d/f", count - 1), EnumSet.of(Path.Type.file));
+            final Path outside = new Path("/container/d/f", EnumSet.of(Path.Type.file));
+            final long start = System.nanoTime();
+            for(int i = 0; i < 100000; i++) {
+                assertEquals(file.getParent().getParent(), registry.find(null, file, false).getHome());
+                assertSame(Vault.DISABLED, registry.find(null, outside, false));
+            }
+            log.info(String.format("Lookup with %d vaults in %dms", count, (System.nanoTime() - start) / 1000000));
+        }
+    }
+}
@@ -21,7 +21,9 @@ import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.DisabledNotificationService;
 import ch.cyberduck.core.pool.DefaultSessionPool;
+import ch.cyberduck.core.pool.PooledSessionFactory;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
@@ -37,7 +39,9 @@ import ch.cyberduck.core.transfer.UploadTransfer;
 import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 import ch.cyberduck.core.transfer.symlink.DisabledDownloadSymlinkResolver;
 import ch.cyberduck.core.vault.DefaultVaultRegistry;
+import ch.cyberduck.core.vault.VaultRegistry;
 
+import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -50,6 +54,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -210,6 +215,94 @@ public class ConcurrentTransferWorkerTest {
         worker.cleanup(true);
     }
 
+    @Test
+    public void testWarmupConnectionLimit() throws Exception {
+        final int files = 20;
+        final int connections = 4;
+        final List<TransferItem> list = new ArrayList<TransferItem>();
+        for(int i = 1; i <= files; i++) {
+            list.add(new TransferItem(new Path("/t" + i, EnumSet.of(Path.Type.file)), new NullLocal("/t" + i)));
+        }
+        final Host host = new Host(new TestProtocol(), "test.cyberduck.ch");
+        final Transfer t = new DownloadTransfer(host, list) {
+            @Override
+            public void transfer(final Session<?> source, final Session<?> destination, final Path file, final Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final ProgressListener listener, final StreamListener streamListener) {
+                assertNotNull(source);
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return new AbstractDownloadFilter(new DisabledDownloadSymlinkResolver(), source, null) {
+                    @Override
+                    public boolean accept(final Path file, final Local local, final TransferStatus parent) {
+                        return true;
+                    }
+
+                    @Override
+                    public TransferStatus prepare(final Path file, final Local local, final TransferStatus parent, final ProgressListener progress) {
+                        return new TransferStatus();
+                    }
+
+                    @Override
+                    public void apply(final Path file, final Local local, final TransferStatus status, final ProgressListener listener) {
+                        //
+                    }
+
+                    @Override
+                    public void complete(final Path file, final Local local, final TransferOptions options, final TransferStatus status, final ProgressListener listener) {
+                        //
+                    }
+                };
+            }
+        };
+        final AtomicInteger opened = new AtomicInteger();
+        final LoginConnectionService connection = new TestLoginConnectionService();
+        final GenericObjectPool<Session> sessions = new GenericObjectPool<>(new PooledSessionFactory(connection,
+            new DisabledX509TrustManager(), new DefaultX509KeyManager(), host, VaultRegistry.DISABLED) {
+            @Override
+            public Session create() {
+                opened.incrementAndGet();
+                try {
+                    // Slow handshake
+                    Thread.sleep(100L);
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                return super.create();
+            }
+        });
+        final DefaultSessionPool pool = new DefaultSessionPool(connection, VaultRegistry.DISABLED,
+            new DisabledTranscriptListener(), host, sessions);
+        PreferencesFactory.get().setProperty("queue.connections.limit", connections);
+        PreferencesFactory.get().setProperty("connection.pool.warmup.enable", true);
+        try {
+            final ConcurrentTransferWorker worker = new ConcurrentTransferWorker(
+                pool, SessionPool.DISCONNECTED, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    return TransferAction.overwrite;
+                }
+            }, new DisabledTransferErrorCallback(),
+                new DisabledLoginCallback(), new DisabledProgressListener(), new DisabledStreamListener(), new DisabledNotificationService()
+            );
+            final Session<?> session = worker.borrow(ConcurrentTransferWorker.Connection.source);
+            assertTrue(worker.run(session));
+            worker.release(session, ConcurrentTransferWorker.Connection.source, null);
+            worker.cleanup(true);
+            // No connections opened by transfer tasks in addition to connections opened in advance. Session of
+            // worker is held while transfer tasks run.
+            assertTrue(opened.get() <= connections + 1);
+        }
+        finally {
+            PreferencesFactory.get().deleteProperty("queue.connections.limit");
+            PreferencesFactory.get().deleteProperty("connection.pool.warmup.enable");
+        }
+    }
+
     @Test
     public void testBorrowTimeoutNoSessionAvailable() throws Exception {
         final Host host = new Host(new TestProtocol(), "localhost", new Credentials("u", "p"));
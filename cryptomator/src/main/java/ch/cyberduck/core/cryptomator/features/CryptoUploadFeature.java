@@ -61,6 +61,11 @@ public class CryptoUploadFeature<Reply> implements Upload<Reply> {
         return this;
     }
 
+    @Override
+    public boolean isStreaming() {
+        return proxy.isStreaming();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("CryptoUploadFeature{");
@@ -21,6 +21,7 @@ import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.IdProvider;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
@@ -37,23 +38,27 @@ import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptExceptionMappingService;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPair;
 import ch.cyberduck.core.shared.AbstractSchedulerFeature;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.dracoon.sdk.crypto.Crypto;
 import com.dracoon.sdk.crypto.error.CryptoException;
-import com.dracoon.sdk.crypto.error.CryptoSystemException;
-import com.dracoon.sdk.crypto.error.InvalidFileKeyException;
-import com.dracoon.sdk.crypto.error.InvalidKeyPairException;
-import com.dracoon.sdk.crypto.error.InvalidPasswordException;
 import com.dracoon.sdk.crypto.error.UnknownVersionException;
 import com.dracoon.sdk.crypto.model.EncryptedFileKey;
 import com.dracoon.sdk.crypto.model.PlainFileKey;
@@ -63,16 +68,33 @@ import com.dracoon.sdk.crypto.model.UserPrivateKey;
 public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature<List<UserFileKeySetRequest>, SDSApiClient> {
     private static final Logger log = Logger.getLogger(SDSMissingFileKeysSchedulerFeature.class);
 
+    private final int concurrency;
+    private final int batchsize;
+
     public SDSMissingFileKeysSchedulerFeature() {
         this(PreferencesFactory.get().getLong("sds.encryption.missingkeys.scheduler.period"));
     }
 
     public SDSMissingFileKeysSchedulerFeature(final long period) {
+        this(period, Runtime.getRuntime().availableProcessors(),
+            PreferencesFactory.get().getInteger("sds.encryption.missingkeys.batch.size"));
+    }
+
+    /**
+     * @param concurrency Number of threads to decrypt and encrypt file keys
+     * @param batchsize   Number of file keys to set in single request
+     */
+    public SDSMissingFileKeysSchedulerFeature(final long period, final int concurrency, final int batchsize) {
         super(period);
+        this.concurrency = concurrency;
+        this.batchsize = batchsize;
     }
 
     @Override
     public List<UserFileKeySetRequest> operate(final Session<SDSApiClient> session, final PasswordCallback callback, final Path file) throws BackgroundException {
+        final ThreadPool pool = ThreadPoolFactory.get("missingkeys", concurrency);
+        // Single thread to upload file keys in order while processing continues
+        final ThreadPool upload = ThreadPoolFactory.get("missingkeys-upload", 1);
         try {
             final UserAccountWrapper account = ((SDSSession) session).userAccount();
             if(!account.isEncryptionEnabled()) {
@@ -97,53 +119,54 @@ public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature
             }
             final IdProvider node = session.getFeature(IdProvider.class);
             final Long fileId = file != null ? Long.parseLong(node.getFileid(file, new DisabledListProgressListener())) : null;
-            UserFileKeySetBatchRequest request;
+            // Private keys by file key version
+            final Map<EncryptedFileKey.Version, UserPrivateKey> privateKeys = new HashMap<>();
+            MissingKeysResponse missingKeys;
             boolean migrated = false;
             do {
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Request a list of missing file keys for file %s", file));
                 }
-                final MissingKeysResponse missingKeys = new NodesApi(session.getClient()).requestMissingFileKeys(
+                missingKeys = new NodesApi(session.getClient()).requestMissingFileKeys(
                     null, null, null, fileId, null, null, null);
                 final Map<Long, UserUserPublicKey> publicKeys =
                     missingKeys.getUsers().stream().collect(Collectors.toMap(UserUserPublicKey::getId, Function.identity()));
                 final Map<Long, FileFileKeys> files =
                     missingKeys.getFiles().stream().collect(Collectors.toMap(FileFileKeys::getId, Function.identity()));
-                request = new UserFileKeySetBatchRequest();
-                for(UserIdFileIdItem item : missingKeys.getItems()) {
-                    final UserUserPublicKey pubkey = publicKeys.get(item.getUserId());
-                    final FileFileKeys fileKeys = files.get(item.getFileId());
-                    final UserFileKeySetRequest keySetRequest = new UserFileKeySetRequest()
-                        .fileId(item.getFileId())
-                        .userId(item.getUserId());
-                    processed.add(keySetRequest);
-                    EncryptedFileKey encryptFileKey;
-                    if(file == null && item.getUserId().equals(((SDSSession) session).userAccount().getId())) {
+                // Decrypt file key only once for all users missing the key for a file
+                final Map<Long, List<UserIdFileIdItem>> items = missingKeys.getItems().stream().collect(
+                    Collectors.groupingBy(UserIdFileIdItem::getFileId, LinkedHashMap::new, Collectors.toList()));
+                final List<Future<List<UserFileKeySetRequest>>> rewrapped = new ArrayList<>();
+                for(Map.Entry<Long, List<UserIdFileIdItem>> entry : items.entrySet()) {
+                    final FileFileKeys fileKeys = files.get(entry.getKey());
+                    if(file == null && entry.getValue().stream().anyMatch(item -> item.getUserId().equals(account.getId()))) {
                         if(log.isDebugEnabled()) {
-                            log.debug(String.format("Migrate deprecated file key for file with id %s", item.getFileId()));
+                            log.debug(String.format("Migrate deprecated file key for file with id %s", entry.getKey()));
                         }
-                        encryptFileKey = this.encryptFileKey(keyPairDeprecated.getUserPrivateKey(), credentialsDeprecated, pubkey, fileKeys);
+                        rewrapped.add(this.submit(pool, keyPairDeprecated.getUserPrivateKey(), credentialsDeprecated,
+                            publicKeys, fileKeys, entry.getValue()));
                         migrated = true;
                     }
                     else {
-                        final UserPrivateKey privateKey = this.getPrivateKeyForDecryption((SDSSession) session, fileKeys);
-                        encryptFileKey = this.encryptFileKey(privateKey, privateKey.getVersion() == UserKeyPair.Version.RSA2048 ?
-                            credentialsDeprecated : credentials, pubkey, fileKeys);
-                    }
-                    keySetRequest.setFileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey));
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Missing file key for file with id %d processed", item.getFileId()));
+                        final EncryptedFileKey.Version version = EncryptedFileKey.Version.getByValue(fileKeys.getFileKeyContainer().getVersion());
+                        if(!privateKeys.containsKey(version)) {
+                            privateKeys.put(version, this.getPrivateKeyForDecryption((SDSSession) session, fileKeys));
+                        }
+                        final UserPrivateKey privateKey = privateKeys.get(version);
+                        rewrapped.add(this.submit(pool, privateKey, privateKey.getVersion() == UserKeyPair.Version.RSA2048 ?
+                            credentialsDeprecated : credentials, publicKeys, fileKeys, entry.getValue()));
                     }
-                    request.addItemsItem(keySetRequest);
                 }
-                if(!request.getItems().isEmpty()) {
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Set file keys with %s", request));
+                processed.addAll(this.upload(upload, rewrapped, request -> {
+                    try {
+                        new NodesApi(session.getClient()).setUserFileKeys(request, StringUtils.EMPTY);
                     }
-                    new NodesApi(session.getClient()).setUserFileKeys(request, StringUtils.EMPTY);
-                }
+                    catch(ApiException e) {
+                        throw new SDSExceptionMappingService().map(e);
+                    }
+                }));
             }
-            while(!request.getItems().isEmpty());
+            while(!missingKeys.getItems().isEmpty());
             if(migrated) {
                 this.deleteDeprecatedKeyPair((SDSSession) session);
             }
@@ -155,6 +178,111 @@ public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature
         catch(CryptoException e) {
             throw new TripleCryptExceptionMappingService().map(e);
         }
+        finally {
+            pool.shutdown(false);
+            upload.shutdown(false);
+        }
+    }
+
+    /**
+     * Decrypt file key and encrypt for all users missing the file key
+     */
+    protected Future<List<UserFileKeySetRequest>> submit(final ThreadPool pool, final UserPrivateKey privateKey, final Credentials passphrase,
+                                                       final Map<Long, UserUserPublicKey> publicKeys, final FileFileKeys fileKeys,
+                                                       final List<UserIdFileIdItem> items) {
+        return pool.execute(new BackgroundExceptionCallable<List<UserFileKeySetRequest>>() {
+            @Override
+            public List<UserFileKeySetRequest> call() throws BackgroundException {
+                try {
+                    final PlainFileKey plainFileKey = Crypto.decryptFileKey(
+                        TripleCryptConverter.toCryptoEncryptedFileKey(fileKeys.getFileKeyContainer()), privateKey, passphrase.getPassword());
+                    final List<UserFileKeySetRequest> requests = new ArrayList<>();
+                    for(UserIdFileIdItem item : items) {
+                        final EncryptedFileKey encryptFileKey = Crypto.encryptFileKey(
+                            plainFileKey, TripleCryptConverter.toCryptoUserPublicKey(publicKeys.get(item.getUserId()).getPublicKeyContainer()));
+                        requests.add(new UserFileKeySetRequest()
+                            .fileId(item.getFileId())
+                            .userId(item.getUserId())
+                            .fileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey)));
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Missing file key for file with id %d processed", item.getFileId()));
+                        }
+                    }
+                    return requests;
+                }
+                catch(CryptoException e) {
+                    throw new TripleCryptExceptionMappingService().map(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Set file keys in batches with a single thread while remaining file keys are still encrypted
+     *
+     * @param rewrapped File keys for users missing the key in order of files
+     * @param writer    Set file keys in batch
+     * @return File keys set
+     */
+    protected List<UserFileKeySetRequest> upload(final ThreadPool upload, final List<Future<List<UserFileKeySetRequest>>> rewrapped,
+                                                 final FileKeysWriter writer) throws BackgroundException {
+        final List<UserFileKeySetRequest> processed = new ArrayList<>();
+        final List<Future<Void>> uploads = new ArrayList<>();
+        try {
+            UserFileKeySetBatchRequest request = new UserFileKeySetBatchRequest();
+            for(Future<List<UserFileKeySetRequest>> f : rewrapped) {
+                for(UserFileKeySetRequest keySetRequest : this.await(f)) {
+                    processed.add(keySetRequest);
+                    request.addItemsItem(keySetRequest);
+                }
+                if(request.getItems() != null && request.getItems().size() >= batchsize) {
+                    uploads.add(this.submit(upload, writer, request));
+                    request = new UserFileKeySetBatchRequest();
+                }
+            }
+            if(request.getItems() != null && !request.getItems().isEmpty()) {
+                uploads.add(this.submit(upload, writer, request));
+            }
+        }
+        finally {
+            // Wait for file keys set before requesting next page of missing keys
+            for(Future<Void> f : uploads) {
+                this.await(f);
+            }
+        }
+        return processed;
+    }
+
+    private Future<Void> submit(final ThreadPool pool, final FileKeysWriter writer, final UserFileKeySetBatchRequest request) {
+        return pool.execute(new BackgroundExceptionCallable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Set file keys with %s", request));
+                }
+                writer.write(request);
+                return null;
+            }
+        });
+    }
+
+    protected interface FileKeysWriter {
+        void write(UserFileKeySetBatchRequest request) throws BackgroundException;
+    }
+
+    private <T> T await(final Future<T> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new DefaultExceptionMappingService().map(e.getCause());
+        }
     }
 
     private void deleteDeprecatedKeyPair(SDSSession session) throws ApiException, BackgroundException {
@@ -171,13 +299,4 @@ public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature
             session.getKeyPairForFileKey(EncryptedFileKey.Version.getByValue(
                 fileKeys.getFileKeyContainer().getVersion())).getPrivateKeyContainer());
     }
-
-    private EncryptedFileKey encryptFileKey(final UserPrivateKey privateKey, final Credentials passphrase,
-                                            final UserUserPublicKey pubkey, final FileFileKeys fileKeys)
-        throws InvalidFileKeyException, InvalidKeyPairException, InvalidPasswordException, CryptoSystemException, UnknownVersionException {
-        final PlainFileKey plainFileKey = Crypto.decryptFileKey(
-            TripleCryptConverter.toCryptoEncryptedFileKey(fileKeys.getFileKeyContainer()), privateKey, passphrase.getPassword());
-        return Crypto.encryptFileKey(
-            plainFileKey, TripleCryptConverter.toCryptoUserPublicKey(pubkey.getPublicKeyContainer()));
-    }
 }
@@ -23,6 +23,7 @@ import ch.cyberduck.core.Host;
 import ch.cyberduck.core.LoginOptions;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.VersionId;
+import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.LoginCanceledException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.io.StatusOutputStream;
@@ -30,12 +31,19 @@ import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
 import ch.cyberduck.core.sds.io.swagger.client.api.UserApi;
+import ch.cyberduck.core.sds.io.swagger.client.model.FileFileKeys;
 import ch.cyberduck.core.sds.io.swagger.client.model.FileKey;
+import ch.cyberduck.core.sds.io.swagger.client.model.FileKeyContainer;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetBatchRequest;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetRequest;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserIdFileIdItem;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserUserPublicKey;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptWriteFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferItem;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -48,14 +56,20 @@ import org.junit.experimental.categories.Category;
 
 import java.io.ByteArrayInputStream;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.dracoon.sdk.crypto.Crypto;
 import com.dracoon.sdk.crypto.model.EncryptedFileKey;
+import com.dracoon.sdk.crypto.model.PlainFileKey;
 import com.dracoon.sdk.crypto.model.UserKeyPair;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -102,6 +116,96 @@ public class SDSMissingFileKeysSchedulerFeatureTest extends AbstractSDSTest {
         new SDSDeleteFeature(session, nodeid).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
 
+    @Test
+    public void testSetFileKeysMultipleUsersAndFiles() throws Exception {
+        final UserKeyPair owner = Crypto.generateUserKeyPair(UserKeyPair.Version.RSA2048, "eth[oh8uv4Eesij");
+        final Map<Long, UserKeyPair> users = new HashMap<>();
+        final Map<Long, UserUserPublicKey> publicKeys = new HashMap<>();
+        for(long user = 1L; user <= 3L; user++) {
+            final UserKeyPair pair = Crypto.generateUserKeyPair(UserKeyPair.Version.RSA2048, String.valueOf(user));
+            users.put(user, pair);
+            publicKeys.put(user, new UserUserPublicKey().id(user)
+                .publicKeyContainer(TripleCryptConverter.toSwaggerUserKeyPairContainer(pair).getPublicKeyContainer()));
+        }
+        // Set file keys in batches of at least 4 items
+        final SDSMissingFileKeysSchedulerFeature feature = new SDSMissingFileKeysSchedulerFeature(0L, 2, 4);
+        final ThreadPool pool = ThreadPoolFactory.get("missingkeys", 2);
+        final ThreadPool upload = ThreadPoolFactory.get("missingkeys-upload", 1);
+        final Map<Long, PlainFileKey> keys = new HashMap<>();
+        final List<Future<List<UserFileKeySetRequest>>> rewrapped = new ArrayList<>();
+        for(long file = 1L; file <= 3L; file++) {
+            final PlainFileKey key = Crypto.generateFileKey(PlainFileKey.Version.AES256GCM);
+            keys.put(file, key);
+            final List<UserIdFileIdItem> items = new ArrayList<>();
+            for(long user = 1L; user <= 3L; user++) {
+                items.add(new UserIdFileIdItem().userId(user).fileId(file));
+            }
+            rewrapped.add(feature.submit(pool, owner.getUserPrivateKey(), new VaultCredentials("eth[oh8uv4Eesij"), publicKeys,
+                this.toFileKeys(file, key, owner), items));
+        }
+        final List<UserFileKeySetBatchRequest> batches = new CopyOnWriteArrayList<>();
+        final List<UserFileKeySetRequest> processed = feature.upload(upload, rewrapped, batches::add);
+        pool.shutdown(true);
+        upload.shutdown(true);
+        assertEquals(9, processed.size());
+        assertEquals(2, batches.size());
+        assertEquals(6, batches.get(0).getItems().size());
+        assertEquals(3, batches.get(1).getItems().size());
+        for(UserFileKeySetRequest request : processed) {
+            final PlainFileKey key = Crypto.decryptFileKey(TripleCryptConverter.toCryptoEncryptedFileKey(request.getFileKey()),
+                users.get(request.getUserId()).getUserPrivateKey(), String.valueOf(request.getUserId()));
+            assertEquals(keys.get(request.getFileId()).getKey(), key.getKey());
+        }
+    }
+
+    @Test
+    public void testSetFileKeysPartialFailure() throws Exception {
+        final UserKeyPair owner = Crypto.generateUserKeyPair(UserKeyPair.Version.RSA2048, "eth[oh8uv4Eesij");
+        final UserKeyPair other = Crypto.generateUserKeyPair(UserKeyPair.Version.RSA2048, "eth[oh8uv4Eesij");
+        final UserKeyPair user = Crypto.generateUserKeyPair(UserKeyPair.Version.RSA2048, "n");
+        final Map<Long, UserUserPublicKey> publicKeys = Collections.singletonMap(1L, new UserUserPublicKey().id(1L)
+            .publicKeyContainer(TripleCryptConverter.toSwaggerUserKeyPairContainer(user).getPublicKeyContainer()));
+        final SDSMissingFileKeysSchedulerFeature feature = new SDSMissingFileKeysSchedulerFeature(0L, 2, 1);
+        final ThreadPool pool = ThreadPoolFactory.get("missingkeys", 2);
+        final ThreadPool upload = ThreadPoolFactory.get("missingkeys-upload", 1);
+        final List<Future<List<UserFileKeySetRequest>>> rewrapped = new ArrayList<>();
+        for(long file = 1L; file <= 3L; file++) {
+            // File key of second file cannot be decrypted with private key of user
+            rewrapped.add(feature.submit(pool, owner.getUserPrivateKey(), new VaultCredentials("eth[oh8uv4Eesij"), publicKeys,
+                this.toFileKeys(file, Crypto.generateFileKey(PlainFileKey.Version.AES256GCM), file == 2L ? other : owner),
+                Collections.singletonList(new UserIdFileIdItem().userId(1L).fileId(file))));
+        }
+        final List<UserFileKeySetBatchRequest> batches = new CopyOnWriteArrayList<>();
+        try {
+            feature.upload(upload, rewrapped, batches::add);
+            fail();
+        }
+        catch(BackgroundException e) {
+            // Expected
+        }
+        // File keys processed before failure are set
+        assertEquals(1, batches.size());
+        assertEquals(Long.valueOf(1L), batches.get(0).getItems().get(0).getFileId());
+        // Failure setting file keys
+        try {
+            feature.upload(upload, Collections.singletonList(rewrapped.get(0)), request -> {
+                throw new BackgroundException();
+            });
+            fail();
+        }
+        catch(BackgroundException e) {
+            // Expected
+        }
+        pool.shutdown(true);
+        upload.shutdown(true);
+    }
+
+    private FileFileKeys toFileKeys(final Long file, final PlainFileKey key, final UserKeyPair pair) throws Exception {
+        final EncryptedFileKey encrypted = Crypto.encryptFileKey(key, pair.getUserPublicKey());
+        return new FileFileKeys().id(file).fileKeyContainer(new FileKeyContainer()
+            .key(encrypted.getKey()).iv(encrypted.getIv()).tag(encrypted.getTag()).version(encrypted.getVersion().getValue()));
+    }
+
     private void removeKeyPairs(UserApi userApi) throws ApiException {
         for(UserKeyPair.Version version : UserKeyPair.Version.values()) {
             try {
@@ -0,0 +1,113 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Changes;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
+import com.dropbox.core.v2.files.DeletedMetadata;
+import com.dropbox.core.v2.files.ListFolderContinueErrorException;
+import com.dropbox.core.v2.files.ListFolderResult;
+import com.dropbox.core.v2.files.Metadata;
+
+public class DropboxChangesFeature implements Changes {
+    private static final Logger log = Logger.getLogger(DropboxChangesFeature.class);
+
+    private final DropboxSession session;
+    private final DropboxListService listService;
+
+    private final DropboxPathContainerService containerService
+        = new DropboxPathContainerService();
+
+    public DropboxChangesFeature(final DropboxSession session) {
+        this.session = session;
+        this.listService = new DropboxListService(session);
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        try {
+            return new DbxUserFilesRequests(session.getClient(directory)).listFolderGetLatestCursorBuilder(containerService.getKey(directory))
+                .withRecursive(true).start().getCursor();
+        }
+        catch(DbxException e) {
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    @Override
+    public ChangeSet changes(final Path directory, final String cursor) throws BackgroundException {
+        try {
+            final List<ListFolderResult> results = new ArrayList<>();
+            ListFolderResult result;
+            results.add(result = new DbxUserFilesRequests(session.getClient(directory)).listFolderContinue(cursor));
+            // If true, then there are more changes available. Pass the cursor to list_folder/continue to retrieve the rest.
+            while(result.getHasMore()) {
+                results.add(result = new DbxUserFilesRequests(session.getClient(directory)).listFolderContinue(result.getCursor()));
+            }
+            final ChangeSet changes = new ChangeSet(result.getCursor());
+            for(ListFolderResult r : results) {
+                this.parse(directory, r, changes);
+            }
+            return changes;
+        }
+        catch(ListFolderContinueErrorException e) {
+            if(e.errorValue.isReset()) {
+                return new ChangeSet(null, true);
+            }
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(DbxException e) {
+            throw new DropboxExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    private void parse(final Path directory, final ListFolderResult result, final ChangeSet changes) {
+        final String key = containerService.getKey(directory);
+        for(Metadata metadata : result.getEntries()) {
+            // Paths are relative to the namespace root
+            if(!StringUtils.startsWith(metadata.getPathLower(), StringUtils.lowerCase(key, Locale.ROOT) + Path.DELIMITER)) {
+                log.warn(String.format("Skip file %s outside of %s", metadata, directory));
+                continue;
+            }
+            final String absolute = (directory.isRoot() ? StringUtils.EMPTY : directory.getAbsolute())
+                + StringUtils.substring(metadata.getPathDisplay(), key.length());
+            final Path parent = new Path(StringUtils.defaultIfEmpty(StringUtils.substringBeforeLast(absolute, String.valueOf(Path.DELIMITER)),
+                String.valueOf(Path.DELIMITER)), EnumSet.of(Path.Type.directory));
+            if(metadata instanceof DeletedMetadata) {
+                changes.getDeleted().add(new Path(parent, PathNormalizer.name(metadata.getName()), EnumSet.of(Path.Type.file)));
+                continue;
+            }
+            final Path file = listService.parse(parent, metadata);
+            if(null == file) {
+                continue;
+            }
+            changes.getModified().add(file);
+        }
+    }
+}
@@ -162,6 +162,9 @@ public class DropboxSession extends HttpSession<CustomDbxRawClientV2> {
         if(type == Search.class) {
             return (T) new DropboxSearchFeature(this);
         }
+        if(type == Changes.class) {
+            return (T) new DropboxChangesFeature(this);
+        }
         if(type == Lock.class) {
             return (T) locking;
         }
@@ -0,0 +1,210 @@
+package ch.cyberduck.core.dropbox;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.RequestCoalescer;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dropbox.core.DbxException;
+import com.dropbox.core.v2.common.PathRoot;
+import com.dropbox.core.v2.files.DbxUserFilesRequests;
+import com.dropbox.core.v2.files.FileMetadata;
+import com.dropbox.core.v2.files.UploadSessionFinishArg;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchJobStatus;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchLaunch;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResult;
+import com.dropbox.core.v2.files.UploadSessionFinishBatchResultEntry;
+import com.dropbox.core.v2.files.UploadSessionFinishErrorException;
+import com.dropbox.core.v2.files.UploadSessionFinishUploader;
+
+/**
+ * Commit closed upload sessions of files uploaded concurrently by connections to the same bookmark with a single
+ * request to reduce contention for the namespace lock. Completion of the batch job is polled in the background.
+ */
+public final class DropboxUploadSessionBatcher {
+    private static final Logger log = Logger.getLogger(DropboxUploadSessionBatcher.class);
+
+    private static final String ROUTE = "2/files/upload_session/finish_batch";
+
+    private static final ScheduledThreadPool scheduler = new ScheduledThreadPool();
+
+    /**
+     * @param root Namespace of files to commit
+     */
+    public static DropboxUploadSessionBatcher get(final Host host, final PathRoot root) {
+        return new DropboxUploadSessionBatcher(RequestCoalescer.get(host, root,
+            PreferencesFactory.get().getInteger("dropbox.upload.batch.size"),
+            PreferencesFactory.get().getLong("dropbox.upload.batch.linger")),
+            PreferencesFactory.get().getLong("dropbox.upload.batch.poll"));
+    }
+
+    private final RequestCoalescer<Pending> coalescer;
+    /**
+     * Interval in milliseconds to check for completion of batch
+     */
+    private final long poll;
+
+    private DropboxUploadSessionBatcher(final RequestCoalescer<Pending> coalescer, final long poll) {
+        this.coalescer = coalescer;
+        this.poll = poll;
+    }
+
+    /**
+     * Commit closed upload session and block until the batch containing the session has completed
+     *
+     * @param client Client used to send batch if no other caller is sending it
+     * @param arg    Cursor of closed upload session and commit information
+     * @return Metadata of committed file
+     */
+    public FileMetadata finish(final DbxUserFilesRequests client, final UploadSessionFinishArg arg) throws DbxException {
+        final Pending pending = new Pending(arg);
+        try {
+            coalescer.submit(pending, batch -> this.send(client, batch));
+        }
+        catch(InterruptedException e) {
+            throw new DbxException(e.getMessage(), e);
+        }
+        return pending.get();
+    }
+
+    private void send(final DbxUserFilesRequests client, final List<Pending> batch) {
+        if(batch.size() == 1) {
+            final Pending pending = batch.get(0);
+            try {
+                final UploadSessionFinishUploader finish = client.uploadSessionFinish(pending.arg.getCursor(), pending.arg.getCommit());
+                finish.getOutputStream().close();
+                pending.complete(finish.finish(), null);
+            }
+            catch(DbxException e) {
+                pending.complete(null, e);
+            }
+            catch(Exception e) {
+                pending.complete(null, new DbxException(e.getMessage(), e));
+            }
+            return;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Commit %d upload sessions", batch.size()));
+        }
+        final List<UploadSessionFinishArg> entries = new ArrayList<>();
+        for(Pending p : batch) {
+            entries.add(p.arg);
+        }
+        try {
+            final UploadSessionFinishBatchLaunch launch = client.uploadSessionFinishBatch(entries);
+            if(launch.isComplete()) {
+                this.complete(batch, launch.getCompleteValue());
+            }
+            else if(launch.isAsyncJobId()) {
+                this.poll(client, launch.getAsyncJobIdValue(), batch);
+            }
+            else {
+                this.fail(batch, new DbxException(String.format("Unknown status %s for batch", launch.tag())));
+            }
+        }
+        catch(DbxException e) {
+            this.fail(batch, e);
+        }
+    }
+
+    private void poll(final DbxUserFilesRequests client, final String job, final List<Pending> batch) {
+        scheduler.schedule(() -> {
+            try {
+                final UploadSessionFinishBatchJobStatus status = client.uploadSessionFinishBatchCheck(job);
+                if(status.isComplete()) {
+                    this.complete(batch, status.getCompleteValue());
+                }
+                else if(status.isInProgress()) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Batch job %s in progress", job));
+                    }
+                    this.poll(client, job, batch);
+                }
+                else {
+                    this.fail(batch, new DbxException(String.format("Unknown status %s for batch job %s", status.tag(), job)));
+                }
+            }
+            catch(DbxException e) {
+                this.fail(batch, e);
+            }
+        }, poll, TimeUnit.MILLISECONDS);
+    }
+
+    private void complete(final List<Pending> batch, final UploadSessionFinishBatchResult result) {
+        final List<UploadSessionFinishBatchResultEntry> entries = result.getEntries();
+        for(int i = 0; i < batch.size() && i < entries.size(); i++) {
+            final UploadSessionFinishBatchResultEntry entry = entries.get(i);
+            if(entry.isSuccess()) {
+                batch.get(i).complete(entry.getSuccessValue(), null);
+            }
+            else {
+                batch.get(i).complete(null, new UploadSessionFinishErrorException(ROUTE, null, null, entry.getFailureValue()));
+            }
+        }
+        // Ignored if completed
+        this.fail(batch, new DbxException("No result for upload session in batch"));
+    }
+
+    private void fail(final List<Pending> batch, final DbxException failure) {
+        for(Pending p : batch) {
+            p.complete(null, failure);
+        }
+    }
+
+    private static final class Pending {
+        private final UploadSessionFinishArg arg;
+        private boolean done;
+        private FileMetadata result;
+        private DbxException failure;
+
+        public Pending(final UploadSessionFinishArg arg) {
+            this.arg = arg;
+        }
+
+        private synchronized void complete(final FileMetadata result, final DbxException failure) {
+            if(done) {
+                return;
+            }
+            this.result = result;
+            this.failure = failure;
+            this.done = true;
+            this.notifyAll();
+        }
+
+        private synchronized FileMetadata get() throws DbxException {
+            while(!done) {
+                try {
+                    this.wait();
+                }
+                catch(InterruptedException e) {
+                    throw new DbxException(e.getMessage(), e);
+                }
+            }
+            if(failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+}
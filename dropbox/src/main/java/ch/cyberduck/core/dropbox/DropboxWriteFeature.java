@@ -19,7 +19,6 @@ import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathAttributes;
-import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
@@ -43,6 +42,7 @@ import com.dropbox.core.v2.files.DbxUserFilesRequests;
 import com.dropbox.core.v2.files.FileMetadata;
 import com.dropbox.core.v2.files.UploadSessionAppendV2Uploader;
 import com.dropbox.core.v2.files.UploadSessionCursor;
+import com.dropbox.core.v2.files.UploadSessionFinishArg;
 import com.dropbox.core.v2.files.UploadSessionFinishUploader;
 import com.dropbox.core.v2.files.UploadSessionStartUploader;
 import com.dropbox.core.v2.files.WriteMode;
@@ -54,8 +54,12 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
     private final Find finder;
     private final AttributesFinder attributes;
     private final Long chunksize;
+    /**
+     * Commit upload sessions in batches
+     */
+    private final boolean batch;
 
-    private final PathContainerService containerService
+    private final DropboxPathContainerService containerService
         = new DropboxPathContainerService();
 
     public DropboxWriteFeature(final DropboxSession session) {
@@ -67,11 +71,16 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
     }
 
     public DropboxWriteFeature(final DropboxSession session, final Find finder, final AttributesFinder attributes, final Long chunksize) {
+        this(session, finder, attributes, chunksize, PreferencesFactory.get().getBoolean("dropbox.upload.batch.enable"));
+    }
+
+    public DropboxWriteFeature(final DropboxSession session, final Find finder, final AttributesFinder attributes, final Long chunksize, final boolean batch) {
         super(finder, attributes);
         this.session = session;
         this.finder = finder;
         this.attributes = attributes;
         this.chunksize = chunksize;
+        this.batch = batch;
     }
 
     @Override
@@ -93,8 +102,9 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Obtained session id %s for upload %s", sessionId, file));
             }
-            final UploadSessionAppendV2Uploader uploader = open(files, sessionId, 0L);
-            return new SegmentingUploadProxyOutputStream(file, status, files, uploader, sessionId);
+            final boolean last = this.isLast(status, 0L);
+            final UploadSessionAppendV2Uploader uploader = open(files, sessionId, 0L, last);
+            return new SegmentingUploadProxyOutputStream(file, status, files, uploader, sessionId, last);
         }
         catch(DbxException ex) {
             throw new DropboxExceptionMappingService().map("Upload failed.", ex, file);
@@ -122,15 +132,20 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
         private Long offset = 0L;
         private Long written = 0L;
         private UploadSessionAppendV2Uploader uploader;
+        /**
+         * Upload session closed with last segment
+         */
+        private boolean closed;
 
         public SegmentingUploadProxyOutputStream(final Path file, final TransferStatus status, final DbxUserFilesRequests client,
-                                                 final UploadSessionAppendV2Uploader uploader, final String sessionId) {
+                                                 final UploadSessionAppendV2Uploader uploader, final String sessionId, final boolean closed) {
             super(uploader.getOutputStream());
             this.file = file;
             this.status = status;
             this.client = client;
             this.uploader = uploader;
             this.sessionId = sessionId;
+            this.closed = closed;
         }
 
         @Override
@@ -155,7 +170,8 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
                 log.debug(String.format("Open next segment for upload session %s for file %s", sessionId, file));
             }
             // Next segment
-            uploader = open(client, sessionId, written);
+            closed = DropboxWriteFeature.this.isLast(status, written);
+            uploader = open(client, sessionId, written, closed);
             // Replace stream
             out = uploader.getOutputStream();
             offset = 0L;
@@ -176,15 +192,24 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
         public void close() throws IOException {
             try {
                 DropboxWriteFeature.this.close(uploader);
-                final UploadSessionFinishUploader finish = client.uploadSessionFinish(new UploadSessionCursor(sessionId, written),
-                    CommitInfo.newBuilder(containerService.getKey(file))
-                        .withClientModified(status.getTimestamp() != null ? new Date(status.getTimestamp()) : null)
-                        .withMode(WriteMode.OVERWRITE)
-                        .build()
-                );
-                finish.getOutputStream().close();
-                final FileMetadata metadtata = finish.finish();
-                fileId = metadtata.getId();
+                final CommitInfo commit = CommitInfo.newBuilder(containerService.getKey(file))
+                    .withClientModified(status.getTimestamp() != null ? new Date(status.getTimestamp()) : null)
+                    .withMode(WriteMode.OVERWRITE)
+                    .build();
+                if(batch) {
+                    if(!closed) {
+                        // Sessions must be closed before committed in batch
+                        DropboxWriteFeature.this.close(open(client, sessionId, written, true));
+                    }
+                    fileId = DropboxUploadSessionBatcher.get(session.getHost(), containerService.getNamespace(file))
+                        .finish(client, new UploadSessionFinishArg(new UploadSessionCursor(sessionId, written), commit)).getId();
+                }
+                else {
+                    final UploadSessionFinishUploader finish = client.uploadSessionFinish(new UploadSessionCursor(sessionId, written), commit);
+                    finish.getOutputStream().close();
+                    final FileMetadata metadtata = finish.finish();
+                    fileId = metadtata.getId();
+                }
             }
             catch(IllegalStateException e) {
                 // Already closed
@@ -198,11 +223,24 @@ public class DropboxWriteFeature extends AbstractHttpWriteFeature<String> {
         }
     }
 
-    private UploadSessionAppendV2Uploader open(final DbxUserFilesRequests files, final String sessionId, final Long offset) throws DbxException {
+    /**
+     * @param close Close upload session with this segment
+     */
+    private UploadSessionAppendV2Uploader open(final DbxUserFilesRequests files, final String sessionId, final Long offset, final boolean close) throws DbxException {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Open next segment for upload session %s", sessionId));
         }
-        return files.uploadSessionAppendV2(new UploadSessionCursor(sessionId, offset));
+        return files.uploadSessionAppendV2(new UploadSessionCursor(sessionId, offset), close);
+    }
+
+    /**
+     * @return True if segment at offset is the last segment of a file committed in batch
+     */
+    private boolean isLast(final TransferStatus status, final Long offset) {
+        if(!batch) {
+            return false;
+        }
+        return status.getLength() >= 0 && status.getLength() - offset <= chunksize;
     }
 
     private void close(final UploadSessionAppendV2Uploader uploader) throws DbxException, IOException {
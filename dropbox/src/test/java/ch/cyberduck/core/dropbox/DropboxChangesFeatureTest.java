@@ -0,0 +1,47 @@
+package ch.cyberduck.core.dropbox;
+
+import ch.cyberduck.core.AbstractDropboxTest;
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.features.Changes;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class DropboxChangesFeatureTest extends AbstractDropboxTest {
+
+    @Test
+    public void testChanges() throws Exception {
+        final Path home = new DropboxHomeFinderFeature(session).find();
+        final Path workdir = new DropboxDirectoryFeature(session).mkdir(
+            new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final DropboxChangesFeature feature = new DropboxChangesFeature(session);
+        final String cursor = feature.cursor(workdir);
+        assertNotNull(cursor);
+        final Path subdir = new DropboxDirectoryFeature(session).mkdir(
+            new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path file = new DropboxTouchFeature(session).touch(
+            new Path(subdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Changes.ChangeSet changes = feature.changes(workdir, cursor);
+        assertFalse(changes.isReset());
+        assertTrue(changes.getModified().stream().anyMatch(new SimplePathPredicate(subdir)));
+        assertTrue(changes.getModified().stream().anyMatch(new SimplePathPredicate(file)));
+        assertTrue(changes.getDeleted().isEmpty());
+        new DropboxDeleteFeature(session).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        final Changes.ChangeSet deleted = feature.changes(workdir, changes.getCursor());
+        assertEquals(1, deleted.getDeleted().size());
+        assertEquals(file.getAbsolute(), deleted.getDeleted().get(0).getAbsolute());
+        new DropboxDeleteFeature(session).delete(Collections.singletonList(workdir), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+}
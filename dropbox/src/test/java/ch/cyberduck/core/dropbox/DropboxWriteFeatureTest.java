@@ -23,8 +23,11 @@ import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
+import ch.cyberduck.core.shared.DefaultFindFeature;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.http.HttpResponseOutputStream;
 import ch.cyberduck.core.io.StreamCopier;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
@@ -38,8 +41,13 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -164,4 +172,33 @@ public class DropboxWriteFeatureTest extends AbstractDropboxTest {
         final OutputStream out = write.write(test, status, new DisabledConnectionCallback());
         new StreamCopier(new TransferStatus(), new TransferStatus()).transfer(new ByteArrayInputStream(content), out);
     }
+
+    @Test
+    public void testWriteBatch() throws Exception {
+        final DropboxWriteFeature write = new DropboxWriteFeature(session, new DefaultFindFeature(session), new DefaultAttributesFinderFeature(session), 44000L, true);
+        final Path home = new DropboxHomeFinderFeature(session).find();
+        final ExecutorService executor = Executors.newFixedThreadPool(5);
+        final List<Path> files = new ArrayList<>();
+        final List<Future<String>> futures = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            final Path test = new Path(home, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+            files.add(test);
+            // Single and multiple segments
+            final byte[] content = RandomUtils.nextBytes(i % 2 == 0 ? 1000 : 100000);
+            futures.add(executor.submit(() -> {
+                final TransferStatus status = new TransferStatus().length(content.length);
+                final HttpResponseOutputStream<String> out = write.write(test, status, new DisabledConnectionCallback());
+                new StreamCopier(new TransferStatus(), new TransferStatus()).transfer(new ByteArrayInputStream(content), out);
+                return out.getStatus();
+            }));
+        }
+        for(Future<String> future : futures) {
+            assertNotNull(future.get());
+        }
+        executor.shutdown();
+        for(int i = 0; i < files.size(); i++) {
+            assertEquals(i % 2 == 0 ? 1000L : 100000L, new DropboxAttributesFinderFeature(session).find(files.get(i)).getSize());
+        }
+        new DropboxDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }
@@ -73,40 +73,12 @@ public abstract class AbstractDriveListService implements ListService {
             String page = null;
             final String query = this.query(directory, listener);
             do {
-                final FileList list = session.getClient().files().list()
-                    // Whether Team Drive items should be included in results
-                    .setIncludeTeamDriveItems(true)
-                    // Whether the requesting application supports Team Drives
-                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                    .setQ(query)
-                    // Please note that there is a current limitation for users with approximately one million files in which the requested sort order is ignored
-                    .setOrderBy("name")
-                    .setPageToken(page)
-                    .setFields(fields)
-                    .setPageSize(pagesize).execute();
+                final FileList list = this.list(query, page, fields);
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Chunk of %d retrieved", list.getFiles().size()));
                 }
                 for(File f : list.getFiles()) {
-                    final PathAttributes properties = attributes.toAttributes(f);
-                    final String filename;
-                    if(!DRIVE_FOLDER.equals(f.getMimeType()) && StringUtils.startsWith(f.getMimeType(), GOOGLE_APPS_PREFIX)) {
-                        filename = String.format("%s.%s", PathNormalizer.name(f.getName()), urlFileWriter.getExtension());
-                    }
-                    else {
-                        filename = f.getName();
-                    }
-                    if(StringUtils.equals(filename, String.valueOf(Path.DELIMITER))) {
-                        continue;
-                    }
-                    // Use placeholder type to mark Google Apps document to download as web link file
-                    final EnumSet<Path.Type> type = this.toType(f);
-
-                    final Path child = new Path(directory, filename, type, properties);
-                    if(children.find(new DriveFileidProvider.IgnoreTrashedPathPredicate(child)) != null) {
-                        properties.setDuplicate(true);
-                    }
-                    children.add(child);
+                    this.add(directory, f, children);
                 }
                 listener.chunk(directory, children);
                 page = list.getNextPageToken();
@@ -122,6 +94,42 @@ public abstract class AbstractDriveListService implements ListService {
         }
     }
 
+    protected FileList list(final String query, final String page, final String fields) throws IOException {
+        return session.getClient().files().list()
+            // Whether Team Drive items should be included in results
+            .setIncludeTeamDriveItems(true)
+            // Whether the requesting application supports Team Drives
+            .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
+            .setQ(query)
+            // Please note that there is a current limitation for users with approximately one million files in which the requested sort order is ignored
+            .setOrderBy("name")
+            .setPageToken(page)
+            .setFields(fields)
+            .setPageSize(pagesize).execute();
+    }
+
+    protected void add(final Path directory, final File f, final AttributedList<Path> children) {
+        final PathAttributes properties = attributes.toAttributes(f);
+        final String filename;
+        if(!DRIVE_FOLDER.equals(f.getMimeType()) && StringUtils.startsWith(f.getMimeType(), GOOGLE_APPS_PREFIX)) {
+            filename = String.format("%s.%s", PathNormalizer.name(f.getName()), urlFileWriter.getExtension());
+        }
+        else {
+            filename = f.getName();
+        }
+        if(StringUtils.equals(filename, String.valueOf(Path.DELIMITER))) {
+            return;
+        }
+        // Use placeholder type to mark Google Apps document to download as web link file
+        final EnumSet<Path.Type> type = this.toType(f);
+
+        final Path child = new Path(directory, filename, type, properties);
+        if(children.find(new DriveFileidProvider.IgnoreTrashedPathPredicate(child)) != null) {
+            properties.setDuplicate(true);
+        }
+        children.add(child);
+    }
+
     protected EnumSet<Path.Type> toType(final File f) {
         final EnumSet<Path.Type> type;
         type = DRIVE_FOLDER.equals(f.getMimeType()) ? EnumSet.of(Path.Type.directory) :
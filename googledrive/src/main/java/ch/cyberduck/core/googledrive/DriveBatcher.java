@@ -0,0 +1,160 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.RequestCoalescer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.googleapis.services.json.AbstractGoogleJsonClientRequest;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+/**
+ * Coalesce requests for single files issued concurrently by connections to the same bookmark into batch requests.
+ * Requests in a batch are counted individually by the rate limiter of the connection.
+ */
+public final class DriveBatcher {
+
+    public static DriveBatcher get(final Host host) {
+        return new DriveBatcher(RequestCoalescer.get(host, DriveBatcher.class,
+            PreferencesFactory.get().getInteger("googledrive.batch.size"),
+            PreferencesFactory.get().getLong("googledrive.batch.linger")));
+    }
+
+    private final RequestCoalescer<Pending<?>> coalescer;
+
+    private DriveBatcher(final RequestCoalescer<Pending<?>> coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    /**
+     * Execute request as part of a batch
+     *
+     * @param session Connection used to send batch if no other caller is sending it
+     * @param request Request for single file
+     * @return Parsed response
+     */
+    public <T> T execute(final DriveSession session, final AbstractGoogleJsonClientRequest<T> request) throws IOException {
+        final Pending<T> pending = new Pending<>(request);
+        try {
+            coalescer.submit(pending, batch -> this.send(session, batch));
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        return pending.get();
+    }
+
+    private void send(final DriveSession session, final List<Pending<?>> batch) {
+        if(batch.size() == 1) {
+            batch.get(0).execute();
+            return;
+        }
+        try {
+            // Batch request is counted once by the rate limiting interceptor
+            session.getRateLimiter().acquire(batch.size() - 1);
+            final BatchRequest request = session.getClient().batch();
+            for(Pending<?> p : batch) {
+                p.queue(request);
+            }
+            request.execute();
+        }
+        catch(IOException e) {
+            for(Pending<?> p : batch) {
+                p.fail(e);
+            }
+        }
+        finally {
+            for(Pending<?> p : batch) {
+                // Ignored if completed
+                p.fail(new IOException("No response for request in batch"));
+            }
+        }
+    }
+
+    private static final class Pending<T> extends JsonBatchCallback<T> {
+        private final AbstractGoogleJsonClientRequest<T> request;
+        private boolean done;
+        private T result;
+        private IOException failure;
+
+        public Pending(final AbstractGoogleJsonClientRequest<T> request) {
+            this.request = request;
+        }
+
+        private void queue(final BatchRequest batch) throws IOException {
+            request.queue(batch, this);
+        }
+
+        private void execute() {
+            try {
+                this.complete(request.execute(), null);
+            }
+            catch(IOException e) {
+                this.fail(e);
+            }
+        }
+
+        private void fail(final IOException e) {
+            this.complete(null, e);
+        }
+
+        private synchronized void complete(final T result, final IOException failure) {
+            if(done) {
+                return;
+            }
+            this.result = result;
+            this.failure = failure;
+            this.done = true;
+            this.notifyAll();
+        }
+
+        private synchronized T get() throws IOException {
+            while(!done) {
+                try {
+                    this.wait();
+                }
+                catch(InterruptedException e) {
+                    throw new InterruptedIOException(e.getMessage());
+                }
+            }
+            if(failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+
+        @Override
+        public void onSuccess(final T t, final HttpHeaders responseHeaders) {
+            this.complete(t, null);
+        }
+
+        @Override
+        public void onFailure(final GoogleJsonError e, final HttpHeaders responseHeaders) {
+            this.fail(new GoogleJsonResponseException(
+                new HttpResponseException.Builder(e.getCode(), e.getMessage(), responseHeaders), e));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ch.cyberduck.core.googledrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Changes;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.api.services.drive.model.Change;
+import com.google.api.services.drive.model.ChangeList;
+import com.google.api.services.drive.model.File;
+
+/**
+ * Changes are reported for the whole drive with file identifiers only. Paths are resolved from cached listings.
+ */
+public class DriveChangesFeature implements Changes {
+    private static final Logger log = Logger.getLogger(DriveChangesFeature.class);
+
+    private static final String FIELDS = "nextPageToken,newStartPageToken,changes(fileId,removed,file(createdTime,explicitlyTrashed,id,md5Checksum,mimeType,modifiedTime,name,parents,size,trashed,webViewLink))";
+
+    private final DriveSession session;
+    private final DriveDefaultListService listService;
+
+    private Cache<Path> cache = PathCache.empty();
+
+    public DriveChangesFeature(final DriveSession session, final DriveFileidProvider fileid) {
+        this.session = session;
+        this.listService = new DriveDefaultListService(session, fileid);
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        try {
+            return session.getClient().changes().getStartPageToken()
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
+                .execute().getStartPageToken();
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    @Override
+    public ChangeSet changes(final Path directory, final String cursor) throws BackgroundException {
+        try {
+            // Identifier of root folder is reported as parent instead of its alias
+            final String root = session.getClient().files().get(DriveHomeFinderService.ROOT_FOLDER_ID).setFields("id").execute().getId();
+            final List<Change> changes = new ArrayList<>();
+            String page = cursor;
+            ChangeList list;
+            do {
+                list = session.getClient().changes().list(page)
+                    .setIncludeTeamDriveItems(true)
+                    .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
+                    .setFields(FIELDS)
+                    .setPageSize(PreferencesFactory.get().getInteger("googledrive.list.limit")).execute();
+                changes.addAll(list.getChanges());
+                page = list.getNextPageToken();
+            }
+            while(page != null);
+            final ChangeSet set = new ChangeSet(list.getNewStartPageToken());
+            for(Change change : changes) {
+                // Location in cache prior to change
+                final Path previous = this.find(change.getFileId());
+                final File f = change.getFile();
+                final Path parent;
+                if(Boolean.TRUE.equals(change.getRemoved()) || null == f || Boolean.TRUE.equals(f.getTrashed())
+                    || null == f.getParents() || f.getParents().isEmpty()) {
+                    parent = null;
+                }
+                else {
+                    final String id = f.getParents().get(0);
+                    parent = StringUtils.equals(root, id) ? DriveHomeFinderService.MYDRIVE_FOLDER : this.find(id);
+                }
+                if(null == parent) {
+                    // Removed or moved to folder not cached
+                    if(previous != null) {
+                        set.getDeleted().add(previous);
+                    }
+                    continue;
+                }
+                final AttributedList<Path> children = new AttributedList<>();
+                listService.add(parent, f, children);
+                for(Path file : children) {
+                    if(previous != null && !StringUtils.equals(previous.getAbsolute(), file.getAbsolute())) {
+                        // Renamed or moved
+                        set.getDeleted().add(previous);
+                    }
+                    set.getModified().add(file);
+                }
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Found %s in %d changes for drive", set, changes.size()));
+            }
+            return set;
+        }
+        catch(IOException e) {
+            throw new DriveExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    /**
+     * @param id File identifier
+     * @return Null if not found in cached listings
+     */
+    private Path find(final String id) {
+        for(Map.Entry<Path, AttributedList<Path>> entry : cache.asMap().entrySet()) {
+            if(StringUtils.equals(id, entry.getKey().attributes().getVersionId())) {
+                return entry.getKey();
+            }
+            final Path found = entry.getValue().find(file -> StringUtils.equals(id, file.attributes().getVersionId()));
+            if(found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Changes withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        listService.withCache(cache);
+        return this;
+    }
+}
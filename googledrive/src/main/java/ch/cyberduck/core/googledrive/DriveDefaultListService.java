@@ -15,11 +15,29 @@ package ch.cyberduck.core.googledrive;
  * GNU General Public License for more details.
  */
 
+import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import com.google.common.collect.Lists;
 
 public class DriveDefaultListService extends AbstractDriveListService {
+    private static final Logger log = Logger.getLogger(DriveDefaultListService.class);
+
+    private static final String PARENTS_FIELDS = "files(createdTime,explicitlyTrashed,id,md5Checksum,mimeType,modifiedTime,name,parents,size,webViewLink),nextPageToken";
 
     private final DriveFileidProvider fileid;
 
@@ -36,4 +54,63 @@ public class DriveDefaultListService extends AbstractDriveListService {
     protected String query(final Path directory, final ListProgressListener listener) throws BackgroundException {
         return String.format("'%s' in parents", fileid.getFileid(directory, listener));
     }
+
+    /**
+     * List multiple folders querying for files with any of the folders as parent
+     *
+     * @param directories Folders to list
+     * @return Files by parent folder
+     */
+    public Map<Path, AttributedList<Path>> list(final List<Path> directories, final ListProgressListener listener) throws BackgroundException {
+        return this.list(directories, null, listener);
+    }
+
+    /**
+     * List multiple folders querying for files with any of the folders as parent
+     *
+     * @param directories Folders to list
+     * @param condition   Additional search clause files must match or null
+     * @return Files by parent folder
+     */
+    public Map<Path, AttributedList<Path>> list(final List<Path> directories, final String condition, final ListProgressListener listener) throws BackgroundException {
+        final Map<Path, AttributedList<Path>> lists = new LinkedHashMap<>();
+        final Map<String, Path> parents = new LinkedHashMap<>();
+        for(Path directory : directories) {
+            parents.put(fileid.getFileid(directory, listener), directory);
+            lists.put(directory, new AttributedList<>());
+        }
+        // Limit length of query
+        for(List<String> partition : Lists.partition(new ArrayList<>(parents.keySet()),
+            PreferencesFactory.get().getInteger("googledrive.list.parents.limit"))) {
+            final String clause = partition.stream().map(id -> String.format("'%s' in parents", id))
+                .collect(Collectors.joining(" or "));
+            final String query = null == condition ? clause : String.format("(%s) and %s", clause, condition);
+            try {
+                String page = null;
+                do {
+                    final FileList list = this.list(query, page, PARENTS_FIELDS);
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Chunk of %d retrieved for %d folders", list.getFiles().size(), partition.size()));
+                    }
+                    for(File f : list.getFiles()) {
+                        for(String parent : f.getParents()) {
+                            if(partition.contains(parent)) {
+                                final Path directory = parents.get(parent);
+                                this.add(directory, f, lists.get(directory));
+                            }
+                        }
+                    }
+                    for(String parent : partition) {
+                        listener.chunk(parents.get(parent), lists.get(parents.get(parent)));
+                    }
+                    page = list.getNextPageToken();
+                }
+                while(page != null);
+            }
+            catch(IOException e) {
+                throw new DriveExceptionMappingService().map("Listing directory failed", e, parents.get(partition.get(0)));
+            }
+        }
+        return lists;
+    }
 }
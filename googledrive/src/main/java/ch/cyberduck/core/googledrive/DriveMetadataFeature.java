@@ -48,8 +48,8 @@ public class DriveMetadataFeature implements Metadata {
     public Map<String, String> getMetadata(final Path file) throws BackgroundException {
         try {
             final String fileid = this.fileid.getFileid(file, new DisabledListProgressListener());
-            final Map<String, String> properties = session.getClient().files().get(fileid).setFields("properties")
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute().getProperties();
+            final Map<String, String> properties = DriveBatcher.get(session.getHost()).execute(session, session.getClient().files().get(fileid).setFields("properties")
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))).getProperties();
             if(null == properties) {
                 return Collections.emptyMap();
             }
@@ -66,8 +66,8 @@ public class DriveMetadataFeature implements Metadata {
             final String fileid = this.fileid.getFileid(file, new DisabledListProgressListener());
             final File body = new File();
             body.setProperties(status.getMetadata());
-            session.getClient().files().update(fileid, body).setFields("properties").
-                setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+            DriveBatcher.get(session.getHost()).execute(session, session.getClient().files().update(fileid, body).setFields("properties").
+                setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
         }
         catch(IOException e) {
             throw new DriveExceptionMappingService().map("Failure to write attributes of {0}", e, file);
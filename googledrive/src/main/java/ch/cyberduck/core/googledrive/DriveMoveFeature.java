@@ -50,32 +50,33 @@ public class DriveMoveFeature implements Move {
             if(status.isExists()) {
                 delete.delete(Collections.singletonMap(renamed, status), connectionCallback, callback);
             }
+            final DriveBatcher batcher = DriveBatcher.get(session.getHost());
             final String id = fileid.getFileid(file, new DisabledListProgressListener());
-            if(!StringUtils.equals(file.getName(), renamed.getName())) {
-                // Rename title
-                final File properties = new File();
-                properties.setName(renamed.getName());
-                properties.setMimeType(status.getMime());
-                session.getClient().files().update(id, properties).
-                    setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
-            }
             // Retrieve the existing parents to remove
             final StringBuilder previousParents = new StringBuilder();
-            final File reference = session.getClient().files().get(id)
+            final File reference = batcher.execute(session, session.getClient().files().get(id)
                 .setFields("parents")
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                .execute();
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
             for(String parent : reference.getParents()) {
                 previousParents.append(parent);
                 previousParents.append(',');
             }
-            // Move the file to the new folder
-            session.getClient().files().update(id, null)
+            final File properties;
+            if(!StringUtils.equals(file.getName(), renamed.getName())) {
+                // Rename title
+                properties = new File();
+                properties.setName(renamed.getName());
+                properties.setMimeType(status.getMime());
+            }
+            else {
+                properties = null;
+            }
+            // Move the file to the new folder and rename with single request
+            batcher.execute(session, session.getClient().files().update(id, properties)
                 .setAddParents(fileid.getFileid(renamed.getParent(), new DisabledListProgressListener()))
                 .setRemoveParents(previousParents.toString())
                 .setFields("id, parents")
-                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable"))
-                .execute();
+                .setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
             return new Path(renamed.getParent(), renamed.getName(), renamed.getType(),
                 new DriveAttributesFinderFeature(session, fileid).find(renamed));
         }
@@ -17,6 +17,7 @@ package ch.cyberduck.core.googledrive;
 
 import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.Filter;
 import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.Path;
@@ -24,6 +25,10 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Search;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class DriveSearchFeature implements Search {
     private DriveSession session;
     private final DriveFileidProvider fileid;
@@ -33,10 +38,30 @@ public class DriveSearchFeature implements Search {
         this.fileid = fileid;
     }
 
+    /**
+     * Search folders of the same depth together querying for files with any of the folders as parent
+     */
     @Override
     public AttributedList<Path> search(final Path workdir, final Filter<Path> regex, final ListProgressListener listener) throws BackgroundException {
+        final DriveDefaultListService service = new DriveDefaultListService(session, fileid);
+        // The contains operator only performs prefix matching for a name.
+        final String name = String.format("name contains '%s'", regex.toPattern().pattern());
+        final String folder = String.format("mimeType = '%s'", AbstractDriveListService.DRIVE_FOLDER);
+        final AttributedList<Path> result = new AttributedList<>();
         try {
-            return new DriveSearchListService(session, fileid, regex.toPattern().pattern()).list(workdir, listener);
+            List<Path> directories = Collections.singletonList(workdir);
+            while(!directories.isEmpty()) {
+                for(AttributedList<Path> list : service.list(directories, name, new DisabledListProgressListener()).values()) {
+                    result.addAll(list);
+                }
+                listener.chunk(workdir, result);
+                final List<Path> next = new ArrayList<>();
+                for(AttributedList<Path> list : service.list(directories, folder, new DisabledListProgressListener()).values()) {
+                    next.addAll(list.toList());
+                }
+                directories = next;
+            }
+            return result;
         }
         catch(NotfoundException e) {
             return AttributedList.emptyList();
@@ -27,6 +27,7 @@ import ch.cyberduck.core.UseragentProvider;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.*;
 import ch.cyberduck.core.http.DefaultHttpRateLimiter;
+import ch.cyberduck.core.http.HttpRateLimiter;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.http.RateLimitingHttpRequestInterceptor;
 import ch.cyberduck.core.http.UserAgentHttpRequestInitializer;
@@ -57,6 +58,7 @@ public class DriveSession extends HttpSession<Drive> {
 
     private ApacheHttpTransport transport;
     private OAuth2RequestInterceptor authorizationService;
+    private HttpRateLimiter limiter;
 
     private final DriveFileidProvider fileid = new DriveFileidProvider(this);
 
@@ -71,9 +73,8 @@ public class DriveSession extends HttpSession<Drive> {
             .withRedirectUri(host.getProtocol().getOAuthRedirectUrl());
         configuration.addInterceptorLast(authorizationService);
         configuration.setServiceUnavailableRetryStrategy(new OAuth2ErrorResponseInterceptor(host, authorizationService, prompt));
-        configuration.addInterceptorLast(new RateLimitingHttpRequestInterceptor(new DefaultHttpRateLimiter(
-            PreferencesFactory.get().getInteger("googledrive.limit.requests.second")
-        )));
+        limiter = new DefaultHttpRateLimiter(PreferencesFactory.get().getInteger("googledrive.limit.requests.second"));
+        configuration.addInterceptorLast(new RateLimitingHttpRequestInterceptor(limiter));
         this.transport = new ApacheHttpTransport(configuration.build());
         final UseragentProvider ua = new PreferencesUseragentProvider();
         return new Drive.Builder(transport, new JacksonFactory(), new UserAgentHttpRequestInitializer(ua))
@@ -128,6 +129,13 @@ public class DriveSession extends HttpSession<Drive> {
         return transport.getHttpClient();
     }
 
+    /**
+     * @return Rate limiter for requests sent with this connection
+     */
+    public HttpRateLimiter getRateLimiter() {
+        return limiter;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> T _getFeature(Class<T> type) {
@@ -182,6 +190,9 @@ public class DriveSession extends HttpSession<Drive> {
         if(type == Search.class) {
             return (T) new DriveSearchFeature(this, fileid);
         }
+        if(type == Changes.class) {
+            return (T) new DriveChangesFeature(this, fileid);
+        }
         if(type == Find.class) {
             return (T) new DriveFindFeature(this, fileid);
         }
@@ -43,8 +43,8 @@ public class DriveTimestampFeature extends DefaultTimestampFeature {
             final String fileid = this.fileid.getFileid(file, new DisabledListProgressListener());
             final File properties = new File();
             properties.setModifiedTime(new DateTime(status.getTimestamp()));
-            session.getClient().files().update(fileid, properties).setFields("modifiedTime").
-                setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")).execute();
+            DriveBatcher.get(session.getHost()).execute(session, session.getClient().files().update(fileid, properties).setFields("modifiedTime").
+                setSupportsTeamDrives(PreferencesFactory.get().getBoolean("googledrive.teamdrive.enable")));
         }
         catch(IOException e) {
             throw new DriveExceptionMappingService().map("Failure to write attributes of {0}", e, file);
@@ -0,0 +1,43 @@
+package ch.cyberduck.core.googledrive;
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.SimplePathPredicate;
+import ch.cyberduck.core.features.Changes;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class DriveChangesFeatureTest extends AbstractDriveTest {
+
+    @Test
+    public void testChanges() throws Exception {
+        final DriveFileidProvider fileid = new DriveFileidProvider(session).withCache(cache);
+        final Path workdir = new DriveDirectoryFeature(session, fileid).mkdir(new Path(DriveHomeFinderService.MYDRIVE_FOLDER, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        cache.put(workdir, new AttributedList<>());
+        final Changes feature = new DriveChangesFeature(session, fileid).withCache(cache);
+        final String cursor = feature.cursor(workdir);
+        assertNotNull(cursor);
+        final Path file = new DriveTouchFeature(session, fileid).touch(new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Changes.ChangeSet changes = feature.changes(workdir, cursor);
+        assertNotNull(changes.getCursor());
+        assertFalse(changes.isReset());
+        assertTrue(changes.getModified().stream().anyMatch(new SimplePathPredicate(file)));
+        cache.put(workdir, new AttributedList<>(Collections.singletonList(file)));
+        new DriveDeleteFeature(session, fileid).delete(Collections.singletonList(file), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        assertTrue(feature.changes(workdir, changes.getCursor()).getDeleted().contains(file));
+        new DriveDeleteFeature(session, fileid).delete(Arrays.asList(workdir), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+}
@@ -33,6 +33,7 @@ import org.junit.experimental.categories.Category;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Map;
 
 import com.google.api.services.drive.model.File;
 
@@ -134,4 +135,18 @@ public class DriveDefaultListServiceTest extends AbstractDriveTest {
         assertEquals(2, new DriveDefaultListService(session, provider).list(parent, new DisabledListProgressListener()).size());
         new DriveDeleteFeature(session, provider).delete(Collections.singletonList(parent), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
+
+    @Test
+    public void testListMultipleParents() throws Exception {
+        final DriveFileidProvider fileid = new DriveFileidProvider(session).withCache(cache);
+        final Path d1 = new DriveDirectoryFeature(session, fileid).mkdir(new Path(new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path d2 = new DriveDirectoryFeature(session, fileid).mkdir(new Path(new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path f1 = new DriveTouchFeature(session, fileid).touch(new Path(d1, "a", EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Path f2 = new DriveTouchFeature(session, fileid).touch(new Path(d2, "b", EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Map<Path, AttributedList<Path>> lists = new DriveDefaultListService(session, fileid).list(Arrays.asList(d1, d2), new DisabledListProgressListener());
+        assertEquals(2, lists.size());
+        assertEquals(Collections.singletonList(f1), lists.get(d1).toList());
+        assertEquals(Collections.singletonList(f2), lists.get(d2).toList());
+        new DriveDeleteFeature(session, fileid).delete(Arrays.asList(d1, d2), new DisabledPasswordCallback(), new Delete.DisabledCallback());
+    }
 }
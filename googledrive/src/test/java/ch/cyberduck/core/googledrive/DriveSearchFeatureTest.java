@@ -71,4 +71,17 @@ public class DriveSearchFeatureTest extends AbstractDriveTest {
         assertFalse(feature.search(subdir, new SearchFilter(name), new DisabledListProgressListener()).contains(file));
         new DriveDeleteFeature(session, fileid).delete(Arrays.asList(file, subdir), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
+
+    @Test
+    public void testSearchNestedFolder() throws Exception {
+        final String name = new AlphanumericRandomStringService().random();
+        final DriveFileidProvider fileid = new DriveFileidProvider(session).withCache(cache);
+        final Path workdir = new DriveDirectoryFeature(session, fileid).mkdir(new Path(DriveHomeFinderService.MYDRIVE_FOLDER, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path subdir = new DriveDirectoryFeature(session, fileid).mkdir(new Path(workdir, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path file = new DriveTouchFeature(session, fileid).touch(new Path(subdir, name, EnumSet.of(Path.Type.file)), new TransferStatus());
+        final AttributedList<Path> result = new DriveSearchFeature(session, fileid).search(workdir, new SearchFilter(name), new DisabledListProgressListener());
+        assertTrue(result.contains(file));
+        assertEquals(subdir, result.get(result.indexOf(file)).getParent());
+        new DriveDeleteFeature(session, fileid).delete(Collections.singletonList(workdir), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }
@@ -25,9 +25,14 @@ import ch.cyberduck.test.IntegrationTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 
@@ -61,4 +66,31 @@ public class DriveTimestampFeatureTest extends AbstractDriveTest {
         assertEquals(modified, new DriveAttributesFinderFeature(session, fileid).find(test).getModificationDate());
         new DriveDeleteFeature(session, fileid).delete(Collections.<Path>singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
+
+    @Test
+    public void testSetTimestampBatch() throws Exception {
+        final Path home = DriveHomeFinderService.MYDRIVE_FOLDER;
+        final DriveFileidProvider fileid = new DriveFileidProvider(session).withCache(cache);
+        final List<Path> files = new ArrayList<>();
+        for(int i = 0; i < 5; i++) {
+            files.add(new DriveTouchFeature(session, fileid).touch(new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file)), new TransferStatus()));
+        }
+        final long modified = System.currentTimeMillis();
+        final ExecutorService executor = Executors.newFixedThreadPool(files.size());
+        final List<Future<?>> futures = new ArrayList<>();
+        for(Path file : files) {
+            futures.add(executor.submit(() -> {
+                new DriveTimestampFeature(session, fileid).setTimestamp(file, modified);
+                return null;
+            }));
+        }
+        for(Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        for(Path file : files) {
+            assertEquals(modified, new DriveAttributesFinderFeature(session, fileid).find(file).getModificationDate());
+        }
+        new DriveDeleteFeature(session, fileid).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }
@@ -127,4 +127,10 @@ public class IRODSUploadFeature implements Upload<Checksum> {
     public Upload<Checksum> withWriter(final Write<Checksum> writer) {
         return this;
     }
+
+    @Override
+    public boolean isStreaming() {
+        // Transfer reads from local file path
+        return false;
+    }
 }
@@ -53,6 +53,8 @@ public class OAuth2ErrorResponseInterceptor extends DisabledServiceUnavailableRe
                     try {
                         try {
                             log.info(String.format("Attempt to refresh OAuth tokens for failure %s", response));
+                            // Do not reuse rejected tokens shared with other connections
+                            service.invalidate();
                             service.setTokens(service.refresh());
                         }
                         catch(InteroperabilityException | LoginFailureException e) {
@@ -17,10 +17,13 @@ package ch.cyberduck.core.oauth;
 
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostUrlProvider;
+import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.OAuthTokens;
 import ch.cyberduck.core.Protocol;
 import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.pool.SharedAuthenticationContext;
+import ch.cyberduck.core.threading.CancelCallback;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpException;
@@ -46,6 +49,11 @@ public class OAuth2RequestInterceptor extends OAuth2AuthorizationService impleme
      */
     private OAuthTokens tokens = OAuthTokens.EMPTY;
 
+    /**
+     * Tokens shared with other connections to the same bookmark. Set when authorizing.
+     */
+    private SharedAuthenticationContext<OAuthTokens> shared = new SharedAuthenticationContext<>();
+
     public OAuth2RequestInterceptor(final HttpClient client, final Protocol protocol) {
         this(client, protocol.getOAuthTokenUrl(), protocol.getOAuthAuthorizationUrl(), protocol.getOAuthClientId(), protocol.getOAuthClientSecret(), protocol.getOAuthScopes());
     }
@@ -73,15 +81,71 @@ public class OAuth2RequestInterceptor extends OAuth2AuthorizationService impleme
         this.tokens = tokens;
     }
 
+    /**
+     * Reuse valid tokens of other connections to the same bookmark or run authorization flow
+     */
+    @Override
+    public OAuthTokens authorize(final Host bookmark, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
+        shared = SharedAuthenticationContext.get(bookmark, OAuthTokens.class.getName());
+        final OAuthTokens saved = bookmark.getCredentials().getOauth();
+        final OAuthTokens current = shared.get();
+        if(null != current && saved.validate() && !this.isSameGrant(saved, current)) {
+            // Tokens of bookmark replaced such as after login with different account
+            log.warn(String.format("Discard shared tokens %s not matching %s of bookmark %s", current, saved, bookmark));
+            shared.reset(current);
+        }
+        return shared.refresh(tokens, new SharedAuthenticationContext.Authenticator<OAuthTokens>() {
+            @Override
+            public OAuthTokens authenticate(final OAuthTokens stale) throws BackgroundException {
+                return OAuth2RequestInterceptor.super.authorize(bookmark, prompt, cancel);
+            }
+
+            @Override
+            public boolean isValid(final OAuthTokens context) {
+                return context.validate() && !context.isExpired();
+            }
+        }, cancel);
+    }
+
+    /**
+     * @return True if tokens are obtained by refreshing the same authorization
+     */
+    private boolean isSameGrant(final OAuthTokens saved, final OAuthTokens current) {
+        if(StringUtils.equals(saved.getAccessToken(), current.getAccessToken())) {
+            return true;
+        }
+        return StringUtils.isNotBlank(saved.getRefreshToken()) && StringUtils.equals(saved.getRefreshToken(), current.getRefreshToken());
+    }
+
+    /**
+     * Discard current tokens rejected by server for all connections to the same bookmark
+     */
+    public void invalidate() {
+        shared.reset(tokens);
+    }
+
+    /**
+     * Refresh tokens once for all connections to the same bookmark
+     */
     public OAuthTokens refresh() throws BackgroundException {
-        return super.refresh(tokens);
+        return shared.refresh(tokens, new SharedAuthenticationContext.Authenticator<OAuthTokens>() {
+            @Override
+            public OAuthTokens authenticate(final OAuthTokens stale) throws BackgroundException {
+                return OAuth2RequestInterceptor.this.refresh(stale);
+            }
+
+            @Override
+            public boolean isValid(final OAuthTokens context) {
+                return context.validate() && !context.isExpired();
+            }
+        });
     }
 
     @Override
     public void process(final HttpRequest request, final HttpContext context) throws HttpException, IOException {
         if(tokens.isExpired()) {
             try {
-                tokens = this.refresh(tokens);
+                tokens = this.refresh();
             }
             catch(BackgroundException e) {
                 log.warn(String.format("Failure refreshing OAuth 2 tokens %s. %s", tokens, e));
@@ -0,0 +1,357 @@
+package ch.cyberduck.core.onedrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.RequestCoalescer;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.log4j.Logger;
+import org.nuxeo.onedrive.client.OneDriveAPIException;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Send requests for single items in JSON batches. Requests issued concurrently by connections to the same bookmark are
+ * coalesced into batches. Requests throttled in a batch response are sent again after the delay requested by the
+ * server.
+ */
+public final class GraphBatcher {
+    private static final Logger log = Logger.getLogger(GraphBatcher.class);
+
+    public static GraphBatcher get(final Host host) {
+        final Preferences preferences = PreferencesFactory.get();
+        return new GraphBatcher(RequestCoalescer.get(host, GraphBatcher.class,
+            preferences.getInteger("onedrive.batch.size"), preferences.getLong("onedrive.batch.linger")),
+            preferences.getInteger("onedrive.batch.size"), preferences.getInteger("onedrive.batch.retry"));
+    }
+
+    private final RequestCoalescer<Request> coalescer;
+    /**
+     * Maximum number of requests in a single batch
+     */
+    private final int size;
+    /**
+     * Number of times to resend throttled requests
+     */
+    private final int retry;
+
+    public GraphBatcher(final RequestCoalescer<Request> coalescer, final int size, final int retry) {
+        this.coalescer = coalescer;
+        this.size = size;
+        this.retry = retry;
+    }
+
+    /**
+     * Execute request as part of a batch
+     *
+     * @param session Connection used to send batch if no other caller is sending it
+     * @param request Request for single item
+     * @return Response body or null if no content
+     */
+    public JsonObject execute(final GraphSession session, final Request request) throws IOException {
+        try {
+            coalescer.submit(request, batch -> this.send(session, batch));
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        return request.get();
+    }
+
+    /**
+     * Send requests in batches with the connection of the caller. Results can be retrieved from each request when
+     * this method returns.
+     *
+     * @param session  Connection used to send batches
+     * @param requests Requests for single items
+     */
+    public void execute(final GraphSession session, final List<Request> requests) {
+        for(List<Request> batch : Lists.partition(requests, size)) {
+            this.send(session, batch);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    private void send(final GraphSession session, final List<Request> batch) {
+        try {
+            this.retry(session, batch);
+        }
+        finally {
+            for(Request r : batch) {
+                // Ignored if completed
+                r.complete(null, new IOException("No response for request in batch"));
+            }
+        }
+    }
+
+    private void retry(final GraphSession session, final List<Request> batch) {
+        List<Request> pending = batch;
+        for(int attempt = 0; ; attempt++) {
+            try {
+                pending = this.post(session, pending);
+            }
+            catch(IOException e) {
+                for(Request r : pending) {
+                    r.complete(null, e);
+                }
+                return;
+            }
+            if(pending.isEmpty()) {
+                return;
+            }
+            if(attempt == retry) {
+                for(Request r : pending) {
+                    r.complete(null, r.throttled);
+                }
+                return;
+            }
+            long delay = 0L;
+            for(Request r : pending) {
+                delay = Math.max(delay, r.delay);
+            }
+            log.warn(String.format("Retry %d throttled requests in %d seconds", pending.size(), delay));
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(delay));
+            }
+            catch(InterruptedException e) {
+                for(Request r : pending) {
+                    r.complete(null, new InterruptedIOException(e.getMessage()));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return Throttled requests to send again
+     */
+    private List<Request> post(final GraphSession session, final List<Request> batch) throws IOException {
+        final Host host = session.getHost();
+        // Version such as /v1.0 followed by optional prefix such as /me
+        final String context = StringUtils.removeEnd(host.getProtocol().getContext(), "/");
+        final String version = String.format("/%s", StringUtils.substringBefore(StringUtils.removeStart(context, "/"), "/"));
+        final JsonArray requests = new JsonArray();
+        for(int i = 0; i < batch.size(); i++) {
+            requests.add(batch.get(i).toJson(String.valueOf(i), StringUtils.removeStart(context, version)));
+        }
+        final JsonObject json = new JsonObject();
+        json.add("requests", requests);
+        final HttpPost request = new HttpPost(String.format("%s://%s%s/$batch", host.getProtocol().getScheme(), host.getHostname(), version));
+        // Placeholder replaced with access token by interceptor
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer");
+        request.setEntity(new StringEntity(json.toString(), ContentType.APPLICATION_JSON));
+        return ((GraphCommonsHttpRequestExecutor) session.getClient().getExecutor()).getClient().execute(request, response -> {
+            final int status = response.getStatusLine().getStatusCode();
+            if(this.isThrottled(status)) {
+                final Header header = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+                for(Request r : batch) {
+                    r.throttle(new OneDriveAPIException(response.getStatusLine().getReasonPhrase(), status),
+                        this.toSeconds(null == header ? null : header.getValue()));
+                }
+                return batch;
+            }
+            if(status >= HttpStatus.SC_MULTIPLE_CHOICES || null == response.getEntity()) {
+                throw new OneDriveAPIException(response.getStatusLine().getReasonPhrase(), status);
+            }
+            final JsonArray responses;
+            try {
+                responses = JsonParser.parseReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8))
+                    .getAsJsonObject().getAsJsonArray("responses");
+            }
+            catch(JsonParseException | IllegalStateException | ClassCastException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+            final List<Request> throttled = new ArrayList<>();
+            for(JsonElement element : responses) {
+                final JsonObject entry = element.getAsJsonObject();
+                final int index = NumberUtils.toInt(entry.get("id").getAsString(), -1);
+                if(index < 0 || index >= batch.size()) {
+                    log.warn(String.format("Unknown identifier in batch response %s", entry));
+                    continue;
+                }
+                final Request r = batch.get(index);
+                final int code = entry.get("status").getAsInt();
+                final JsonObject body = entry.has("body") && entry.get("body").isJsonObject() ? entry.getAsJsonObject("body") : null;
+                if(this.isThrottled(code)) {
+                    r.throttle(this.toFailure(code, body), this.toSeconds(this.toHeader(entry, HttpHeaders.RETRY_AFTER)));
+                    throttled.add(r);
+                }
+                else if(code >= HttpStatus.SC_MULTIPLE_CHOICES) {
+                    r.complete(null, this.toFailure(code, body));
+                }
+                else {
+                    r.complete(body, null);
+                }
+            }
+            return throttled;
+        });
+    }
+
+    private boolean isThrottled(final int status) {
+        return status == 429 || status == HttpStatus.SC_SERVICE_UNAVAILABLE;
+    }
+
+    private OneDriveAPIException toFailure(final int status, final JsonObject body) {
+        if(null != body && body.has("error") && body.get("error").isJsonObject()) {
+            final JsonObject error = body.getAsJsonObject("error");
+            if(error.has("message") && !error.get("message").isJsonNull()) {
+                return new OneDriveAPIException(error.get("message").getAsString(), status);
+            }
+        }
+        return new OneDriveAPIException(String.format("Status %d", status), status);
+    }
+
+    private String toHeader(final JsonObject entry, final String name) {
+        if(entry.has("headers") && entry.get("headers").isJsonObject()) {
+            for(Map.Entry<String, JsonElement> header : entry.getAsJsonObject("headers").entrySet()) {
+                if(StringUtils.equalsIgnoreCase(name, header.getKey()) && !header.getValue().isJsonNull()) {
+                    return header.getValue().getAsString();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param value Delay in seconds
+     * @return At least one second if missing or given as date
+     */
+    private long toSeconds(final String value) {
+        return Math.max(1L, NumberUtils.toLong(StringUtils.trim(value), 1L));
+    }
+
+    public static final class Request {
+        private final String method;
+        private final String url;
+        private final JsonObject body;
+
+        private boolean done;
+        private JsonObject result;
+        private IOException failure;
+        /**
+         * Last failure if throttled
+         */
+        private OneDriveAPIException throttled;
+        /**
+         * Delay in seconds before retry requested by server
+         */
+        private long delay;
+
+        /**
+         * @param method HTTP method
+         * @param url    URL relative to service context
+         */
+        public Request(final String method, final String url) {
+            this(method, url, null);
+        }
+
+        /**
+         * @param method HTTP method
+         * @param url    URL relative to service context
+         * @param body   JSON request body
+         */
+        public Request(final String method, final String url, final JsonObject body) {
+            this.method = method;
+            this.url = url;
+            this.body = body;
+        }
+
+        private JsonObject toJson(final String id, final String prefix) {
+            final JsonObject json = new JsonObject();
+            json.addProperty("id", id);
+            json.addProperty("method", method);
+            json.addProperty("url", String.format("%s%s", prefix, url));
+            if(body != null) {
+                json.add("body", body);
+                final JsonObject headers = new JsonObject();
+                headers.addProperty(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.getMimeType());
+                json.add("headers", headers);
+            }
+            return json;
+        }
+
+        private synchronized void throttle(final OneDriveAPIException failure, final long delay) {
+            this.throttled = failure;
+            this.delay = delay;
+        }
+
+        private synchronized void complete(final JsonObject result, final IOException failure) {
+            if(done) {
+                return;
+            }
+            this.result = result;
+            this.failure = failure;
+            this.done = true;
+            this.notifyAll();
+        }
+
+        /**
+         * Block until response for request is received
+         *
+         * @return Response body or null if no content
+         */
+        public synchronized JsonObject get() throws IOException {
+            while(!done) {
+                try {
+                    this.wait();
+                }
+                catch(InterruptedException e) {
+                    throw new InterruptedIOException(e.getMessage());
+                }
+            }
+            if(failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Request{");
+            sb.append("method='").append(method).append('\'');
+            sb.append(", url='").append(url).append('\'');
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ch.cyberduck.core.onedrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Address drive items in request URLs and bodies
+ */
+public class GraphItemReferenceService {
+
+    private final GraphSession session;
+
+    public GraphItemReferenceService(final GraphSession session) {
+        this.session = session;
+    }
+
+    /**
+     * @return Drive and item identifier
+     */
+    public String[] toId(final Path file) throws BackgroundException {
+        final String versionId = session.fileIdProvider.getFileid(file, new DisabledListProgressListener());
+        final String[] parts = StringUtils.split(versionId, Path.DELIMITER);
+        if(null == parts || parts.length < 2) {
+            throw new NotfoundException(file.getAbsolute());
+        }
+        // Item in remote drive for shared folders
+        return new String[]{parts[parts.length - 2], parts[parts.length - 1]};
+    }
+
+    /**
+     * @return URL of item relative to service context
+     */
+    public String toUrl(final Path file) throws BackgroundException {
+        if(file.equals(OneDriveListService.MYFILES_NAME)) {
+            return "/drive/root";
+        }
+        final String[] parts = StringUtils.split(session.fileIdProvider.getFileid(file, new DisabledListProgressListener()), Path.DELIMITER);
+        if(null != parts && parts.length == 1) {
+            // Root of document library
+            return String.format("/drives/%s/root", parts[0]);
+        }
+        final String[] id = this.toId(file);
+        return String.format("/drives/%s/items/%s", id[0], id[1]);
+    }
+
+    /**
+     * @return Reference to folder by path for root of drive or document library and by identifier otherwise
+     */
+    public JsonObject toReference(final Path folder) throws BackgroundException {
+        final JsonObject reference = new JsonObject();
+        final String url = this.toUrl(folder);
+        if(StringUtils.endsWith(url, "/root")) {
+            reference.addProperty("path", String.format("%s:", url));
+            return reference;
+        }
+        final String[] id = this.toId(folder);
+        reference.addProperty("driveId", id[0]);
+        reference.addProperty("id", id[1]);
+        return reference;
+    }
+}
@@ -0,0 +1,250 @@
+package ch.cyberduck.core.onedrive.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.PathNormalizer;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.features.Changes;
+import ch.cyberduck.core.features.IdProvider;
+import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
+import ch.cyberduck.core.onedrive.GraphCommonsHttpRequestExecutor;
+import ch.cyberduck.core.onedrive.GraphSession;
+import ch.cyberduck.core.onedrive.OneDriveListService;
+import ch.cyberduck.core.webloc.UrlFileWriter;
+import ch.cyberduck.core.webloc.UrlFileWriterFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.AbstractResponseHandler;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Track changes with <code>delta</code> function of drive items. Parents of changed items are resolved from cached
+ * listings as the path of items is not included in the response.
+ */
+public class GraphChangesFeature implements Changes {
+    private static final Logger log = Logger.getLogger(GraphChangesFeature.class);
+
+    private final GraphSession session;
+    private final UrlFileWriter urlFileWriter = UrlFileWriterFactory.get();
+
+    private Cache<Path> cache = PathCache.empty();
+
+    public GraphChangesFeature(final GraphSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public String cursor(final Path directory) throws BackgroundException {
+        final JsonObject json = this.get(directory, String.format("%s?token=latest", this.toUrl(directory)));
+        // Skip enumeration of existing items
+        return this.toString(json, "@odata.deltaLink");
+    }
+
+    @Override
+    public ChangeSet changes(final Path directory, final String cursor) throws BackgroundException {
+        final List<JsonObject> items = new ArrayList<>();
+        String next = cursor;
+        JsonObject json;
+        try {
+            do {
+                json = this.get(directory, next);
+                for(JsonElement value : json.getAsJsonArray("value")) {
+                    items.add(value.getAsJsonObject());
+                }
+                next = this.toString(json, "@odata.nextLink");
+            }
+            while(next != null);
+        }
+        catch(NotfoundException e) {
+            // 410 Gone when the token is no longer valid and the client must resynchronize
+            return new ChangeSet(null, true);
+        }
+        final String root = this.toId(directory);
+        final ChangeSet set = new ChangeSet(this.toString(json, "@odata.deltaLink"));
+        for(JsonObject item : items) {
+            if(item.has("root") || item.has("remoteItem")) {
+                continue;
+            }
+            final String driveId = this.toString(item.getAsJsonObject("parentReference"), "driveId");
+            final String id = String.join(String.valueOf(Path.DELIMITER), driveId, this.toString(item, "id"));
+            // Location in cache prior to change
+            final Path previous = this.find(id);
+            final Path parent;
+            if(item.has("deleted") || !item.has("parentReference")) {
+                parent = null;
+            }
+            else {
+                final String parentId = String.join(String.valueOf(Path.DELIMITER), driveId,
+                    this.toString(item.getAsJsonObject("parentReference"), "id"));
+                parent = StringUtils.equals(root, parentId) ? directory : this.find(parentId);
+            }
+            if(null == parent) {
+                // Removed or moved to folder not cached
+                if(previous != null) {
+                    set.getDeleted().add(previous);
+                }
+                continue;
+            }
+            final Path file = this.toPath(parent, id, item);
+            if(previous != null && !StringUtils.equals(previous.getAbsolute(), file.getAbsolute())) {
+                // Renamed or moved
+                set.getDeleted().add(previous);
+            }
+            set.getModified().add(file);
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Found %s in %d changes for %s", set, items.size(), directory));
+        }
+        return set;
+    }
+
+    private Path toPath(final Path parent, final String id, final JsonObject item) {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setVersionId(id);
+        attributes.setETag(this.toString(item, "eTag"));
+        if(item.has("size")) {
+            attributes.setSize(item.get("size").getAsLong());
+        }
+        final JsonObject info = item.has("fileSystemInfo") ? item.getAsJsonObject("fileSystemInfo") : item;
+        attributes.setModificationDate(this.toMillis(this.toString(info, "lastModifiedDateTime")));
+        attributes.setCreationDate(this.toMillis(this.toString(info, "createdDateTime")));
+        final String name = PathNormalizer.name(this.toString(item, "name"));
+        if(item.has("package")) {
+            return new Path(parent, String.format("%s.%s", name, urlFileWriter.getExtension()),
+                EnumSet.of(Path.Type.file, Path.Type.placeholder), attributes);
+        }
+        return new Path(parent, name, item.has("folder") ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file), attributes);
+    }
+
+    private String toUrl(final Path directory) throws BackgroundException {
+        if(directory.equals(OneDriveListService.MYFILES_NAME)) {
+            return String.format("%s/me/drive/root/delta", session.getClient().getBaseURL());
+        }
+        final String[] parts = StringUtils.split(this.toId(directory), Path.DELIMITER);
+        if(parts.length < 2) {
+            throw new NotfoundException(directory.getAbsolute());
+        }
+        // Item in remote drive for shared folders
+        return String.format("%s/drives/%s/items/%s/delta", session.getClient().getBaseURL(),
+            parts[parts.length - 2], parts[parts.length - 1]);
+    }
+
+    private String toId(final Path directory) throws BackgroundException {
+        if(directory.equals(OneDriveListService.MYFILES_NAME)) {
+            final JsonObject json = this.get(directory, String.format("%s/me/drive/root?$select=id,parentReference", session.getClient().getBaseURL()));
+            return String.join(String.valueOf(Path.DELIMITER),
+                this.toString(json.getAsJsonObject("parentReference"), "driveId"), this.toString(json, "id"));
+        }
+        return session.getFeature(IdProvider.class).getFileid(directory, new DisabledListProgressListener());
+    }
+
+    /**
+     * @param id Drive and item identifier
+     * @return Null if not found in cached listings
+     */
+    private Path find(final String id) {
+        for(Map.Entry<Path, AttributedList<Path>> entry : cache.asMap().entrySet()) {
+            if(StringUtils.equals(id, entry.getKey().attributes().getVersionId())) {
+                return entry.getKey();
+            }
+            final Path found = entry.getValue().find(file -> StringUtils.equals(id, file.attributes().getVersionId()));
+            if(found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private JsonObject get(final Path directory, final String url) throws BackgroundException {
+        final HttpGet request = new HttpGet(url);
+        // Placeholder replaced with access token by interceptor
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer");
+        try {
+            return ((GraphCommonsHttpRequestExecutor) session.getClient().getExecutor()).getClient().execute(request, new AbstractResponseHandler<JsonObject>() {
+                @Override
+                public JsonObject handleEntity(final HttpEntity entity) throws IOException {
+                    return JsonParser.parseReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8)).getAsJsonObject();
+                }
+            });
+        }
+        catch(HttpResponseException e) {
+            if(e.getStatusCode() == HttpStatus.SC_GONE) {
+                throw new NotfoundException(e.getMessage(), e);
+            }
+            throw new DefaultHttpResponseExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+        catch(JsonParseException e) {
+            throw new DefaultIOExceptionMappingService().map(new IOException(e.getMessage(), e));
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    private String toString(final JsonObject json, final String key) {
+        if(null == json || !json.has(key) || json.get(key).isJsonNull()) {
+            return null;
+        }
+        return json.get(key).getAsString();
+    }
+
+    private long toMillis(final String date) {
+        if(null == date) {
+            return -1L;
+        }
+        try {
+            return Instant.parse(date).toEpochMilli();
+        }
+        catch(DateTimeParseException e) {
+            log.warn(String.format("Failure parsing date %s", date));
+            return -1L;
+        }
+    }
+
+    @Override
+    public Changes withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        return this;
+    }
+}
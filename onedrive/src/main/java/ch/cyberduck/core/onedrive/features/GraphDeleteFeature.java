@@ -21,17 +21,25 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.onedrive.GraphBatcher;
 import ch.cyberduck.core.onedrive.GraphExceptionMappingService;
+import ch.cyberduck.core.onedrive.GraphItemReferenceService;
 import ch.cyberduck.core.onedrive.GraphSession;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpDelete;
 import org.apache.log4j.Logger;
 import org.nuxeo.onedrive.client.OneDriveAPIException;
-import org.nuxeo.onedrive.client.OneDriveItem;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import com.google.common.collect.Lists;
+
 public class GraphDeleteFeature implements Delete {
     private static final Logger logger = Logger.getLogger(GraphDeleteFeature.class);
 
@@ -43,20 +51,35 @@ public class GraphDeleteFeature implements Delete {
 
     @Override
     public void delete(final Map<Path, TransferStatus> files, final PasswordCallback prompt, final Callback callback) throws BackgroundException {
-        for(Path file : files.keySet()) {
-            callback.delete(file);
-            try {
-                final OneDriveItem item = session.toItem(file);
-                item.delete();
-            }
-            catch(NotfoundException e) {
-                logger.warn(String.format("Cannot delete %s. Not found.", file));
-            }
-            catch(OneDriveAPIException e) {
-                throw new GraphExceptionMappingService().map("Cannot delete {0}", e, file);
+        final GraphBatcher batcher = GraphBatcher.get(session.getHost());
+        for(List<Path> partition : Lists.partition(new ArrayList<>(files.keySet()), batcher.getSize())) {
+            final Map<Path, GraphBatcher.Request> requests = new LinkedHashMap<>();
+            for(Path file : partition) {
+                callback.delete(file);
+                try {
+                    requests.put(file, new GraphBatcher.Request(HttpDelete.METHOD_NAME, new GraphItemReferenceService(session).toUrl(file)));
+                }
+                catch(NotfoundException e) {
+                    logger.warn(String.format("Cannot delete %s. Not found.", file));
+                }
             }
-            catch(IOException e) {
-                throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, file);
+            // Single batch request for all files in partition
+            batcher.execute(session, new ArrayList<>(requests.values()));
+            for(Map.Entry<Path, GraphBatcher.Request> entry : requests.entrySet()) {
+                final Path file = entry.getKey();
+                try {
+                    entry.getValue().get();
+                }
+                catch(OneDriveAPIException e) {
+                    if(e.getResponseCode() == HttpStatus.SC_NOT_FOUND) {
+                        logger.warn(String.format("Cannot delete %s. Not found.", file));
+                        continue;
+                    }
+                    throw new GraphExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
+                catch(IOException e) {
+                    throw new DefaultIOExceptionMappingService().map("Cannot delete {0}", e, file);
+                }
             }
         }
     }
@@ -21,22 +21,22 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.features.Move;
+import ch.cyberduck.core.onedrive.GraphBatcher;
 import ch.cyberduck.core.onedrive.GraphExceptionMappingService;
+import ch.cyberduck.core.onedrive.GraphItemReferenceService;
 import ch.cyberduck.core.onedrive.GraphSession;
 import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.commons.codec.binary.StringUtils;
+import org.apache.http.client.methods.HttpPatch;
 import org.nuxeo.onedrive.client.OneDriveAPIException;
-import org.nuxeo.onedrive.client.OneDriveFolder;
-import org.nuxeo.onedrive.client.OneDriveItem;
-import org.nuxeo.onedrive.client.OneDrivePatchOperation;
-import org.nuxeo.onedrive.client.facets.FileSystemInfoFacet;
 
 import java.io.IOException;
 import java.time.Instant;
-import java.time.ZoneOffset;
 import java.util.Collections;
 
+import com.google.gson.JsonObject;
+
 public class GraphMoveFeature implements Move {
 
     private final GraphSession session;
@@ -54,21 +54,20 @@ public class GraphMoveFeature implements Move {
             // Reset version ID for non existing file
             renamed.attributes().setVersionId(null);
         }
-        final OneDrivePatchOperation patchOperation = new OneDrivePatchOperation();
+        final JsonObject body = new JsonObject();
         if(!StringUtils.equals(file.getName(), renamed.getName())) {
-            patchOperation.rename(renamed.getName());
+            body.addProperty("name", renamed.getName());
         }
         if(!file.getParent().equals(renamed.getParent())) {
-            final OneDriveFolder moveTarget = session.toFolder(renamed.getParent());
-            patchOperation.move(moveTarget);
+            body.add("parentReference", new GraphItemReferenceService(session).toReference(renamed.getParent()));
         }
         // Keep current timestamp set
-        final FileSystemInfoFacet info = new FileSystemInfoFacet();
-        info.setLastModifiedDateTime(Instant.ofEpochMilli(file.attributes().getModificationDate()).atOffset(ZoneOffset.UTC));
-        patchOperation.facet("fileSystemInfo", info);
-        final OneDriveItem item = session.toItem(file);
+        final JsonObject info = new JsonObject();
+        info.addProperty("lastModifiedDateTime", Instant.ofEpochMilli(file.attributes().getModificationDate()).toString());
+        body.add("fileSystemInfo", info);
         try {
-            item.patch(patchOperation);
+            GraphBatcher.get(session.getHost()).execute(session,
+                new GraphBatcher.Request(HttpPatch.METHOD_NAME, new GraphItemReferenceService(session).toUrl(file), body));
         }
         catch(OneDriveAPIException e) {
             throw new GraphExceptionMappingService().map("Cannot rename {0}", e, file);
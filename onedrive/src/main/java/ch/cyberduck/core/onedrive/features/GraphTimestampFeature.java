@@ -18,19 +18,20 @@ package ch.cyberduck.core.onedrive.features;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.onedrive.GraphBatcher;
 import ch.cyberduck.core.onedrive.GraphExceptionMappingService;
+import ch.cyberduck.core.onedrive.GraphItemReferenceService;
 import ch.cyberduck.core.onedrive.GraphSession;
 import ch.cyberduck.core.shared.DefaultTimestampFeature;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.http.client.methods.HttpPatch;
 import org.nuxeo.onedrive.client.OneDriveAPIException;
-import org.nuxeo.onedrive.client.OneDriveItem;
-import org.nuxeo.onedrive.client.OneDrivePatchOperation;
-import org.nuxeo.onedrive.client.facets.FileSystemInfoFacet;
 
 import java.io.IOException;
 import java.time.Instant;
-import java.time.ZoneOffset;
+
+import com.google.gson.JsonObject;
 
 public class GraphTimestampFeature extends DefaultTimestampFeature {
     private final GraphSession session;
@@ -41,13 +42,13 @@ public class GraphTimestampFeature extends DefaultTimestampFeature {
 
     @Override
     public void setTimestamp(final Path file, final TransferStatus status) throws BackgroundException {
-        final OneDrivePatchOperation patchOperation = new OneDrivePatchOperation();
-        final FileSystemInfoFacet info = new FileSystemInfoFacet();
-        info.setLastModifiedDateTime(Instant.ofEpochMilli(status.getTimestamp()).atOffset(ZoneOffset.UTC));
-        patchOperation.facet("fileSystemInfo", info);
-        final OneDriveItem item = session.toItem(file);
+        final JsonObject info = new JsonObject();
+        info.addProperty("lastModifiedDateTime", Instant.ofEpochMilli(status.getTimestamp()).toString());
+        final JsonObject body = new JsonObject();
+        body.add("fileSystemInfo", info);
         try {
-            item.patch(patchOperation);
+            GraphBatcher.get(session.getHost()).execute(session,
+                new GraphBatcher.Request(HttpPatch.METHOD_NAME, new GraphItemReferenceService(session).toUrl(file), body));
         }
         catch(OneDriveAPIException e) {
             throw new GraphExceptionMappingService().map("Failure to write attributes of {0}", e, file);
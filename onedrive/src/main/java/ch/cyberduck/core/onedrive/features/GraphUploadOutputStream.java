@@ -0,0 +1,368 @@
+package ch.cyberduck.core.onedrive.features;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Upload fragments to an upload session. Fragments must be received in order by the service. The next fragment is
+ * buffered while the previous fragment is uploaded in the background. The fragment size is adapted to the throughput
+ * measured for the previous fragment. A failed fragment is resumed from the next expected range of the upload session.
+ * The fragment size is limited so both buffers fit into the maximum heap per stream and the buffer of a completed upload
+ * is reused for the next fragment when large enough.
+ */
+public class GraphUploadOutputStream extends OutputStream {
+    private static final Logger log = Logger.getLogger(GraphUploadOutputStream.class);
+
+    private final Preferences preferences = PreferencesFactory.get();
+
+    private final HttpClient client;
+    /**
+     * Upload URL of session not requiring authorization
+     */
+    private final String url;
+    private final Path file;
+    /**
+     * Total length or -1 if unknown
+     */
+    private final long length;
+
+    /**
+     * Fragment sizes must be a multiple of this minimum
+     */
+    private final int minimum;
+    /**
+     * Maximum fragment size limited to half of the maximum heap per stream
+     */
+    private final int maximum;
+    /**
+     * Target duration in milliseconds for upload of single fragment
+     */
+    private final long duration;
+
+    private final ThreadPool executor = ThreadPoolFactory.get("onedrive-upload", 1);
+    private final AtomicBoolean close = new AtomicBoolean();
+
+    /**
+     * Size of next fragment. Adjusted by upload thread
+     */
+    private volatile int size;
+
+    private byte[] buffer;
+    /**
+     * Size of fragment in buffer
+     */
+    private int limit;
+    private int count;
+    /**
+     * Buffer of fragment passed to upload thread
+     */
+    private byte[] uploading;
+    /**
+     * Buffer of completed upload to reuse
+     */
+    private byte[] spare;
+    /**
+     * Number of bytes in fragments passed to upload thread
+     */
+    private long offset;
+    /**
+     * Upload of previous fragment
+     */
+    private Future<Void> pending;
+
+    /**
+     * @param client Client
+     * @param url    Upload URL of session
+     * @param file   File
+     * @param length Total length or -1 if unknown
+     */
+    public GraphUploadOutputStream(final HttpClient client, final String url, final Path file, final long length) {
+        this(client, url, file, length, PreferencesFactory.get().getInteger("onedrive.upload.multipart.partsize.minimum")
+            * PreferencesFactory.get().getInteger("onedrive.upload.multipart.partsize.factor"));
+    }
+
+    /**
+     * @param partsize Size of first fragment
+     */
+    public GraphUploadOutputStream(final HttpClient client, final String url, final Path file, final long length, final int partsize) {
+        this.client = client;
+        this.url = url;
+        this.file = file;
+        this.length = length;
+        this.minimum = preferences.getInteger("onedrive.upload.multipart.partsize.minimum");
+        this.maximum = Math.max(minimum, Math.min(preferences.getInteger("onedrive.upload.multipart.partsize.maximum"),
+            preferences.getInteger("onedrive.upload.multipart.buffer.maximum") / 2 / minimum * minimum));
+        this.duration = TimeUnit.SECONDS.toMillis(preferences.getLong("onedrive.upload.multipart.partsize.duration"));
+        this.size = Math.min(partsize, maximum);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        while(len > 0) {
+            if(null == buffer) {
+                limit = size;
+                if(null != spare && spare.length >= limit) {
+                    buffer = spare;
+                }
+                else {
+                    buffer = new byte[limit];
+                }
+                spare = null;
+            }
+            else if(count == limit) {
+                // Only pass full fragment to upload when more data follows to send total length with last fragment
+                this.submit(false);
+                continue;
+            }
+            final int n = Math.min(len, limit - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void submit(final boolean last) throws IOException {
+        // Previous fragment must be received before sending next fragment
+        this.await();
+        // Buffer of previous fragment no longer used by upload thread
+        spare = uploading;
+        final byte[] content = buffer;
+        final int len = count;
+        final long start = offset;
+        pending = executor.execute(() -> {
+            this.upload(content, start, len, last);
+            return null;
+        });
+        offset += len;
+        uploading = content;
+        buffer = null;
+        count = 0;
+    }
+
+    private void await() throws IOException {
+        if(null == pending) {
+            return;
+        }
+        try {
+            pending.get();
+        }
+        catch(InterruptedException e) {
+            throw new InterruptedIOException(e.getMessage());
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+        finally {
+            pending = null;
+        }
+    }
+
+    /**
+     * Upload fragment and resume from next expected range reported by upload session on failure
+     *
+     * @param start Offset of fragment in file
+     * @param last  Last fragment of file
+     */
+    private void upload(final byte[] content, final long start, final int len, final boolean last) throws IOException {
+        final int retry = preferences.getInteger("connection.retry");
+        long position = start;
+        for(int attempt = 0; ; attempt++) {
+            final int skip = (int) (position - start);
+            final long timestamp = System.currentTimeMillis();
+            try {
+                this.put(content, skip, len - skip, position, last);
+                this.adjust(len - skip, System.currentTimeMillis() - timestamp);
+                return;
+            }
+            catch(IOException e) {
+                if(attempt >= retry) {
+                    throw e;
+                }
+                log.warn(String.format("Failure %s uploading fragment at offset %d for %s", e.getMessage(), position, file));
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(preferences.getInteger("connection.retry.delay")));
+                }
+                catch(InterruptedException i) {
+                    throw new InterruptedIOException(i.getMessage());
+                }
+                final long expected = this.status();
+                if(expected < start || expected > start + len) {
+                    throw new IOException(String.format("Unexpected range %d- to resume upload of %s", expected, file), e);
+                }
+                if(expected == start + len) {
+                    // Fragment already received
+                    return;
+                }
+                log.info(String.format("Resume upload of %s at offset %d", file, expected));
+                position = expected;
+            }
+        }
+    }
+
+    private void put(final byte[] content, final int off, final int len, final long position, final boolean last) throws IOException {
+        final HttpPut request = new HttpPut(url);
+        final String total;
+        if(length != -1L) {
+            total = String.valueOf(length);
+        }
+        else if(last) {
+            total = String.valueOf(position + len);
+        }
+        else {
+            total = "*";
+        }
+        request.addHeader("Content-Range", String.format("bytes %d-%d/%s", position, position + len - 1, total));
+        request.setEntity(new ByteArrayEntity(content, off, len));
+        final HttpResponse response = client.execute(request);
+        try {
+            switch(response.getStatusLine().getStatusCode()) {
+                case HttpStatus.SC_ACCEPTED:
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Uploaded fragment %d-%d for file %s", position, position + len - 1, file));
+                    }
+                    break;
+                case HttpStatus.SC_OK:
+                case HttpStatus.SC_CREATED:
+                    log.info(String.format("Completed upload for %s", file));
+                    break;
+                default:
+                    throw new HttpResponseException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
+            }
+        }
+        finally {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+
+    /**
+     * @return Start of next expected range
+     */
+    private long status() throws IOException {
+        final HttpResponse response = client.execute(new HttpGet(url));
+        try {
+            if(response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || null == response.getEntity()) {
+                throw new HttpResponseException(response.getStatusLine().getStatusCode(), response.getStatusLine().getReasonPhrase());
+            }
+            final JsonObject json = JsonParser.parseReader(new InputStreamReader(response.getEntity().getContent(), StandardCharsets.UTF_8)).getAsJsonObject();
+            final JsonArray ranges = json.getAsJsonArray("nextExpectedRanges");
+            if(null == ranges || ranges.size() == 0) {
+                throw new IOException(String.format("Missing next expected range for %s", file));
+            }
+            // Format 12345-55232 or 77829-
+            return Long.parseLong(StringUtils.substringBefore(ranges.get(0).getAsString(), "-"));
+        }
+        catch(JsonParseException | IllegalStateException | ClassCastException | NumberFormatException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        finally {
+            EntityUtils.consume(response.getEntity());
+        }
+    }
+
+    /**
+     * Set size of next fragment to complete upload in target duration at measured throughput
+     *
+     * @param bytes  Bytes uploaded
+     * @param millis Duration of upload
+     */
+    private void adjust(final long bytes, final long millis) {
+        final long target = bytes * duration / Math.max(1L, millis);
+        // Limit change to factor 2 for each fragment and round to multiple of minimum
+        final long bounded = Math.max(size / 2, Math.min(2L * size, target));
+        size = (int) Math.max(minimum, Math.min(maximum, bounded / minimum * minimum));
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Set fragment size to %d for %s", size, file));
+        }
+    }
+
+    /**
+     * @return Number of bytes written
+     */
+    public long getOffset() {
+        return offset + count;
+    }
+
+    /**
+     * Delete upload session
+     */
+    protected void cancel() throws IOException {
+        EntityUtils.consume(client.execute(new HttpDelete(url)).getEntity());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(close.get()) {
+            log.warn(String.format("Skip double close of stream %s", this));
+            return;
+        }
+        try {
+            if(0L == this.getOffset()) {
+                log.warn(String.format("Abort upload session %s with no completed parts", url));
+                this.cancel();
+                return;
+            }
+            if(count > 0) {
+                this.submit(true);
+            }
+            this.await();
+        }
+        finally {
+            executor.shutdown(false);
+            close.set(true);
+        }
+    }
+}
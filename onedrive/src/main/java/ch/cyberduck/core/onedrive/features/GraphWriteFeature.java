@@ -25,36 +25,33 @@ import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.features.Find;
 import ch.cyberduck.core.features.Write;
-import ch.cyberduck.core.http.HttpRange;
+import ch.cyberduck.core.http.DefaultHttpResponseExceptionMappingService;
 import ch.cyberduck.core.http.HttpResponseOutputStream;
-import ch.cyberduck.core.io.MemorySegementingOutputStream;
-import ch.cyberduck.core.onedrive.GraphExceptionMappingService;
+import ch.cyberduck.core.onedrive.GraphCommonsHttpRequestExecutor;
+import ch.cyberduck.core.onedrive.GraphItemReferenceService;
 import ch.cyberduck.core.onedrive.GraphSession;
-import ch.cyberduck.core.preferences.Preferences;
-import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
-import ch.cyberduck.core.threading.BackgroundExceptionCallable;
-import ch.cyberduck.core.threading.DefaultRetryCallable;
 import ch.cyberduck.core.transfer.TransferStatus;
 
-import org.apache.log4j.Logger;
-import org.nuxeo.onedrive.client.OneDriveAPIException;
-import org.nuxeo.onedrive.client.OneDriveFile;
-import org.nuxeo.onedrive.client.OneDriveFolder;
-import org.nuxeo.onedrive.client.OneDriveItem;
-import org.nuxeo.onedrive.client.OneDriveUploadSession;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.AbstractResponseHandler;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
-public class GraphWriteFeature implements Write<Void> {
-    private static final Logger log = Logger.getLogger(GraphWriteFeature.class);
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 
-    private final Preferences preferences
-        = PreferencesFactory.get();
+public class GraphWriteFeature implements Write<Void> {
 
     private final GraphSession session;
     private final Find finder;
@@ -72,29 +69,67 @@ public class GraphWriteFeature implements Write<Void> {
 
     @Override
     public HttpResponseOutputStream<Void> write(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        final GraphUploadOutputStream proxy = new GraphUploadOutputStream(this.getClient(), this.createUploadSession(file), file,
+            status.getLength() == -1L ? -1L : status.getOffset() + status.getLength()) {
+            @Override
+            protected void cancel() throws IOException {
+                super.cancel();
+                try {
+                    // Use touch feature for empty file upload
+                    new GraphTouchFeature(session).touch(file, new TransferStatus());
+                }
+                catch(BackgroundException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+        return new HttpResponseOutputStream<Void>(proxy) {
+            @Override
+            public Void getStatus() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @return Upload URL
+     */
+    private String createUploadSession(final Path file) throws BackgroundException {
+        final HttpPost request = new HttpPost(String.format("%s%s:/%s:/createUploadSession", session.getClient().getBaseURL(),
+            new GraphItemReferenceService(session).toUrl(file.getParent()), URIEncoder.encode(file.getName())));
+        // Placeholder replaced with access token by interceptor
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer");
+        final JsonObject item = new JsonObject();
+        item.addProperty("@microsoft.graph.conflictBehavior", "replace");
+        final JsonObject body = new JsonObject();
+        body.add("item", item);
+        request.setEntity(new StringEntity(body.toString(), ContentType.APPLICATION_JSON));
         try {
-            final OneDriveFolder folder = session.toFolder(file.getParent());
-            final OneDriveFile oneDriveFile = new OneDriveFile(session.getClient(), folder,
-                URIEncoder.encode(file.getName()), OneDriveItem.ItemIdentifierType.Path);
-            final OneDriveUploadSession upload = oneDriveFile.createUploadSession();
-            final ChunkedOutputStream proxy = new ChunkedOutputStream(upload, file, status);
-            final int partsize = preferences.getInteger("onedrive.upload.multipart.partsize.minimum")
-                * preferences.getInteger("onedrive.upload.multipart.partsize.factor");
-            return new HttpResponseOutputStream<Void>(new MemorySegementingOutputStream(proxy, partsize)) {
+            return this.getClient().execute(request, new AbstractResponseHandler<String>() {
                 @Override
-                public Void getStatus() {
-                    return null;
+                public String handleEntity(final HttpEntity entity) throws IOException {
+                    try {
+                        return JsonParser.parseReader(new InputStreamReader(entity.getContent(), StandardCharsets.UTF_8))
+                            .getAsJsonObject().get("uploadUrl").getAsString();
+                    }
+                    catch(JsonParseException | IllegalStateException | NullPointerException e) {
+                        throw new IOException(e.getMessage(), e);
+                    }
                 }
-            };
+            });
         }
-        catch(OneDriveAPIException e) {
-            throw new GraphExceptionMappingService().map("Upload {0} failed", e, file);
+        catch(HttpResponseException e) {
+            throw new DefaultHttpResponseExceptionMappingService().map("Upload {0} failed", e, file);
         }
         catch(IOException e) {
             throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
         }
     }
 
+    private HttpClient getClient() {
+        return ((GraphCommonsHttpRequestExecutor) session.getClient().getExecutor()).getClient();
+    }
+
     @Override
     public Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
         if(finder.withCache(cache).find(file)) {
@@ -113,87 +148,4 @@ public class GraphWriteFeature implements Write<Void> {
     public boolean random() {
         return false;
     }
-
-    private final class ChunkedOutputStream extends OutputStream {
-        private final OneDriveUploadSession upload;
-        private final Path file;
-        private final TransferStatus overall;
-        private final AtomicBoolean close = new AtomicBoolean();
-
-        private Long offset = 0L;
-        private final Long length;
-
-        public ChunkedOutputStream(final OneDriveUploadSession upload, final Path file, final TransferStatus status) {
-            this.upload = upload;
-            this.file = file;
-            this.overall = status;
-            this.length = status.getOffset() + status.getLength();
-        }
-
-        @Override
-        public void write(final int b) throws IOException {
-            throw new IOException(new UnsupportedOperationException());
-        }
-
-        @Override
-        public void write(final byte[] b, final int off, final int len) throws IOException {
-            final byte[] content = Arrays.copyOfRange(b, off, len);
-            final HttpRange range = HttpRange.byLength(offset, content.length);
-            final String header;
-            if(overall.getLength() == -1L) {
-                header = String.format("%d-%d/*", range.getStart(), range.getEnd());
-            }
-            else {
-                header = String.format("%d-%d/%d", range.getStart(), range.getEnd(), length);
-            }
-            try {
-                new DefaultRetryCallable<>(session.getHost(), new BackgroundExceptionCallable<Void>() {
-                    @Override
-                    public Void call() throws BackgroundException {
-                        try {
-                            if(upload.uploadFragment(header, content) instanceof OneDriveFile.Metadata) {
-                                log.info(String.format("Completed upload for %s", file));
-                            }
-                            else {
-                                log.debug(String.format("Uploaded fragment %s for file %s", header, file));
-                            }
-                        }
-                        catch(OneDriveAPIException e) {
-                            throw new GraphExceptionMappingService().map("Upload {0} failed", e, file);
-                        }
-                        catch(IOException e) {
-                            throw new DefaultIOExceptionMappingService().map("Upload {0} failed", e, file);
-                        }
-                        return null;
-                    }
-                }, overall).call();
-            }
-            catch(BackgroundException e) {
-                throw new IOException(e.getMessage(), e);
-            }
-            offset += content.length;
-        }
-
-        @Override
-        public void close() throws IOException {
-            try {
-                if(close.get()) {
-                    log.warn(String.format("Skip double close of stream %s", this));
-                    return;
-                }
-                if(0L == offset) {
-                    log.warn(String.format("Abort upload session %s with no completed parts", upload));
-                    // Use touch feature for empty file upload
-                    upload.cancelUpload();
-                    new GraphTouchFeature(session).touch(file, new TransferStatus());
-                }
-            }
-            catch(BackgroundException e) {
-                throw new IOException(e);
-            }
-            finally {
-                close.set(true);
-            }
-        }
-    }
 }
@@ -0,0 +1,76 @@
+package ch.cyberduck.core.onedrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AlphanumericRandomStringService;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.onedrive.features.GraphDeleteFeature;
+import ch.cyberduck.core.onedrive.features.GraphFindFeature;
+import ch.cyberduck.core.onedrive.features.GraphTouchFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class GraphDeleteFeatureTest extends AbstractOneDriveTest {
+
+    @Test
+    public void testDeleteMultipleBatches() throws Exception {
+        final Path drive = new OneDriveHomeFinderService(session).find();
+        final List<Path> files = new ArrayList<>();
+        // Exceed maximum number of requests in single batch
+        for(int i = 0; i <= PreferencesFactory.get().getInteger("onedrive.batch.size"); i++) {
+            final Path file = new Path(drive, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+            new GraphTouchFeature(session).touch(file, new TransferStatus().withMime("x-application/cyberduck"));
+            files.add(file);
+        }
+        final List<Path> deleted = new ArrayList<>();
+        new GraphDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.Callback() {
+            @Override
+            public void delete(final Path file) {
+                deleted.add(file);
+            }
+        });
+        assertEquals(files, deleted);
+        for(Path file : files) {
+            assertFalse(new GraphFindFeature(session).find(file));
+        }
+    }
+
+    @Test
+    public void testDeleteNotFound() throws Exception {
+        final Path drive = new OneDriveHomeFinderService(session).find();
+        final Path file = new Path(drive, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.file));
+        new GraphTouchFeature(session).touch(file, new TransferStatus().withMime("x-application/cyberduck"));
+        final List<Path> files = new ArrayList<>();
+        files.add(file);
+        new GraphDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        // Ignore missing file
+        new GraphDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        assertFalse(new GraphFindFeature(session).find(file));
+    }
+}
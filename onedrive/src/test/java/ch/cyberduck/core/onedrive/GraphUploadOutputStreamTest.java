@@ -0,0 +1,227 @@
+package ch.cyberduck.core.onedrive;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.onedrive.features.GraphUploadOutputStream;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpStatus;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.bootstrap.HttpServer;
+import org.apache.http.impl.bootstrap.ServerBootstrap;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class GraphUploadOutputStreamTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private final int minimum = PreferencesFactory.get().getInteger("onedrive.upload.multipart.partsize.minimum");
+
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    /**
+     * Number of fragment request to fail after receiving half of the content
+     */
+    private final AtomicInteger fail = new AtomicInteger(-1);
+
+    private HttpServer server;
+    private CloseableHttpClient client;
+    private String url;
+
+    @Before
+    public void start() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        // Stand-in for upload session
+        server = ServerBootstrap.bootstrap().setListenerPort(0).registerHandler("/upload", (request, response, context) -> {
+            switch(request.getRequestLine().getMethod()) {
+                case "PUT":
+                    final String header = request.getFirstHeader("Content-Range").getValue();
+                    ranges.add(header);
+                    final Matcher matcher = RANGE.matcher(header);
+                    assertTrue(header, matcher.matches());
+                    final byte[] content = EntityUtils.toByteArray(((HttpEntityEnclosingRequest) request).getEntity());
+                    synchronized(received) {
+                        if(Long.parseLong(matcher.group(1)) != received.size()) {
+                            response.setStatusCode(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                            return;
+                        }
+                        if(requests.incrementAndGet() == fail.get()) {
+                            received.write(content, 0, content.length / 2);
+                            response.setStatusCode(HttpStatus.SC_INTERNAL_SERVER_ERROR);
+                            return;
+                        }
+                        received.write(content, 0, content.length);
+                        if(String.valueOf(received.size()).equals(matcher.group(3))) {
+                            completed.set(true);
+                            response.setStatusCode(HttpStatus.SC_CREATED);
+                            response.setEntity(new StringEntity(String.format("{\"size\":%d}", received.size()), ContentType.APPLICATION_JSON));
+                            return;
+                        }
+                    }
+                    // Continue
+                case "GET":
+                    response.setStatusCode("GET".equals(request.getRequestLine().getMethod()) ? HttpStatus.SC_OK : HttpStatus.SC_ACCEPTED);
+                    response.setEntity(new StringEntity(String.format("{\"nextExpectedRanges\":[\"%d-\"]}", received.size()), ContentType.APPLICATION_JSON));
+                    break;
+                case "DELETE":
+                    cancelled.set(true);
+                    response.setStatusCode(HttpStatus.SC_NO_CONTENT);
+                    break;
+            }
+        }).create();
+        server.start();
+        client = HttpClients.createDefault();
+        url = String.format("http://localhost:%d/upload", server.getLocalPort());
+    }
+
+    @After
+    public void stop() throws Exception {
+        client.close();
+        server.shutdown(1L, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testUpload() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(minimum * 5 / 2);
+        final GraphUploadOutputStream out = new GraphUploadOutputStream(client, url, new Path("/f", EnumSet.of(Path.Type.file)), content.length, minimum);
+        out.write(content, 0, minimum / 2);
+        out.write(content, minimum / 2, content.length - minimum / 2);
+        out.close();
+        assertTrue(completed.get());
+        assertArrayEquals(content, received.toByteArray());
+        for(String range : ranges.subList(0, ranges.size() - 1)) {
+            final Matcher matcher = RANGE.matcher(range);
+            assertTrue(matcher.matches());
+            // Fragment size must be multiple of minimum
+            assertEquals(0L, (Long.parseLong(matcher.group(2)) - Long.parseLong(matcher.group(1)) + 1) % minimum);
+            assertEquals(String.valueOf(content.length), matcher.group(3));
+        }
+        assertEquals(content.length, out.getOffset());
+    }
+
+    @Test
+    public void testAdjustFragmentSize() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(minimum * 10);
+        final GraphUploadOutputStream out = new GraphUploadOutputStream(client, url, new Path("/f", EnumSet.of(Path.Type.file)), content.length, minimum);
+        out.write(content, 0, content.length);
+        out.close();
+        assertTrue(completed.get());
+        assertArrayEquals(content, received.toByteArray());
+        // Larger fragment after measuring throughput of first fragment. Second fragment may already be adjusted
+        final Matcher matcher = RANGE.matcher(ranges.get(2));
+        assertTrue(matcher.matches());
+        final long fragment = Long.parseLong(matcher.group(2)) - Long.parseLong(matcher.group(1)) + 1;
+        assertTrue(fragment >= 2L * minimum);
+        assertTrue(fragment <= 4L * minimum);
+    }
+
+    @Test
+    public void testLimitBuffer() throws Exception {
+        final String limit = PreferencesFactory.get().getProperty("onedrive.upload.multipart.buffer.maximum");
+        PreferencesFactory.get().setDefault("onedrive.upload.multipart.buffer.maximum", String.valueOf(4 * minimum));
+        try {
+            final byte[] content = RandomUtils.nextBytes(minimum * 10);
+            final GraphUploadOutputStream out = new GraphUploadOutputStream(client, url, new Path("/f", EnumSet.of(Path.Type.file)), content.length, minimum * 8);
+            out.write(content, 0, content.length);
+            out.close();
+            assertTrue(completed.get());
+            assertArrayEquals(content, received.toByteArray());
+            for(String range : ranges) {
+                final Matcher matcher = RANGE.matcher(range);
+                assertTrue(matcher.matches());
+                // Fragment size limited to half of maximum heap for buffers
+                assertTrue(Long.parseLong(matcher.group(2)) - Long.parseLong(matcher.group(1)) + 1 <= 2L * minimum);
+            }
+        }
+        finally {
+            PreferencesFactory.get().setDefault("onedrive.upload.multipart.buffer.maximum", limit);
+        }
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        fail.set(2);
+        final byte[] content = RandomUtils.nextBytes(minimum * 3);
+        final GraphUploadOutputStream out = new GraphUploadOutputStream(client, url, new Path("/f", EnumSet.of(Path.Type.file)), content.length, minimum);
+        out.write(content, 0, content.length);
+        out.close();
+        assertTrue(completed.get());
+        assertArrayEquals(content, received.toByteArray());
+        // Resume from next expected range in second fragment
+        final Matcher failed = RANGE.matcher(ranges.get(1));
+        assertTrue(failed.matches());
+        final long start = Long.parseLong(failed.group(1));
+        final long end = Long.parseLong(failed.group(2));
+        assertEquals(String.format("bytes %d-%d/%d", start + (end - start + 1) / 2, end, content.length), ranges.get(2));
+    }
+
+    @Test
+    public void testUnknownLength() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(minimum * 2);
+        final GraphUploadOutputStream out = new GraphUploadOutputStream(client, url, new Path("/f", EnumSet.of(Path.Type.file)), -1L, minimum);
+        out.write(content, 0, content.length);
+        out.close();
+        assertTrue(completed.get());
+        assertArrayEquals(content, received.toByteArray());
+        // Total length sent with last fragment
+        assertTrue(StringUtils.endsWith(ranges.get(0), "/*"));
+        assertTrue(StringUtils.endsWith(ranges.get(ranges.size() - 1), String.format("/%d", content.length)));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        final GraphUploadOutputStream out = new GraphUploadOutputStream(client, url, new Path("/f", EnumSet.of(Path.Type.file)), 0L, minimum);
+        out.close();
+        assertTrue(cancelled.get());
+        assertTrue(ranges.isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailure() throws Exception {
+        final byte[] content = RandomUtils.nextBytes(minimum);
+        // Next expected range after fragment
+        received.write(new byte[minimum + 1]);
+        final GraphUploadOutputStream out = new GraphUploadOutputStream(client, url, new Path("/f", EnumSet.of(Path.Type.file)), content.length, minimum);
+        out.write(content, 0, content.length);
+        out.close();
+    }
+}
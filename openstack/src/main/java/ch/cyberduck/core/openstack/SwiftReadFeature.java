@@ -55,8 +55,11 @@ public class SwiftReadFeature implements Read {
     @Override
     public InputStream read(final Path file, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
         try {
-            // Do not set checksum when metadata key X-Static-Large-Object is present. Disable checksum verification in download filter.
-            status.setChecksum(Checksum.NONE);
+            if(!status.isSegment()) {
+                // Do not set checksum when metadata key X-Static-Large-Object is present. Disable checksum verification in download filter.
+                // Segments aligned with large object segments are verified with the checksum of the segment
+                status.setChecksum(Checksum.NONE);
+            }
             final Response response;
             if(status.isAppend()) {
                 final HttpRange range = HttpRange.withStatus(status);
@@ -24,6 +24,7 @@ import ch.cyberduck.core.date.ISO8601DateParser;
 import ch.cyberduck.core.date.InvalidDateException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ChecksumException;
+import ch.cyberduck.core.features.Segments;
 import ch.cyberduck.core.io.Checksum;
 import ch.cyberduck.core.io.ChecksumCompute;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -46,7 +47,7 @@ import ch.iterate.openstack.swift.model.StorageObject;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-public class SwiftSegmentService {
+public class SwiftSegmentService implements Segments {
     private static final Logger log = Logger.getLogger(SwiftSegmentService.class);
 
     private final SwiftSession session;
@@ -82,6 +83,7 @@ public class SwiftSegmentService {
         this.regionService = regionService;
     }
 
+    @Override
     public List<Path> list(final Path file) throws BackgroundException {
         try {
             final Path container = containerService.getContainer(file);
@@ -154,6 +154,9 @@ public class SwiftSession extends HttpSession<Client> {
         if(type == Metadata.class) {
             return (T) new SwiftMetadataFeature(this, regionService);
         }
+        if(type == Segments.class) {
+            return (T) new SwiftSegmentService(this, regionService);
+        }
         if(type == Copy.class) {
             return (T) new SwiftSegmentCopyService(this, regionService);
         }
@@ -21,6 +21,7 @@ import ch.cyberduck.core.Acl;
 import ch.cyberduck.core.ConnectionCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathContainerService;
+import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.AccessDeniedException;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.InteroperabilityException;
@@ -28,6 +29,7 @@ import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.Encryption;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.jets3t.service.Constants;
 import org.jets3t.service.ServiceException;
@@ -35,6 +37,7 @@ import org.jets3t.service.model.S3Object;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 public class S3CopyFeature implements Copy {
     private static final Logger log = Logger.getLogger(S3CopyFeature.class);
@@ -46,12 +49,19 @@ public class S3CopyFeature implements Copy {
 
     private final S3AccessControlListFeature accessControlListFeature;
 
+    /**
+     * Connection to issue copy request with. Differs from source connection for copy between buckets of different
+     * accounts on the same endpoint.
+     */
+    private S3Session target;
+
     public S3CopyFeature(final S3Session session) {
         this(session, new S3AccessControlListFeature(session));
     }
 
     public S3CopyFeature(final S3Session session, final S3AccessControlListFeature accessControlListFeature) {
         this.session = session;
+        this.target = session;
         this.accessControlListFeature = accessControlListFeature;
     }
 
@@ -74,7 +84,7 @@ public class S3CopyFeature implements Copy {
                 log.warn(String.format("Ignore failure %s", e));
             }
         }
-        final S3Object destination = new S3WriteFeature(session).getDetails(target, status);
+        final S3Object destination = new S3WriteFeature(this.target).getDetails(target, status);
         destination.setAcl(accessControlListFeature.convert(status.getAcl()));
         destination.setBucketName(containerService.getContainer(target).getName());
         destination.replaceAllMetadata(new HashMap<String, Object>(new S3MetadataFeature(session, accessControlListFeature).getMetadata(source)));
@@ -86,7 +96,7 @@ public class S3CopyFeature implements Copy {
     protected String copy(final Path source, final S3Object destination, final TransferStatus status) throws BackgroundException {
         try {
             // Copying object applying the metadata of the original
-            final Map<String, Object> stringObjectMap = session.getClient().copyVersionedObject(source.attributes().getVersionId(), containerService.getContainer(source).getName(),
+            final Map<String, Object> stringObjectMap = target.getClient().copyVersionedObject(source.attributes().getVersionId(), containerService.getContainer(source).getName(),
                 containerService.getKey(source),
                 destination.getBucketName(), destination, false);
             final Map complete = (Map) stringObjectMap.get(Constants.KEY_FOR_COMPLETE_METADATA);
@@ -99,6 +109,43 @@ public class S3CopyFeature implements Copy {
 
     @Override
     public boolean isSupported(final Path source, final Path target) {
-        return !containerService.isContainer(source) && !containerService.isContainer(target);
+        if(containerService.isContainer(source) || containerService.isContainer(target)) {
+            return false;
+        }
+        if(null == this.target) {
+            // Target connection is not to a S3 endpoint
+            return false;
+        }
+        if(this.target == session) {
+            return true;
+        }
+        if(!Objects.equals(session.getHost().getPort(), this.target.getHost().getPort())) {
+            return false;
+        }
+        if(!S3Session.isAwsHostname(session.getHost().getHostname()) || !S3Session.isAwsHostname(this.target.getHost().getHostname())) {
+            if(!StringUtils.equalsIgnoreCase(session.getHost().getHostname(), this.target.getHost().getHostname())) {
+                // Different endpoints
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    /**
+     * @param session Connection to issue copy request with for server side copy between accounts
+     */
+    @Override
+    public S3CopyFeature withTarget(final Session<?> session) {
+        this.target = session instanceof S3Session ? (S3Session) session : null;
+        return this;
+    }
+
+    protected S3Session getTarget() {
+        return target;
     }
 }
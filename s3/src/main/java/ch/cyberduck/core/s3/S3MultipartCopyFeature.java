@@ -74,7 +74,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
         try {
             final List<MultipartPart> completed = new ArrayList<MultipartPart>();
             // ID for the initiated multipart upload.
-            final MultipartUpload multipart = session.getClient().multipartStartUpload(
+            final MultipartUpload multipart = this.getTarget().getClient().multipartStartUpload(
                 destination.getBucketName(), destination);
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Multipart upload started for %s with ID %s",
@@ -102,6 +102,9 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
                 }
                 catch(ExecutionException e) {
                     log.warn(String.format("Part upload failed with execution failure %s", e.getMessage()));
+                    // Copy may be retried with fallback when target connection cannot read source
+                    log.warn(String.format("Abort multipart upload %s", multipart));
+                    this.getTarget().getClient().multipartAbortUpload(multipart);
                     if(e.getCause() instanceof BackgroundException) {
                         throw (BackgroundException) e.getCause();
                     }
@@ -111,7 +114,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
             // Combining all the given parts into the final object. Processing of a Complete Multipart Upload request
             // could take several minutes to complete. Because a request could fail after the initial 200 OK response
             // has been sent, it is important that you check the response body to determine whether the request succeeded.
-            final MultipartCompleted complete = session.getClient().multipartCompleteUpload(multipart, completed);
+            final MultipartCompleted complete = this.getTarget().getClient().multipartCompleteUpload(multipart, completed);
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Completed multipart upload for %s with checksum %s",
                     complete.getObjectKey(), complete.getEtag()));
@@ -137,7 +140,7 @@ public class S3MultipartCopyFeature extends S3CopyFeature {
             public MultipartPart call() throws BackgroundException {
                 try {
                     final HttpRange range = HttpRange.byLength(offset, length);
-                    final MultipartPart part = session.getClient().multipartUploadPartCopy(multipart, partNumber,
+                    final MultipartPart part = S3MultipartCopyFeature.this.getTarget().getClient().multipartUploadPartCopy(multipart, partNumber,
                         containerService.getContainer(source).getName(), containerService.getKey(source),
                         null, null, null, null, range.getStart(), range.getEnd(), source.attributes().getVersionId());
                     if(log.isInfoEnabled()) {
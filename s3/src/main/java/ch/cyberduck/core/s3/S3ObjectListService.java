@@ -28,9 +28,13 @@ import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.URIEncoder;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.BackgroundExceptionCallable;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -38,8 +42,14 @@ import org.jets3t.service.ServiceException;
 import org.jets3t.service.StorageObjectsChunk;
 import org.jets3t.service.model.StorageObject;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class S3ObjectListService extends S3AbstractListService implements ListService {
     private static final Logger log = Logger.getLogger(S3ObjectListService.class);
@@ -52,10 +62,20 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
 
     private final S3Session session;
     private final S3AttributesFinderFeature attributes;
+    private final Integer concurrency;
 
     public S3ObjectListService(final S3Session session) {
+        this(session, PreferencesFactory.get().getInteger("s3.listing.concurrency"));
+    }
+
+    /**
+     * @param session     Connection
+     * @param concurrency Number of threads to list partitions of recursive listings
+     */
+    public S3ObjectListService(final S3Session session, final Integer concurrency) {
         this.session = session;
         this.attributes = new S3AttributesFinderFeature(session);
+        this.concurrency = concurrency;
     }
 
     @Override
@@ -74,6 +94,9 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
     }
 
     protected AttributedList<Path> list(final Path directory, final ListProgressListener listener, final String delimiter, final int chunksize) throws BackgroundException {
+        if(null == delimiter && concurrency > 1) {
+            return this.listPartitioned(directory, listener, chunksize);
+        }
         try {
             final String prefix = this.createPrefix(directory);
             // If this optional, Unicode string parameter is included with your request,
@@ -83,48 +106,12 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
             // not returned elsewhere in the response.
             final Path bucket = containerService.getContainer(directory);
             final AttributedList<Path> children = new AttributedList<>();
-            // Null if listing is complete
-            String priorLastKey = null;
-            boolean hasDirectoryPlaceholder = containerService.isContainer(directory);
-            do {
-                // Read directory listing in chunks. List results are always returned
-                // in lexicographic (alphabetical) order.
-                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
-                    bucket.isRoot() ? StringUtils.EMPTY : PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
-                    chunksize, priorLastKey, false);
-
-                final StorageObject[] objects = chunk.getObjects();
+            final boolean hasDirectoryPlaceholder = this.list(bucket, directory, prefix, delimiter, chunksize, (objects, prefixes) -> {
                 for(StorageObject object : objects) {
                     final String key = PathNormalizer.normalize(URIEncoder.decode(object.getKey()));
-                    if(String.valueOf(Path.DELIMITER).equals(key)) {
-                        log.warn(String.format("Skipping prefix %s", key));
-                        continue;
-                    }
-                    if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
-                        // Placeholder object, skip
-                        hasDirectoryPlaceholder = true;
-                        continue;
-                    }
-                    final EnumSet<Path.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
-                        ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
-                    final Path file;
-                    final PathAttributes attr = attributes.toAttributes(object);
-                    // Copy bucket location
-                    attr.setRegion(bucket.attributes().getRegion());
-                    if(null == delimiter) {
-                        file = new Path(String.format("%s%s", bucket.getAbsolute(), key), types, attr);
-                    }
-                    else {
-                        file = new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key), types, attr);
-                    }
-                    children.add(file);
+                    children.add(this.toPath(bucket, directory, delimiter, key, object));
                 }
-                final String[] prefixes = chunk.getCommonPrefixes();
                 for(String common : prefixes) {
-                    if(String.valueOf(Path.DELIMITER).equals(common)) {
-                        log.warn(String.format("Skipping prefix %s", common));
-                        continue;
-                    }
                     final String key = PathNormalizer.normalize(URIEncoder.decode(common));
                     if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
                         continue;
@@ -140,26 +127,211 @@ public class S3ObjectListService extends S3AbstractListService implements ListSe
                     attributes.setRegion(bucket.attributes().getRegion());
                     children.add(file);
                 }
-                priorLastKey = null != chunk.getPriorLastKey() ? URIEncoder.decode(chunk.getPriorLastKey()) : null;
                 listener.chunk(directory, children);
-            }
-            while(priorLastKey != null);
+            });
             if(!hasDirectoryPlaceholder && children.isEmpty()) {
-                // Only for AWS
-                if(S3Session.isAwsHostname(session.getHost().getHostname())) {
-                    throw new NotfoundException(directory.getAbsolute());
+                this.verify(bucket, directory, prefix, delimiter);
+            }
+            return children;
+        }
+        catch(ServiceException e) {
+            throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+        }
+    }
+
+    /**
+     * Recursive listing with key space partitioned by common prefixes of the directory. Each partition is listed
+     * concurrently without delimiter. Partitions are disjoint key ranges and results are merged in lexicographic
+     * order of keys.
+     */
+    @SuppressWarnings("unchecked")
+    private AttributedList<Path> listPartitioned(final Path directory, final ListProgressListener listener, final int chunksize) throws BackgroundException {
+        final ThreadPool pool = ThreadPoolFactory.get("list", concurrency);
+        try {
+            final String prefix = this.createPrefix(directory);
+            final Path bucket = containerService.getContainer(directory);
+            // Objects at top level and partitions by key
+            final NavigableMap<String, Object> segments = new TreeMap<>();
+            // Files in order of completed chunks passed to listener
+            final AttributedList<Path> progress = new AttributedList<>();
+            final boolean hasDirectoryPlaceholder = this.list(bucket, directory, prefix, String.valueOf(Path.DELIMITER), chunksize, (objects, prefixes) -> {
+                final List<Path> files = new ArrayList<>();
+                for(StorageObject object : objects) {
+                    final String key = PathNormalizer.normalize(URIEncoder.decode(object.getKey()));
+                    final Path file = this.toPath(bucket, directory, null, key, object);
+                    segments.put(URIEncoder.decode(object.getKey()), file);
+                    files.add(file);
+                }
+                for(String common : prefixes) {
+                    final String partition = URIEncoder.decode(common);
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Submit listing of partition %s", partition));
+                    }
+                    segments.put(partition, this.submit(pool, bucket, directory, partition, chunksize, listener, progress));
                 }
-                // Handle missing prefix for directory placeholders in Minio
-                final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
-                    PathNormalizer.name(URIEncoder.encode(bucket.getName())), String.format("%s%s", this.createPrefix(directory.getParent()), directory.getName()), delimiter, 1, null);
-                if(Arrays.stream(chunk.getObjects()).map((StorageObject input) -> URIEncoder.decode(input.getKey())).noneMatch(common -> common.equals(prefix))) {
-                    throw new NotfoundException(directory.getAbsolute());
+                this.chunk(directory, listener, progress, files);
+            });
+            final AttributedList<Path> children = new AttributedList<>();
+            for(Object segment : segments.values()) {
+                if(segment instanceof Path) {
+                    children.add((Path) segment);
+                }
+                else {
+                    try {
+                        children.addAll(((Future<List<Path>>) segment).get());
+                    }
+                    catch(InterruptedException e) {
+                        log.error("Listing objects failed with interrupt failure");
+                        throw new ConnectionCanceledException(e);
+                    }
+                    catch(ExecutionException e) {
+                        log.warn(String.format("Listing objects failed with execution failure %s", e.getMessage()));
+                        if(e.getCause() instanceof BackgroundException) {
+                            throw (BackgroundException) e.getCause();
+                        }
+                        throw new BackgroundException(e.getCause());
+                    }
                 }
             }
+            listener.chunk(directory, children);
+            if(!hasDirectoryPlaceholder && children.isEmpty()) {
+                this.verify(bucket, directory, prefix, null);
+            }
             return children;
         }
         catch(ServiceException e) {
             throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
         }
+        finally {
+            // Cancel future tasks
+            pool.shutdown(false);
+        }
+    }
+
+    /**
+     * Pass files listed concurrently to listener
+     *
+     * @param progress Files of all completed chunks
+     * @param files    Files in chunk
+     */
+    private void chunk(final Path directory, final ListProgressListener listener, final AttributedList<Path> progress, final List<Path> files) throws ConnectionCanceledException {
+        synchronized(progress) {
+            progress.addAll(files);
+            listener.chunk(directory, progress);
+        }
+    }
+
+    /**
+     * @param partition Common prefix to list all keys for
+     * @param progress  Files of all completed chunks
+     * @return Objects in partition in lexicographic order
+     */
+    private Future<List<Path>> submit(final ThreadPool pool, final Path bucket, final Path directory, final String partition, final int chunksize,
+                                      final ListProgressListener listener, final AttributedList<Path> progress) {
+        return pool.execute(new BackgroundExceptionCallable<List<Path>>() {
+            @Override
+            public List<Path> call() throws BackgroundException {
+                final List<Path> objects = new ArrayList<>();
+                try {
+                    S3ObjectListService.this.list(bucket, directory, partition, null, chunksize, (chunk, prefixes) -> {
+                        final List<Path> files = new ArrayList<>();
+                        for(StorageObject object : chunk) {
+                            final String key = PathNormalizer.normalize(URIEncoder.decode(object.getKey()));
+                            files.add(S3ObjectListService.this.toPath(bucket, directory, null, key, object));
+                        }
+                        objects.addAll(files);
+                        S3ObjectListService.this.chunk(directory, listener, progress, files);
+                    });
+                    return objects;
+                }
+                catch(ServiceException e) {
+                    throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
+                }
+            }
+        });
+    }
+
+    /**
+     * Read listing of keys with prefix in chunks. Skips the placeholder object of the directory.
+     *
+     * @param callback Called for each chunk read in lexicographic order of keys
+     * @return True if placeholder object for directory was found or directory is a bucket
+     */
+    private boolean list(final Path bucket, final Path directory, final String prefix, final String delimiter, final int chunksize,
+                         final ChunkCallback callback) throws ServiceException, BackgroundException {
+        boolean hasDirectoryPlaceholder = containerService.isContainer(directory);
+        // Null if listing is complete
+        String priorLastKey = null;
+        do {
+            // Read directory listing in chunks. List results are always returned
+            // in lexicographic (alphabetical) order.
+            final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+                bucket.isRoot() ? StringUtils.EMPTY : PathNormalizer.name(URIEncoder.encode(bucket.getName())), prefix, delimiter,
+                chunksize, priorLastKey, false);
+            final List<StorageObject> objects = new ArrayList<>();
+            for(StorageObject object : chunk.getObjects()) {
+                final String key = PathNormalizer.normalize(URIEncoder.decode(object.getKey()));
+                if(String.valueOf(Path.DELIMITER).equals(key)) {
+                    log.warn(String.format("Skipping prefix %s", key));
+                    continue;
+                }
+                if(new Path(bucket, key, EnumSet.of(Path.Type.directory)).equals(directory)) {
+                    // Placeholder object, skip
+                    hasDirectoryPlaceholder = true;
+                    continue;
+                }
+                objects.add(object);
+            }
+            final List<String> prefixes = new ArrayList<>();
+            for(String common : chunk.getCommonPrefixes()) {
+                if(String.valueOf(Path.DELIMITER).equals(common)) {
+                    log.warn(String.format("Skipping prefix %s", common));
+                    continue;
+                }
+                prefixes.add(common);
+            }
+            callback.chunk(objects, prefixes);
+            priorLastKey = null != chunk.getPriorLastKey() ? URIEncoder.decode(chunk.getPriorLastKey()) : null;
+        }
+        while(priorLastKey != null);
+        return hasDirectoryPlaceholder;
+    }
+
+    /**
+     * Handle missing placeholder for directory with no keys
+     *
+     * @throws NotfoundException No object with prefix of directory
+     */
+    private void verify(final Path bucket, final Path directory, final String prefix, final String delimiter) throws ServiceException, BackgroundException {
+        // Only for AWS
+        if(S3Session.isAwsHostname(session.getHost().getHostname())) {
+            throw new NotfoundException(directory.getAbsolute());
+        }
+        // Handle missing prefix for directory placeholders in Minio
+        final StorageObjectsChunk chunk = session.getClient().listObjectsChunked(
+            PathNormalizer.name(URIEncoder.encode(bucket.getName())), String.format("%s%s", this.createPrefix(directory.getParent()), directory.getName()), delimiter, 1, null);
+        if(Arrays.stream(chunk.getObjects()).map((StorageObject input) -> URIEncoder.decode(input.getKey())).noneMatch(common -> common.equals(prefix))) {
+            throw new NotfoundException(directory.getAbsolute());
+        }
+    }
+
+    private interface ChunkCallback {
+        /**
+         * @param objects  Objects in chunk
+         * @param prefixes Common prefixes in chunk
+         */
+        void chunk(List<StorageObject> objects, List<String> prefixes) throws BackgroundException;
+    }
+
+    private Path toPath(final Path bucket, final Path directory, final String delimiter, final String key, final StorageObject object) {
+        final EnumSet<Path.Type> types = object.getKey().endsWith(String.valueOf(Path.DELIMITER))
+            ? EnumSet.of(Path.Type.directory) : EnumSet.of(Path.Type.file);
+        final PathAttributes attr = attributes.toAttributes(object);
+        // Copy bucket location
+        attr.setRegion(bucket.attributes().getRegion());
+        if(null == delimiter) {
+            return new Path(String.format("%s%s", bucket.getAbsolute(), key), types, attr);
+        }
+        return new Path(directory.isDirectory() ? directory : directory.getParent(), PathNormalizer.name(key), types, attr);
     }
 }
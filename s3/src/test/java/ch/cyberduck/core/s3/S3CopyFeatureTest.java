@@ -20,7 +20,10 @@ package ch.cyberduck.core.s3;
 import ch.cyberduck.core.AsciiRandomStringService;
 import ch.cyberduck.core.DisabledConnectionCallback;
 import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.transfer.TransferStatus;
 import ch.cyberduck.test.IntegrationTest;
@@ -28,10 +31,12 @@ import ch.cyberduck.test.IntegrationTest;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @Category(IntegrationTest.class)
@@ -67,4 +72,34 @@ public class S3CopyFeatureTest extends AbstractS3Test {
         assertTrue(new S3FindFeature(session).find(copy));
         new S3DefaultDeleteFeature(session).delete(Collections.singletonList(copy), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
+
+    @Test
+    public void testCopyFileWithTarget() throws Exception {
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path test = new S3TouchFeature(session).touch(new Path(container, new AsciiRandomStringService().random(), EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Path copy = new Path(container, new AsciiRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final S3CopyFeature feature = new S3CopyFeature(session, new S3AccessControlListFeature(session)).withTarget(session);
+        assertTrue(feature.isSupported(test, copy));
+        feature.copy(test, copy, new TransferStatus(), new DisabledConnectionCallback());
+        assertTrue(new S3FindFeature(session).find(copy));
+        new S3DefaultDeleteFeature(session).delete(Arrays.asList(test, copy), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
+
+    @Test
+    public void testIsSupportedDifferentEndpoint() {
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path test = new Path(container, new AsciiRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final S3Session target = new S3Session(new Host(new S3Protocol(), "s3.example.net"));
+        assertFalse(new S3CopyFeature(session, new S3AccessControlListFeature(session)).withTarget(target).isSupported(test,
+            new Path(container, new AsciiRandomStringService().random(), EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testIsSupportedOtherProtocol() {
+        final Path container = new Path("test-us-east-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path test = new Path(container, new AsciiRandomStringService().random(), EnumSet.of(Path.Type.file));
+        final NullSession target = new NullSession(new Host(new TestProtocol(), "s3.amazonaws.com"));
+        assertFalse(new S3CopyFeature(session, new S3AccessControlListFeature(session)).withTarget(target).isSupported(test,
+            new Path(container, new AsciiRandomStringService().random(), EnumSet.of(Path.Type.file))));
+    }
 }
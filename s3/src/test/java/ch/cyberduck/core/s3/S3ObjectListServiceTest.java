@@ -34,6 +34,7 @@ import org.junit.experimental.categories.Category;
 
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
@@ -287,4 +288,28 @@ public class S3ObjectListServiceTest extends AbstractS3Test {
         assertTrue(new S3ObjectListService(session).list(placeholder, new DisabledListProgressListener()).isEmpty());
         new S3DefaultDeleteFeature(session).delete(Collections.singletonList(placeholder), new DisabledLoginCallback(), new Delete.DisabledCallback());
     }
+
+    @Test
+    public void testListRecursivePartitioned() throws Exception {
+        final Path container = new Path("test-eu-central-1-cyberduck", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path directory = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(
+            new Path(container, new AlphanumericRandomStringService().random(), EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path a = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(
+            new Path(directory, "a", EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path b = new S3DirectoryFeature(session, new S3WriteFeature(session)).mkdir(
+            new Path(directory, "b", EnumSet.of(Path.Type.directory)), null, new TransferStatus());
+        final Path file1 = new S3TouchFeature(session).touch(new Path(a, "f", EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Path file2 = new S3TouchFeature(session).touch(new Path(directory, "a.f", EnumSet.of(Path.Type.file)), new TransferStatus());
+        final Path file3 = new S3TouchFeature(session).touch(new Path(b, "f", EnumSet.of(Path.Type.file)), new TransferStatus());
+        final AttributedList<Path> partitioned = new S3ObjectListService(session, 2).list(directory, new DisabledListProgressListener(), null, 1);
+        final AttributedList<Path> sequential = new S3ObjectListService(session, 1).list(directory, new DisabledListProgressListener(), null, 1);
+        assertEquals(5, partitioned.size());
+        assertEquals(sequential.toList(), partitioned.toList());
+        assertEquals(file2, partitioned.get(0));
+        assertEquals(a, partitioned.get(1));
+        assertEquals(file1, partitioned.get(2));
+        assertEquals(b, partitioned.get(3));
+        assertEquals(file3, partitioned.get(4));
+        new S3DefaultDeleteFeature(session).delete(Arrays.asList(file1, file2, file3, a, b, directory), new DisabledLoginCallback(), new Delete.DisabledCallback());
+    }
 }
@@ -61,8 +61,6 @@ import com.spectralogic.ds3client.commands.spectrads3.CancelAllActiveJobsSpectra
 import com.spectralogic.ds3client.commands.spectrads3.CancelJobSpectraS3Request;
 import com.spectralogic.ds3client.commands.spectrads3.GetBulkJobSpectraS3Request;
 import com.spectralogic.ds3client.commands.spectrads3.GetBulkJobSpectraS3Response;
-import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Request;
-import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Response;
 import com.spectralogic.ds3client.commands.spectrads3.PutBulkJobSpectraS3Request;
 import com.spectralogic.ds3client.commands.spectrads3.PutBulkJobSpectraS3Response;
 import com.spectralogic.ds3client.models.BulkObject;
@@ -77,6 +75,8 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
     private static final Logger log = Logger.getLogger(SpectraBulkService.class);
 
     private final SpectraSession session;
+    private final SpectraJobChunkScheduler scheduler
+        = new SpectraJobChunkScheduler();
     private Delete delete;
 
     private final PathContainerService containerService
@@ -103,7 +103,12 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
 
     @Override
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) {
-        //
+        for(TransferStatus status : files.values()) {
+            if(status.getParameters().containsKey(REQUEST_PARAMETER_JOBID_IDENTIFIER)) {
+                // Discard ready chunks of completed job
+                scheduler.remove(UUID.fromString(status.getParameters().get(REQUEST_PARAMETER_JOBID_IDENTIFIER)));
+            }
+        }
     }
 
     /**
@@ -213,6 +218,7 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
             }
             final Ds3Client client = new SpectraClientBuilder().wrap(session.getClient(), session.getHost());
             client.cancelJobSpectraS3(new CancelJobSpectraS3Request(job));
+            scheduler.remove(UUID.fromString(job));
         }
         catch(FailedRequestException e) {
             throw new SpectraExceptionMappingService().map(e);
@@ -230,6 +236,8 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
      * Retries adversely impact BlackPearl gateway performance and require you to provide the object data stream for every PUT retry.
      * <p>
      * For GET jobs, this will respond with which job chunks have been loaded into cache and are ready for download.
+     * <p>
+     * Blocks until all chunks for the file are ready or spectra.retry.timeout has passed.
      *
      * @param file   File
      * @param status Write job id into status parameters
@@ -253,33 +261,29 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
             // For PUT, This will allocate a working window of job chunks, if possible, and return a list of
             // the job chunks that the client can upload. The client should PUT all of the object parts
             // from the list of job chunks returned and repeat this process until all chunks are transferred
-
-            final GetJobChunksReadyForClientProcessingSpectraS3Response response = client.getJobChunksReadyForClientProcessingSpectraS3(
-                new GetJobChunksReadyForClientProcessingSpectraS3Request(UUID.fromString(job)).withPreferredNumberOfChunks(Integer.MAX_VALUE));
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Job status %s for job %s", response.getStatus(), job));
-            }
-            switch(response.getStatus()) {
-                case RETRYLATER: {
-                    final Duration delay = Duration.ofSeconds(response.getRetryAfterSeconds());
-                    throw new RetriableAccessDeniedException(String.format("Job %s not yet loaded into cache", job), delay);
+            long revision = 0L;
+            final long deadline = System.currentTimeMillis() + PreferencesFactory.get().getLong("spectra.retry.timeout") * 1000L;
+            while(true) {
+                // Wait for chunks polled once for all transfers of the job
+                final SpectraJobChunkScheduler.Chunks ready = scheduler.await(client, UUID.fromString(job), revision, deadline, status);
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Ready chunks with %d objects for %s", ready.getObjects().size(), file));
+                }
+                final List<TransferStatus> chunks = query(file, status, job, ready.getObjects(), ready.getNodes());
+                if(!chunks.isEmpty()) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Server returned %d chunks for %s", chunks.size(), file));
+                    }
+                    return chunks;
+                }
+                if(System.currentTimeMillis() >= deadline) {
+                    // Leave retry to transfer
+                    throw new RetriableAccessDeniedException(String.format("Job %s not yet loaded into cache", job),
+                        Duration.ofSeconds(PreferencesFactory.get().getLong("spectra.retry.delay")));
                 }
-            }
-            final MasterObjectList master = response.getMasterObjectListResult();
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Master object list with %d objects for %s", master.getObjects().size(), file));
-                log.info(String.format("Master object list status %s for %s", master.getStatus(), file));
-            }
-            final List<TransferStatus> chunks = query(file, status, job, master);
-            if(chunks.isEmpty()) {
                 log.info(String.format("Still missing chunks for file %s for job %s", file.getName(), job));
-                throw new RetriableAccessDeniedException(String.format("Missing chunks for job %s", job),
-                    Duration.ofSeconds(PreferencesFactory.get().getInteger("spectra.retry.delay")));
-            }
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Server returned %d chunks for %s", chunks.size(), file));
+                revision = ready.getRevision();
             }
-            return chunks;
         }
         catch(FailedRequestException e) {
             throw new SpectraExceptionMappingService().map(e);
@@ -290,10 +294,10 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
     }
 
     private List<TransferStatus> query(final Path file, final TransferStatus status, final String job,
-                                       final MasterObjectList master) throws BackgroundException {
+                                       final List<Objects> ready, final List<JobNode> nodes) throws BackgroundException {
         final List<TransferStatus> chunks = new ArrayList<>();
         int counter = 0;
-        for(Objects objects : master.getObjects()) {
+        for(Objects objects : ready) {
             final UUID nodeId = objects.getNodeId();
             if(null == nodeId) {
                 log.warn(String.format("No node returned in master object list for file %s", file));
@@ -303,7 +307,7 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
                     log.info(String.format("Determined node %s for %s", nodeId, file));
                 }
             }
-            for(JobNode node : master.getNodes()) {
+            for(JobNode node : nodes) {
                 if(node.getId().equals(nodeId)) {
                     final Host host = session.getHost();
                     // The IP address or DNS name of the BlackPearl node.
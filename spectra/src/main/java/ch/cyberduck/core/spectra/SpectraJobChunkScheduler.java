@@ -0,0 +1,202 @@
+package ch.cyberduck.core.spectra;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.spectralogic.ds3client.Ds3Client;
+import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Request;
+import com.spectralogic.ds3client.commands.spectrads3.GetJobChunksReadyForClientProcessingSpectraS3Response;
+import com.spectralogic.ds3client.models.JobNode;
+import com.spectralogic.ds3client.models.MasterObjectList;
+import com.spectralogic.ds3client.models.Objects;
+
+/**
+ * Poll chunks ready for client processing once per job for all transfers waiting on chunks of the same job. Waiting
+ * transfers are notified as soon as new chunks are returned by the gateway. The polling interval is doubled up to the
+ * maximum delay while no new chunks are available and reset when chunks are returned. The gateway is never polled
+ * before the delay it requested.
+ */
+final class SpectraJobChunkScheduler {
+    private static final Logger log = Logger.getLogger(SpectraJobChunkScheduler.class);
+
+    /**
+     * Shared for all connections
+     */
+    private static final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Minimum and maximum polling interval in milliseconds
+     */
+    private final long minimum;
+    private final long maximum;
+
+    public SpectraJobChunkScheduler() {
+        this(PreferencesFactory.get().getLong("spectra.retry.delay.minimum") * 1000L,
+            PreferencesFactory.get().getLong("spectra.retry.delay") * 1000L);
+    }
+
+    public SpectraJobChunkScheduler(final long minimum, final long maximum) {
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Block until chunks newer than the given revision are ready for client processing or the deadline has passed.
+     * Only one caller polls the gateway for a job at any time using its own client.
+     *
+     * @param client   Client to poll with
+     * @param job      Job identifier
+     * @param revision Revision of chunks already seen by caller or 0L
+     * @param deadline Time in milliseconds after which to return chunks already seen
+     * @param status   Transfer status to check for cancel
+     * @return All chunks of job ready for client processing
+     */
+    public Chunks await(final Ds3Client client, final UUID job, final long revision, final long deadline, final TransferStatus status) throws IOException, ConnectionCanceledException {
+        final Job state = jobs.computeIfAbsent(job, id -> new Job());
+        while(true) {
+            synchronized(state) {
+                if(state.revision > revision || System.currentTimeMillis() >= deadline) {
+                    return state.snapshot();
+                }
+                status.validate();
+                final long remaining = state.next - System.currentTimeMillis();
+                if(state.polling || remaining > 0L) {
+                    try {
+                        // Wake up periodically to check for cancel
+                        state.wait(state.polling ? 1000L : Math.min(1000L, remaining));
+                    }
+                    catch(InterruptedException e) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                    continue;
+                }
+                state.polling = true;
+            }
+            GetJobChunksReadyForClientProcessingSpectraS3Response response = null;
+            try {
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Query chunks ready for job %s", job));
+                }
+                response = client.getJobChunksReadyForClientProcessingSpectraS3(
+                    new GetJobChunksReadyForClientProcessingSpectraS3Request(job).withPreferredNumberOfChunks(Integer.MAX_VALUE));
+            }
+            finally {
+                synchronized(state) {
+                    state.polling = false;
+                    this.update(job, state, response);
+                    state.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void update(final UUID job, final Job state, final GetJobChunksReadyForClientProcessingSpectraS3Response response) {
+        // Do not poll before delay requested by gateway
+        long retry = 0L;
+        boolean changed = false;
+        if(response != null) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Job status %s for job %s", response.getStatus(), job));
+            }
+            switch(response.getStatus()) {
+                case RETRYLATER:
+                    if(response.getRetryAfterSeconds() > 0) {
+                        retry = response.getRetryAfterSeconds() * 1000L;
+                    }
+                    break;
+                default:
+                    final MasterObjectList master = response.getMasterObjectListResult();
+                    for(JobNode node : master.getNodes()) {
+                        state.nodes.put(node.getId(), node);
+                    }
+                    for(Objects objects : master.getObjects()) {
+                        // Keep order in which chunks are made available
+                        if(null == state.chunks.put(objects.getChunkId(), objects)) {
+                            changed = true;
+                        }
+                    }
+            }
+        }
+        if(changed) {
+            state.revision++;
+            state.delay = Math.max(retry, minimum);
+        }
+        else {
+            state.delay = Math.max(retry, Math.max(minimum, Math.min(state.delay * 2, maximum)));
+        }
+        state.next = System.currentTimeMillis() + state.delay;
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Poll job %s again in %dms with %d chunks ready", job, state.delay, state.chunks.size()));
+        }
+    }
+
+    /**
+     * Discard chunks for job
+     */
+    public void remove(final UUID job) {
+        jobs.remove(job);
+    }
+
+    private static final class Job {
+        private final Map<UUID, Objects> chunks = new LinkedHashMap<>();
+        private final Map<UUID, JobNode> nodes = new LinkedHashMap<>();
+        private long revision = 0L;
+        private boolean polling = false;
+        private long next = 0L;
+        private long delay = 0L;
+
+        private Chunks snapshot() {
+            return new Chunks(revision, new ArrayList<>(chunks.values()), new ArrayList<>(nodes.values()));
+        }
+    }
+
+    public static final class Chunks {
+        private final long revision;
+        private final List<Objects> objects;
+        private final List<JobNode> nodes;
+
+        public Chunks(final long revision, final List<Objects> objects, final List<JobNode> nodes) {
+            this.revision = revision;
+            this.objects = objects;
+            this.nodes = nodes;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        public List<Objects> getObjects() {
+            return objects;
+        }
+
+        public List<JobNode> getNodes() {
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2020 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.CancelCallback;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import net.schmizz.sshj.SSHClient;
+import net.schmizz.sshj.transport.NegotiatedAlgorithms;
+
+/**
+ * Share authenticated SSH connections between sessions to the same bookmark. Each session opens its own SFTP
+ * subsystem channel on a shared connection until the maximum number of channels is reached. While a connection is
+ * opened and authenticated by one session, other sessions wait to reuse it instead of connecting concurrently.
+ */
+public final class SFTPMultiplexer {
+    private static final Logger log = Logger.getLogger(SFTPMultiplexer.class);
+
+    /**
+     * Shared for all connections to the same bookmark
+     */
+    private static final Map<Host, SFTPMultiplexer> instances = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public static SFTPMultiplexer get(final Host host) {
+        return instances.computeIfAbsent(host, h -> new SFTPMultiplexer());
+    }
+
+    /**
+     * Maximum number of channels on a single connection
+     */
+    private final int channels;
+
+    /**
+     * Guarded by this
+     */
+    private final List<Lease> connections = new ArrayList<>();
+
+    public SFTPMultiplexer() {
+        this(PreferencesFactory.get().getInteger("ssh.multiplex.channels"));
+    }
+
+    public SFTPMultiplexer(final int channels) {
+        this.channels = channels;
+    }
+
+    /**
+     * Reserve channel on a shared connection. Waits for a connection currently being opened by another session.
+     *
+     * @return Lease with authenticated connection or lease without connection if caller must open a new connection
+     * and mark it as ready when authenticated
+     */
+    public synchronized Lease acquire(final CancelCallback cancel) throws ConnectionCanceledException {
+        while(true) {
+            cancel.verify();
+            Lease pending = null;
+            for(Iterator<Lease> iter = connections.iterator(); iter.hasNext(); ) {
+                final Lease lease = iter.next();
+                if(lease.isReady() && !lease.client.isConnected()) {
+                    log.warn(String.format("Remove disconnected shared connection %s", lease.client));
+                    iter.remove();
+                    continue;
+                }
+                if(lease.channels < channels) {
+                    if(lease.isReady()) {
+                        lease.channels++;
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Reuse shared connection %s with %d channels", lease.client, lease.channels));
+                        }
+                        return lease;
+                    }
+                    pending = lease;
+                }
+            }
+            if(null == pending) {
+                final Lease lease = new Lease();
+                connections.add(lease);
+                return lease;
+            }
+            try {
+                // Wait for connection to be authenticated
+                this.wait(500L);
+            }
+            catch(InterruptedException e) {
+                throw new ConnectionCanceledException(e);
+            }
+        }
+    }
+
+    /**
+     * Share connection opened for lease with other sessions
+     *
+     * @param client     Authenticated connection
+     * @param algorithms Algorithms negotiated with server
+     */
+    public synchronized void ready(final Lease lease, final SSHClient client, final NegotiatedAlgorithms algorithms) {
+        lease.client = client;
+        lease.algorithms = algorithms;
+        this.notifyAll();
+    }
+
+    /**
+     * Release channel on connection
+     *
+     * @return True if no other session is using the connection and it should be closed
+     */
+    public synchronized boolean release(final Lease lease) {
+        if(!connections.contains(lease)) {
+            return true;
+        }
+        if(!lease.isReady()) {
+            // Failure opening connection. Let waiting session open a new connection
+            connections.remove(lease);
+            this.notifyAll();
+            return true;
+        }
+        if(--lease.channels == 0) {
+            connections.remove(lease);
+            return true;
+        }
+        return false;
+    }
+
+    public static final class Lease {
+        /**
+         * Null until authenticated
+         */
+        private SSHClient client;
+        private NegotiatedAlgorithms algorithms;
+        /**
+         * Number of sessions using connection
+         */
+        private int channels = 1;
+
+        public boolean isReady() {
+            return client != null;
+        }
+
+        public SSHClient getClient() {
+            return client;
+        }
+
+        public NegotiatedAlgorithms getAlgorithms() {
+            return algorithms;
+        }
+    }
+}
@@ -92,6 +92,11 @@ public class SFTPSession extends Session<SSHClient> {
     private StateDisconnectListener disconnectListener;
     private NegotiatedAlgorithms algorithms;
 
+    /**
+     * Channel on connection shared with other sessions to the same bookmark
+     */
+    private SFTPMultiplexer.Lease lease;
+
     private final X509TrustManager trust;
     private final X509KeyManager key;
 
@@ -111,6 +116,11 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public SSHClient connect(final Proxy proxy, final HostKeyCallback key, final LoginCallback prompt) throws BackgroundException {
+        return this.connect(proxy, key, prompt, new DisabledCancelCallback());
+    }
+
+    @Override
+    public SSHClient connect(final Proxy proxy, final HostKeyCallback key, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
         final DefaultConfig configuration = new DefaultConfig();
         if("zlib".equals(preferences.getProperty("ssh.compression"))) {
             configuration.setCompressionFactories(Arrays.asList(
@@ -130,6 +140,26 @@ public class SFTPSession extends Session<SSHClient> {
             heartbeat = KeepAliveProvider.HEARTBEAT;
         }
         configuration.setKeepAliveProvider(heartbeat);
+        if(preferences.getBoolean("ssh.multiplex.enable")) {
+            lease = SFTPMultiplexer.get(host).acquire(cancel);
+            if(lease.isReady()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Open channel on shared connection %s", lease.getClient()));
+                }
+                // State of shared connection for algorithm alert and authentication failures
+                algorithms = lease.getAlgorithms();
+                disconnectListener = (StateDisconnectListener) lease.getClient().getTransport().getDisconnectListener();
+                return lease.getClient();
+            }
+            try {
+                return this.connect(key, prompt, configuration);
+            }
+            catch(BackgroundException e) {
+                SFTPMultiplexer.get(host).release(lease);
+                lease = null;
+                throw e;
+            }
+        }
         return this.connect(key, prompt, configuration);
     }
 
@@ -155,6 +185,9 @@ public class SFTPSession extends Session<SSHClient> {
             }
             final KeepAlive keepalive = connection.getConnection().getKeepAlive();
             keepalive.setKeepAliveInterval(preferences.getInteger("ssh.heartbeat.seconds"));
+            // Flow control for channels
+            connection.getConnection().setWindowSize(preferences.getLong("ssh.channel.window.size"));
+            connection.getConnection().setMaxPacketSize(preferences.getInteger("ssh.channel.packet.size"));
             return connection;
         }
         catch(IOException e) {
@@ -234,7 +267,15 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public void login(final Proxy proxy, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
+        if(null != lease && lease.isReady()) {
+            // Skip authentication on shared connection
+            this.open();
+            return;
+        }
         this.authenticate(client, host, prompt, cancel);
+        if(null != lease) {
+            SFTPMultiplexer.get(host).ready(lease, client, algorithms);
+        }
     }
 
     private void authenticate(final SSHClient client, final Host host, final LoginCallback prompt, final CancelCallback cancel) throws BackgroundException {
@@ -339,6 +380,13 @@ public class SFTPSession extends Session<SSHClient> {
         if(StringUtils.isNotBlank(banner)) {
             this.log(Type.response, banner);
         }
+        this.open();
+    }
+
+    /**
+     * Open SFTP subsystem channel
+     */
+    private void open() throws BackgroundException {
         try {
             sftp = new LoggingSFTPEngine(client, this).init();
             sftp.setTimeoutMs(preferences.getInteger("connection.timeout.seconds") * 1000);
@@ -370,6 +418,23 @@ public class SFTPSession extends Session<SSHClient> {
 
     @Override
     public void disconnect() {
+        if(null != lease) {
+            final boolean close = SFTPMultiplexer.get(host).release(lease);
+            lease = null;
+            if(!close) {
+                // Close own channel only
+                try {
+                    if(null != sftp) {
+                        sftp.close();
+                    }
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Ignore failure %s closing channel", e.getMessage()));
+                }
+                super.disconnect();
+                return;
+            }
+        }
         try {
             client.close();
         }
@@ -0,0 +1,94 @@
+package ch.cyberduck.core.sftp;
+
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.schmizz.sshj.SSHClient;
+
+import static org.junit.Assert.*;
+
+public class SFTPMultiplexerTest {
+
+    @Test
+    public void testAcquire() throws Exception {
+        final SFTPMultiplexer multiplexer = new SFTPMultiplexer(2);
+        final SFTPMultiplexer.Lease opener = multiplexer.acquire(new DisabledCancelCallback());
+        assertFalse(opener.isReady());
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        // Waits for connection to be authenticated
+        final Future<SFTPMultiplexer.Lease> waiting = executor.submit(() -> multiplexer.acquire(new DisabledCancelCallback()));
+        Thread.sleep(100L);
+        assertFalse(waiting.isDone());
+        final SSHClient client = new SSHClient() {
+            @Override
+            public boolean isConnected() {
+                return true;
+            }
+        };
+        multiplexer.ready(opener, client, null);
+        final SFTPMultiplexer.Lease shared = waiting.get(1, TimeUnit.MINUTES);
+        assertSame(opener, shared);
+        assertSame(client, shared.getClient());
+        // Maximum number of channels reached
+        final SFTPMultiplexer.Lease other = multiplexer.acquire(new DisabledCancelCallback());
+        assertFalse(other.isReady());
+        assertTrue(multiplexer.release(other));
+        assertFalse(multiplexer.release(opener));
+        assertTrue(multiplexer.release(shared));
+        executor.shutdown();
+    }
+
+    @Test
+    public void testAcquireFailure() throws Exception {
+        final SFTPMultiplexer multiplexer = new SFTPMultiplexer(2);
+        final SFTPMultiplexer.Lease opener = multiplexer.acquire(new DisabledCancelCallback());
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final Future<SFTPMultiplexer.Lease> waiting = executor.submit(() -> multiplexer.acquire(new DisabledCancelCallback()));
+        Thread.sleep(100L);
+        // Failure opening connection
+        assertTrue(multiplexer.release(opener));
+        final SFTPMultiplexer.Lease lease = waiting.get(1, TimeUnit.MINUTES);
+        assertNotSame(opener, lease);
+        assertFalse(lease.isReady());
+        executor.shutdown();
+    }
+
+    @Test(expected = ConnectionCanceledException.class)
+    public void testAcquireCancel() throws Exception {
+        final SFTPMultiplexer multiplexer = new SFTPMultiplexer(2);
+        multiplexer.acquire(new DisabledCancelCallback());
+        final AtomicBoolean canceled = new AtomicBoolean();
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        executor.schedule(() -> canceled.set(true), 100L, TimeUnit.MILLISECONDS);
+        try {
+            // Waits for connection opened by other session until canceled
+            multiplexer.acquire(() -> {
+                if(canceled.get()) {
+                    throw new ConnectionCanceledException();
+                }
+            });
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRemoveDisconnected() throws Exception {
+        final SFTPMultiplexer multiplexer = new SFTPMultiplexer(2);
+        final SFTPMultiplexer.Lease opener = multiplexer.acquire(new DisabledCancelCallback());
+        multiplexer.ready(opener, new SSHClient(), null);
+        final SFTPMultiplexer.Lease lease = multiplexer.acquire(new DisabledCancelCallback());
+        assertNotSame(opener, lease);
+        assertTrue(multiplexer.release(opener));
+    }
+}